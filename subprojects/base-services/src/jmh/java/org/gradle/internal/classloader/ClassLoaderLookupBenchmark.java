@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.classloader;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares class lookups through a {@link MultiParentClassLoader} with trying each of its parents in turn, for a mix of visible,
+ * filtered and missing classes similar to what build script ClassLoaders see.
+ */
+@Fork(2)
+@Threads(2)
+@Warmup(iterations = 10)
+@State(Scope.Benchmark)
+public class ClassLoaderLookupBenchmark {
+
+    private final static String[] CLASS_NAMES = new String[]{
+        "java.lang.String",
+        "java.util.ArrayList",
+        Blackhole.class.getName(),
+        ClassLoaderLookupBenchmark.class.getName(),
+        "org.gradle.api.Project",
+        "org.gradle.api.tasks.TaskContainer",
+        "groovy.lang.MetaClass",
+        "BuildScript_Decorated"
+    };
+    private final static int ARR_LEN = 1024;
+
+    private ClassLoader filtered;
+    private List<ClassLoader> parents;
+    private MultiParentClassLoader cached;
+    private String[] names;
+    private int i;
+
+    @Setup(Level.Trial)
+    public void setupClassLoaders() {
+        FilteringClassLoader.Spec spec = new FilteringClassLoader.Spec();
+        spec.allowPackage("org.openjdk.jmh");
+        filtered = new FilteringClassLoader(getClass().getClassLoader(), spec);
+        parents = Arrays.asList(filtered, getClass().getClassLoader());
+        cached = new MultiParentClassLoader(parents);
+        names = new String[ARR_LEN];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = CLASS_NAMES[i % CLASS_NAMES.length];
+        }
+    }
+
+    @Benchmark
+    public void uncached(Blackhole bh) {
+        String name = names[++i % ARR_LEN];
+        for (ClassLoader parent : parents) {
+            try {
+                bh.consume(parent.loadClass(name));
+                return;
+            } catch (ClassNotFoundException e) {
+                // Expected
+            }
+        }
+        bh.consume(name);
+    }
+
+    @Benchmark
+    public void cached(Blackhole bh) {
+        String name = names[++i % ARR_LEN];
+        try {
+            bh.consume(cached.loadClass(name));
+        } catch (ClassNotFoundException e) {
+            bh.consume(name);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.hash;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Compares reading a file once per checksum algorithm, as publishing used to do, with calculating all checksums from a single read using {@link HashFanOut}.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class HashFanOutBenchmark {
+    private static final String[] ALGORITHMS = {"SHA1", "MD5", "SHA-256", "SHA-512"};
+
+    @Param({"65536", "16777216"})
+    int fileSize;
+
+    private File file;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = File.createTempFile("hash-fan-out-benchmark", ".bin");
+        byte[] content = new byte[fileSize];
+        new Random(1234L).nextBytes(content);
+        FileOutputStream outputStream = new FileOutputStream(file);
+        try {
+            outputStream.write(content);
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public void readPerAlgorithm(Blackhole blackhole) {
+        for (String algorithm : ALGORITHMS) {
+            blackhole.consume(HashUtil.createHash(file, algorithm));
+        }
+    }
+
+    @Benchmark
+    public void singleRead(Blackhole blackhole) {
+        HashFanOut hashes = new HashFanOut(ALGORITHMS).hash(file);
+        for (String algorithm : ALGORITHMS) {
+            blackhole.consume(hashes.getHash(algorithm));
+        }
+    }
+}
@@ -23,6 +23,8 @@ import com.google.common.hash.Hashing;
 import org.bouncycastle.jcajce.provider.digest.Blake2b;
 import org.bouncycastle.jcajce.provider.digest.MD5;
 import org.bouncycastle.jcajce.provider.digest.SHA1;
+import org.gradle.internal.hash.PrimitiveHasher;
+import org.gradle.internal.io.BufferCaster;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Level;
@@ -35,6 +37,7 @@ import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
 
+import java.nio.ByteBuffer;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Map;
@@ -62,6 +65,10 @@ public class HashingAlgorithmsBenchmark {
         .put("sha1.bc", new MessageDigestHashProcessorFactory(new SHA1.Digest()))
         .put("blake2b.bc", new MessageDigestHashProcessorFactory(new Blake2b.Blake2b160()))
         .put("murmur3.guava", new GuavaProcessorFactory(Hashing.murmur3_128()))
+        .put("md5.gradle", new GradleProcessorFactory(org.gradle.internal.hash.Hashing.md5()))
+        .put("murmur3.gradle", new GradleProcessorFactory(org.gradle.internal.hash.Hashing.murmur3()))
+        .put("md5.gradle.direct", new GradleDirectBufferProcessorFactory(org.gradle.internal.hash.Hashing.md5()))
+        .put("murmur3.gradle.direct", new GradleDirectBufferProcessorFactory(org.gradle.internal.hash.Hashing.murmur3()))
         .build();
 
     Random random = new Random(1234L);
@@ -70,27 +77,31 @@ public class HashingAlgorithmsBenchmark {
     int hashSize;
 
     // @Param({"md5.java", "md5.bc", "sha1.java", "sha1.bc", "blake2b.bc"})
-    @Param({"md5.java", "murmur3.guava"})
+    @Param({"md5.java", "murmur3.guava", "md5.gradle", "murmur3.gradle", "md5.gradle.direct", "murmur3.gradle.direct"})
     String type;
 
     byte[] input;
+    ByteBuffer directInput;
     HashProcessorFactory processorFactory;
 
     @Setup(Level.Iteration)
     public void setup() throws CloneNotSupportedException {
         input = new byte[hashSize];
         random.nextBytes(input);
+        directInput = ByteBuffer.allocateDirect(hashSize);
+        directInput.put(input);
         processorFactory = HASHERS.get(type);
     }
 
     @Benchmark
     public void measure(Blackhole blackhole) {
         HashProcessor processor = processorFactory.create();
-        processor.process(input, blackhole);
+        BufferCaster.cast(directInput).rewind();
+        processor.process(input, directInput, blackhole);
     }
 
     interface HashProcessor {
-        void process(byte[] input, Blackhole blackhole);
+        void process(byte[] input, ByteBuffer directInput, Blackhole blackhole);
     }
 
     interface HashProcessorFactory {
@@ -122,7 +133,7 @@ public class HashingAlgorithmsBenchmark {
         }
 
         @Override
-        public void process(byte[] input, Blackhole blackhole) {
+        public void process(byte[] input, ByteBuffer directInput, Blackhole blackhole) {
             digest.update(input);
             byte[] hash = digest.digest();
             blackhole.consume(hash);
@@ -150,9 +161,49 @@ public class HashingAlgorithmsBenchmark {
         }
 
         @Override
-        public void process(byte[] input, Blackhole blackhole) {
+        public void process(byte[] input, ByteBuffer directInput, Blackhole blackhole) {
             hasher.putBytes(input);
             blackhole.consume(hasher.hash());
         }
     }
+
+    private static class GradleProcessorFactory implements HashProcessorFactory {
+        private final org.gradle.internal.hash.HashFunction hashFunction;
+
+        public GradleProcessorFactory(org.gradle.internal.hash.HashFunction hashFunction) {
+            this.hashFunction = hashFunction;
+        }
+
+        @Override
+        public HashProcessor create() {
+            final PrimitiveHasher hasher = hashFunction.newPrimitiveHasher();
+            return new HashProcessor() {
+                @Override
+                public void process(byte[] input, ByteBuffer directInput, Blackhole blackhole) {
+                    hasher.putBytes(input, 0, input.length);
+                    blackhole.consume(hasher.hash());
+                }
+            };
+        }
+    }
+
+    private static class GradleDirectBufferProcessorFactory implements HashProcessorFactory {
+        private final org.gradle.internal.hash.HashFunction hashFunction;
+
+        public GradleDirectBufferProcessorFactory(org.gradle.internal.hash.HashFunction hashFunction) {
+            this.hashFunction = hashFunction;
+        }
+
+        @Override
+        public HashProcessor create() {
+            final PrimitiveHasher hasher = hashFunction.newPrimitiveHasher();
+            return new HashProcessor() {
+                @Override
+                public void process(byte[] input, ByteBuffer directInput, Blackhole blackhole) {
+                    hasher.putBytes(directInput);
+                    blackhole.consume(hasher.hash());
+                }
+            };
+        }
+    }
 }
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.classloader;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import javax.annotation.Nullable;
+
+/**
+ * A concurrent cache of class lookups made through a single {@code ClassLoader}. Remembers both classes that were found and names that are known not to be visible
+ * through the loader. Cached classes are weakly referenced, so the cache never keeps a class alive on its own.
+ *
+ * <p>The cache is owned by its loader and lives as long as the loader does. It holds at most {@value #MAX_ENTRIES} entries, so that lookups of names that are never
+ * found cannot grow it without bound for a long lived loader. Hits and misses are counted so that the effectiveness of the cache can be reported.</p>
+ */
+public class ClassLookupCache {
+    static final int MAX_ENTRIES = 10000;
+    private static final Object MISSING = new Object();
+    private final Cache<String, Object> lookups = CacheBuilder.newBuilder().maximumSize(MAX_ENTRIES).weakValues().recordStats().build();
+
+    /**
+     * Returns the cached class for the given name, or null when nothing is cached for the name.
+     *
+     * @throws ClassNotFoundException when the name is known not to be visible.
+     */
+    @Nullable
+    public Class<?> get(String name) throws ClassNotFoundException {
+        Object cachedValue = lookups.getIfPresent(name);
+        if (cachedValue == MISSING) {
+            throw new ClassNotFoundException(name + " not found.");
+        }
+        return (Class<?>) cachedValue;
+    }
+
+    public void found(String name, Class<?> result) {
+        lookups.asMap().putIfAbsent(name, result);
+    }
+
+    public void missing(String name) {
+        lookups.asMap().putIfAbsent(name, MISSING);
+    }
+
+    public void clear() {
+        lookups.invalidateAll();
+    }
+
+    public long size() {
+        return lookups.size();
+    }
+
+    public long getHitCount() {
+        return stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return stats().missCount();
+    }
+
+    private CacheStats stats() {
+        return lookups.stats();
+    }
+}
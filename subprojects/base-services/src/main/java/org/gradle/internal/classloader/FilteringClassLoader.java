@@ -32,6 +32,9 @@ import java.util.Set;
 /**
  * A ClassLoader which hides all non-system classes, packages and resources. Allows certain non-system packages and classes to be declared as visible. By default, only the Java system classes,
  * packages and resources are visible.
+ *
+ * <p>The outcome of each class lookup is cached, as the filters cannot change once the loader has been created. Classes that are rejected by the filters are
+ * remembered as missing, so that repeated negative lookups do not need to consult the platform ClassLoader or the filters again.</p>
  */
 public class FilteringClassLoader extends ClassLoader implements ClassLoaderHierarchy {
     private static final ClassLoader EXT_CLASS_LOADER;
@@ -44,6 +47,7 @@ public class FilteringClassLoader extends ClassLoader implements ClassLoaderHier
     private final Set<String> classNames;
     private final Set<String> disallowedClassNames;
     private final TrieSet disallowedPackagePrefixes;
+    private final ClassLookupCache lookupCache = new ClassLookupCache();
 
     static {
         EXT_CLASS_LOADER = ClassLoaderUtils.getPlatformClassLoader();
@@ -78,6 +82,10 @@ public class FilteringClassLoader extends ClassLoader implements ClassLoaderHier
         disallowedPackagePrefixes = new TrieSet(spec.disallowedPackagePrefixes);
     }
 
+    public ClassLookupCache getLookupCache() {
+        return lookupCache;
+    }
+
     public void visit(ClassLoaderVisitor visitor) {
         visitor.visitSpec(new Spec(classNames, packageNames, packagePrefixes, resourcePrefixes, resourceNames, disallowedClassNames, disallowedPackagePrefixes));
         visitor.visitParent(getParent());
@@ -85,21 +93,33 @@ public class FilteringClassLoader extends ClassLoader implements ClassLoaderHier
 
     @Override
     protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        Class<?> cl = lookupCache.get(name);
+        if (cl == null) {
+            cl = loadClassUncached(name);
+        }
+        if (resolve) {
+            resolveClass(cl);
+        }
+
+        return cl;
+    }
+
+    private Class<?> loadClassUncached(String name) throws ClassNotFoundException {
         try {
-            return EXT_CLASS_LOADER.loadClass(name);
+            Class<?> cl = EXT_CLASS_LOADER.loadClass(name);
+            lookupCache.found(name, cl);
+            return cl;
         } catch (ClassNotFoundException ignore) {
             // ignore
         }
 
         if (!classAllowed(name)) {
+            lookupCache.missing(name);
             throw new ClassNotFoundException(name + " not found.");
         }
 
         Class<?> cl = super.loadClass(name, false);
-        if (resolve) {
-            resolveClass(cl);
-        }
-
+        lookupCache.found(name, cl);
         return cl;
     }
 
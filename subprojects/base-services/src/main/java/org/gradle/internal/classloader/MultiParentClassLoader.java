@@ -33,10 +33,14 @@ import java.util.concurrent.CopyOnWriteArrayList;
  *
  * Note: It's usually a good idea to add a {@link CachingClassLoader} between this ClassLoader and any
  * ClassLoaders that use it as a parent, to prevent every path in the ClassLoader graph being searched.
+ *
+ * Classes found through the parents are cached, so that repeated lookups do not need to try each parent in turn. Failed lookups are not cached, as a parent
+ * may later be able to see a class that it could not see before.
  */
 public class MultiParentClassLoader extends ClassLoader implements ClassLoaderHierarchy {
 
     private final List<ClassLoader> parents;
+    private final ClassLookupCache lookupCache = new ClassLookupCache();
 
     static {
         try {
@@ -57,12 +61,17 @@ public class MultiParentClassLoader extends ClassLoader implements ClassLoaderHi
 
     public void addParent(ClassLoader parent) {
         parents.add(parent);
+        lookupCache.clear();
     }
 
     public List<ClassLoader> getParents() {
         return ImmutableList.copyOf(parents);
     }
 
+    public ClassLookupCache getLookupCache() {
+        return lookupCache;
+    }
+
     public void visit(ClassLoaderVisitor visitor) {
         visitor.visitSpec(new Spec());
         for (ClassLoader parent : parents) {
@@ -72,9 +81,15 @@ public class MultiParentClassLoader extends ClassLoader implements ClassLoaderHi
 
     @Override
     protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        Class<?> cachedClass = lookupCache.get(name);
+        if (cachedClass != null) {
+            return cachedClass;
+        }
         for (ClassLoader parent : parents) {
             try {
-                return parent.loadClass(name);
+                Class<?> result = parent.loadClass(name);
+                lookupCache.found(name, result);
+                return result;
             } catch (ClassNotFoundException e) {
                 // Expected
             }
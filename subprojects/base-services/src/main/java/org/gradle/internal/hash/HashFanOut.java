@@ -0,0 +1,134 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.hash;
+
+import org.gradle.api.UncheckedIOException;
+import org.gradle.internal.UncheckedException;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Calculates the hashes of some content for several algorithms at once, so that the content only needs to be read once.
+ *
+ * <p>Files are read using a large buffer rather than being memory mapped, as a mapped file stays locked on some platforms until the mapping is garbage collected.</p>
+ */
+public class HashFanOut extends OutputStream {
+    public static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Map<String, MessageDigest> digests = new LinkedHashMap<String, MessageDigest>();
+    private Map<String, HashValue> hashes;
+
+    public HashFanOut(String... algorithms) {
+        for (String algorithm : algorithms) {
+            digests.put(algorithm, createMessageDigest(algorithm));
+        }
+    }
+
+    /**
+     * Reads the given file once, hashing its content.
+     */
+    public HashFanOut hash(File file) {
+        try {
+            InputStream inputStream = new FileInputStream(file);
+            try {
+                copy(inputStream);
+            } finally {
+                inputStream.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Failed to hash file %s.", file.getAbsolutePath()), e);
+        }
+        return this;
+    }
+
+    /**
+     * Reads the given stream to its end, hashing its content. The caller is responsible for closing the stream.
+     */
+    public HashFanOut hash(InputStream inputStream) {
+        try {
+            copy(inputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    private void copy(InputStream inputStream) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = inputStream.read(buffer)) >= 0) {
+            write(buffer, 0, read);
+        }
+    }
+
+    @Override
+    public void write(int b) {
+        checkNotFinished();
+        for (MessageDigest digest : digests.values()) {
+            digest.update((byte) b);
+        }
+    }
+
+    @Override
+    public void write(byte[] bytes, int off, int len) {
+        checkNotFinished();
+        for (MessageDigest digest : digests.values()) {
+            digest.update(bytes, off, len);
+        }
+    }
+
+    /**
+     * Returns the hash of the content for the given algorithm, which must be one of the algorithms this instance was created with.
+     * No more content can be written once a hash has been queried.
+     */
+    public HashValue getHash(String algorithm) {
+        if (hashes == null) {
+            hashes = new LinkedHashMap<String, HashValue>();
+            for (Map.Entry<String, MessageDigest> entry : digests.entrySet()) {
+                hashes.put(entry.getKey(), new HashValue(entry.getValue().digest()));
+            }
+        }
+        HashValue hash = hashes.get(algorithm);
+        if (hash == null) {
+            throw new IllegalArgumentException(String.format("No %s hash has been calculated.", algorithm));
+        }
+        return hash;
+    }
+
+    private void checkNotFinished() {
+        if (hashes != null) {
+            throw new IllegalStateException("Cannot write content after the hashes have been calculated.");
+        }
+    }
+
+    private static MessageDigest createMessageDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+}
@@ -38,6 +38,8 @@ public class Hashing {
 
     private static final HashFunction SHA1 = MessageDigestHashFunction.of("SHA-1");
 
+    private static final HashFunction MURMUR3 = new GuavaHashFunction(com.google.common.hash.Hashing.murmur3_128());
+
     private static final HashFunction DEFAULT = MD5;
 
     /**
@@ -120,6 +122,13 @@ public class Hashing {
         return SHA1;
     }
 
+    /**
+     * 128-bit Murmur3 hashing function. Much faster than MD5, but not a cryptographic hash function.
+     */
+    public static HashFunction murmur3() {
+        return MURMUR3;
+    }
+
     private static abstract class MessageDigestHashFunction implements HashFunction {
         public static MessageDigestHashFunction of(String algorithm) {
             MessageDigest prototype;
@@ -231,6 +240,12 @@ public class Hashing {
             digest.update(bytes, off, len);
         }
 
+        @Override
+        public void putBytes(ByteBuffer buffer) {
+            checkNotDone();
+            digest.update(buffer);
+        }
+
         @Override
         public HashCode hash() {
             done = true;
@@ -279,6 +294,116 @@ public class Hashing {
         }
     }
 
+    private static class GuavaHashFunction implements HashFunction {
+        private final com.google.common.hash.HashFunction delegate;
+
+        public GuavaHashFunction(com.google.common.hash.HashFunction delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public PrimitiveHasher newPrimitiveHasher() {
+            return new GuavaHasher(delegate.newHasher());
+        }
+
+        @Override
+        public Hasher newHasher() {
+            return new DefaultHasher(newPrimitiveHasher());
+        }
+
+        @Override
+        public HashCode hashBytes(byte[] bytes) {
+            PrimitiveHasher hasher = newPrimitiveHasher();
+            hasher.putBytes(bytes);
+            return hasher.hash();
+        }
+
+        @Override
+        public HashCode hashString(CharSequence string) {
+            PrimitiveHasher hasher = newPrimitiveHasher();
+            hasher.putString(string);
+            return hasher.hash();
+        }
+    }
+
+    private static class GuavaHasher implements PrimitiveHasher {
+        private final com.google.common.hash.Hasher hasher;
+        private boolean done;
+
+        public GuavaHasher(com.google.common.hash.Hasher hasher) {
+            this.hasher = hasher;
+        }
+
+        private void checkNotDone() {
+            if (done) {
+                throw new IllegalStateException("Cannot reuse hasher");
+            }
+        }
+
+        @Override
+        public void putByte(byte b) {
+            checkNotDone();
+            hasher.putByte(b);
+        }
+
+        @Override
+        public void putBytes(byte[] bytes) {
+            checkNotDone();
+            hasher.putBytes(bytes);
+        }
+
+        @Override
+        public void putBytes(byte[] bytes, int off, int len) {
+            checkNotDone();
+            hasher.putBytes(bytes, off, len);
+        }
+
+        @Override
+        public void putBytes(ByteBuffer buffer) {
+            checkNotDone();
+            hasher.putBytes(buffer);
+        }
+
+        @Override
+        public HashCode hash() {
+            checkNotDone();
+            done = true;
+            return HashCode.fromBytesNoCopy(hasher.hash().asBytes());
+        }
+
+        @Override
+        public void putInt(int value) {
+            checkNotDone();
+            hasher.putInt(value);
+        }
+
+        @Override
+        public void putLong(long value) {
+            checkNotDone();
+            hasher.putLong(value);
+        }
+
+        @Override
+        public void putDouble(double value) {
+            putLong(Double.doubleToRawLongBits(value));
+        }
+
+        @Override
+        public void putBoolean(boolean value) {
+            putByte((byte) (value ? 1 : 0));
+        }
+
+        @Override
+        public void putString(CharSequence value) {
+            putBytes(value.toString().getBytes(Charsets.UTF_8));
+        }
+
+        @Override
+        public void putHash(HashCode hashCode) {
+            putBytes(hashCode.getBytes());
+        }
+    }
+
     private static class DefaultHasher implements Hasher {
         private final PrimitiveHasher hasher;
         private String invalidReason;
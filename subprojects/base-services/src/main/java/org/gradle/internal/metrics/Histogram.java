@@ -0,0 +1,34 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.metrics;
+
+/**
+ * Records the distribution of a non-negative value, such as a duration in nanoseconds or a size in bytes.
+ *
+ * Values are counted in log-linear buckets, so that percentiles can be reported with a bounded relative error regardless of the range of the values.
+ */
+public interface Histogram {
+
+    /**
+     * Records the given value. Negative values are recorded as zero.
+     */
+    void record(long value);
+
+    HistogramSnapshot getSnapshot();
+
+}
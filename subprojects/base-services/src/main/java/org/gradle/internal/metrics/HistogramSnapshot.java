@@ -0,0 +1,124 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.metrics;
+
+/**
+ * An immutable view of the values recorded by a {@link Histogram}.
+ */
+public final class HistogramSnapshot {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    static final int BUCKET_COUNT = bucketFor(Long.MAX_VALUE) + 1;
+
+    public static final HistogramSnapshot EMPTY = new HistogramSnapshot(0, 0, 0, new long[BUCKET_COUNT]);
+
+    private final long count;
+    private final long sum;
+    private final long max;
+    private final long[] buckets;
+
+    HistogramSnapshot(long count, long sum, long max, long[] buckets) {
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+        this.buckets = buckets;
+    }
+
+    /**
+     * The number of recorded values.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * The sum of the recorded values.
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * The largest recorded value.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    public long getMean() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    /**
+     * Returns the value that the given percentage of the recorded values are less than or equal to, within the precision of the buckets.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= target) {
+                return Math.min(highestValueIn(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns the values recorded since the given snapshot of the same histogram was taken.
+     *
+     * The maximum of the values recorded since then is not known exactly, so is estimated from the highest bucket that received values.
+     */
+    public HistogramSnapshot minus(HistogramSnapshot earlier) {
+        long[] difference = new long[BUCKET_COUNT];
+        long highest = 0;
+        for (int i = 0; i < difference.length; i++) {
+            difference[i] = buckets[i] - earlier.buckets[i];
+            if (difference[i] > 0) {
+                highest = highestValueIn(i);
+            }
+        }
+        return new HistogramSnapshot(count - earlier.count, sum - earlier.sum, Math.min(highest, max), difference);
+    }
+
+    static int bucketFor(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int highestBit = 63 - Long.numberOfLeadingZeros(value);
+        int shift = highestBit - SUB_BUCKET_BITS;
+        return ((highestBit - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) & (SUB_BUCKET_COUNT - 1));
+    }
+
+    static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) {
+            return bucket;
+        }
+        int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+        long lowest = (long) (SUB_BUCKET_COUNT + (bucket & (SUB_BUCKET_COUNT - 1))) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "{count=" + count + ", sum=" + sum + ", max=" + max + ", p50=" + getValueAtPercentile(50) + ", p99=" + getValueAtPercentile(99) + "}";
+    }
+}
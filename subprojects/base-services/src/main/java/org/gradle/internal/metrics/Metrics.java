@@ -0,0 +1,57 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.metrics;
+
+/**
+ * Access to the metrics registry of this process.
+ *
+ * Subsystems usually look up their metrics once, and keep them in static fields, so that recording a value costs no more than the update itself.
+ * Metrics are recorded by default. They can be disabled by setting the {@value #ENABLED_PROPERTY} system property to {@code false},
+ * in which case recording a value costs a call to an empty method. Call sites that need to measure a duration should check {@link #isEnabled()}
+ * before reading the clock, so that a disabled registry does not cost the clock reads either.
+ */
+public abstract class Metrics {
+
+    public static final String ENABLED_PROPERTY = "org.gradle.internal.metrics.enabled";
+
+    private static final boolean ENABLED = !"false".equals(System.getProperty(ENABLED_PROPERTY));
+    private static final MetricsRegistry REGISTRY = ENABLED ? new DefaultMetricsRegistry() : new DisabledMetricsRegistry();
+
+    /**
+     * Returns whether metrics are recorded in this process.
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static MetricsRegistry registry() {
+        return REGISTRY;
+    }
+
+    public static Counter counter(String name) {
+        return REGISTRY.counter(name);
+    }
+
+    public static Histogram histogram(String name) {
+        return REGISTRY.histogram(name);
+    }
+
+    private Metrics() {
+    }
+
+}
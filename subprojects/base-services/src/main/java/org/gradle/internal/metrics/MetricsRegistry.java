@@ -0,0 +1,48 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.metrics;
+
+/**
+ * A registry of named counters and histograms that subsystems record into.
+ *
+ * Metrics are created on first use and live for the lifetime of the process. Consumers take snapshots and compute the difference between
+ * snapshots to report on a particular build.
+ */
+public interface MetricsRegistry {
+
+    /**
+     * Returns whether metrics are recorded. When not enabled, the counters and histograms returned by this registry discard all values.
+     */
+    boolean isEnabled();
+
+    /**
+     * Returns the counter with the given name, creating it when it does not exist yet.
+     */
+    Counter counter(String name);
+
+    /**
+     * Returns the histogram with the given name, creating it when it does not exist yet.
+     */
+    Histogram histogram(String name);
+
+    /**
+     * Returns the current values of all metrics.
+     */
+    MetricsSnapshot getSnapshot();
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.metrics;
+
+import com.google.common.collect.ImmutableSortedMap;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * An immutable view of the values of the metrics in a {@link MetricsRegistry}.
+ */
+public final class MetricsSnapshot {
+    public static final MetricsSnapshot EMPTY = builder().build();
+
+    private final SortedMap<String, Long> counters;
+    private final SortedMap<String, HistogramSnapshot> histograms;
+
+    private MetricsSnapshot(SortedMap<String, Long> counters, SortedMap<String, HistogramSnapshot> histograms) {
+        this.counters = counters;
+        this.histograms = histograms;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public SortedMap<String, Long> getCounters() {
+        return counters;
+    }
+
+    public SortedMap<String, HistogramSnapshot> getHistograms() {
+        return histograms;
+    }
+
+    /**
+     * Returns the values recorded since the given snapshot of the same registry was taken. Metrics that have not changed since then are omitted.
+     */
+    public MetricsSnapshot minus(MetricsSnapshot earlier) {
+        Builder builder = builder();
+        for (Map.Entry<String, Long> entry : counters.entrySet()) {
+            Long earlierValue = earlier.counters.get(entry.getKey());
+            long difference = earlierValue == null ? entry.getValue() : entry.getValue() - earlierValue;
+            if (difference != 0) {
+                builder.counter(entry.getKey(), difference);
+            }
+        }
+        for (Map.Entry<String, HistogramSnapshot> entry : histograms.entrySet()) {
+            HistogramSnapshot earlierValue = earlier.histograms.get(entry.getKey());
+            HistogramSnapshot difference = earlierValue == null ? entry.getValue() : entry.getValue().minus(earlierValue);
+            if (difference.getCount() != 0) {
+                builder.histogram(entry.getKey(), difference);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the metrics as a flat map of values. Each counter is reported under its own name, and each histogram as a set of
+     * values whose names are the name of the histogram followed by {@code .count}, {@code .sum}, {@code .max}, {@code .p50}, {@code .p90} and {@code .p99}.
+     */
+    public SortedMap<String, Long> getValues() {
+        SortedMap<String, Long> values = new TreeMap<String, Long>(counters);
+        for (Map.Entry<String, HistogramSnapshot> entry : histograms.entrySet()) {
+            String name = entry.getKey();
+            HistogramSnapshot histogram = entry.getValue();
+            values.put(name + ".count", histogram.getCount());
+            values.put(name + ".sum", histogram.getSum());
+            values.put(name + ".max", histogram.getMax());
+            values.put(name + ".p50", histogram.getValueAtPercentile(50));
+            values.put(name + ".p90", histogram.getValueAtPercentile(90));
+            values.put(name + ".p99", histogram.getValueAtPercentile(99));
+        }
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return "{counters=" + counters + ", histograms=" + histograms + "}";
+    }
+
+    public static class Builder {
+        private final ImmutableSortedMap.Builder<String, Long> counters = ImmutableSortedMap.naturalOrder();
+        private final ImmutableSortedMap.Builder<String, HistogramSnapshot> histograms = ImmutableSortedMap.naturalOrder();
+
+        private Builder() {
+        }
+
+        public Builder counter(String name, long value) {
+            counters.put(name, value);
+            return this;
+        }
+
+        public Builder histogram(String name, HistogramSnapshot value) {
+            histograms.put(name, value);
+            return this;
+        }
+
+        public MetricsSnapshot build() {
+            return new MetricsSnapshot(counters.build(), histograms.build());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter that spreads updates over several cells, each on its own cache line, so that threads updating the counter concurrently
+ * rarely contend for the same cell. Reading the value sums the cells, and is therefore more expensive than an update.
+ */
+class StripedCounter implements Counter {
+    private static final int MAX_STRIPES = 64;
+    // Pad the cells, so that each one sits on its own 64 byte cache line
+    private static final int CELL_SHIFT = 3;
+    private static final int STRIPE_COUNT = stripeCount(Runtime.getRuntime().availableProcessors());
+
+    private final AtomicLongArray cells = new AtomicLongArray(STRIPE_COUNT << CELL_SHIFT);
+
+    @Override
+    public void increment() {
+        add(1);
+    }
+
+    @Override
+    public void add(long delta) {
+        cells.addAndGet(cellFor(Thread.currentThread()), delta);
+    }
+
+    @Override
+    public long getValue() {
+        long sum = 0;
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            sum += cells.get(i << CELL_SHIFT);
+        }
+        return sum;
+    }
+
+    private static int cellFor(Thread thread) {
+        long id = thread.getId();
+        int hash = (int) (id ^ (id >>> 16)) * 0x9E3779B9;
+        return ((hash >>> 16) & (STRIPE_COUNT - 1)) << CELL_SHIFT;
+    }
+
+    private static int stripeCount(int processors) {
+        int stripes = 1;
+        while (stripes < processors * 2 && stripes < MAX_STRIPES) {
+            stripes <<= 1;
+        }
+        return stripes;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.classloader
+
+import spock.lang.Specification
+
+class ClassLookupCacheTest extends Specification {
+    def cache = new ClassLookupCache()
+
+    def "remembers found and missing classes"() {
+        when:
+        cache.found("a.A", String)
+        cache.missing("a.B")
+
+        then:
+        cache.get("a.A") == String
+        cache.get("a.C") == null
+
+        when:
+        cache.get("a.B")
+
+        then:
+        ClassNotFoundException e = thrown()
+        e.message == "a.B not found."
+        cache.hitCount == 2
+        cache.missCount == 1
+    }
+
+    def "does not grow without bound when looking up names that are never found"() {
+        when:
+        (ClassLookupCache.MAX_ENTRIES * 2).times { cache.missing("missing.Class" + it) }
+
+        then:
+        cache.size() <= ClassLookupCache.MAX_ENTRIES
+    }
+}
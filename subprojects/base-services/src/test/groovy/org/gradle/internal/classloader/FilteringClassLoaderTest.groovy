@@ -329,6 +329,42 @@ class FilteringClassLoaderTest extends Specification {
         0 * parent._
     }
 
+    def "caches outcome of class lookups"() {
+        given:
+        def parent = Mock(ClassLoader, useObjenesis: false)
+        withSpec(parent) { FilteringClassLoader.Spec spec ->
+            spec.allowPackage("good")
+        }
+
+        when:
+        def first = classLoader.loadClass("good.Clazz")
+        def second = classLoader.loadClass("good.Clazz")
+
+        then:
+        first == String
+        second == String
+        1 * parent.loadClass("good.Clazz", false) >> String
+        0 * parent._
+
+        when:
+        classLoader.loadClass("bad.Clazz")
+
+        then:
+        thrown(ClassNotFoundException)
+
+        when:
+        classLoader.loadClass("bad.Clazz")
+
+        then:
+        ClassNotFoundException e = thrown()
+        e.message == "bad.Clazz not found."
+        0 * parent._
+
+        and:
+        classLoader.lookupCache.hitCount == 2
+        classLoader.lookupCache.missCount == 2
+    }
+
     void "spec is copied correctly"() {
         given:
         def parent = Mock(ClassLoader, useObjenesis: false)
@@ -55,6 +55,55 @@ class MultiParentClassLoaderTest extends Specification {
         e.message == 'string not found.'
     }
 
+    def "caches classes found through parents"() {
+        when:
+        def first = loader.loadClass('integer')
+        def second = loader.loadClass('integer')
+
+        then:
+        first == Integer
+        second == Integer
+        1 * parent1.loadClass('integer') >> { throw new ClassNotFoundException() }
+        1 * parent2.loadClass('integer') >> Integer
+        0 * _
+
+        and:
+        loader.lookupCache.hitCount == 1
+        loader.lookupCache.missCount == 1
+    }
+
+    def "does not cache classes that are not found"() {
+        when:
+        loader.loadClass('string')
+
+        then:
+        thrown(ClassNotFoundException)
+        1 * parent1.loadClass('string') >> { throw new ClassNotFoundException() }
+        1 * parent2.loadClass('string') >> { throw new ClassNotFoundException() }
+
+        when:
+        def result = loader.loadClass('string')
+
+        then:
+        result == String
+        1 * parent1.loadClass('string') >> { throw new ClassNotFoundException() }
+        1 * parent2.loadClass('string') >> String
+    }
+
+    def "discards cached classes when a parent is added"() {
+        def parent3 = Mock(ClassLoader)
+
+        given:
+        _ * parent1.loadClass('string') >> String
+        loader.loadClass('string')
+
+        when:
+        loader.addParent(parent3)
+
+        then:
+        loader.lookupCache.size() == 0
+    }
+
     @Requires(TestPrecondition.JDK8_OR_EARLIER)
     // todo: find a way to mock this in JDK 9+, where `getDefinedPackage` is final
     public void loadsPackageFromParentsInOrderSpecified() {
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.hash
+
+import org.gradle.api.UncheckedIOException
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class HashFanOutTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+
+    def "calculates hashes for all algorithms from a single read of a file"() {
+        def file = tmpDir.file("content")
+        def content = new byte[HashFanOut.BUFFER_SIZE * 2 + 17]
+        new Random(42).nextBytes(content)
+        file.bytes = content
+
+        when:
+        def hashes = new HashFanOut("SHA1", "MD5", "SHA-256", "SHA-512").hash(file)
+
+        then:
+        hashes.getHash("SHA1") == HashUtil.createHash(file, "SHA1")
+        hashes.getHash("MD5") == HashUtil.createHash(file, "MD5")
+        hashes.getHash("SHA-256") == HashUtil.createHash(file, "SHA-256")
+        hashes.getHash("SHA-512") == HashUtil.createHash(file, "SHA-512")
+    }
+
+    def "calculates hashes from a stream"() {
+        def content = "some content".bytes
+
+        when:
+        def hashes = new HashFanOut("SHA1", "MD5").hash(new ByteArrayInputStream(content))
+
+        then:
+        hashes.getHash("SHA1") == HashUtil.sha1(content)
+        hashes.getHash("MD5") == HashUtil.createHash(new ByteArrayInputStream(content), "MD5")
+    }
+
+    def "cannot write content once a hash has been calculated"() {
+        def hashes = new HashFanOut("MD5")
+        hashes.write(1)
+        hashes.getHash("MD5")
+
+        when:
+        hashes.write(2)
+
+        then:
+        thrown(IllegalStateException)
+    }
+
+    def "fails for algorithm that was not requested"() {
+        when:
+        new HashFanOut("MD5").getHash("SHA1")
+
+        then:
+        IllegalArgumentException e = thrown()
+        e.message == "No SHA1 hash has been calculated."
+    }
+
+    def "adds file path to failure"() {
+        def file = tmpDir.file("missing")
+
+        when:
+        new HashFanOut("MD5").hash(file)
+
+        then:
+        UncheckedIOException e = thrown()
+        e.message.contains(file.absolutePath)
+    }
+}
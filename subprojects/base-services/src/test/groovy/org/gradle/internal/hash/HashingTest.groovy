@@ -17,6 +17,9 @@
 package org.gradle.internal.hash
 
 import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.ByteBuffer
 
 class HashingTest extends Specification {
 
@@ -40,6 +43,36 @@ class HashingTest extends Specification {
         hashStrings(["abc", "de"]) != hashStrings(["ab", "cde"])
     }
 
+    def 'murmur3 produces 128-bit hashes'() {
+        expect:
+        Hashing.murmur3().hashString("abc").length() == 16
+        Hashing.murmur3().hashString("abc") == Hashing.murmur3().hashBytes("abc".bytes)
+        Hashing.murmur3().hashString("abc") != Hashing.murmur3().hashString("abd")
+    }
+
+    @Unroll
+    def '#name hashes buffer the same as array'() {
+        def bytes = new byte[1000]
+        new Random(1).nextBytes(bytes)
+        def heapHasher = function.newPrimitiveHasher()
+        def directHasher = function.newPrimitiveHasher()
+        def buffer = ByteBuffer.allocateDirect(bytes.length)
+        buffer.put(bytes).flip()
+
+        when:
+        heapHasher.putBytes(bytes, 0, bytes.length)
+        directHasher.putBytes(buffer)
+
+        then:
+        directHasher.hash() == heapHasher.hash()
+        !buffer.hasRemaining()
+
+        where:
+        name      | function
+        "md5"     | Hashing.md5()
+        "murmur3" | Hashing.murmur3()
+    }
+
     def hashKey(String value) {
         def hasher = Hashing.newHasher()
         hasher.putString(value)
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.metrics
+
+import spock.lang.Specification
+
+class DefaultMetricsRegistryTest extends Specification {
+    def registry = new DefaultMetricsRegistry()
+
+    def "returns the same metric for the same name"() {
+        expect:
+        registry.counter("a").is(registry.counter("a"))
+        !registry.counter("a").is(registry.counter("b"))
+        registry.histogram("a").is(registry.histogram("a"))
+    }
+
+    def "counter sums updates from many threads"() {
+        def counter = registry.counter("count")
+        def threads = (1..8).collect {
+            Thread.start {
+                1000.times { counter.increment() }
+                counter.add(10)
+            }
+        }
+
+        when:
+        threads*.join()
+
+        then:
+        counter.value == 8 * 1010
+    }
+
+    def "histogram reports percentiles within the precision of its buckets"() {
+        def histogram = registry.histogram("durations")
+
+        when:
+        (1..1000).each { histogram.record(it) }
+        histogram.record(-5)
+        def snapshot = histogram.snapshot
+
+        then:
+        snapshot.count == 1001
+        snapshot.sum == 500500
+        snapshot.max == 1000
+        Math.abs(snapshot.getValueAtPercentile(50) - 500) <= 500 / 8
+        Math.abs(snapshot.getValueAtPercentile(99) - 990) <= 990 / 8
+        snapshot.getValueAtPercentile(100) == 1000
+        snapshot.getValueAtPercentile(0) == 0
+    }
+
+    def "bucket bounds are contiguous"() {
+        expect:
+        HistogramSnapshot.bucketFor(value) == bucket
+        HistogramSnapshot.highestValueIn(bucket) >= value
+
+        where:
+        value          | bucket
+        0              | 0
+        7              | 7
+        8              | 8
+        15             | 15
+        16             | 16
+        17             | 16
+        18             | 17
+        Long.MAX_VALUE | HistogramSnapshot.BUCKET_COUNT - 1
+    }
+
+    def "snapshot difference contains only values recorded since the earlier snapshot"() {
+        def counter = registry.counter("count")
+        def histogram = registry.histogram("durations")
+        counter.add(5)
+        histogram.record(1000000)
+        registry.counter("unchanged").increment()
+        def start = registry.snapshot
+
+        when:
+        counter.add(3)
+        histogram.record(10)
+        histogram.record(20)
+        def difference = registry.snapshot.minus(start)
+
+        then:
+        difference.counters == [count: 3L]
+        difference.histograms.keySet() == ["durations"] as Set
+        difference.histograms.durations.count == 2
+        difference.histograms.durations.sum == 30
+        difference.histograms.durations.max <= 21
+        difference.values.keySet() == ["count", "durations.count", "durations.max", "durations.p50", "durations.p90", "durations.p99", "durations.sum"] as Set
+    }
+
+    def "disabled registry discards values"() {
+        def registry = new DisabledMetricsRegistry()
+
+        when:
+        registry.counter("count").add(12)
+        registry.histogram("durations").record(12)
+
+        then:
+        !registry.enabled
+        registry.counter("count").value == 0
+        registry.snapshot.values.isEmpty()
+    }
+}
@@ -24,6 +24,7 @@ description = "Provides high-level insights into a Gradle build (--profile)"
 
 dependencies {
     api(project(":core"))
+    implementation(project(":workers"))
     testImplementation(project(":internalTesting"))
 }
 
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.profile;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.Files;
+import groovy.json.JsonOutput;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationListener;
+import org.gradle.internal.operations.OperationFinishEvent;
+import org.gradle.internal.operations.OperationIdentifier;
+import org.gradle.internal.operations.OperationProgressEvent;
+import org.gradle.internal.operations.OperationStartEvent;
+import org.gradle.util.GFileUtils;
+import org.gradle.workers.internal.ReserveWorkerDaemonBuildOperationType;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records the build operations that are interesting for understanding how the work of a build was scheduled, and writes them as a
+ * timeline in the Chrome trace-event format, which can be opened with chrome://tracing or Perfetto.
+ *
+ * The timeline has a lane for each thread of the build process that ran an operation. Work items that ran in a worker daemon and tests
+ * that ran in a test JVM are shown in a lane for the worker daemon or test JVM instead, so that idle workers and processes stand out as gaps.
+ */
+public class BuildOperationTimeline implements BuildOperationListener {
+    private static final String TEST_CATEGORY = "test";
+    private static final String WORKER_CATEGORY = "worker";
+
+    /**
+     * Categories of the operations to record, keyed by the simple name of the build operation type that declares their details.
+     * The types are matched by name, as most of them live in modules that this module does not depend on.
+     */
+    private static final Map<String, String> CATEGORIES = ImmutableMap.<String, String>builder()
+        .put("ConfigureProjectBuildOperationType", "configuration")
+        .put("ResolveConfigurationDependenciesBuildOperationType", "dependency resolution")
+        .put("ResolveArtifactsBuildOperationType", "dependency resolution")
+        .put("ExecuteTaskBuildOperationType", "task")
+        .put("SnapshotTaskInputsBuildOperationType", "snapshot")
+        .put("BuildCacheArchiveUnpackBuildOperationType", "cache load")
+        .put("BuildCacheRemoteLoadBuildOperationType", "cache load")
+        .put("BuildCacheArchivePackBuildOperationType", "cache store")
+        .put("BuildCacheRemoteStoreBuildOperationType", "cache store")
+        .put("ExecuteScheduledTransformationStepBuildOperationType", "transform")
+        .put("ReserveWorkerDaemonBuildOperationType", "wait")
+        .put("ExecuteWorkItemBuildOperationType", WORKER_CATEGORY)
+        .put("ExecuteTestBuildOperationType", TEST_CATEGORY)
+        .build();
+
+    private final Map<Class<?>, String> categoriesByDetailsType = new HashMap<Class<?>, String>();
+    private final Map<OperationIdentifier, Span> running = new HashMap<OperationIdentifier, Span>();
+    private final List<Span> finished = new ArrayList<Span>();
+    private final Map<String, Lane> threadLanes = new LinkedHashMap<String, Lane>();
+    private final Map<String, Lane> processLanes = new LinkedHashMap<String, Lane>();
+    // The worker daemon reserved by a thread, which runs the next work item that the thread starts
+    private final Map<Thread, Lane> reservedWorkerDaemons = new HashMap<Thread, Lane>();
+
+    @Override
+    public void started(BuildOperationDescriptor buildOperation, OperationStartEvent startEvent) {
+        Object details = buildOperation.getDetails();
+        if (details == null) {
+            return;
+        }
+        synchronized (this) {
+            String category = categoryOf(details.getClass());
+            if (category == null) {
+                return;
+            }
+            Span parent = buildOperation.getParentId() == null ? null : running.get(buildOperation.getParentId());
+            Lane lane = laneFor(buildOperation, category, parent);
+            running.put(buildOperation.getId(), new Span(buildOperation.getDisplayName(), category, lane, startEvent.getStartTime()));
+        }
+    }
+
+    @Override
+    public void progress(OperationIdentifier operationIdentifier, OperationProgressEvent progressEvent) {
+    }
+
+    @Override
+    public void finished(BuildOperationDescriptor buildOperation, OperationFinishEvent finishEvent) {
+        synchronized (this) {
+            Span span = running.remove(buildOperation.getId());
+            if (span == null) {
+                return;
+            }
+            span.endTime = finishEvent.getEndTime();
+            span.failed = finishEvent.getFailure() != null;
+            finished.add(span);
+            if (finishEvent.getResult() instanceof ReserveWorkerDaemonBuildOperationType.Result) {
+                String workerDaemonName = ((ReserveWorkerDaemonBuildOperationType.Result) finishEvent.getResult()).getWorkerDaemonName();
+                reservedWorkerDaemons.put(Thread.currentThread(), processLane(workerDaemonName));
+            }
+        }
+    }
+
+    private Lane laneFor(BuildOperationDescriptor buildOperation, String category, @Nullable Span parent) {
+        if (parent != null && parent.lane.process) {
+            return parent.lane;
+        }
+        if (category.equals(WORKER_CATEGORY)) {
+            Lane workerDaemon = reservedWorkerDaemons.remove(Thread.currentThread());
+            if (workerDaemon != null) {
+                return workerDaemon;
+            }
+        }
+        if (category.equals(TEST_CATEGORY) && parent != null && parent.category.equals(TEST_CATEGORY)) {
+            // The children of the root test operation of a test task are the test executors, one for each test JVM
+            return processLane(buildOperation.getDisplayName());
+        }
+        String threadName = Thread.currentThread().getName();
+        Lane lane = threadLanes.get(threadName);
+        if (lane == null) {
+            lane = new Lane(threadName, 1, threadLanes.size() + 1, false);
+            threadLanes.put(threadName, lane);
+        }
+        return lane;
+    }
+
+    private Lane processLane(String name) {
+        Lane lane = processLanes.get(name);
+        if (lane == null) {
+            lane = new Lane(name, processLanes.size() + 2, 1, true);
+            processLanes.put(name, lane);
+        }
+        return lane;
+    }
+
+    @Nullable
+    private String categoryOf(Class<?> detailsType) {
+        if (categoriesByDetailsType.containsKey(detailsType)) {
+            return categoriesByDetailsType.get(detailsType);
+        }
+        String category = null;
+        for (Class<?> type = detailsType; type != null && category == null; type = type.getSuperclass()) {
+            for (Class<?> detailsInterface : type.getInterfaces()) {
+                Class<?> operationType = detailsInterface.getEnclosingClass();
+                if (operationType != null && CATEGORIES.containsKey(operationType.getSimpleName())) {
+                    category = CATEGORIES.get(operationType.getSimpleName());
+                    break;
+                }
+            }
+        }
+        categoriesByDetailsType.put(detailsType, category);
+        return category;
+    }
+
+    /**
+     * Writes the operations that have finished so far to the given file.
+     */
+    public void writeTo(File file) {
+        List<Span> spans;
+        List<Lane> lanes;
+        synchronized (this) {
+            spans = new ArrayList<Span>(finished);
+            lanes = new ArrayList<Lane>(threadLanes.values());
+            lanes.addAll(processLanes.values());
+        }
+        Collections.sort(spans, new Comparator<Span>() {
+            @Override
+            public int compare(Span o1, Span o2) {
+                return Long.compare(o1.startTime, o2.startTime);
+            }
+        });
+        long origin = spans.isEmpty() ? 0 : spans.get(0).startTime;
+
+        GFileUtils.mkdirs(file.getParentFile());
+        try {
+            Writer writer = Files.asCharSink(file, Charsets.UTF_8).openBufferedStream();
+            try {
+                writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n");
+                writer.write("{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":1,\"args\":{\"name\":\"Build process\"}}");
+                for (Lane lane : lanes) {
+                    if (lane.process) {
+                        writer.write(",\n{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":" + lane.pid + ",\"args\":{\"name\":" + JsonOutput.toJson(lane.name) + "}}");
+                    }
+                    writer.write(",\n{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":" + lane.pid + ",\"tid\":" + lane.tid + ",\"args\":{\"name\":" + JsonOutput.toJson(lane.name) + "}}");
+                }
+                for (Span span : spans) {
+                    writer.write(",\n{\"name\":");
+                    writer.write(JsonOutput.toJson(span.name));
+                    writer.write(",\"cat\":\"" + span.category + "\",\"ph\":\"X\",\"pid\":" + span.lane.pid + ",\"tid\":" + span.lane.tid);
+                    writer.write(",\"ts\":" + (span.startTime - origin) * 1000 + ",\"dur\":" + (span.endTime - span.startTime) * 1000);
+                    if (span.failed) {
+                        writer.write(",\"args\":{\"failed\":true}");
+                    }
+                    writer.write("}");
+                }
+                writer.write("\n]}\n");
+            } finally {
+                writer.close();
+            }
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+
+    private static class Lane {
+        final String name;
+        final int pid;
+        final int tid;
+        final boolean process;
+
+        Lane(String name, int pid, int tid, boolean process) {
+            this.name = name;
+            this.pid = pid;
+            this.tid = tid;
+            this.process = process;
+        }
+    }
+
+    private static class Span {
+        final String name;
+        final String category;
+        final Lane lane;
+        final long startTime;
+        long endTime;
+        boolean failed;
+
+        Span(String name, String category, Lane lane, long startTime) {
+            this.name = name;
+            this.category = category;
+            this.lane = lane;
+            this.startTime = startTime;
+        }
+    }
+}
@@ -17,6 +17,7 @@ package org.gradle.profile;
 
 import com.google.common.collect.Maps;
 import org.gradle.StartParameter;
+import org.gradle.internal.classloader.ClassLookupCache;
 import org.gradle.util.CollectionUtils;
 
 import java.text.DateFormat;
@@ -48,6 +49,7 @@ public class BuildProfile {
     private final Map<String, ProjectProfile> projects = new LinkedHashMap<String, ProjectProfile>();
     private final Map<String, ContinuousOperation> dependencySets = new LinkedHashMap<String, ContinuousOperation>();
     private final Map<String, FragmentedOperation> transformations = Maps.newLinkedHashMap();
+    private final Map<ClassLookupCache, ClassLoaderLookupProfile> classLoaderLookups = Maps.newLinkedHashMap();
     private long profilingStarted;
     private long buildStarted;
     private long settingsEvaluated;
@@ -152,6 +154,19 @@ public class BuildProfile {
         return new CompositeOperation<FragmentedOperation>(profiles);
     }
 
+    /**
+     * Records the lookup cache of a ClassLoader. A cache that has already been recorded keeps its original description.
+     */
+    public void addClassLoaderLookupCache(String classLoaderDescription, ClassLookupCache lookupCache) {
+        if (!classLoaderLookups.containsKey(lookupCache)) {
+            classLoaderLookups.put(lookupCache, new ClassLoaderLookupProfile(classLoaderDescription, lookupCache));
+        }
+    }
+
+    public List<ClassLoaderLookupProfile> getClassLoaderLookups() {
+        return CollectionUtils.sort(classLoaderLookups.values(), ClassLoaderLookupProfile.mostLookupsFirst());
+    }
+
     /**
      * Should be set with a time as soon as possible after startup.
      */
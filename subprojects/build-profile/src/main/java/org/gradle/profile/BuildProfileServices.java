@@ -20,6 +20,7 @@ import org.gradle.api.internal.BuildDefinition;
 import org.gradle.internal.buildevents.BuildStartedTime;
 import org.gradle.internal.event.ListenerManager;
 import org.gradle.internal.logging.text.StyledTextOutputFactory;
+import org.gradle.internal.operations.BuildOperationListenerManager;
 import org.gradle.internal.service.ServiceRegistration;
 import org.gradle.internal.service.ServiceRegistry;
 import org.gradle.internal.service.scopes.AbstractPluginServiceRegistry;
@@ -31,20 +32,25 @@ public class BuildProfileServices extends AbstractPluginServiceRegistry {
     @Override
     public void registerBuildServices(ServiceRegistration registration) {
         registration.addProvider(new Object() {
-            public BuildScopeListenerManagerAction createBuildProfileListeners(ServiceRegistry services, BuildDefinition buildDefinition) {
+            public BuildScopeListenerManagerAction createBuildProfileListeners(final ServiceRegistry services, final BuildDefinition buildDefinition, final BuildOperationListenerManager buildOperationListenerManager) {
                 return new BuildScopeListenerManagerAction() {
                     @Override
                     public void execute(ListenerManager listenerManager) {
                         if (buildDefinition.getStartParameter().isProfile()) {
                             listenerManager.addListener(services.get(ProfileEventAdapter.class));
                             listenerManager.addListener(services.get(ReportGeneratingProfileListener.class));
+                            buildOperationListenerManager.addListener(services.get(BuildOperationTimeline.class));
                         }
                     }
                 };
             }
 
-            public ReportGeneratingProfileListener createReportGeneratingProfileListener(StyledTextOutputFactory styledTextOutputFactory) {
-                return new ReportGeneratingProfileListener(styledTextOutputFactory);
+            public BuildOperationTimeline createBuildOperationTimeline() {
+                return new BuildOperationTimeline();
+            }
+
+            public ReportGeneratingProfileListener createReportGeneratingProfileListener(StyledTextOutputFactory styledTextOutputFactory, BuildOperationTimeline timeline, BuildOperationListenerManager buildOperationListenerManager) {
+                return new ReportGeneratingProfileListener(styledTextOutputFactory, timeline, buildOperationListenerManager);
             }
 
             public ProfileEventAdapter createProfileEventAdapter(BuildStartedTime buildStartedTime, Clock clock, ListenerManager listenerManager) {
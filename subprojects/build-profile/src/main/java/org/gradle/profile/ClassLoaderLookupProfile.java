@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.profile;
+
+import org.gradle.internal.classloader.ClassLookupCache;
+
+import java.util.Comparator;
+
+/**
+ * The class lookup cache statistics of a single ClassLoader. The counts are read from the cache when requested.
+ */
+public class ClassLoaderLookupProfile {
+    private final String description;
+    private final ClassLookupCache lookupCache;
+
+    public ClassLoaderLookupProfile(String description, ClassLookupCache lookupCache) {
+        this.description = description;
+        this.lookupCache = lookupCache;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public long getHitCount() {
+        return lookupCache.getHitCount();
+    }
+
+    public long getMissCount() {
+        return lookupCache.getMissCount();
+    }
+
+    public long getLookupCount() {
+        return getHitCount() + getMissCount();
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+
+    /**
+     * @return comparator that compares profiles, most lookups first, then alphabetically
+     */
+    public static Comparator<? super ClassLoaderLookupProfile> mostLookupsFirst() {
+        return new Comparator<ClassLoaderLookupProfile>() {
+            @Override
+            public int compare(ClassLoaderLookupProfile o1, ClassLoaderLookupProfile o2) {
+                long byLookups = o2.getLookupCount() - o1.getLookupCount();
+                if (byLookups > 0) {
+                    return 1;
+                } else if (byLookups < 0) {
+                    return -1;
+                }
+                return o1.getDescription().compareTo(o2.getDescription());
+            }
+        };
+    }
+}
@@ -27,12 +27,21 @@ import org.gradle.api.artifacts.ResolvableDependencies;
 import org.gradle.api.execution.TaskExecutionListener;
 import org.gradle.api.initialization.Settings;
 import org.gradle.api.internal.artifacts.transform.ArtifactTransformListener;
+import org.gradle.api.internal.project.ProjectInternal;
 import org.gradle.api.invocation.Gradle;
 import org.gradle.api.tasks.TaskState;
 import org.gradle.initialization.BuildCompletionListener;
 import org.gradle.internal.buildevents.BuildStartedTime;
+import org.gradle.internal.classloader.ClassLoaderHierarchy;
+import org.gradle.internal.classloader.ClassLoaderVisitor;
+import org.gradle.internal.classloader.FilteringClassLoader;
+import org.gradle.internal.classloader.MultiParentClassLoader;
 import org.gradle.internal.time.Clock;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
 /**
  * Adapts various events to build a {@link BuildProfile} model, and then notifies a {@link ReportGeneratingProfileListener} when the model is ready.
  */
@@ -102,6 +111,7 @@ public class ProfileEventAdapter implements BuildListener, ProjectEvaluationList
         long now = clock.getCurrentTime();
         ProjectProfile projectProfile = buildProfile.getProjectProfile(project.getPath());
         projectProfile.getConfigurationOperation().setFinish(now);
+        new ClassLoaderLookupCollector(project.getPath()).visit(((ProjectInternal) project).getClassLoaderScope().getLocalClassLoader());
     }
 
     // TaskExecutionListener
@@ -150,4 +160,33 @@ public class ProfileEventAdapter implements BuildListener, ProjectEvaluationList
         currentTransformation.get().setFinish(now);
         currentTransformation.remove();
     }
+
+    /**
+     * Records the lookup caches of the ClassLoaders reachable from a project's ClassLoader. Stops at ClassLoaders that do not expose their parents.
+     */
+    private class ClassLoaderLookupCollector extends ClassLoaderVisitor {
+        private final String projectPath;
+        private final Set<ClassLoader> visited = Collections.newSetFromMap(new IdentityHashMap<ClassLoader, Boolean>());
+
+        ClassLoaderLookupCollector(String projectPath) {
+            this.projectPath = projectPath;
+        }
+
+        @Override
+        public void visit(ClassLoader classLoader) {
+            if (!(classLoader instanceof ClassLoaderHierarchy) || !visited.add(classLoader)) {
+                return;
+            }
+            if (classLoader instanceof MultiParentClassLoader) {
+                buildProfile.addClassLoaderLookupCache(describe(classLoader), ((MultiParentClassLoader) classLoader).getLookupCache());
+            } else if (classLoader instanceof FilteringClassLoader) {
+                buildProfile.addClassLoaderLookupCache(describe(classLoader), ((FilteringClassLoader) classLoader).getLookupCache());
+            }
+            super.visit(classLoader);
+        }
+
+        private String describe(ClassLoader classLoader) {
+            return classLoader.getClass().getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(classLoader)) + " (first used by " + projectPath + ")";
+        }
+    }
 }
@@ -72,6 +72,7 @@ public class ProfileReportRenderer {
                             .startElement("li").startElement("a").attribute("href", "#tab2").characters("Dependency Resolution").endElement().endElement()
                             .startElement("li").startElement("a").attribute("href", "#tab3").characters("Artifact Transforms").endElement().endElement()
                             .startElement("li").startElement("a").attribute("href", "#tab4").characters("Task Execution").endElement().endElement()
+                            .startElement("li").startElement("a").attribute("href", "#tab5").characters("Class Loading").endElement().endElement()
                         .endElement();
                         htmlWriter.startElement("div").attribute("class", "tab").attribute("id", "tab0");
                             htmlWriter.startElement("h2").characters("Summary").endElement();
@@ -202,6 +203,30 @@ public class ProfileReportRenderer {
                                     }
                                 }
                             htmlWriter.endElement()
+                        .endElement();
+                        htmlWriter.startElement("div").attribute("class", "tab").attribute("id", "tab5");
+                            htmlWriter.startElement("h2").characters("Class Loading").endElement()
+                            .startElement("table")
+                                .startElement("thead")
+                                    .startElement("tr")
+                                        .startElement("th").characters("ClassLoader").endElement()
+                                        .startElement("th").attribute("class", "numeric").characters("Lookups").endElement()
+                                        .startElement("th").attribute("class", "numeric").characters("Cache Hits").endElement()
+                                        .startElement("th").attribute("class", "numeric").characters("Cache Misses").endElement()
+                                    .endElement()
+                                .endElement();
+                                for (ClassLoaderLookupProfile classLoader : model.getClassLoaderLookups()) {
+                                    if (classLoader.getLookupCount() == 0) {
+                                        continue;
+                                    }
+                                    htmlWriter.startElement("tr")
+                                        .startElement("td").characters(classLoader.getDescription()).endElement()
+                                        .startElement("td").attribute("class", "numeric").characters(String.valueOf(classLoader.getLookupCount())).endElement()
+                                        .startElement("td").attribute("class", "numeric").characters(String.valueOf(classLoader.getHitCount())).endElement()
+                                        .startElement("td").attribute("class", "numeric").characters(String.valueOf(classLoader.getMissCount())).endElement()
+                                    .endElement();
+                                }
+                            htmlWriter.endElement()
                         .endElement()
                     .endElement();
                 }
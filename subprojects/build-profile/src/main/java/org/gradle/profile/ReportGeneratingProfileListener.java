@@ -22,6 +22,7 @@ import org.gradle.internal.InternalBuildAdapter;
 import org.gradle.internal.logging.ConsoleRenderer;
 import org.gradle.internal.logging.text.StyledTextOutput;
 import org.gradle.internal.logging.text.StyledTextOutputFactory;
+import org.gradle.internal.operations.BuildOperationListenerManager;
 
 import java.io.File;
 import java.text.SimpleDateFormat;
@@ -32,10 +33,14 @@ import static org.gradle.internal.logging.text.StyledTextOutput.Style.UserInput;
 public class ReportGeneratingProfileListener extends InternalBuildAdapter implements ProfileListener {
     private static final SimpleDateFormat FILE_DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd-HH-mm-ss");
     private final StyledTextOutputFactory textOutputFactory;
+    private final BuildOperationTimeline timeline;
+    private final BuildOperationListenerManager buildOperationListenerManager;
     private File buildDir;
 
-    public ReportGeneratingProfileListener(StyledTextOutputFactory textOutputFactory) {
+    public ReportGeneratingProfileListener(StyledTextOutputFactory textOutputFactory, BuildOperationTimeline timeline, BuildOperationListenerManager buildOperationListenerManager) {
         this.textOutputFactory = textOutputFactory;
+        this.timeline = timeline;
+        this.buildOperationListenerManager = buildOperationListenerManager;
     }
 
     @Override
@@ -44,17 +49,22 @@ public class ReportGeneratingProfileListener extends InternalBuildAdapter implem
     }
 
     public void buildFinished(BuildProfile buildProfile) {
+        buildOperationListenerManager.removeListener(timeline);
         ProfileReportRenderer renderer = new ProfileReportRenderer();
-        File file = new File(buildDir, "reports/profile/profile-" + FILE_DATE_FORMAT.format(new Date(buildProfile.getBuildStarted())) + ".html");
+        String baseName = "reports/profile/profile-" + FILE_DATE_FORMAT.format(new Date(buildProfile.getBuildStarted()));
+        File file = new File(buildDir, baseName + ".html");
         renderer.writeTo(buildProfile, file);
-        renderReportUrl(file);
+        File timelineFile = new File(buildDir, baseName + "-timeline.json");
+        timeline.writeTo(timelineFile);
+        renderReportUrl(file, timelineFile);
     }
 
-    private void renderReportUrl(File reportFile) {
+    private void renderReportUrl(File reportFile, File timelineFile) {
         StyledTextOutput textOutput = textOutputFactory.create(ReportGeneratingProfileListener.class, LogLevel.LIFECYCLE);
         textOutput.println();
-        String reportUrl = new ConsoleRenderer().asClickableFileUrl(reportFile);
-        textOutput.formatln("See the profiling report at: %s", reportUrl);
+        ConsoleRenderer consoleRenderer = new ConsoleRenderer();
+        textOutput.formatln("See the profiling report at: %s", consoleRenderer.asClickableFileUrl(reportFile));
+        textOutput.formatln("A timeline of the build, which can be opened with chrome://tracing, is available at: %s", consoleRenderer.asClickableFileUrl(timelineFile));
         textOutput.text("A fine-grained performance profile is available: use the ");
         textOutput.withStyle(UserInput).format("--%s", StartParameterBuildOptions.BuildScanOption.LONG_OPTION);
         textOutput.text(" option.");
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.profile
+
+import groovy.json.JsonSlurper
+import org.gradle.api.internal.tasks.execution.ExecuteTaskBuildOperationType
+import org.gradle.internal.operations.BuildOperationDescriptor
+import org.gradle.internal.operations.OperationFinishEvent
+import org.gradle.internal.operations.OperationIdentifier
+import org.gradle.internal.operations.OperationStartEvent
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.workers.internal.ExecuteWorkItemBuildOperationType
+import org.gradle.workers.internal.ReserveWorkerDaemonBuildOperationType
+import org.junit.Rule
+import spock.lang.Specification
+
+class BuildOperationTimelineTest extends Specification {
+
+    @Rule TestNameTestDirectoryProvider temp = new TestNameTestDirectoryProvider()
+
+    def timeline = new BuildOperationTimeline()
+    def nextId = 1
+
+    def "records interesting operations in a lane for each thread"() {
+        when:
+        operation("Task :a", Stub(ExecuteTaskBuildOperationType.Details), 100, 200)
+        Thread.start("other") {
+            operation("Task :b", Stub(ExecuteTaskBuildOperationType.Details), 150, 300)
+        }.join()
+        operation("Something else", "not interesting", 100, 400)
+        def trace = writeTrace()
+
+        then:
+        def a = span(trace, "Task :a")
+        a.cat == "task"
+        a.ts == 0
+        a.dur == 100000
+        lane(trace, a) == Thread.currentThread().name
+
+        def b = span(trace, "Task :b")
+        b.ts == 50000
+        lane(trace, b) == "other"
+        a.tid != b.tid
+
+        span(trace, "Something else") == null
+    }
+
+    def "records work items in the lane of the worker daemon reserved for them"() {
+        def reserved = Stub(ReserveWorkerDaemonBuildOperationType.Result) {
+            getWorkerDaemonName() >> "Worker daemon 2"
+        }
+
+        when:
+        def task = start("Task :compile", Stub(ExecuteTaskBuildOperationType.Details), 100)
+        finish(start("Reserve worker daemon", Stub(ReserveWorkerDaemonBuildOperationType.Details), 110, task), 120, reserved)
+        finish(start("Compile", Stub(ExecuteWorkItemBuildOperationType.Details), 120, task), 180)
+        finish(start("Compile in process", Stub(ExecuteWorkItemBuildOperationType.Details), 180, task), 190)
+        finish(task, 200)
+        def trace = writeTrace()
+
+        then:
+        span(trace, "Reserve worker daemon").cat == "wait"
+        lane(trace, span(trace, "Reserve worker daemon")) == Thread.currentThread().name
+        lane(trace, span(trace, "Compile")) == "Worker daemon 2"
+        lane(trace, span(trace, "Compile in process")) == Thread.currentThread().name
+        processName(trace, span(trace, "Compile").pid) == "Worker daemon 2"
+    }
+
+    def "records tests in the lane of the test JVM that ran them"() {
+        when:
+        def run = start("Gradle Test Run :test", new TestDetails(), 100)
+        def executor1 = start("Gradle Test Executor 1", new TestDetails(), 110, run)
+        def executor2 = start("Gradle Test Executor 2", new TestDetails(), 110, run)
+        finish(start("SomeTest", new TestDetails(), 120, executor1), 150)
+        finish(start("OtherTest", new TestDetails(), 120, executor2), 160)
+        [executor1, executor2, run].each { finish(it, 200) }
+        def trace = writeTrace()
+
+        then:
+        lane(trace, span(trace, "Gradle Test Run :test")) == Thread.currentThread().name
+        lane(trace, span(trace, "SomeTest")) == "Gradle Test Executor 1"
+        lane(trace, span(trace, "OtherTest")) == "Gradle Test Executor 2"
+        span(trace, "SomeTest").pid != span(trace, "OtherTest").pid
+        span(trace, "SomeTest").cat == "test"
+    }
+
+    private BuildOperationDescriptor operation(String displayName, Object details, long startTime, long endTime) {
+        def operation = start(displayName, details, startTime)
+        finish(operation, endTime)
+        return operation
+    }
+
+    private BuildOperationDescriptor start(String displayName, Object details, long startTime, BuildOperationDescriptor parent = null) {
+        def operation = BuildOperationDescriptor.displayName(displayName).details(details).build(new OperationIdentifier(nextId++), parent?.id)
+        timeline.started(operation, new OperationStartEvent(startTime))
+        return operation
+    }
+
+    private void finish(BuildOperationDescriptor operation, long endTime, Object result = null) {
+        timeline.finished(operation, new OperationFinishEvent(0, endTime, null, result))
+    }
+
+    private Map writeTrace() {
+        def file = temp.file("timeline.json")
+        timeline.writeTo(file)
+        return new JsonSlurper().parse(file) as Map
+    }
+
+    private static Map span(Map trace, String name) {
+        return trace.traceEvents.find { it.ph == "X" && it.name == name } as Map
+    }
+
+    private static String lane(Map trace, Map span) {
+        return trace.traceEvents.find { it.ph == "M" && it.name == "thread_name" && it.pid == span.pid && it.tid == span.tid }.args.name
+    }
+
+    private static String processName(Map trace, int pid) {
+        return trace.traceEvents.find { it.ph == "M" && it.name == "process_name" && it.pid == pid }.args.name
+    }
+
+    static class ExecuteTestBuildOperationType {
+        interface Details {
+        }
+    }
+
+    static class TestDetails implements ExecuteTestBuildOperationType.Details {
+    }
+}
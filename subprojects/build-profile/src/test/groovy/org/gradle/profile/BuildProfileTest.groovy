@@ -17,6 +17,7 @@ package org.gradle.profile
 
 import org.gradle.StartParameter
 import org.gradle.api.tasks.TaskState
+import org.gradle.internal.classloader.ClassLookupCache
 import spock.lang.Specification
 
 class BuildProfileTest extends Specification {
@@ -62,6 +63,26 @@ class BuildProfileTest extends Specification {
         profile.projects == [profile.getProjectProfile("a"), profile.getProjectProfile("d"), profile.getProjectProfile("b"), profile.getProjectProfile("c")]
     }
 
+    def "provides class loader lookups sorted by number of lookups"() {
+        given:
+        def a = new ClassLookupCache()
+        def b = new ClassLookupCache()
+        b.get("x")
+        b.get("y")
+        def c = new ClassLookupCache()
+        c.get("x")
+
+        when:
+        profile.addClassLoaderLookupCache("a", a)
+        profile.addClassLoaderLookupCache("b", b)
+        profile.addClassLoaderLookupCache("c", c)
+        profile.addClassLoaderLookupCache("c again", c)
+
+        then:
+        profile.classLoaderLookups*.description == ["b", "c", "a"]
+        profile.classLoaderLookups*.missCount == [2, 1, 0]
+    }
+
     def "contains build description"() {
         given:
         def param = new StartParameter()
@@ -18,6 +18,7 @@ package org.gradle.profile
 
 import org.gradle.StartParameter
 import org.gradle.api.tasks.TaskState
+import org.gradle.internal.classloader.ClassLookupCache
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
 import org.junit.Rule
 import spock.lang.Specification
@@ -59,6 +60,14 @@ class ProfileReportRendererTest extends Specification {
         model.getProjectProfile("b").getTaskProfile("b:foo").completed(Stub(TaskState)).setStart(time(12, 27, 0)).setFinish(time(12, 29, 30))
         model.getProjectProfile("b").getTaskProfile("b:bar").completed(Stub(TaskState)).setStart(time(12, 27, 0)).setFinish(time(12, 29, 0))
 
+        def lookupCache = new ClassLookupCache()
+        lookupCache.found("a.A", String)
+        lookupCache.get("a.A")
+        lookupCache.get("a.B")
+        lookupCache.get("a.C")
+        model.addClassLoaderLookupCache("some loader", lookupCache)
+        model.addClassLoaderLookupCache("unused loader", new ClassLookupCache())
+
         when:
         new ProfileReportRenderer().writeTo(model, file)
 
@@ -97,6 +106,9 @@ class ProfileReportRendererTest extends Specification {
 <li>
 <a href="#tab4">Task Execution</a>
 </li>
+<li>
+<a href="#tab5">Class Loading</a>
+</li>
 </ul>
 <div class="tab" id="tab0">
 <h2>Summary</h2>
@@ -248,6 +260,25 @@ class ProfileReportRendererTest extends Specification {
 </tr>
 </table>
 </div>
+<div class="tab" id="tab5">
+<h2>Class Loading</h2>
+<table>
+<thead>
+<tr>
+<th>ClassLoader</th>
+<th class="numeric">Lookups</th>
+<th class="numeric">Cache Hits</th>
+<th class="numeric">Cache Misses</th>
+</tr>
+</thead>
+<tr>
+<td>some loader</td>
+<td class="numeric">3</td>
+<td class="numeric">1</td>
+<td class="numeric">2</td>
+</tr>
+</table>
+</div>
 </div>"""))
     }
 
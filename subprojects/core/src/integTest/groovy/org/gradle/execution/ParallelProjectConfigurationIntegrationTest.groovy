@@ -0,0 +1,129 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.execution
+
+import org.gradle.integtests.fixtures.AbstractIntegrationSpec
+import org.gradle.integtests.fixtures.BuildOperationsFixture
+import org.gradle.test.fixtures.server.http.BlockingHttpServer
+import org.junit.Rule
+import spock.lang.Unroll
+
+class ParallelProjectConfigurationIntegrationTest extends AbstractIntegrationSpec {
+    @Rule
+    BlockingHttpServer server = new BlockingHttpServer()
+    def buildOperations = new BuildOperationsFixture(executer, testDirectoryProvider)
+
+    def setup() {
+        settingsFile << "include 'a', 'b', 'c'"
+        executer.withArguments("--parallel", "-D${TaskPathProjectEvaluator.PARALLEL_CONFIGURATION_PROPERTY}=true")
+    }
+
+    def "configures isolated projects in parallel"() {
+        file("a/build.gradle") << "task thing"
+        file("b/build.gradle") << "task thing"
+        file("c/build.gradle") << "task thing"
+
+        when:
+        succeeds("thing")
+
+        then:
+        def result = configureResult()
+        result.parallelProjectCount == 3
+        result.serialProjectCount == 0
+        !result.serialFallback
+    }
+
+    @Unroll
+    def "falls back to serial configuration when a project #description"() {
+        file("a/build.gradle") << mutation
+        file("b/build.gradle") << "task thing"
+        file("c/build.gradle") << "task thing"
+
+        when:
+        succeeds("help")
+
+        then:
+        configureResult().serialFallback
+
+        where:
+        description                             | mutation
+        "uses allprojects"                      | "allprojects { }"
+        "sets extra properties of all projects" | "allprojects { ext.touched = true }"
+        "sets an extra property of the root"    | "rootProject.ext.fromA = true"
+        "sets an extra property of a sibling"   | "project(':b').ext.fromA = true"
+        "registers a task in a sibling"         | "project(':b').tasks.register('fromA')"
+        "creates a task in the root"            | "rootProject.tasks.create('fromA')"
+    }
+
+    def "siblings can set extra properties of each other at the same time"() {
+        server.start()
+        executer.withArgument("--max-workers=4")
+        file("a/build.gradle") << """
+            ${server.callFromBuild("a")}
+            project(':b').ext.fromA = 'a'
+            ext.ownA = 'a'
+        """
+        file("b/build.gradle") << """
+            ${server.callFromBuild("b")}
+            project(':a').ext.fromB = 'b'
+            ext.ownB = 'b'
+        """
+        buildFile << """
+            task show {
+                doLast {
+                    println "a: \${project(':a').fromB} \${project(':a').ownA}"
+                    println "b: \${project(':b').fromA} \${project(':b').ownB}"
+                }
+            }
+        """
+        server.expectConcurrent("a", "b")
+
+        when:
+        succeeds("show")
+
+        then:
+        outputContains("a: b a")
+        outputContains("b: a b")
+        configureResult().serialFallback
+    }
+
+    def "a project that reads a sibling being configured sees the configured sibling"() {
+        server.start()
+        executer.withArgument("--max-workers=4")
+        file("a/build.gradle") << """
+            ${server.callFromBuild("a")}
+            println "value from b: " + project(':b').ext.value
+        """
+        file("b/build.gradle") << """
+            ${server.callFromBuild("b")}
+            Thread.sleep(200)
+            ext.value = 'b'
+        """
+        server.expectConcurrent("a", "b")
+
+        when:
+        succeeds("help")
+
+        then:
+        outputContains("value from b: b")
+    }
+
+    private Map<String, ?> configureResult() {
+        buildOperations.only(ConfigureProjectsInParallelBuildOperationType).result
+    }
+}
@@ -17,6 +17,7 @@
 package org.gradle.api.internal;
 
 import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Iterables;
 import org.gradle.internal.file.FileType;
 import org.gradle.internal.fingerprint.CurrentFileCollectionFingerprint;
 import org.gradle.internal.fingerprint.FileCollectionFingerprint;
@@ -62,6 +63,10 @@ public class OverlappingOutputs {
 
     @Nullable
     private static OverlappingOutputs detect(String propertyName, FileCollectionFingerprint previous, CurrentFileCollectionFingerprint before) {
+        // Nothing has been created or changed when the roots have the same hashes, so there is no need to look at the individual files
+        if (!before.getRootHashes().isEmpty() && Iterables.elementsEqual(before.getRootHashes().entries(), previous.getRootHashes().entries())) {
+            return null;
+        }
         Map<String, FileSystemLocationFingerprint> previousFingerprints = previous.getFingerprints();
         Map<String, FileSystemLocationFingerprint> beforeFingerprints = before.getFingerprints();
 
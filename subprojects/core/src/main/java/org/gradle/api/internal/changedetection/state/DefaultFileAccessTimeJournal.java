@@ -25,26 +25,55 @@ import org.gradle.cache.PersistentIndexedCacheParameters;
 import org.gradle.cache.internal.InMemoryCacheDecoratorFactory;
 import org.gradle.internal.Factory;
 import org.gradle.internal.concurrent.Stoppable;
-import org.gradle.internal.resource.local.FileAccessTimeJournal;
+import org.gradle.internal.resource.local.IndexedFileAccessTimeJournal;
 import org.gradle.util.GUtil;
 
+import javax.annotation.Nullable;
 import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 import static org.gradle.cache.internal.filelock.LockOptionsBuilder.mode;
 import static org.gradle.internal.serialize.BaseSerializerFactory.FILE_SERIALIZER;
 import static org.gradle.internal.serialize.BaseSerializerFactory.LONG_SERIALIZER;
+import static org.gradle.internal.serialize.BaseSerializerFactory.STRING_SERIALIZER;
 
-public class DefaultFileAccessTimeJournal implements FileAccessTimeJournal, Stoppable {
+/**
+ * Stores the last access time of each tracked file, together with an index of the tracked files by the day of their last access.
+ *
+ * The index allows cache cleanup to find the files that have not been accessed recently without walking the cache directories.
+ * Each day of the index is a sequence of slots, one per indexed file, so that adding a file to the index costs a constant number of writes.
+ * The index also records the day under which each file is indexed. A file is added to the index again when it is accessed on a later day,
+ * which leaves a stale slot under the earlier day. Stale slots are removed when the index is visited.
+ * Additions to the index are collected in memory and written in batches, as many files are accessed during a build.
+ */
+public class DefaultFileAccessTimeJournal implements IndexedFileAccessTimeJournal, Stoppable {
 
     public static final String CACHE_KEY = "journal-1";
     public static final String FILE_ACCESS_CACHE_NAME = "file-access";
+    public static final String FILE_ACCESS_INDEX_CACHE_NAME = "file-access-index-entries";
+    public static final String FILE_ACCESS_INDEX_SIZES_CACHE_NAME = "file-access-index-sizes";
+    public static final String INDEXED_DAYS_CACHE_NAME = "file-access-indexed-days";
+    public static final String FULL_SCAN_CACHE_NAME = "file-access-full-scans";
+    public static final String FULL_SCAN_PROGRESS_CACHE_NAME = "file-access-full-scan-progress";
     public static final String FILE_ACCESS_PROPERTIES_FILE_NAME = FILE_ACCESS_CACHE_NAME + ".properties";
     public static final String INCEPTION_TIMESTAMP_KEY = "inceptionTimestamp";
 
+    private static final int MAX_PENDING_INDEX_ENTRIES = 10000;
+    private static final long MILLIS_PER_DAY = TimeUnit.DAYS.toMillis(1);
+
     private final PersistentCache cache;
     private final PersistentIndexedCache<File, Long> store;
+    private final PersistentIndexedCache<Long, File> index;
+    private final PersistentIndexedCache<Long, Long> indexSizes;
+    private final PersistentIndexedCache<File, Long> indexedDays;
+    private final PersistentIndexedCache<File, Long> fullScans;
+    private final PersistentIndexedCache<File, String> fullScanProgress;
     private final long inceptionTimestamp;
+    private final Object indexLock = new Object();
+    private Map<File, Long> pendingIndexEntries = new HashMap<File, Long>();
 
     public DefaultFileAccessTimeJournal(CacheRepository cacheRepository, InMemoryCacheDecoratorFactory cacheDecoratorFactory) {
         cache = cacheRepository
@@ -55,6 +84,12 @@ public class DefaultFileAccessTimeJournal implements FileAccessTimeJournal, Stop
             .open();
         store = cache.createCache(PersistentIndexedCacheParameters.of(FILE_ACCESS_CACHE_NAME, FILE_SERIALIZER, LONG_SERIALIZER)
             .withCacheDecorator(cacheDecoratorFactory.decorator(1000, true)));
+        index = cache.createCache(PersistentIndexedCacheParameters.of(FILE_ACCESS_INDEX_CACHE_NAME, LONG_SERIALIZER, FILE_SERIALIZER));
+        indexSizes = cache.createCache(PersistentIndexedCacheParameters.of(FILE_ACCESS_INDEX_SIZES_CACHE_NAME, LONG_SERIALIZER, LONG_SERIALIZER));
+        indexedDays = cache.createCache(PersistentIndexedCacheParameters.of(INDEXED_DAYS_CACHE_NAME, FILE_SERIALIZER, LONG_SERIALIZER)
+            .withCacheDecorator(cacheDecoratorFactory.decorator(1000, true)));
+        fullScans = cache.createCache(PersistentIndexedCacheParameters.of(FULL_SCAN_CACHE_NAME, FILE_SERIALIZER, LONG_SERIALIZER));
+        fullScanProgress = cache.createCache(PersistentIndexedCacheParameters.of(FULL_SCAN_PROGRESS_CACHE_NAME, FILE_SERIALIZER, STRING_SERIALIZER));
         inceptionTimestamp = loadOrPersistInceptionTimestamp();
     }
 
@@ -81,25 +116,181 @@ public class DefaultFileAccessTimeJournal implements FileAccessTimeJournal, Stop
 
     @Override
     public void stop() {
+        flushPendingIndexEntries();
         cache.close();
     }
 
     @Override
     public void setLastAccessTime(File file, long millis) {
         store.put(file, millis);
+        addToIndex(file, millis);
     }
 
     @Override
     public long getLastAccessTime(File file) {
         Long value = store.get(file);
-        if (value == null) {
-            return Math.max(inceptionTimestamp, file.lastModified());
-        }
-        return value;
+        return value == null ? getDefaultLastAccessTime(file) : value;
+    }
+
+    private long getDefaultLastAccessTime(File file) {
+        return Math.max(inceptionTimestamp, file.lastModified());
+    }
+
+    @Override
+    public void addToIndex(File file) {
+        addToIndex(file, getLastAccessTime(file));
     }
 
     @Override
     public void deleteLastAccessTime(File file) {
         store.remove(file);
+        // Any slot of the file in the index becomes stale
+        indexedDays.remove(file);
+        synchronized (indexLock) {
+            pendingIndexEntries.remove(file);
+        }
+    }
+
+    @Override
+    public long getLastFullScanTime(File baseDir) {
+        Long value = fullScans.get(baseDir);
+        return value == null ? 0 : value;
+    }
+
+    @Override
+    public void setLastFullScanTime(File baseDir, long millis) {
+        fullScans.put(baseDir, millis);
+    }
+
+    @Nullable
+    @Override
+    public String getFullScanProgress(File baseDir) {
+        return fullScanProgress.get(baseDir);
+    }
+
+    @Override
+    public void setFullScanProgress(File baseDir, @Nullable String lastScannedPath) {
+        if (lastScannedPath == null) {
+            fullScanProgress.remove(baseDir);
+        } else {
+            fullScanProgress.put(baseDir, lastScannedPath);
+        }
+    }
+
+    @Override
+    public void visitFilesAccessedBefore(File baseDir, long timestamp, ExpiredFileVisitor visitor) {
+        flushPendingIndexEntries();
+        String prefix = baseDir.getAbsolutePath() + File.separator;
+        long lastDay = toDay(timestamp);
+        for (long day = toDay(inceptionTimestamp); day <= lastDay; day++) {
+            if (!visitFilesAccessedBefore(day, prefix, timestamp, visitor)) {
+                return;
+            }
+        }
+    }
+
+    private boolean visitFilesAccessedBefore(long day, String prefix, long timestamp, ExpiredFileVisitor visitor) {
+        Long size = indexSizes.get(day);
+        if (size == null) {
+            return true;
+        }
+        boolean empty = true;
+        for (long slot = 0; slot < size; slot++) {
+            long key = toIndexKey(day, slot);
+            File file = index.get(key);
+            if (file == null) {
+                continue;
+            }
+            Long indexedDay = indexedDays.get(file);
+            if (indexedDay == null || indexedDay != day) {
+                // No longer tracked, or indexed again under a later day
+                index.remove(key);
+                continue;
+            }
+            empty = false;
+            if (!file.getPath().startsWith(prefix) || getLastAccessTime(file) >= timestamp) {
+                continue;
+            }
+            boolean continueVisiting = visitor.visitFile(file);
+            if (!file.exists()) {
+                index.remove(key);
+                indexedDays.remove(file);
+            }
+            if (!continueVisiting) {
+                return false;
+            }
+        }
+        if (empty) {
+            removeDayIfEmpty(day, size);
+        }
+        return true;
+    }
+
+    private void removeDayIfEmpty(final long day, final long visitedSize) {
+        synchronized (indexLock) {
+            cache.useCache(new Runnable() {
+                @Override
+                public void run() {
+                    // Entries may have been added to the day while it was visited
+                    Long size = indexSizes.get(day);
+                    if (size != null && size == visitedSize) {
+                        indexSizes.remove(day);
+                    }
+                }
+            });
+        }
+    }
+
+    private void addToIndex(File file, long millis) {
+        synchronized (indexLock) {
+            pendingIndexEntries.put(file, toDay(millis));
+            if (pendingIndexEntries.size() >= MAX_PENDING_INDEX_ENTRIES) {
+                flushPendingIndexEntries();
+            }
+        }
+    }
+
+    private void flushPendingIndexEntries() {
+        synchronized (indexLock) {
+            if (pendingIndexEntries.isEmpty()) {
+                return;
+            }
+            final Map<File, Long> entries = pendingIndexEntries;
+            pendingIndexEntries = new HashMap<File, Long>();
+            cache.useCache(new Runnable() {
+                @Override
+                public void run() {
+                    Map<Long, Long> sizes = new HashMap<Long, Long>();
+                    for (Map.Entry<File, Long> entry : entries.entrySet()) {
+                        File file = entry.getKey();
+                        Long day = entry.getValue();
+                        if (day.equals(indexedDays.get(file))) {
+                            continue;
+                        }
+                        Long size = sizes.get(day);
+                        if (size == null) {
+                            size = indexSizes.get(day);
+                            if (size == null) {
+                                size = 0L;
+                            }
+                        }
+                        index.put(toIndexKey(day, size), file);
+                        indexedDays.put(file, day);
+                        sizes.put(day, size + 1);
+                    }
+                    for (Map.Entry<Long, Long> entry : sizes.entrySet()) {
+                        indexSizes.put(entry.getKey(), entry.getValue());
+                    }
+                }
+            });
+        }
+    }
+
+    private static long toDay(long millis) {
+        return millis / MILLIS_PER_DAY;
+    }
+
+    private static long toIndexKey(long day, long slot) {
+        return (day << 32) | slot;
     }
 }
@@ -63,6 +63,7 @@ import org.gradle.api.internal.file.FileOperations;
 import org.gradle.api.internal.file.FileResolver;
 import org.gradle.api.internal.initialization.ClassLoaderScope;
 import org.gradle.api.internal.initialization.ScriptHandlerFactory;
+import org.gradle.api.internal.plugins.DefaultConvention;
 import org.gradle.api.internal.plugins.DefaultObjectConfigurationAction;
 import org.gradle.api.internal.plugins.ExtensionContainerInternal;
 import org.gradle.api.internal.plugins.PluginManagerInternal;
@@ -243,7 +244,8 @@ public class DefaultProject extends AbstractPluginAware implements ProjectIntern
         services = serviceRegistryFactory.createFor(this);
         taskContainer = services.newInstance(TaskContainerInternal.class);
 
-        extensibleDynamicObject = new ExtensibleDynamicObject(this, Project.class, services.get(InstantiatorFactory.class).injectAndDecorateLenient(services));
+        Instantiator extensionInstantiator = services.get(InstantiatorFactory.class).injectAndDecorateLenient(services);
+        extensibleDynamicObject = new ExtensibleDynamicObject(this, new BeanDynamicObject(this, Project.class), new DefaultConvention(extensionInstantiator, new ProjectExtraPropertiesExtension(this)));
         if (parent != null) {
             extensibleDynamicObject.setParent(parent.getInheritedScope());
         }
@@ -638,7 +640,12 @@ public class DefaultProject extends AbstractPluginAware implements ProjectIntern
         if (isNullOrEmpty(path)) {
             throw new InvalidUserDataException("A path must be specified!");
         }
-        return getProjectRegistry().getProject(absoluteProjectPath(path));
+        ProjectInternal project = getProjectRegistry().getProject(absoluteProjectPath(path));
+        if (project != null && project != this && !project.getState().getExecuted()) {
+            // Reading a project that may be configured concurrently
+            project.getMutationState().beforeModelAccess();
+        }
+        return project;
     }
 
     @Override
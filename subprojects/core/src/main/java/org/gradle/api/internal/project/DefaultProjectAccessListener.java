@@ -19,6 +19,12 @@ package org.gradle.api.internal.project;
 import org.gradle.initialization.ProjectAccessListener;
 
 public class DefaultProjectAccessListener implements ProjectAccessListener {
+    private final ProjectStateRegistry.SafeExclusiveLock lock;
+
+    public DefaultProjectAccessListener(ProjectStateRegistry projectStateRegistry) {
+        // Use a lock that does not block while holding a project lock, as the target project may be configured concurrently
+        this.lock = projectStateRegistry.newExclusiveOperationLock();
+    }
 
     public void beforeRequestingTaskByPath(ProjectInternal targetProject) {
         evaluateProjectAndDiscoverTasks(targetProject);
@@ -28,8 +34,15 @@ public class DefaultProjectAccessListener implements ProjectAccessListener {
         evaluateProjectAndDiscoverTasks(targetProject);
     }
 
-    private synchronized void evaluateProjectAndDiscoverTasks(final ProjectInternal targetProject) {
-        targetProject.evaluate();
-        targetProject.getTasks().discoverTasks();
+    private void evaluateProjectAndDiscoverTasks(final ProjectInternal targetProject) {
+        // Wait for concurrent configuration of other projects before taking the lock, so that the lock is not held while waiting
+        targetProject.getMutationState().beforeModelAccess();
+        lock.withLock(new Runnable() {
+            @Override
+            public void run() {
+                targetProject.evaluate();
+                targetProject.getTasks().discoverTasks();
+            }
+        });
     }
 }
@@ -24,6 +24,7 @@ import org.gradle.initialization.DefaultProjectDescriptor;
 import org.gradle.internal.Factories;
 import org.gradle.internal.Factory;
 import org.gradle.internal.Pair;
+import org.gradle.internal.UncheckedException;
 import org.gradle.internal.build.BuildState;
 import org.gradle.internal.resources.ResourceLock;
 import org.gradle.internal.work.WorkerLeaseService;
@@ -48,6 +49,7 @@ public class DefaultProjectStateRegistry implements ProjectStateRegistry {
             return Boolean.FALSE;
         }
     };
+    private final static ThreadLocal<ConcurrentConfigurationImpl> CONCURRENT_CONFIGURATION = new ThreadLocal<ConcurrentConfigurationImpl>();
 
     public DefaultProjectStateRegistry(WorkerLeaseService workerLeaseService) {
         this.workerLeaseService = workerLeaseService;
@@ -135,6 +137,11 @@ public class DefaultProjectStateRegistry implements ProjectStateRegistry {
         }
     }
 
+    @Override
+    public ConcurrentConfiguration newConcurrentConfiguration() {
+        return new ConcurrentConfigurationImpl();
+    }
+
     @Override
     public SafeExclusiveLock newExclusiveOperationLock() {
         return new SafeExclusiveLockImpl();
@@ -208,10 +215,14 @@ public class DefaultProjectStateRegistry implements ProjectStateRegistry {
                 // we don't currently hold the project lock
                 if (!currentLocks.isEmpty()) {
                     // we hold other project locks that we should release first
+                    final ConcurrentConfigurationImpl configuration = CONCURRENT_CONFIGURATION.get();
                     return workerLeaseService.withoutLocks(currentLocks, new Factory<T>() {
                         @Nullable
                         @Override
                         public T create() {
+                            if (configuration != null) {
+                                configuration.awaitExclusiveAccess();
+                            }
                             return withProjectLock(projectLock, factory);
                         }
                     });
@@ -230,6 +241,90 @@ public class DefaultProjectStateRegistry implements ProjectStateRegistry {
         public boolean hasMutableState() {
             return LENIENT_MUTATION_STATE.get() || workerLeaseService.getCurrentProjectLocks().contains(projectLock);
         }
+
+        @Override
+        public void beforeModelAccess() {
+            final ConcurrentConfigurationImpl configuration = CONCURRENT_CONFIGURATION.get();
+            if (configuration == null || LENIENT_MUTATION_STATE.get()) {
+                return;
+            }
+            Collection<? extends ResourceLock> currentLocks = workerLeaseService.getCurrentProjectLocks();
+            if (!currentLocks.isEmpty() && !currentLocks.contains(projectLock)) {
+                // Wait without holding any project lock, so that the other threads of the group can complete or wait as well
+                workerLeaseService.withoutLocks(currentLocks, new Runnable() {
+                    @Override
+                    public void run() {
+                        configuration.awaitExclusiveAccess();
+                    }
+                });
+            }
+        }
+    }
+
+    private class ConcurrentConfigurationImpl implements ConcurrentConfiguration {
+        private final Object monitor = new Object();
+        private boolean crossProjectAccess;
+        private int running;
+        private int waiting;
+        private Thread exclusiveOwner;
+
+        @Override
+        public boolean run(Runnable action) {
+            synchronized (monitor) {
+                if (crossProjectAccess) {
+                    return false;
+                }
+                running++;
+            }
+            ConcurrentConfigurationImpl previous = CONCURRENT_CONFIGURATION.get();
+            CONCURRENT_CONFIGURATION.set(this);
+            try {
+                action.run();
+            } finally {
+                CONCURRENT_CONFIGURATION.set(previous);
+                synchronized (monitor) {
+                    running--;
+                    if (exclusiveOwner == Thread.currentThread()) {
+                        exclusiveOwner = null;
+                    }
+                    monitor.notifyAll();
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isCrossProjectAccessDetected() {
+            synchronized (monitor) {
+                return crossProjectAccess;
+            }
+        }
+
+        /**
+         * Waits until every other thread of the group has completed its configuration or is waiting here, and then continues with exclusive access until the
+         * configuration on the current thread completes. Must be called without holding any project lock.
+         */
+        void awaitExclusiveAccess() {
+            Thread currentThread = Thread.currentThread();
+            synchronized (monitor) {
+                crossProjectAccess = true;
+                if (exclusiveOwner == currentThread) {
+                    return;
+                }
+                waiting++;
+                monitor.notifyAll();
+                try {
+                    while (exclusiveOwner != null || running > waiting) {
+                        monitor.wait();
+                    }
+                    exclusiveOwner = currentThread;
+                } catch (InterruptedException e) {
+                    throw UncheckedException.throwAsUncheckedException(e);
+                } finally {
+                    waiting--;
+                }
+            }
+        }
     }
 
     private class SafeExclusiveLockImpl implements SafeExclusiveLock {
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.project;
+
+import org.gradle.api.internal.plugins.DefaultExtraPropertiesExtension;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+
+/**
+ * The extra properties of a project, which notify the {@link ProjectState} of the project before a property is set, or before a property is read while the project
+ * is not yet configured, so that these accesses made by the configuration of other projects do not race with the configuration of this project.
+ */
+class ProjectExtraPropertiesExtension extends DefaultExtraPropertiesExtension {
+    private final ProjectInternal project;
+    private ProjectState projectState;
+
+    ProjectExtraPropertiesExtension(ProjectInternal project) {
+        this.project = project;
+    }
+
+    @Override
+    public boolean has(String name) {
+        beforeRead();
+        return super.has(name);
+    }
+
+    @Nullable
+    @Override
+    public Object find(String name) {
+        beforeRead();
+        return super.find(name);
+    }
+
+    @Nullable
+    @Override
+    public Object getProperty(String name) {
+        beforeRead();
+        return super.getProperty(name);
+    }
+
+    @Override
+    public Map<String, Object> getProperties() {
+        beforeRead();
+        return super.getProperties();
+    }
+
+    @Override
+    public void set(String name, @Nullable Object value) {
+        getProjectState().beforeModelAccess();
+        super.set(name, value);
+    }
+
+    private void beforeRead() {
+        // Once the project is configured, it is only mutated by the configuration of other projects, which waits for any reads to complete
+        if (!project.getState().getExecuted()) {
+            getProjectState().beforeModelAccess();
+        }
+    }
+
+    private ProjectState getProjectState() {
+        if (projectState == null) {
+            projectState = project.getMutationState();
+        }
+        return projectState;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.project;
+
+import org.gradle.api.Action;
+import org.gradle.api.internal.MutationGuard;
+
+/**
+ * A {@link MutationGuard} for some part of the model of a project that notifies the {@link ProjectState} of the project before the model is mutated, so that
+ * mutations made by the configuration of other projects do not race with the configuration of this project.
+ */
+public class ProjectModelMutationGuard implements MutationGuard {
+    private final MutationGuard delegate;
+    private final ProjectInternal project;
+    private ProjectState projectState;
+
+    public ProjectModelMutationGuard(MutationGuard delegate, ProjectInternal project) {
+        this.delegate = delegate;
+        this.project = project;
+    }
+
+    @Override
+    public <T> Action<? super T> withMutationDisabled(Action<? super T> action) {
+        return delegate.withMutationDisabled(action);
+    }
+
+    @Override
+    public <T> Action<? super T> withMutationEnabled(Action<? super T> action) {
+        return delegate.withMutationEnabled(action);
+    }
+
+    @Override
+    public boolean isMutationAllowed() {
+        return delegate.isMutationAllowed();
+    }
+
+    @Override
+    public void assertMutationAllowed(String methodName, Object target) {
+        delegate.assertMutationAllowed(methodName, target);
+        beforeModelAccess();
+    }
+
+    @Override
+    public <T> void assertMutationAllowed(String methodName, T target, Class<T> targetType) {
+        delegate.assertMutationAllowed(methodName, target, targetType);
+        beforeModelAccess();
+    }
+
+    private void beforeModelAccess() {
+        if (projectState == null) {
+            projectState = project.getMutationState();
+        }
+        projectState.beforeModelAccess();
+    }
+}
@@ -64,4 +64,10 @@ public interface ProjectState {
      * Returns whether or not the current thread holds the mutable state for this project.
      */
     boolean hasMutableState();
+
+    /**
+     * Notifies that the current thread is about to read or mutate the public model of this project. When the current thread is configuring some other project as part of
+     * a {@link ProjectStateRegistry.ConcurrentConfiguration}, waits until the access can no longer race with the configuration of this project.
+     */
+    void beforeModelAccess();
 }
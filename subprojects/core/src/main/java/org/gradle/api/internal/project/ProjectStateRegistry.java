@@ -72,6 +72,11 @@ public interface ProjectStateRegistry {
      */
     <T> T withLenientState(Factory<T> factory);
 
+    /**
+     * Creates a {@link ConcurrentConfiguration}, for configuring a group of projects concurrently.
+     */
+    ConcurrentConfiguration newConcurrentConfiguration();
+
     /**
      * Returns a {@link SafeExclusiveLock}.
      */
@@ -87,4 +92,21 @@ public interface ProjectStateRegistry {
          */
         void withLock(Runnable runnable);
     }
+
+    /**
+     * Coordinates the threads that configure a group of projects concurrently. The first time one of these threads reads or mutates the model of a project other
+     * than the one it is configuring, no further configuration of the group is started and the thread waits, without holding any project lock, until the configuration
+     * on every other thread of the group has either completed or is waiting in the same way. The waiting threads then complete their configuration one at a time.
+     */
+    interface ConcurrentConfiguration {
+        /**
+         * Runs the given action on the current thread as a member of this group. Does not run the action and returns false when a cross-project access has already been detected.
+         */
+        boolean run(Runnable action);
+
+        /**
+         * Returns whether or not a thread of this group has read or mutated the model of a project other than the one it is configuring.
+         */
+        boolean isCrossProjectAccessDetected();
+    }
 }
@@ -30,11 +30,13 @@ import org.gradle.api.Project;
 import org.gradle.api.Task;
 import org.gradle.api.UnknownTaskException;
 import org.gradle.api.internal.CollectionCallbackActionDecorator;
+import org.gradle.api.internal.MutationGuard;
 import org.gradle.api.internal.MutationGuards;
 import org.gradle.api.internal.NamedDomainObjectContainerConfigureDelegate;
 import org.gradle.api.internal.TaskInternal;
 import org.gradle.api.internal.project.CrossProjectConfigurator;
 import org.gradle.api.internal.project.ProjectInternal;
+import org.gradle.api.internal.project.ProjectModelMutationGuard;
 import org.gradle.api.internal.project.taskfactory.ITaskFactory;
 import org.gradle.api.internal.project.taskfactory.TaskIdentity;
 import org.gradle.api.internal.project.taskfactory.TaskInstantiator;
@@ -95,6 +97,7 @@ public class DefaultTaskContainer extends DefaultTaskCollection<Task> implements
     private final boolean eagerlyCreateLazyTasks;
 
     private MutableModelNode modelNode;
+    private MutationGuard mutationGuard;
 
     public DefaultTaskContainer(final ProjectInternal project,
                                 Instantiator instantiator,
@@ -113,6 +116,15 @@ public class DefaultTaskContainer extends DefaultTaskCollection<Task> implements
         this.buildOperationExecutor = buildOperationExecutor;
     }
 
+    @Override
+    public MutationGuard getMutationGuard() {
+        // Mutations of the tasks of a project made by the configuration of another project are reported to the project state
+        if (mutationGuard == null) {
+            mutationGuard = new ProjectModelMutationGuard(super.getMutationGuard(), project);
+        }
+        return mutationGuard;
+    }
+
     public Task create(Map<String, ?> options) {
         assertMutable("create(Map<String, ?>)");
         return doCreate(options, Actions.doNothing());
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.execution;
+
+import org.gradle.internal.operations.BuildOperationType;
+
+/**
+ * Configuration of the subprojects of a build using the worker pool.
+ *
+ * The ratio of the cumulative configuration time of the projects to the elapsed time of the operation is the speedup gained over serial configuration.
+ *
+ * @since 5.2
+ */
+public final class ConfigureProjectsInParallelBuildOperationType implements BuildOperationType<ConfigureProjectsInParallelBuildOperationType.Details, ConfigureProjectsInParallelBuildOperationType.Result> {
+
+    public interface Details {
+
+        String getBuildPath();
+
+        int getProjectCount();
+
+    }
+
+    public interface Result {
+
+        /**
+         * The number of projects that were configured on the worker pool.
+         */
+        int getParallelProjectCount();
+
+        /**
+         * The number of projects that were configured serially, after a cross-project mutation was detected.
+         */
+        int getSerialProjectCount();
+
+        /**
+         * Whether a cross-project mutation was detected, causing the remaining projects to be configured serially.
+         */
+        boolean isSerialFallback();
+
+        /**
+         * The sum of the configuration times of the individual projects.
+         */
+        long getCumulativeProjectConfigurationTimeMillis();
+
+        /**
+         * The elapsed time for configuring all projects.
+         */
+        long getElapsedTimeMillis();
+
+    }
+
+    static class DetailsImpl implements Details {
+
+        private final String buildPath;
+        private final int projectCount;
+
+        DetailsImpl(String buildPath, int projectCount) {
+            this.buildPath = buildPath;
+            this.projectCount = projectCount;
+        }
+
+        @Override
+        public String getBuildPath() {
+            return buildPath;
+        }
+
+        @Override
+        public int getProjectCount() {
+            return projectCount;
+        }
+
+    }
+
+    static class ResultImpl implements Result {
+
+        private final int parallelProjectCount;
+        private final int serialProjectCount;
+        private final boolean serialFallback;
+        private final long cumulativeProjectConfigurationTimeMillis;
+        private final long elapsedTimeMillis;
+
+        ResultImpl(int parallelProjectCount, int serialProjectCount, boolean serialFallback, long cumulativeProjectConfigurationTimeMillis, long elapsedTimeMillis) {
+            this.parallelProjectCount = parallelProjectCount;
+            this.serialProjectCount = serialProjectCount;
+            this.serialFallback = serialFallback;
+            this.cumulativeProjectConfigurationTimeMillis = cumulativeProjectConfigurationTimeMillis;
+            this.elapsedTimeMillis = elapsedTimeMillis;
+        }
+
+        @Override
+        public int getParallelProjectCount() {
+            return parallelProjectCount;
+        }
+
+        @Override
+        public int getSerialProjectCount() {
+            return serialProjectCount;
+        }
+
+        @Override
+        public boolean isSerialFallback() {
+            return serialFallback;
+        }
+
+        @Override
+        public long getCumulativeProjectConfigurationTimeMillis() {
+            return cumulativeProjectConfigurationTimeMillis;
+        }
+
+        @Override
+        public long getElapsedTimeMillis() {
+            return elapsedTimeMillis;
+        }
+
+    }
+
+    private ConfigureProjectsInParallelBuildOperationType() {
+    }
+
+}
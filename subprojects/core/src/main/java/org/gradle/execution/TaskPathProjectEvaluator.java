@@ -16,16 +16,41 @@
 
 package org.gradle.execution;
 
+import org.gradle.api.Action;
 import org.gradle.api.BuildCancelledException;
 import org.gradle.api.Project;
 import org.gradle.api.internal.project.ProjectInternal;
+import org.gradle.api.internal.project.ProjectStateRegistry;
 import org.gradle.initialization.BuildCancellationToken;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.BuildOperationQueue;
+import org.gradle.internal.operations.RunnableBuildOperation;
+import org.gradle.internal.time.Time;
+import org.gradle.internal.time.Timer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class TaskPathProjectEvaluator implements ProjectConfigurer {
+    /**
+     * When set, and parallel project execution is enabled, the subprojects of a build are configured concurrently on the worker pool.
+     */
+    public static final String PARALLEL_CONFIGURATION_PROPERTY = "org.gradle.internal.project.configuration.parallel";
+
     private final BuildCancellationToken cancellationToken;
+    private final BuildOperationExecutor buildOperationExecutor;
+    private final ProjectStateRegistry projectStateRegistry;
+    private final boolean parallelConfiguration;
 
-    public TaskPathProjectEvaluator(BuildCancellationToken cancellationToken) {
+    public TaskPathProjectEvaluator(BuildCancellationToken cancellationToken, BuildOperationExecutor buildOperationExecutor, ProjectStateRegistry projectStateRegistry) {
         this.cancellationToken = cancellationToken;
+        this.buildOperationExecutor = buildOperationExecutor;
+        this.projectStateRegistry = projectStateRegistry;
+        this.parallelConfiguration = Boolean.getBoolean(PARALLEL_CONFIGURATION_PROPERTY);
     }
 
     public void configure(ProjectInternal project) {
@@ -58,6 +83,10 @@ public class TaskPathProjectEvaluator implements ProjectConfigurer {
 
     public void configureHierarchy(ProjectInternal project) {
         configure(project);
+        if (parallelConfiguration && project.getGradle().getStartParameter().isParallelProjectExecutionEnabled() && !project.getSubprojects().isEmpty()) {
+            configureInParallel(project);
+            return;
+        }
         for (Project sub : project.getSubprojects()) {
             configure((ProjectInternal) sub);
         }
@@ -70,4 +99,124 @@ public class TaskPathProjectEvaluator implements ProjectConfigurer {
             configureFully((ProjectInternal) sub);
         }
     }
+
+    private void configureInParallel(ProjectInternal rootProject) {
+        List<ProjectInternal> subprojects = new ArrayList<ProjectInternal>();
+        for (Project sub : rootProject.getSubprojects()) {
+            subprojects.add((ProjectInternal) sub);
+        }
+        buildOperationExecutor.run(new ConfigureProjectsInParallel(rootProject.getGradle().getIdentityPath().getPath(), subprojects));
+    }
+
+    /**
+     * Configures the projects on the worker pool, one level of the project hierarchy at a time, relying on the project locks to serialize access to the
+     * mutable state of each project. Once a thread reads or mutates the state of a project other than the one it is configuring, that thread waits until
+     * the other projects being configured are done, no further projects are configured concurrently, and the remaining projects are configured serially
+     * in their usual order.
+     */
+    private class ConfigureProjectsInParallel implements RunnableBuildOperation {
+        private final String buildPath;
+        private final List<ProjectInternal> projects;
+        private final AtomicInteger parallelProjectCount = new AtomicInteger();
+        private final AtomicLong cumulativeConfigurationTime = new AtomicLong();
+        private final ProjectStateRegistry.ConcurrentConfiguration concurrentConfiguration = projectStateRegistry.newConcurrentConfiguration();
+
+        ConfigureProjectsInParallel(String buildPath, List<ProjectInternal> projects) {
+            this.buildPath = buildPath;
+            this.projects = projects;
+        }
+
+        @Override
+        public void run(BuildOperationContext context) {
+            Timer timer = Time.startTimer();
+            final List<ConfigureProjectConcurrently> operations = new ArrayList<ConfigureProjectConcurrently>(projects.size());
+            for (ProjectInternal project : projects) {
+                operations.add(new ConfigureProjectConcurrently(project));
+            }
+
+            // Configure one level of the hierarchy at a time, so that a project is still configured after its parent
+            int depth = 1;
+            boolean moreLevels = true;
+            while (moreLevels && !concurrentConfiguration.isCrossProjectAccessDetected()) {
+                final List<ConfigureProjectConcurrently> level = new ArrayList<ConfigureProjectConcurrently>();
+                moreLevels = false;
+                for (ConfigureProjectConcurrently operation : operations) {
+                    int projectDepth = operation.project.getDepth();
+                    if (projectDepth == depth) {
+                        level.add(operation);
+                    } else if (projectDepth > depth) {
+                        moreLevels = true;
+                    }
+                }
+                buildOperationExecutor.runAll(new Action<BuildOperationQueue<ConfigureProjectConcurrently>>() {
+                    @Override
+                    public void execute(BuildOperationQueue<ConfigureProjectConcurrently> queue) {
+                        for (ConfigureProjectConcurrently operation : level) {
+                            queue.add(operation);
+                        }
+                    }
+                });
+                // Report the first failure in project order, as serial configuration would
+                for (ConfigureProjectConcurrently operation : level) {
+                    if (operation.failure != null) {
+                        throw operation.failure;
+                    }
+                }
+                depth++;
+            }
+
+            int serialProjectCount = 0;
+            for (ProjectInternal project : projects) {
+                if (project.getState().isUnconfigured()) {
+                    serialProjectCount++;
+                    configure(project);
+                }
+            }
+
+            boolean serialFallback = concurrentConfiguration.isCrossProjectAccessDetected();
+            context.setResult(new ConfigureProjectsInParallelBuildOperationType.ResultImpl(parallelProjectCount.get(), serialProjectCount, serialFallback, cumulativeConfigurationTime.get(), timer.getElapsedMillis()));
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            return BuildOperationDescriptor.displayName("Configure projects in parallel")
+                .details(new ConfigureProjectsInParallelBuildOperationType.DetailsImpl(buildPath, projects.size()));
+        }
+
+        private class ConfigureProjectConcurrently implements RunnableBuildOperation {
+            private final ProjectInternal project;
+            private RuntimeException failure;
+
+            ConfigureProjectConcurrently(ProjectInternal project) {
+                this.project = project;
+            }
+
+            @Override
+            public void run(BuildOperationContext context) {
+                if (!project.getState().isUnconfigured()) {
+                    return;
+                }
+                final Timer timer = Time.startTimer();
+                boolean started = concurrentConfiguration.run(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            configure(project);
+                        } catch (RuntimeException e) {
+                            failure = e;
+                        }
+                    }
+                });
+                if (started) {
+                    parallelProjectCount.incrementAndGet();
+                    cumulativeConfigurationTime.addAndGet(timer.getElapsedMillis());
+                }
+            }
+
+            @Override
+            public BuildOperationDescriptor.Builder description() {
+                return BuildOperationDescriptor.displayName("Schedule configuration of " + project.getDisplayName());
+            }
+        }
+    }
 }
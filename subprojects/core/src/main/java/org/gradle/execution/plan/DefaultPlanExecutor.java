@@ -27,6 +27,8 @@ import org.gradle.internal.MutableBoolean;
 import org.gradle.internal.MutableReference;
 import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.internal.concurrent.ManagedExecutor;
+import org.gradle.internal.metrics.Histogram;
+import org.gradle.internal.metrics.Metrics;
 import org.gradle.internal.resources.ResourceLockCoordinationService;
 import org.gradle.internal.resources.ResourceLockState;
 import org.gradle.internal.time.Time;
@@ -46,6 +48,8 @@ import static org.gradle.internal.resources.ResourceLockState.Disposition.RETRY;
 @NonNullApi
 public class DefaultPlanExecutor implements PlanExecutor {
     private static final Logger LOGGER = Logging.getLogger(DefaultPlanExecutor.class);
+    private static final Histogram NODE_SELECTION_TIME = Metrics.histogram("scheduler.node.select.nanos");
+    private static final Histogram NODE_EXECUTION_TIME = Metrics.histogram("scheduler.node.execute.nanos");
     private final int executorCount;
     private final ExecutorFactory executorFactory;
     private final WorkerLeaseService workerLeaseService;
@@ -160,6 +164,7 @@ public class DefaultPlanExecutor implements PlanExecutor {
         private boolean executeNextNode(final WorkerLease workerLease, final Action<Node> nodeExecutor) {
             final MutableReference<Node> selected = MutableReference.empty();
             final MutableBoolean nodesRemaining = new MutableBoolean();
+            long selectionStart = Metrics.isEnabled() ? System.nanoTime() : 0;
             coordinationService.withStateLock(new Transformer<ResourceLockState.Disposition, ResourceLockState>() {
                 @Override
                 public ResourceLockState.Disposition transform(ResourceLockState resourceLockState) {
@@ -190,6 +195,10 @@ public class DefaultPlanExecutor implements PlanExecutor {
 
             Node selectedNode = selected.get();
             if (selectedNode != null) {
+                if (Metrics.isEnabled()) {
+                    // Includes the time spent waiting for a node to become ready
+                    NODE_SELECTION_TIME.record(System.nanoTime() - selectionStart);
+                }
                 execute(selectedNode, workerLease, nodeExecutor);
             }
             return nodesRemaining.get();
@@ -198,10 +207,15 @@ public class DefaultPlanExecutor implements PlanExecutor {
         private void execute(final Node selected, final WorkerLease workerLease, Action<Node> nodeExecutor) {
             try {
                 if (!selected.isComplete()) {
+                    long start = Metrics.isEnabled() ? System.nanoTime() : 0;
                     try {
                         nodeExecutor.execute(selected);
                     } catch (Throwable e) {
                         selected.setExecutionFailure(e);
+                    } finally {
+                        if (Metrics.isEnabled()) {
+                            NODE_EXECUTION_TIME.record(System.nanoTime() - start);
+                        }
                     }
                 }
             } finally {
@@ -19,13 +19,21 @@ import org.gradle.api.UncheckedIOException;
 import org.gradle.api.file.FileTreeElement;
 import org.gradle.internal.IoActions;
 import org.gradle.internal.file.FileMetadataSnapshot;
+import org.gradle.internal.metrics.Histogram;
+import org.gradle.internal.metrics.Metrics;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.InputStream;
+import java.io.IOException;
 
 public class DefaultFileHasher implements FileHasher {
+    private static final Histogram HASH_TIME = Metrics.histogram("hash.file.nanos");
+    /**
+     * Files at least this large are read through a {@link java.nio.channels.FileChannel} into a direct buffer, rather than copied onto the heap first.
+     */
+    private static final long LARGE_FILE_SIZE = 256 * 1024;
+
     private final StreamHasher streamHasher;
 
     public DefaultFileHasher(StreamHasher streamHasher) {
@@ -34,25 +42,38 @@ public class DefaultFileHasher implements FileHasher {
 
     @Override
     public HashCode hash(File file) {
-        try {
-            InputStream inputStream = new FileInputStream(file);
-            try {
-                return streamHasher.hash(inputStream);
-            } finally {
-                IoActions.closeQuietly(inputStream);
-            }
-        } catch (FileNotFoundException e) {
-            throw new UncheckedIOException(String.format("Failed to create MD5 hash for file '%s' as it does not exist.", file), e);
-        }
+        return hash(file, file.length());
     }
 
     @Override
     public HashCode hash(File file, FileMetadataSnapshot fileDetails) {
-        return hash(file);
+        return hash(file, fileDetails.getLength());
     }
 
     @Override
     public HashCode hash(FileTreeElement fileDetails) {
-        return hash(fileDetails.getFile());
+        return hash(fileDetails.getFile(), fileDetails.getSize());
+    }
+
+    private HashCode hash(File file, long length) {
+        try {
+            long start = Metrics.isEnabled() ? System.nanoTime() : 0;
+            FileInputStream inputStream = new FileInputStream(file);
+            try {
+                if (length >= LARGE_FILE_SIZE) {
+                    return streamHasher.hash(inputStream.getChannel());
+                }
+                return streamHasher.hash(inputStream);
+            } finally {
+                IoActions.closeQuietly(inputStream);
+                if (Metrics.isEnabled()) {
+                    HASH_TIME.record(System.nanoTime() - start);
+                }
+            }
+        } catch (FileNotFoundException e) {
+            throw new UncheckedIOException(String.format("Failed to create hash for file '%s' as it does not exist.", file), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(String.format("Failed to create hash for file '%s'.", file), e);
+        }
     }
 }
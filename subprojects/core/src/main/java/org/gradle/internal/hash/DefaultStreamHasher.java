@@ -16,25 +16,42 @@
 package org.gradle.internal.hash;
 
 import org.gradle.api.UncheckedIOException;
+import org.gradle.internal.io.BufferCaster;
 import org.gradle.internal.io.NullOutputStream;
+import org.gradle.internal.metrics.Counter;
+import org.gradle.internal.metrics.Metrics;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
 import java.util.Queue;
 import java.util.concurrent.ArrayBlockingQueue;
 
 public class DefaultStreamHasher implements StreamHasher {
     private static final HashCode SIGNATURE = Hashing.signature(DefaultStreamHasher.class);
+    private static final Counter BYTES_HASHED = Metrics.counter("hash.bytes");
+    private static final int DIRECT_BUFFER_SIZE = 64 * 1024;
 
+    private final HashFunction hashFunction;
     private final Queue<byte[]> buffers = new ArrayBlockingQueue<byte[]>(16);
+    private final Queue<ByteBuffer> directBuffers = new ArrayBlockingQueue<ByteBuffer>(16);
+
+    public DefaultStreamHasher() {
+        this(Hashing.defaultFunction());
+    }
+
+    public DefaultStreamHasher(HashFunction hashFunction) {
+        this.hashFunction = hashFunction;
+    }
 
     @Override
     public HashCode hash(InputStream inputStream) {
         try {
             return doHash(inputStream, NullOutputStream.INSTANCE);
         } catch (IOException e) {
-            throw new UncheckedIOException("Failed to create MD5 hash for file content.", e);
+            throw new UncheckedIOException("Failed to create hash for file content.", e);
         }
     }
 
@@ -46,8 +63,9 @@ public class DefaultStreamHasher implements StreamHasher {
     private HashCode doHash(InputStream inputStream, OutputStream outputStream) throws IOException {
         byte[] buffer = takeBuffer();
         try {
-            PrimitiveHasher hasher = Hashing.newPrimitiveHasher();
+            PrimitiveHasher hasher = hashFunction.newPrimitiveHasher();
             hasher.putHash(SIGNATURE);
+            long total = 0;
             while (true) {
                 int nread = inputStream.read(buffer);
                 if (nread < 0) {
@@ -55,13 +73,44 @@ public class DefaultStreamHasher implements StreamHasher {
                 }
                 outputStream.write(buffer, 0, nread);
                 hasher.putBytes(buffer, 0, nread);
+                total += nread;
             }
+            BYTES_HASHED.add(total);
             return hasher.hash();
         } finally {
             returnBuffer(buffer);
         }
     }
 
+    @Override
+    public HashCode hash(ReadableByteChannel channel) throws IOException {
+        ByteBuffer buffer = takeDirectBuffer();
+        try {
+            PrimitiveHasher hasher = hashFunction.newPrimitiveHasher();
+            hasher.putHash(SIGNATURE);
+            long total = 0;
+            while (channel.read(buffer) >= 0) {
+                BufferCaster.cast(buffer).flip();
+                total += buffer.remaining();
+                hasher.putBytes(buffer);
+                BufferCaster.cast(buffer).clear();
+            }
+            BYTES_HASHED.add(total);
+            return hasher.hash();
+        } finally {
+            BufferCaster.cast(buffer).clear();
+            directBuffers.offer(buffer);
+        }
+    }
+
+    private ByteBuffer takeDirectBuffer() {
+        ByteBuffer buffer = directBuffers.poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(DIRECT_BUFFER_SIZE);
+        }
+        return buffer;
+    }
+
     private void returnBuffer(byte[] buffer) {
         // Retain buffer if there is capacity in the queue, otherwise discard
         buffers.offer(buffer);
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.hash;
+
+import javax.annotation.Nullable;
+
+/**
+ * The hash function used to fingerprint the content of files, together with the name of the cache that holds the file hashes calculated with it.
+ *
+ * <p>Each scheme keeps its hashes in a separately named cache, so hashes calculated by one scheme are never mistaken for hashes calculated by another.
+ * A scheme that changes how it hashes content must also change its cache name.</p>
+ */
+public enum FileContentHashingScheme {
+    /**
+     * Hashes file content with MD5. This is the default.
+     */
+    MD5("md5", Hashing.md5(), "fileHashes"),
+
+    /**
+     * Hashes file content with the 128-bit Murmur3 hash function, which is considerably faster than MD5.
+     * As it is not a cryptographic hash function, it should only be used when the build cache is not shared with untrusted parties.
+     */
+    MURMUR3("murmur3", Hashing.murmur3(), "fileHashes-murmur3-v1");
+
+    /**
+     * Selects the scheme. The scheme is chosen once per process, so the daemon treats this property as part of its JVM arguments and uses a different daemon
+     * when the value changes.
+     */
+    public static final String SYSTEM_PROPERTY = "org.gradle.internal.hash.fileContent";
+
+    private final String id;
+    private final HashFunction hashFunction;
+    private final String cacheName;
+
+    FileContentHashingScheme(String id, HashFunction hashFunction, String cacheName) {
+        this.id = id;
+        this.hashFunction = hashFunction;
+        this.cacheName = cacheName;
+    }
+
+    public HashFunction getHashFunction() {
+        return hashFunction;
+    }
+
+    /**
+     * The name of the file hash cache for this scheme.
+     */
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    /**
+     * Returns the scheme selected by the {@value #SYSTEM_PROPERTY} system property, or {@link #MD5} when it is not set.
+     */
+    public static FileContentHashingScheme fromSystemProperties() {
+        return forId(System.getProperty(SYSTEM_PROPERTY));
+    }
+
+    static FileContentHashingScheme forId(@Nullable String id) {
+        if (id == null) {
+            return MD5;
+        }
+        for (FileContentHashingScheme scheme : values()) {
+            if (scheme.id.equals(id)) {
+                return scheme;
+            }
+        }
+        throw new IllegalArgumentException(String.format("Unknown file content hashing scheme '%s' specified by system property '%s'.", id, SYSTEM_PROPERTY));
+    }
+}
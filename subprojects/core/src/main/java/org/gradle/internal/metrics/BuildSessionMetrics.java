@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.metrics;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import groovy.json.JsonOutput;
+import org.gradle.StartParameter;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.util.GFileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The metrics recorded during a build session, which are the difference between the values of the process wide {@link MetricsRegistry}
+ * at the start of the session and the current values.
+ *
+ * When the {@value #FILE_SYSPROP} system property is set, the metrics are written as JSON to the file it names at the end of the session.
+ */
+public class BuildSessionMetrics implements Stoppable {
+
+    public static final String FILE_SYSPROP = "org.gradle.internal.metrics.file";
+
+    private final MetricsRegistry registry;
+    private final MetricsSnapshot atStart;
+    private final File outputFile;
+
+    public BuildSessionMetrics(MetricsRegistry registry, StartParameter startParameter) {
+        this.registry = registry;
+        this.atStart = registry.getSnapshot();
+        String path = startParameter.getSystemPropertiesArgs().get(FILE_SYSPROP);
+        if (path == null) {
+            path = System.getProperty(FILE_SYSPROP);
+        }
+        if (path == null) {
+            outputFile = null;
+        } else {
+            File file = new File(path);
+            outputFile = file.isAbsolute() ? file : new File(startParameter.getCurrentDir(), path);
+        }
+    }
+
+    /**
+     * Returns the metrics recorded since the start of the build session.
+     */
+    public MetricsSnapshot getMetrics() {
+        return registry.getSnapshot().minus(atStart);
+    }
+
+    @Override
+    public void stop() {
+        if (outputFile == null || !registry.isEnabled()) {
+            return;
+        }
+        try {
+            GFileUtils.mkdirs(outputFile.getParentFile());
+            Files.write(JsonOutput.prettyPrint(JsonOutput.toJson(toJsonModel(getMetrics()))), outputFile, Charsets.UTF_8);
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+
+    private static Map<String, Object> toJsonModel(MetricsSnapshot metrics) {
+        Map<String, Object> histograms = new LinkedHashMap<String, Object>();
+        for (Map.Entry<String, HistogramSnapshot> entry : metrics.getHistograms().entrySet()) {
+            HistogramSnapshot histogram = entry.getValue();
+            Map<String, Object> values = new LinkedHashMap<String, Object>();
+            values.put("count", histogram.getCount());
+            values.put("sum", histogram.getSum());
+            values.put("mean", histogram.getMean());
+            values.put("max", histogram.getMax());
+            values.put("p50", histogram.getValueAtPercentile(50));
+            values.put("p90", histogram.getValueAtPercentile(90));
+            values.put("p99", histogram.getValueAtPercentile(99));
+            histograms.put(entry.getKey(), values);
+        }
+        Map<String, Object> model = new LinkedHashMap<String, Object>();
+        model.put("counters", metrics.getCounters());
+        model.put("histograms", histograms);
+        return model;
+    }
+}
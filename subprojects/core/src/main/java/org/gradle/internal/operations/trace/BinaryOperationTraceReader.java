@@ -0,0 +1,140 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.operations.trace;
+
+import groovy.json.JsonSlurper;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.serialize.Decoder;
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.gradle.internal.operations.trace.BinaryOperationTraceWriter.END;
+import static org.gradle.internal.operations.trace.BinaryOperationTraceWriter.FINISH;
+import static org.gradle.internal.operations.trace.BinaryOperationTraceWriter.MAGIC;
+import static org.gradle.internal.operations.trace.BinaryOperationTraceWriter.PROGRESS;
+import static org.gradle.internal.operations.trace.BinaryOperationTraceWriter.START;
+import static org.gradle.internal.operations.trace.BinaryOperationTraceWriter.VERSION;
+
+/**
+ * Reads a log written by {@link BinaryOperationTraceWriter}, one event at a time.
+ */
+class BinaryOperationTraceReader {
+
+    private final boolean parseModels;
+    private final JsonSlurper slurper = new JsonSlurper();
+    private final List<String> threadNames = new ArrayList<String>();
+
+    /**
+     * @param parseModels Whether to parse the details and results of the operations. When false, only their type is read.
+     */
+    BinaryOperationTraceReader(boolean parseModels) {
+        this.parseModels = parseModels;
+    }
+
+    void read(File logFile, SerializedOperationVisitor visitor) {
+        KryoBackedDecoder decoder;
+        try {
+            decoder = new KryoBackedDecoder(new FileInputStream(logFile), 64 * 1024);
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+        try {
+            if (decoder.readInt() != MAGIC) {
+                throw new IllegalArgumentException(logFile + " is not a binary build operation trace.");
+            }
+            int version = decoder.readSmallInt();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported build operation trace version " + version + " in " + logFile + ".");
+            }
+            while (true) {
+                byte tag = decoder.readByte();
+                if (tag == END) {
+                    return;
+                } else if (tag == START) {
+                    visitor.start(readStart(decoder));
+                } else if (tag == PROGRESS) {
+                    visitor.progress(readProgress(decoder));
+                } else if (tag == FINISH) {
+                    visitor.finish(readFinish(decoder));
+                } else {
+                    throw new IllegalArgumentException("Unexpected record " + tag + " in " + logFile + ".");
+                }
+            }
+        } catch (EOFException e) {
+            // The build did not complete, ignore the last partially written record
+        } catch (Exception e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        } finally {
+            try {
+                decoder.close();
+            } catch (IOException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+        }
+    }
+
+    private SerializedOperationStart readStart(Decoder decoder) throws IOException {
+        long id = decoder.readSmallLong();
+        Long parentId = decoder.readBoolean() ? decoder.readSmallLong() : null;
+        String displayName = decoder.readString();
+        long startTime = decoder.readLong();
+        String threadName = readThreadName(decoder);
+        String detailsClassName = decoder.readNullableString();
+        Object details = readModel(decoder, detailsClassName);
+        return new SerializedOperationStart(id, parentId, displayName, startTime, details, detailsClassName, threadName);
+    }
+
+    private SerializedOperationProgress readProgress(Decoder decoder) throws IOException {
+        long id = decoder.readSmallLong();
+        long time = decoder.readLong();
+        String detailsClassName = decoder.readNullableString();
+        Object details = readModel(decoder, detailsClassName);
+        return new SerializedOperationProgress(id, time, details, detailsClassName);
+    }
+
+    private SerializedOperationFinish readFinish(Decoder decoder) throws IOException {
+        long id = decoder.readSmallLong();
+        long endTime = decoder.readLong();
+        String resultClassName = decoder.readNullableString();
+        Object result = readModel(decoder, resultClassName);
+        String failureMsg = decoder.readNullableString();
+        return new SerializedOperationFinish(id, endTime, result, resultClassName, failureMsg);
+    }
+
+    private String readThreadName(Decoder decoder) throws IOException {
+        int index = decoder.readSmallInt();
+        if (index == threadNames.size()) {
+            threadNames.add(decoder.readString());
+        }
+        return threadNames.get(index);
+    }
+
+    private Object readModel(Decoder decoder, String className) throws IOException {
+        if (className == null) {
+            return null;
+        }
+        String json = decoder.readString();
+        return parseModels ? slurper.parseText(json) : null;
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.operations.trace;
+
+import groovy.json.JsonOutput;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.ManagedExecutor;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the build operation events to a binary log, from a background thread.
+ *
+ * The events are handed over through a bounded queue, so that the memory used by the trace does not grow with the number of operations.
+ * A build thread blocks when the writer falls behind. The details and results of the operations are converted to JSON by the thread that
+ * appends the event, as this is the expensive part, and the writer thread only encodes and writes the records.
+ *
+ * The log is a sequence of records, each starting with a tag, and ends with {@link #END}.
+ * A log that is cut short, for example when the daemon is killed, can still be read up to the last complete record.
+ */
+class BinaryOperationTraceWriter implements Stoppable {
+
+    static final int MAGIC = 0x474f5054;
+    static final int VERSION = 1;
+
+    static final byte END = 0;
+    static final byte START = 1;
+    static final byte PROGRESS = 2;
+    static final byte FINISH = 3;
+
+    private static final int QUEUE_CAPACITY = 16 * 1024;
+    private static final int MAX_DRAIN = 512;
+    private static final Record STOP = new Record(null, null);
+
+    private final BlockingQueue<Record> queue = new ArrayBlockingQueue<Record>(QUEUE_CAPACITY);
+    private final ManagedExecutor executor;
+    private final KryoBackedEncoder encoder;
+    private final Map<String, Integer> threadNames = new HashMap<String, Integer>();
+    private volatile Throwable failure;
+
+    BinaryOperationTraceWriter(File logFile, ExecutorFactory executorFactory) throws FileNotFoundException {
+        this.encoder = new KryoBackedEncoder(new FileOutputStream(logFile), 64 * 1024);
+        encoder.writeInt(MAGIC);
+        encoder.writeSmallInt(VERSION);
+        this.executor = executorFactory.create("Build operation trace writer");
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                writeEvents();
+            }
+        });
+    }
+
+    void append(SerializedOperation operation) {
+        enqueue(new Record(operation, toJson(operation)));
+    }
+
+    private void enqueue(Record record) {
+        try {
+            while (!queue.offer(record, 100, TimeUnit.MILLISECONDS)) {
+                if (failure != null) {
+                    // Stop tracing rather than fail the build, the failure is reported when the trace is stopped
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+
+    private void writeEvents() {
+        List<Record> batch = new ArrayList<Record>(MAX_DRAIN);
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch, MAX_DRAIN - 1);
+                for (Record record : batch) {
+                    if (record == STOP) {
+                        encoder.writeByte(END);
+                        encoder.flush();
+                        return;
+                    }
+                    write(record.operation, record.modelJson);
+                }
+                batch.clear();
+                if (queue.isEmpty()) {
+                    // Keep the log on disk up to date while the build is idle
+                    encoder.flush();
+                }
+            }
+        } catch (Throwable t) {
+            failure = t;
+            queue.clear();
+        }
+    }
+
+    private static String toJson(SerializedOperation operation) {
+        Object model;
+        if (operation instanceof SerializedOperationStart) {
+            model = ((SerializedOperationStart) operation).details;
+        } else if (operation instanceof SerializedOperationProgress) {
+            model = ((SerializedOperationProgress) operation).details;
+        } else {
+            model = ((SerializedOperationFinish) operation).result;
+        }
+        return model == null ? null : JsonOutput.toJson(model);
+    }
+
+    private void write(SerializedOperation operation, String modelJson) throws Exception {
+        if (operation instanceof SerializedOperationStart) {
+            SerializedOperationStart start = (SerializedOperationStart) operation;
+            encoder.writeByte(START);
+            encoder.writeSmallLong(start.id);
+            encoder.writeBoolean(start.parentId != null);
+            if (start.parentId != null) {
+                encoder.writeSmallLong(start.parentId);
+            }
+            encoder.writeString(start.displayName);
+            encoder.writeLong(start.startTime);
+            writeThreadName(start.threadName);
+            writeModel(start.detailsClassName, modelJson);
+        } else if (operation instanceof SerializedOperationProgress) {
+            SerializedOperationProgress progress = (SerializedOperationProgress) operation;
+            encoder.writeByte(PROGRESS);
+            encoder.writeSmallLong(progress.id);
+            encoder.writeLong(progress.time);
+            writeModel(progress.detailsClassName, modelJson);
+        } else {
+            SerializedOperationFinish finish = (SerializedOperationFinish) operation;
+            encoder.writeByte(FINISH);
+            encoder.writeSmallLong(finish.id);
+            encoder.writeLong(finish.endTime);
+            writeModel(finish.resultClassName, modelJson);
+            encoder.writeNullableString(finish.failureMsg);
+        }
+    }
+
+    private void writeThreadName(String threadName) throws Exception {
+        // Each thread name is written once, and referred to by index afterwards
+        Integer index = threadNames.get(threadName);
+        if (index == null) {
+            index = threadNames.size();
+            threadNames.put(threadName, index);
+            encoder.writeSmallInt(index);
+            encoder.writeString(threadName);
+        } else {
+            encoder.writeSmallInt(index);
+        }
+    }
+
+    private void writeModel(String className, String modelJson) throws Exception {
+        encoder.writeNullableString(className);
+        if (className != null) {
+            encoder.writeString(modelJson);
+        }
+    }
+
+    @Override
+    public void stop() {
+        try {
+            enqueue(STOP);
+            executor.stop();
+        } finally {
+            encoder.close();
+        }
+        if (failure != null) {
+            throw UncheckedException.throwAsUncheckedException(failure);
+        }
+    }
+
+    private static class Record {
+        final SerializedOperation operation;
+        final String modelJson;
+
+        Record(SerializedOperation operation, String modelJson) {
+            this.operation = operation;
+            this.modelJson = modelJson;
+        }
+    }
+}
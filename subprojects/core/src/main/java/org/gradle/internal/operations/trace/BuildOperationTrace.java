@@ -30,6 +30,7 @@ import org.gradle.api.internal.InternalAction;
 import org.gradle.api.invocation.Gradle;
 import org.gradle.internal.InternalBuildAdapter;
 import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.internal.concurrent.Stoppable;
 import org.gradle.internal.event.ListenerManager;
 import org.gradle.internal.operations.BuildOperationDescriptor;
@@ -47,8 +48,11 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.Writer;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
@@ -82,6 +86,11 @@ import static org.gradle.internal.Cast.uncheckedCast;
  * The «path-base» param is optional.
  * If invoked as `-Dorg.gradle.internal.operations.trace`, a base value of "operations" will be used.
  *
+ * For large builds, `-Dorg.gradle.internal.operations.trace.format=binary` can be used instead.
+ * The events are then written incrementally to «path-base»-log.bin, from a background thread and using bounded memory,
+ * and no trees are created at the end of the build.
+ * The trees, or a Chrome trace-event file, can be created afterwards with {@link BuildOperationTraceConverter}.
+ *
  * The “trace” produced here is different to the trace produced by Gradle Profiler.
  * There, the focus is analyzing the performance profile.
  * Here, the focus is debugging/developing the information structure of build operations.
@@ -92,18 +101,26 @@ public class BuildOperationTrace implements Stoppable {
 
     public static final String SYSPROP = "org.gradle.internal.operations.trace";
 
+    /**
+     * The format of the log, either "json" (the default) or "binary".
+     */
+    public static final String FORMAT_SYSPROP = "org.gradle.internal.operations.trace.format";
+
+    static final String BINARY_FORMAT = "binary";
+
     private static final byte[] NEWLINE = "\n".getBytes();
     private static final byte[] INDENT = "    ".getBytes();
 
     private final String basePath;
     private final OutputStream logOutputStream;
+    private final BinaryOperationTraceWriter binaryWriter;
 
     private final BuildOperationListenerManager buildOperationListenerManager;
     private final ListenerManager listenerManager;
 
     private final BuildOperationListener listener = new LoggingListener();
 
-    public BuildOperationTrace(StartParameter startParameter, BuildOperationListenerManager buildOperationListenerManager, ListenerManager listenerManager) {
+    public BuildOperationTrace(StartParameter startParameter, BuildOperationListenerManager buildOperationListenerManager, ListenerManager listenerManager, ExecutorFactory executorFactory) {
         this.buildOperationListenerManager = buildOperationListenerManager;
         this.listenerManager = listenerManager;
 
@@ -112,23 +129,38 @@ public class BuildOperationTrace implements Stoppable {
         if (basePath == null) {
             basePath = System.getProperty(SYSPROP);
         }
+        String format = sysProps.get(FORMAT_SYSPROP);
+        if (format == null) {
+            format = System.getProperty(FORMAT_SYSPROP);
+        }
 
         this.basePath = basePath;
         if (this.basePath == null || basePath.equals(Boolean.FALSE.toString())) {
             this.logOutputStream = null;
+            this.binaryWriter = null;
             return;
         }
 
         try {
-            File logFile = logFile(basePath);
+            boolean binary = BINARY_FORMAT.equals(format);
+            File logFile = binary ? binaryLogFile(basePath) : logFile(basePath);
             GFileUtils.mkdirs(logFile.getParentFile());
-            if (logFile.isFile()) {
-                GFileUtils.forceDelete(logFile);
+            // Remove the log of the other format as well, so that the log is not read from a previous build
+            for (File file : Arrays.asList(logFile(basePath), binaryLogFile(basePath))) {
+                if (file.isFile()) {
+                    GFileUtils.forceDelete(file);
+                }
             }
             //noinspection ResultOfMethodCallIgnored
             logFile.createNewFile();
 
-            this.logOutputStream = new BufferedOutputStream(new FileOutputStream(logFile));
+            if (binary) {
+                this.logOutputStream = null;
+                this.binaryWriter = new BinaryOperationTraceWriter(logFile, executorFactory);
+            } else {
+                this.logOutputStream = new BufferedOutputStream(new FileOutputStream(logFile));
+                this.binaryWriter = null;
+            }
         } catch (IOException e) {
             throw UncheckedException.throwAsUncheckedException(e);
         }
@@ -142,6 +174,11 @@ public class BuildOperationTrace implements Stoppable {
         buildOperationListenerManager.removeListener(listener);
         listenerManager.removeListener(listener);
 
+        if (binaryWriter != null) {
+            // The trees are created on demand, using BuildOperationTraceConverter
+            binaryWriter.stop();
+        }
+
         if (logOutputStream != null) {
             try {
                 synchronized (logOutputStream) {
@@ -149,26 +186,67 @@ public class BuildOperationTrace implements Stoppable {
                 }
 
                 final List<BuildOperationRecord> roots = readLogToTreeRoots(logFile(basePath));
-                writeDetailTree(roots);
-                writeSummaryTree(roots);
+                writeDetailTree(roots, file(basePath, "-tree.json"));
+                writeSummaryTree(roots, file(basePath, "-tree.txt"));
             } catch (IOException e) {
                 throw UncheckedException.throwAsUncheckedException(e);
             }
         }
     }
 
-    private void writeDetailTree(List<BuildOperationRecord> roots) throws IOException {
+    /**
+     * Writes the tree as JSON, one record at a time, rather than building the JSON for the whole tree in memory.
+     */
+    static void writeDetailTree(List<BuildOperationRecord> roots, File file) throws IOException {
+        Writer writer = Files.asCharSink(file, Charsets.UTF_8).openBufferedStream();
         try {
-            String rawJson = JsonOutput.toJson(BuildOperationTree.serialize(roots));
-            String prettyJson = JsonOutput.prettyPrint(rawJson);
-            Files.asCharSink(file(basePath, "-tree.json"), Charsets.UTF_8).write(prettyJson);
-        } catch (OutOfMemoryError e) {
-            System.err.println("Failed to write build operation trace JSON due to out of memory.");
+            writeRecords(writer, roots, "");
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static void writeRecords(Writer writer, List<BuildOperationRecord> records, String indent) throws IOException {
+        String recordIndent = indent + "    ";
+        writer.write("[");
+        for (int i = 0; i < records.size(); i++) {
+            writer.write(i == 0 ? "\n" : ",\n");
+            writer.write(recordIndent);
+            writeRecord(writer, records.get(i), recordIndent);
+        }
+        if (!records.isEmpty()) {
+            writer.write("\n");
+            writer.write(indent);
+        }
+        writer.write("]");
+    }
+
+    private static void writeRecord(Writer writer, BuildOperationRecord record, String indent) throws IOException {
+        String fieldIndent = indent + "    ";
+        writer.write("{");
+        boolean first = true;
+        for (Map.Entry<String, ?> field : record.toSerializable().entrySet()) {
+            writer.write(first ? "\n" : ",\n");
+            first = false;
+            writer.write(fieldIndent);
+            writer.write(JsonOutput.toJson(field.getKey()));
+            writer.write(": ");
+            Object value = field.getValue();
+            if (field.getKey().equals("children")) {
+                writeRecords(writer, record.children, fieldIndent);
+            } else if (value instanceof Map || value instanceof Collection) {
+                writer.write(JsonOutput.prettyPrint(JsonOutput.toJson(value)).replace("\n", "\n" + fieldIndent));
+            } else {
+                writer.write(JsonOutput.toJson(value));
+            }
         }
+        writer.write("\n");
+        writer.write(indent);
+        writer.write("}");
     }
 
-    private void writeSummaryTree(final List<BuildOperationRecord> roots) throws IOException {
-        Files.asCharSink(file(basePath, "-tree.txt"), Charsets.UTF_8).writeLines(new Iterable<String>() {
+    static void writeSummaryTree(final List<BuildOperationRecord> roots, File file) throws IOException {
+        Files.asCharSink(file, Charsets.UTF_8).writeLines(new Iterable<String>() {
             @Override
             @Nonnull
             public Iterator<String> iterator() {
@@ -252,77 +330,35 @@ public class BuildOperationTrace implements Stoppable {
     }
 
     public static BuildOperationTree read(String basePath) {
-        List<BuildOperationRecord> roots = readLogToTreeRoots(logFile(basePath));
+        List<BuildOperationRecord> roots = readLogToTreeRoots(basePath);
         return new BuildOperationTree(roots);
     }
 
+    static List<BuildOperationRecord> readLogToTreeRoots(String basePath) {
+        File binaryLogFile = binaryLogFile(basePath);
+        if (binaryLogFile.isFile()) {
+            TreeBuilder treeBuilder = new TreeBuilder(binaryLogFile);
+            new BinaryOperationTraceReader(true).read(binaryLogFile, treeBuilder);
+            return treeBuilder.getRoots();
+        }
+        return readLogToTreeRoots(logFile(basePath));
+    }
+
     private static List<BuildOperationRecord> readLogToTreeRoots(final File logFile) {
         try {
             final JsonSlurper slurper = new JsonSlurper();
-
-            final List<BuildOperationRecord> roots = new ArrayList<BuildOperationRecord>();
-            final Map<Object, PendingOperation> pendings = new HashMap<Object, PendingOperation>();
-            final Map<Object, List<BuildOperationRecord>> childrens = new HashMap<Object, List<BuildOperationRecord>>();
+            final TreeBuilder treeBuilder = new TreeBuilder(logFile);
 
             Files.asCharSource(logFile, Charsets.UTF_8).readLines(new LineProcessor<Void>() {
                 @Override
                 public boolean processLine(@SuppressWarnings("NullableProblems") String line) {
                     Map<String, ?> map = uncheckedCast(slurper.parseText(line));
                     if (map.containsKey("startTime")) {
-                        SerializedOperationStart serialized = new SerializedOperationStart(map);
-                        pendings.put(serialized.id, new PendingOperation(serialized));
-                        childrens.put(serialized.id, new LinkedList<BuildOperationRecord>());
+                        treeBuilder.start(new SerializedOperationStart(map));
                     } else if (map.containsKey("time")) {
-                        SerializedOperationProgress serialized = new SerializedOperationProgress(map);
-                        PendingOperation pending = pendings.get(serialized.id);
-                        assert pending != null : "did not find owner of progress event with ID " + serialized.id;
-                        pending.progress.add(serialized);
+                        treeBuilder.progress(new SerializedOperationProgress(map));
                     } else {
-                        SerializedOperationFinish finish = new SerializedOperationFinish(map);
-
-                        PendingOperation pending = pendings.remove(finish.id);
-                        assert pending != null;
-
-                        List<BuildOperationRecord> children = childrens.remove(finish.id);
-                        assert children != null;
-
-                        SerializedOperationStart start = pending.start;
-
-                        Map<String, ?> detailsMap = uncheckedCast(start.details);
-                        Map<String, ?> resultMap = uncheckedCast(finish.result);
-
-                        List<BuildOperationRecord.Progress> progresses = new ArrayList<BuildOperationRecord.Progress>();
-                        for (SerializedOperationProgress progress : pending.progress) {
-                            Map<String, ?> progressDetailsMap = uncheckedCast(progress.details);
-                            progresses.add(new BuildOperationRecord.Progress(
-                                progress.time,
-                                progressDetailsMap,
-                                progress.detailsClassName
-                            ));
-                        }
-
-                        BuildOperationRecord record = new BuildOperationRecord(
-                            start.id,
-                            start.parentId,
-                            start.displayName,
-                            start.startTime,
-                            finish.endTime,
-                            detailsMap == null ? null : Collections.unmodifiableMap(detailsMap),
-                            start.detailsClassName,
-                            resultMap == null ? null : Collections.unmodifiableMap(resultMap),
-                            finish.resultClassName,
-                            finish.failureMsg,
-                            progresses,
-                            BuildOperationRecord.ORDERING.immutableSortedCopy(children)
-                        );
-
-                        if (start.parentId == null) {
-                            roots.add(record);
-                        } else {
-                            List<BuildOperationRecord> parentChildren = childrens.get(start.parentId);
-                            assert parentChildren != null : "parentChildren != null '" + line + "' from " + logFile;
-                            parentChildren.add(record);
-                        }
+                        treeBuilder.finish(new SerializedOperationFinish(map));
                     }
 
                     return true;
@@ -334,9 +370,7 @@ public class BuildOperationTrace implements Stoppable {
                 }
             });
 
-            assert pendings.isEmpty();
-
-            return roots;
+            return treeBuilder.getRoots();
         } catch (Exception e) {
             throw UncheckedException.throwAsUncheckedException(e);
         }
@@ -347,10 +381,91 @@ public class BuildOperationTrace implements Stoppable {
         return file(basePath, "-log.txt");
     }
 
-    private static File file(String base, String suffix) {
+    static File binaryLogFile(String basePath) {
+        return file(basePath, "-log.bin");
+    }
+
+    static File file(String base, String suffix) {
         return new File((base == null || base.trim().isEmpty() ? "operations" : base) + suffix).getAbsoluteFile();
     }
 
+    private static class TreeBuilder implements SerializedOperationVisitor {
+
+        private final File logFile;
+        private final List<BuildOperationRecord> roots = new ArrayList<BuildOperationRecord>();
+        private final Map<Object, PendingOperation> pendings = new HashMap<Object, PendingOperation>();
+        private final Map<Object, List<BuildOperationRecord>> childrens = new HashMap<Object, List<BuildOperationRecord>>();
+
+        TreeBuilder(File logFile) {
+            this.logFile = logFile;
+        }
+
+        @Override
+        public void start(SerializedOperationStart serialized) {
+            pendings.put(serialized.id, new PendingOperation(serialized));
+            childrens.put(serialized.id, new LinkedList<BuildOperationRecord>());
+        }
+
+        @Override
+        public void progress(SerializedOperationProgress serialized) {
+            PendingOperation pending = pendings.get(serialized.id);
+            assert pending != null : "did not find owner of progress event with ID " + serialized.id;
+            pending.progress.add(serialized);
+        }
+
+        @Override
+        public void finish(SerializedOperationFinish finish) {
+            PendingOperation pending = pendings.remove(finish.id);
+            assert pending != null;
+
+            List<BuildOperationRecord> children = childrens.remove(finish.id);
+            assert children != null;
+
+            SerializedOperationStart start = pending.start;
+
+            Map<String, ?> detailsMap = uncheckedCast(start.details);
+            Map<String, ?> resultMap = uncheckedCast(finish.result);
+
+            List<BuildOperationRecord.Progress> progresses = new ArrayList<BuildOperationRecord.Progress>();
+            for (SerializedOperationProgress progress : pending.progress) {
+                Map<String, ?> progressDetailsMap = uncheckedCast(progress.details);
+                progresses.add(new BuildOperationRecord.Progress(
+                    progress.time,
+                    progressDetailsMap,
+                    progress.detailsClassName
+                ));
+            }
+
+            BuildOperationRecord record = new BuildOperationRecord(
+                start.id,
+                start.parentId,
+                start.displayName,
+                start.startTime,
+                finish.endTime,
+                detailsMap == null ? null : Collections.unmodifiableMap(detailsMap),
+                start.detailsClassName,
+                resultMap == null ? null : Collections.unmodifiableMap(resultMap),
+                finish.resultClassName,
+                finish.failureMsg,
+                progresses,
+                BuildOperationRecord.ORDERING.immutableSortedCopy(children)
+            );
+
+            if (start.parentId == null) {
+                roots.add(record);
+            } else {
+                List<BuildOperationRecord> parentChildren = childrens.get(start.parentId);
+                assert parentChildren != null : "parentChildren != null for operation " + start.id + " from " + logFile;
+                parentChildren.add(record);
+            }
+        }
+
+        List<BuildOperationRecord> getRoots() {
+            assert pendings.isEmpty();
+            return roots;
+        }
+    }
+
     static class PendingOperation {
 
         final SerializedOperationStart start;
@@ -463,6 +578,10 @@ public class BuildOperationTrace implements Stoppable {
 
             @SuppressWarnings("ConstantConditions")
             private void write() {
+                if (binaryWriter != null) {
+                    binaryWriter.append(operation);
+                    return;
+                }
                 String json = JsonOutput.toJson(operation.toMap());
                 try {
                     synchronized (logOutputStream) {
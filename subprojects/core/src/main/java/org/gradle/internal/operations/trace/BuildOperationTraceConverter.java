@@ -0,0 +1,152 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.operations.trace;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import groovy.json.JsonOutput;
+import org.gradle.internal.UncheckedException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Converts a build operation trace log to one of the other representations, outside of the build.
+ *
+ * Usage: {@code java -cp "«gradle-home»/lib/*" org.gradle.internal.operations.trace.BuildOperationTraceConverter «path-base» json|txt|chrome}
+ *
+ * - json: «path-base»-tree.json, the JSON tree of the operations
+ * - txt: «path-base»-tree.txt, the simplified tree of the operations
+ * - chrome: «path-base»-chrome.json, a trace-event file that can be opened with chrome://tracing or Perfetto. Requires a binary log.
+ *
+ * The Chrome trace is written while reading the log, holding only the operations that are running, so it can be created for traces of any size.
+ */
+public class BuildOperationTraceConverter {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BuildOperationTraceConverter <path-base> json|txt|chrome");
+            System.exit(1);
+        }
+        String basePath = args[0];
+        String format = args[1];
+        File outputFile;
+        if (format.equals("json")) {
+            outputFile = BuildOperationTrace.file(basePath, "-tree.json");
+            BuildOperationTrace.writeDetailTree(BuildOperationTrace.readLogToTreeRoots(basePath), outputFile);
+        } else if (format.equals("txt")) {
+            outputFile = BuildOperationTrace.file(basePath, "-tree.txt");
+            BuildOperationTrace.writeSummaryTree(BuildOperationTrace.readLogToTreeRoots(basePath), outputFile);
+        } else if (format.equals("chrome")) {
+            outputFile = BuildOperationTrace.file(basePath, "-chrome.json");
+            writeChromeTrace(BuildOperationTrace.binaryLogFile(basePath), outputFile);
+        } else {
+            throw new IllegalArgumentException("Unknown format '" + format + "', expected one of json, txt or chrome.");
+        }
+        System.out.println("Wrote " + outputFile);
+    }
+
+    static void writeChromeTrace(File binaryLogFile, File outputFile) throws IOException {
+        if (!binaryLogFile.isFile()) {
+            throw new IllegalArgumentException("Binary build operation trace " + binaryLogFile + " not found. Run the build with -D" + BuildOperationTrace.FORMAT_SYSPROP + "=binary.");
+        }
+        Writer writer = Files.asCharSink(outputFile, Charsets.UTF_8).openBufferedStream();
+        try {
+            writer.write("{\"traceEvents\":[\n");
+            new BinaryOperationTraceReader(false).read(binaryLogFile, new ChromeTraceWriter(writer));
+            writer.write("\n]}\n");
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static class ChromeTraceWriter implements SerializedOperationVisitor {
+        private final Writer writer;
+        private final Map<Long, SerializedOperationStart> running = new HashMap<Long, SerializedOperationStart>();
+        private final Map<String, Integer> threadIds = new HashMap<String, Integer>();
+        private boolean first = true;
+
+        ChromeTraceWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void start(SerializedOperationStart start) {
+            running.put(start.id, start);
+        }
+
+        @Override
+        public void progress(SerializedOperationProgress progress) {
+        }
+
+        @Override
+        public void finish(SerializedOperationFinish finish) {
+            SerializedOperationStart start = running.remove(finish.id);
+            if (start == null) {
+                return;
+            }
+            StringBuilder event = new StringBuilder();
+            event.append("{\"name\":").append(JsonOutput.toJson(start.displayName));
+            if (start.detailsClassName != null) {
+                event.append(",\"cat\":").append(JsonOutput.toJson(simpleName(start.detailsClassName)));
+            }
+            event.append(",\"ph\":\"X\",\"pid\":1,\"tid\":").append(threadId(start.threadName));
+            event.append(",\"ts\":").append(start.startTime * 1000);
+            event.append(",\"dur\":").append((finish.endTime - start.startTime) * 1000);
+            event.append(",\"args\":{\"id\":").append(start.id);
+            if (start.parentId != null) {
+                event.append(",\"parentId\":").append(start.parentId);
+            }
+            if (finish.failureMsg != null) {
+                event.append(",\"failure\":").append(JsonOutput.toJson(finish.failureMsg));
+            }
+            event.append("}}");
+            write(event);
+        }
+
+        private int threadId(String threadName) {
+            Integer threadId = threadIds.get(threadName);
+            if (threadId == null) {
+                threadId = threadIds.size() + 1;
+                threadIds.put(threadName, threadId);
+                write(new StringBuilder("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":").append(threadId)
+                    .append(",\"args\":{\"name\":").append(JsonOutput.toJson(threadName)).append("}}"));
+            }
+            return threadId;
+        }
+
+        private void write(CharSequence event) {
+            try {
+                if (!first) {
+                    writer.write(",\n");
+                }
+                first = false;
+                writer.append(event);
+            } catch (IOException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+        }
+
+        private static String simpleName(String className) {
+            return className.substring(Math.max(className.lastIndexOf('.'), className.lastIndexOf('$')) + 1);
+        }
+    }
+}
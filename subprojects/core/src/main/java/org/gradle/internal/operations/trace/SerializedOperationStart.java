@@ -35,6 +35,9 @@ class SerializedOperationStart implements SerializedOperation {
     final Object details;
     final String detailsClassName;
 
+    // Only recorded by the binary trace
+    final String threadName;
+
     SerializedOperationStart(BuildOperationDescriptor descriptor, OperationStartEvent startEvent) {
         this.id = descriptor.getId().getId();
         this.parentId = descriptor.getParentId() == null ? null : descriptor.getParentId().getId();
@@ -42,6 +45,17 @@ class SerializedOperationStart implements SerializedOperation {
         this.startTime = startEvent.getStartTime();
         this.details = toSerializableModel(descriptor.getDetails());
         this.detailsClassName = details == null ? null : descriptor.getDetails().getClass().getName();
+        this.threadName = Thread.currentThread().getName();
+    }
+
+    SerializedOperationStart(long id, Long parentId, String displayName, long startTime, Object details, String detailsClassName, String threadName) {
+        this.id = id;
+        this.parentId = parentId;
+        this.displayName = displayName;
+        this.startTime = startTime;
+        this.details = details;
+        this.detailsClassName = detailsClassName;
+        this.threadName = threadName;
     }
 
     SerializedOperationStart(Map<String, ?> map) {
@@ -52,6 +66,7 @@ class SerializedOperationStart implements SerializedOperation {
         this.startTime = (Long) map.get("startTime");
         this.details = map.get("details");
         this.detailsClassName = (String) map.get("detailsClassName");
+        this.threadName = null;
     }
 
     public Map<String, ?> toMap() {
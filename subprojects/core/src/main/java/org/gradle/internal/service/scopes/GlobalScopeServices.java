@@ -83,6 +83,7 @@ import org.gradle.internal.event.ListenerManager;
 import org.gradle.internal.filewatch.DefaultFileWatcherFactory;
 import org.gradle.internal.filewatch.FileWatcherFactory;
 import org.gradle.internal.hash.DefaultStreamHasher;
+import org.gradle.internal.hash.FileContentHashingScheme;
 import org.gradle.internal.hash.StreamHasher;
 import org.gradle.internal.installation.CurrentGradleInstallation;
 import org.gradle.internal.installation.GradleRuntimeShadedJarDetector;
@@ -91,6 +92,8 @@ import org.gradle.internal.logging.events.OutputEventListener;
 import org.gradle.internal.logging.progress.DefaultProgressLoggerFactory;
 import org.gradle.internal.logging.progress.ProgressLoggerFactory;
 import org.gradle.internal.logging.services.ProgressLoggingBridge;
+import org.gradle.internal.metrics.Metrics;
+import org.gradle.internal.metrics.MetricsRegistry;
 import org.gradle.internal.nativeintegration.filesystem.FileSystem;
 import org.gradle.internal.operations.BuildOperationIdFactory;
 import org.gradle.internal.operations.BuildOperationListenerManager;
@@ -369,11 +372,20 @@ public class GlobalScopeServices extends BasicGlobalScopeServices {
         return new DefaultTaskClassInfoStore(cacheFactory);
     }
 
-    StreamHasher createStreamHasher() {
-        return new DefaultStreamHasher();
+    FileContentHashingScheme createFileContentHashingScheme() {
+        // Read once per process: the daemon client starts a different daemon when the property changes
+        return FileContentHashingScheme.fromSystemProperties();
+    }
+
+    StreamHasher createStreamHasher(FileContentHashingScheme fileContentHashingScheme) {
+        return new DefaultStreamHasher(fileContentHashingScheme.getHashFunction());
     }
 
     Clock createClock() {
         return Time.clock();
     }
+
+    MetricsRegistry createMetricsRegistry() {
+        return Metrics.registry();
+    }
 }
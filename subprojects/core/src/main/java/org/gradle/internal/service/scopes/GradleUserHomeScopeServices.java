@@ -71,6 +71,7 @@ import org.gradle.internal.file.JarCache;
 import org.gradle.internal.fingerprint.classpath.ClasspathFingerprinter;
 import org.gradle.internal.fingerprint.classpath.impl.DefaultClasspathFingerprinter;
 import org.gradle.internal.hash.DefaultFileHasher;
+import org.gradle.internal.hash.FileContentHashingScheme;
 import org.gradle.internal.hash.FileHasher;
 import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.hash.StreamHasher;
@@ -79,7 +80,8 @@ import org.gradle.internal.jvm.inspection.JvmVersionDetector;
 import org.gradle.internal.logging.LoggingManagerInternal;
 import org.gradle.internal.logging.events.OutputEventListener;
 import org.gradle.internal.nativeintegration.filesystem.FileSystem;
-import org.gradle.internal.remote.MessagingServer;
+import org.gradle.internal.remote.services.LocalMessagingServer;
+import org.gradle.internal.remote.services.MessagingServices;
 import org.gradle.internal.resource.local.FileAccessTimeJournal;
 import org.gradle.internal.serialize.HashCodeSerializer;
 import org.gradle.internal.service.ServiceRegistration;
@@ -134,8 +136,8 @@ public class GradleUserHomeScopeServices {
         return timeStampInspector;
     }
 
-    FileHasher createCachingFileHasher(StringInterner stringInterner, CrossBuildFileHashCache fileStore, FileSystem fileSystem, GlobalScopeFileTimeStampInspector fileTimeStampInspector, StreamHasher streamHasher) {
-        CachingFileHasher fileHasher = new CachingFileHasher(new DefaultFileHasher(streamHasher), fileStore, stringInterner, fileTimeStampInspector, "fileHashes", fileSystem);
+    FileHasher createCachingFileHasher(StringInterner stringInterner, CrossBuildFileHashCache fileStore, FileSystem fileSystem, GlobalScopeFileTimeStampInspector fileTimeStampInspector, StreamHasher streamHasher, FileContentHashingScheme fileContentHashingScheme) {
+        CachingFileHasher fileHasher = new CachingFileHasher(new DefaultFileHasher(streamHasher), fileStore, stringInterner, fileTimeStampInspector, fileContentHashingScheme.getCacheName(), fileSystem);
         fileTimeStampInspector.attach(fileHasher);
         return fileHasher;
     }
@@ -221,12 +223,18 @@ public class GradleUserHomeScopeServices {
         return new DefaultCachedClasspathTransformer(cacheRepository, new JarCache(fileHasher), fileAccessTimeJournal, fileStores, usedGradleVersions);
     }
 
-    WorkerProcessFactory createWorkerProcessFactory(LoggingManagerInternal loggingManagerInternal, MessagingServer messagingServer, ClassPathRegistry classPathRegistry,
+    LocalMessagingServer createLocalMessagingServer(MessagingServices messagingServices, GradleUserHomeDirProvider gradleUserHomeDirProvider) {
+        // Worker processes connect over Unix domain sockets in the daemon registry directory, when enabled, as this directory is owned by the user
+        File socketDir = new File(gradleUserHomeDirProvider.getGradleUserHomeDirectory(), "daemon/" + GradleVersion.current().getVersion());
+        return messagingServices.newLocalMessagingServer(socketDir);
+    }
+
+    WorkerProcessFactory createWorkerProcessFactory(LoggingManagerInternal loggingManagerInternal, LocalMessagingServer localMessagingServer, ClassPathRegistry classPathRegistry,
                                                     TemporaryFileProvider temporaryFileProvider, JavaExecHandleFactory execHandleFactory, JvmVersionDetector jvmVersionDetector,
                                                     MemoryManager memoryManager, GradleUserHomeDirProvider gradleUserHomeDirProvider, OutputEventListener outputEventListener) {
         return new DefaultWorkerProcessFactory(
             loggingManagerInternal,
-            messagingServer,
+            localMessagingServer,
             classPathRegistry,
             new LongIdGenerator(),
             gradleUserHomeDirProvider.getGradleUserHomeDirectory(),
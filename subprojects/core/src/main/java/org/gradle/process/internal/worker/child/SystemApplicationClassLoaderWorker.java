@@ -26,10 +26,10 @@ import org.gradle.internal.event.ListenerManager;
 import org.gradle.internal.io.ClassLoaderObjectInputStream;
 import org.gradle.internal.logging.LoggingManagerInternal;
 import org.gradle.internal.logging.services.LoggingServiceRegistry;
+import org.gradle.internal.remote.Address;
 import org.gradle.internal.remote.MessagingClient;
 import org.gradle.internal.remote.ObjectConnection;
-import org.gradle.internal.remote.internal.inet.MultiChoiceAddress;
-import org.gradle.internal.remote.internal.inet.MultiChoiceAddressSerializer;
+import org.gradle.internal.remote.internal.unix.LocalServerAddressSerializer;
 import org.gradle.internal.remote.services.MessagingServices;
 import org.gradle.internal.serialize.Decoder;
 import org.gradle.internal.serialize.InputStreamBackedDecoder;
@@ -94,7 +94,7 @@ public class SystemApplicationClassLoaderWorker implements Callable<Void> {
         File gradleUserHomeDir = new File(gradleUserHomeDirPath);
 
         // Read server address and start connecting
-        MultiChoiceAddress serverAddress = new MultiChoiceAddressSerializer().read(decoder);
+        Address serverAddress = new LocalServerAddressSerializer().read(decoder);
         MessagingServices messagingServices = new MessagingServices();
         final WorkerServices workerServices = new WorkerServices(messagingServices, gradleUserHomeDir);
 
@@ -20,7 +20,7 @@ import org.gradle.cache.CacheDecorator
 import org.gradle.cache.internal.DefaultCacheRepository
 import org.gradle.cache.internal.DefaultCacheScopeMapping
 import org.gradle.cache.internal.InMemoryCacheDecoratorFactory
-import org.gradle.internal.resource.local.FileAccessTimeJournal
+import org.gradle.internal.resource.local.IndexedFileAccessTimeJournal
 import org.gradle.test.fixtures.file.TestFile
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
 import org.gradle.testfixtures.internal.InMemoryCacheFactory
@@ -29,6 +29,8 @@ import org.junit.Rule
 import spock.lang.Specification
 import spock.lang.Subject
 
+import java.util.concurrent.TimeUnit
+
 import static org.gradle.api.internal.changedetection.state.DefaultFileAccessTimeJournal.CACHE_KEY
 import static org.gradle.api.internal.changedetection.state.DefaultFileAccessTimeJournal.INCEPTION_TIMESTAMP_KEY
 import static org.gradle.api.internal.changedetection.state.DefaultFileAccessTimeJournal.FILE_ACCESS_PROPERTIES_FILE_NAME
@@ -50,7 +52,7 @@ class DefaultFileAccessTimeJournalTest extends Specification {
         }
     }
 
-    @Subject FileAccessTimeJournal journal = new DefaultFileAccessTimeJournal(cacheRepository, cacheDecoratorFactory)
+    @Subject IndexedFileAccessTimeJournal journal = new DefaultFileAccessTimeJournal(cacheRepository, cacheDecoratorFactory)
 
     def file = tmpDir.createFile("a/1.txt").makeOlder()
 
@@ -103,6 +105,176 @@ class DefaultFileAccessTimeJournalTest extends Specification {
         journal.getLastAccessTime(file) == file.lastModified()
     }
 
+    def "visits files accessed before timestamp below base directory in order of last access"() {
+        given:
+        def now = System.currentTimeMillis()
+        def old = tmpDir.createFile("a/old.txt")
+        def older = tmpDir.createFile("a/older.txt")
+        def recent = tmpDir.createFile("a/recent.txt")
+        def outside = tmpDir.createFile("b/outside.txt")
+        journal.setLastAccessTime(recent, now)
+        journal.setLastAccessTime(outside, now - TimeUnit.DAYS.toMillis(5))
+        journal.setLastAccessTime(old, now - TimeUnit.DAYS.toMillis(3))
+        journal.setLastAccessTime(older, now - TimeUnit.DAYS.toMillis(5))
+        writeInceptionTimestamp(now - TimeUnit.DAYS.toMillis(10))
+        journal = reopen()
+
+        expect:
+        visitFilesAccessedBefore(tmpDir.file("a"), now - TimeUnit.DAYS.toMillis(1)) == [older, old]
+    }
+
+    def "does not visit files accessed again after being indexed"() {
+        given:
+        def now = System.currentTimeMillis()
+        def a = tmpDir.createFile("a/a.txt")
+        writeInceptionTimestamp(now - TimeUnit.DAYS.toMillis(10))
+        journal = reopen()
+        journal.setLastAccessTime(a, now - TimeUnit.DAYS.toMillis(5))
+        journal.setLastAccessTime(a, now)
+
+        expect:
+        visitFilesAccessedBefore(tmpDir.file("a"), now - TimeUnit.DAYS.toMillis(1)).empty
+    }
+
+    def "keeps visited files in the index until they are deleted"() {
+        given:
+        def now = System.currentTimeMillis()
+        def a = tmpDir.createFile("a/a.txt")
+        writeInceptionTimestamp(now - TimeUnit.DAYS.toMillis(10))
+        journal = reopen()
+        journal.setLastAccessTime(a, now - TimeUnit.DAYS.toMillis(5))
+
+        expect:
+        visitFilesAccessedBefore(tmpDir.file("a"), now) == [a]
+        visitFilesAccessedBefore(tmpDir.file("a"), now) == [a]
+
+        when:
+        a.delete()
+        journal.deleteLastAccessTime(a)
+
+        then:
+        visitFilesAccessedBefore(tmpDir.file("a"), now).empty
+    }
+
+    def "removes visited files from the index when they no longer exist"() {
+        given:
+        def now = System.currentTimeMillis()
+        def a = tmpDir.createFile("a/a.txt")
+        writeInceptionTimestamp(now - TimeUnit.DAYS.toMillis(10))
+        journal = reopen()
+        journal.setLastAccessTime(a, now - TimeUnit.DAYS.toMillis(5))
+        a.delete()
+
+        expect:
+        visitFilesAccessedBefore(tmpDir.file("a"), now) == [a]
+        visitFilesAccessedBefore(tmpDir.file("a"), now).empty
+    }
+
+    def "indexes a file once per day of access"() {
+        given:
+        def now = System.currentTimeMillis()
+        def a = tmpDir.createFile("a/a.txt")
+        writeInceptionTimestamp(now - TimeUnit.DAYS.toMillis(10))
+        journal = reopen()
+        journal.setLastAccessTime(a, now - TimeUnit.DAYS.toMillis(5))
+        journal = reopen()
+        journal.setLastAccessTime(a, now - TimeUnit.DAYS.toMillis(5) + 1)
+        journal = reopen()
+        journal.setLastAccessTime(a, now - TimeUnit.DAYS.toMillis(3))
+        journal = reopen()
+
+        expect:
+        visitFilesAccessedBefore(tmpDir.file("a"), now) == [a]
+    }
+
+    def "stops visiting when visitor asks to"() {
+        given:
+        def now = System.currentTimeMillis()
+        writeInceptionTimestamp(now - TimeUnit.DAYS.toMillis(10))
+        journal = reopen()
+        def files = (1..3).collect { tmpDir.createFile("a/${it}.txt") }
+        files.eachWithIndex { file, i -> journal.setLastAccessTime(file, now - TimeUnit.DAYS.toMillis(5 - i)) }
+
+        when:
+        def visited = []
+        journal.visitFilesAccessedBefore(tmpDir.file("a"), now, { visited << it; false } as IndexedFileAccessTimeJournal.ExpiredFileVisitor)
+
+        then:
+        visited == [files[0]]
+    }
+
+    def "does not index files that are looked up"() {
+        given:
+        def now = System.currentTimeMillis()
+        writeInceptionTimestamp(now - TimeUnit.DAYS.toMillis(10))
+        journal = reopen()
+        file.lastModified = now - TimeUnit.DAYS.toMillis(5)
+
+        when:
+        journal.getLastAccessTime(file)
+
+        then:
+        visitFilesAccessedBefore(tmpDir.file("a"), now).empty
+    }
+
+    def "indexes files that are added to the index under the day of their last access"() {
+        given:
+        def now = System.currentTimeMillis()
+        writeInceptionTimestamp(now - TimeUnit.DAYS.toMillis(10))
+        journal = reopen()
+        file.lastModified = now - TimeUnit.DAYS.toMillis(5)
+
+        when:
+        journal.addToIndex(file)
+
+        then:
+        visitFilesAccessedBefore(tmpDir.file("a"), now - TimeUnit.DAYS.toMillis(4)) == [file]
+        visitFilesAccessedBefore(tmpDir.file("a"), now - TimeUnit.DAYS.toMillis(6)).empty
+    }
+
+    def "remembers time of last full scan"() {
+        def dir = tmpDir.file("a")
+
+        expect:
+        journal.getLastFullScanTime(dir) == 0
+
+        when:
+        journal.setLastFullScanTime(dir, 42)
+
+        then:
+        journal.getLastFullScanTime(dir) == 42
+    }
+
+    def "remembers progress of an incomplete full scan"() {
+        def dir = tmpDir.file("a")
+
+        expect:
+        journal.getFullScanProgress(dir) == null
+
+        when:
+        journal.setFullScanProgress(dir, "b/c")
+
+        then:
+        journal.getFullScanProgress(dir) == "b/c"
+
+        when:
+        journal.setFullScanProgress(dir, null)
+
+        then:
+        journal.getFullScanProgress(dir) == null
+    }
+
+    private List<File> visitFilesAccessedBefore(File baseDir, long timestamp) {
+        def visited = []
+        journal.visitFilesAccessedBefore(baseDir, timestamp, { visited << it; true } as IndexedFileAccessTimeJournal.ExpiredFileVisitor)
+        return visited
+    }
+
+    private IndexedFileAccessTimeJournal reopen() {
+        journal.stop()
+        return new DefaultFileAccessTimeJournal(cacheRepository, cacheDecoratorFactory)
+    }
+
     private long loadInceptionTimestamp() {
         Long.parseLong(loadProperties(fileAccessPropertiesFile).getProperty(INCEPTION_TIMESTAMP_KEY))
     }
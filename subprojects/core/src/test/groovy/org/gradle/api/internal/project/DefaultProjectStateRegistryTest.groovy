@@ -134,6 +134,145 @@ class DefaultProjectStateRegistryTest extends ConcurrentSpec {
         }
     }
 
+    def "a thread of a concurrent configuration that accesses another project waits for the other threads of the configuration"() {
+        given:
+        def build = build("p1", "p2")
+        registry.registerProjects(build)
+        def state1 = registry.stateFor(project("p1"))
+        def state2 = registry.stateFor(project("p2"))
+        def configuration = registry.newConcurrentConfiguration()
+
+        when:
+        async {
+            workerThread {
+                configuration.run {
+                    state1.withMutableState {
+                        instant.started1
+                        thread.blockUntil.started2
+                        state2.beforeModelAccess()
+                        instant.accessed
+                    }
+                }
+            }
+            workerThread {
+                configuration.run {
+                    state2.withMutableState {
+                        instant.started2
+                        thread.blockUntil.started1
+                        thread.block()
+                        instant.finished2
+                    }
+                }
+            }
+        }
+
+        then:
+        instant.accessed > instant.finished2
+        configuration.crossProjectAccessDetected
+
+        and:
+        !configuration.run { throw new AssertionError() }
+    }
+
+    def "threads of a concurrent configuration that access each other's project complete one at a time"() {
+        given:
+        def build = build("p1", "p2")
+        registry.registerProjects(build)
+        def state1 = registry.stateFor(project("p1"))
+        def state2 = registry.stateFor(project("p2"))
+        def configuration = registry.newConcurrentConfiguration()
+
+        when:
+        async {
+            workerThread {
+                configuration.run {
+                    state1.withMutableState {
+                        instant.started1
+                        thread.blockUntil.started2
+                        state2.beforeModelAccess()
+                        instant.accessed1
+                        thread.block()
+                        instant.finished1
+                    }
+                }
+            }
+            workerThread {
+                configuration.run {
+                    state2.withMutableState {
+                        instant.started2
+                        thread.blockUntil.started1
+                        state1.withMutableState {
+                            instant.accessed2
+                            thread.block()
+                            instant.finished2
+                        }
+                    }
+                }
+            }
+        }
+
+        then:
+        instant.accessed2 > instant.finished1 || instant.accessed1 > instant.finished2
+        configuration.crossProjectAccessDetected
+    }
+
+    def "does not wait when a thread of a concurrent configuration accesses the project it is configuring"() {
+        given:
+        def build = build("p1", "p2")
+        registry.registerProjects(build)
+        def state1 = registry.stateFor(project("p1"))
+        def state2 = registry.stateFor(project("p2"))
+        def configuration = registry.newConcurrentConfiguration()
+
+        when:
+        async {
+            workerThread {
+                configuration.run {
+                    state1.withMutableState {
+                        instant.started1
+                        thread.blockUntil.started2
+                        state1.beforeModelAccess()
+                        instant.accessed1
+                    }
+                }
+            }
+            workerThread {
+                configuration.run {
+                    state2.withMutableState {
+                        instant.started2
+                        thread.blockUntil.accessed1
+                        registry.withLenientState {
+                            state1.beforeModelAccess()
+                        }
+                    }
+                }
+            }
+        }
+
+        then:
+        !configuration.crossProjectAccessDetected
+    }
+
+    def "does not coordinate access to other projects outside of a concurrent configuration"() {
+        given:
+        def build = build("p1", "p2")
+        registry.registerProjects(build)
+        def state1 = registry.stateFor(project("p1"))
+        def state2 = registry.stateFor(project("p2"))
+        def configuration = registry.newConcurrentConfiguration()
+
+        when:
+        workerLeaseService.withLocks([parentLease.createChild()]) {
+            state1.withMutableState {
+                state2.beforeModelAccess()
+                state2.withMutableState {}
+            }
+        }
+
+        then:
+        !configuration.crossProjectAccessDetected
+    }
+
     def "can access projects with lenient state"() {
         given:
         def build = build("p1", "p2")
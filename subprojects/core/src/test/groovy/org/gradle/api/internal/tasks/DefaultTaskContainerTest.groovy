@@ -29,6 +29,7 @@ import org.gradle.api.internal.GradleInternal
 import org.gradle.api.internal.TaskInternal
 import org.gradle.api.internal.project.BuildOperationCrossProjectConfigurator
 import org.gradle.api.internal.project.ProjectInternal
+import org.gradle.api.internal.project.ProjectState
 import org.gradle.api.internal.project.taskfactory.ITaskFactory
 import org.gradle.api.internal.project.taskfactory.TaskFactory
 import org.gradle.api.internal.project.taskfactory.TaskIdentity
@@ -62,6 +63,7 @@ class DefaultTaskContainerTest extends AbstractPolymorphicDomainObjectContainerS
         }
         getServices() >> Mock(ServiceRegistry)
         getObjects() >> Stub(ObjectFactory)
+        getMutationState() >> Stub(ProjectState)
     }
     private taskCount = 1
     private accessListener = Mock(ProjectAccessListener)
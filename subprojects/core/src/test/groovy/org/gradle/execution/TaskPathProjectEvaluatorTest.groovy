@@ -16,15 +16,28 @@
 
 package org.gradle.execution
 
+import org.gradle.StartParameter
 import org.gradle.api.BuildCancelledException
+import org.gradle.api.internal.GradleInternal
 import org.gradle.api.internal.project.ProjectInternal
+import org.gradle.api.internal.project.ProjectStateInternal
+import org.gradle.api.internal.project.ProjectStateRegistry
 import org.gradle.initialization.BuildCancellationToken
+import org.gradle.internal.operations.TestBuildOperationExecutor
+import org.gradle.util.Path
+import org.gradle.util.SetSystemProperties
+import org.junit.Rule
 import spock.lang.Specification
 
 class TaskPathProjectEvaluatorTest extends Specification {
+    @Rule
+    SetSystemProperties systemProperties = new SetSystemProperties()
     private cancellationToken = Mock(BuildCancellationToken)
     private project = Mock(ProjectInternal)
-    private evaluator = new TaskPathProjectEvaluator(cancellationToken)
+    private buildOperationExecutor = new TestBuildOperationExecutor()
+    private projectStateRegistry = Mock(ProjectStateRegistry)
+    private crossProjectAccess = false
+    private evaluator = new TaskPathProjectEvaluator(cancellationToken, buildOperationExecutor, projectStateRegistry)
 
     def "project configuration fails when cancelled"() {
         given:
@@ -60,4 +73,124 @@ class TaskPathProjectEvaluatorTest extends Specification {
         1 * child1.evaluate()
         0 * child2._
     }
+
+    def "configures subprojects in parallel when enabled"() {
+        def child1 = subproject(1)
+        def child2 = subproject(1)
+        def grandchild = subproject(2)
+        def startParameter = new StartParameter()
+        startParameter.parallelProjectExecutionEnabled = true
+
+        given:
+        System.setProperty(TaskPathProjectEvaluator.PARALLEL_CONFIGURATION_PROPERTY, "true")
+        evaluator = new TaskPathProjectEvaluator(cancellationToken, buildOperationExecutor, projectStateRegistry)
+        projectStateRegistry.newConcurrentConfiguration() >> concurrentConfiguration()
+        project.subprojects >> [child1, grandchild, child2]
+        project.gradle >> Stub(GradleInternal) {
+            getStartParameter() >> startParameter
+            getIdentityPath() >> Path.ROOT
+        }
+
+        when:
+        evaluator.configureHierarchy(project)
+
+        then:
+        1 * project.evaluate()
+
+        then:
+        1 * child1.evaluate() >> { child1.state.configured() }
+        1 * child2.evaluate() >> { child2.state.configured() }
+
+        then:
+        1 * grandchild.evaluate() >> { grandchild.state.configured() }
+
+        and:
+        def result = buildOperationExecutor.log.mostRecentResult(ConfigureProjectsInParallelBuildOperationType)
+        result.parallelProjectCount == 3
+        result.serialProjectCount == 0
+        !result.serialFallback
+    }
+
+    def "configures remaining subprojects serially once a cross-project access is detected"() {
+        def child1 = subproject(1)
+        def child2 = subproject(1)
+        def startParameter = new StartParameter()
+        startParameter.parallelProjectExecutionEnabled = true
+
+        given:
+        System.setProperty(TaskPathProjectEvaluator.PARALLEL_CONFIGURATION_PROPERTY, "true")
+        evaluator = new TaskPathProjectEvaluator(cancellationToken, buildOperationExecutor, projectStateRegistry)
+        projectStateRegistry.newConcurrentConfiguration() >> concurrentConfiguration()
+        project.subprojects >> [child1, child2]
+        project.gradle >> Stub(GradleInternal) {
+            getStartParameter() >> startParameter
+            getIdentityPath() >> Path.ROOT
+        }
+
+        when:
+        evaluator.configureHierarchy(project)
+
+        then:
+        1 * project.evaluate()
+        1 * child1.evaluate() >> {
+            crossProjectAccess = true
+            child1.state.configured()
+        }
+        1 * child2.evaluate() >> { child2.state.configured() }
+
+        and:
+        def result = buildOperationExecutor.log.mostRecentResult(ConfigureProjectsInParallelBuildOperationType)
+        result.parallelProjectCount == 1
+        result.serialProjectCount == 1
+        result.serialFallback
+    }
+
+    def "configures subprojects serially when parallel project execution is disabled"() {
+        def child1 = subproject(1)
+        def child2 = subproject(1)
+
+        given:
+        System.setProperty(TaskPathProjectEvaluator.PARALLEL_CONFIGURATION_PROPERTY, "true")
+        evaluator = new TaskPathProjectEvaluator(cancellationToken, buildOperationExecutor, projectStateRegistry)
+        project.subprojects >> [child1, child2]
+        project.gradle >> Stub(GradleInternal) {
+            getStartParameter() >> new StartParameter()
+        }
+
+        when:
+        evaluator.configureHierarchy(project)
+
+        then:
+        1 * project.evaluate()
+
+        then:
+        1 * child1.evaluate()
+
+        then:
+        1 * child2.evaluate()
+
+        and:
+        buildOperationExecutor.operations.empty
+    }
+
+    private ProjectInternal subproject(int depth) {
+        def state = new ProjectStateInternal()
+        def project = Mock(ProjectInternal)
+        _ * project.depth >> depth
+        _ * project.state >> state
+        return project
+    }
+
+    private ProjectStateRegistry.ConcurrentConfiguration concurrentConfiguration() {
+        def configuration = Stub(ProjectStateRegistry.ConcurrentConfiguration)
+        configuration.run(_) >> { Runnable action ->
+            if (crossProjectAccess) {
+                return false
+            }
+            action.run()
+            return true
+        }
+        configuration.crossProjectAccessDetected >> { crossProjectAccess }
+        return configuration
+    }
 }
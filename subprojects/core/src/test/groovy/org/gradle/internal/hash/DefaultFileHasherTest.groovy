@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.hash
+
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class DefaultFileHasherTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+
+    @Unroll
+    def "hashes #size byte file the same as its content using #scheme"() {
+        def streamHasher = new DefaultStreamHasher(scheme.hashFunction)
+        def hasher = new DefaultFileHasher(streamHasher)
+        def content = new byte[size]
+        new Random(size).nextBytes(content)
+        def file = tmpDir.file("content")
+        file.bytes = content
+
+        expect:
+        hasher.hash(file) == streamHasher.hash(new ByteArrayInputStream(content))
+
+        where:
+        [scheme, size] << [FileContentHashingScheme.values(), [0, 1000, 256 * 1024, 1024 * 1024 + 17]].combinations()
+    }
+
+    def "schemes produce different hashes"() {
+        def file = tmpDir.file("content") << "some content"
+
+        expect:
+        new DefaultFileHasher(new DefaultStreamHasher(FileContentHashingScheme.MD5.hashFunction)).hash(file) != new DefaultFileHasher(new DefaultStreamHasher(FileContentHashingScheme.MURMUR3.hashFunction)).hash(file)
+    }
+
+    def "selects scheme by id"() {
+        expect:
+        FileContentHashingScheme.forId(null) == FileContentHashingScheme.MD5
+        FileContentHashingScheme.forId("md5") == FileContentHashingScheme.MD5
+        FileContentHashingScheme.forId("murmur3") == FileContentHashingScheme.MURMUR3
+        FileContentHashingScheme.MD5.cacheName != FileContentHashingScheme.MURMUR3.cacheName
+
+        when:
+        FileContentHashingScheme.forId("unknown")
+
+        then:
+        IllegalArgumentException e = thrown()
+        e.message == "Unknown file content hashing scheme 'unknown' specified by system property 'org.gradle.internal.hash.fileContent'."
+    }
+}
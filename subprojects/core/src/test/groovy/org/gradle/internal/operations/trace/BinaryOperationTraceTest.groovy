@@ -0,0 +1,128 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.operations.trace
+
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import org.gradle.internal.operations.BuildOperationDescriptor
+import org.gradle.internal.operations.OperationFinishEvent
+import org.gradle.internal.operations.OperationIdentifier
+import org.gradle.internal.operations.OperationProgressEvent
+import org.gradle.internal.operations.OperationStartEvent
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class BinaryOperationTraceTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    def executorFactory = new DefaultExecutorFactory()
+    def basePath = tmpDir.file("trace").absolutePath
+
+    def cleanup() {
+        executorFactory.stop()
+    }
+
+    def "reads tree from binary log"() {
+        given:
+        def writer = new BinaryOperationTraceWriter(BuildOperationTrace.binaryLogFile(basePath), executorFactory)
+        def parent = BuildOperationDescriptor.displayName("parent").details(new TestDetails(path: ":a")).build(new OperationIdentifier(1), null)
+        def child = BuildOperationDescriptor.displayName("child").build(new OperationIdentifier(2), parent.id)
+
+        when:
+        writer.append(new SerializedOperationStart(parent, new OperationStartEvent(100)))
+        writer.append(new SerializedOperationStart(child, new OperationStartEvent(110)))
+        writer.append(new SerializedOperationProgress(child.id, new OperationProgressEvent(115, new TestDetails(path: ":b"))))
+        writer.append(new SerializedOperationFinish(child, new OperationFinishEvent(110, 120, new RuntimeException("broken"), null)))
+        writer.append(new SerializedOperationFinish(parent, new OperationFinishEvent(100, 130, null, new TestDetails(path: ":c"))))
+        writer.stop()
+        def tree = BuildOperationTrace.read(basePath)
+
+        then:
+        tree.roots.size() == 1
+        def root = tree.roots[0]
+        root.displayName == "parent"
+        root.details == [path: ":a"]
+        root.detailsType == TestDetails
+        root.result == [path: ":c"]
+        root.endTime == 130
+        root.children.size() == 1
+        def childRecord = root.children[0]
+        childRecord.displayName == "child"
+        childRecord.details == null
+        childRecord.failure == "java.lang.RuntimeException: broken"
+        childRecord.progress.size() == 1
+        childRecord.progress[0].details == [path: ":b"]
+    }
+
+    def "reads events up to the end of a log that was cut short"() {
+        given:
+        def logFile = BuildOperationTrace.binaryLogFile(basePath)
+        def writer = new BinaryOperationTraceWriter(logFile, executorFactory)
+        def parent = BuildOperationDescriptor.displayName("parent").build(new OperationIdentifier(1), null)
+        writer.append(new SerializedOperationStart(parent, new OperationStartEvent(100)))
+        writer.append(new SerializedOperationFinish(parent, new OperationFinishEvent(100, 130, null, null)))
+        writer.stop()
+        def bytes = logFile.bytes
+        logFile.bytes = bytes[0..bytes.length - 3] as byte[]
+        def started = []
+
+        when:
+        new BinaryOperationTraceReader(true).read(logFile, new SerializedOperationVisitor() {
+            void start(SerializedOperationStart start) {
+                started << start.displayName
+            }
+
+            void progress(SerializedOperationProgress progress) {
+            }
+
+            void finish(SerializedOperationFinish finish) {
+            }
+        })
+
+        then:
+        started == ["parent"]
+    }
+
+    def "converts binary log to Chrome trace"() {
+        given:
+        def writer = new BinaryOperationTraceWriter(BuildOperationTrace.binaryLogFile(basePath), executorFactory)
+        def parent = BuildOperationDescriptor.displayName("parent").details(new TestDetails(path: ":a")).build(new OperationIdentifier(1), null)
+        writer.append(new SerializedOperationStart(parent, new OperationStartEvent(100)))
+        writer.append(new SerializedOperationFinish(parent, new OperationFinishEvent(100, 130, null, null)))
+        writer.stop()
+        def output = tmpDir.file("chrome.json")
+
+        when:
+        BuildOperationTraceConverter.writeChromeTrace(BuildOperationTrace.binaryLogFile(basePath), output)
+        def events = new groovy.json.JsonSlurper().parse(output).traceEvents
+
+        then:
+        events.size() == 2
+        events[0].ph == "M"
+        events[0].args.name == Thread.currentThread().name
+        events[1].name == "parent"
+        events[1].cat == "TestDetails"
+        events[1].ph == "X"
+        events[1].ts == 100000
+        events[1].dur == 30000
+        events[1].tid == events[0].tid
+    }
+
+    static class TestDetails {
+        String path
+    }
+}
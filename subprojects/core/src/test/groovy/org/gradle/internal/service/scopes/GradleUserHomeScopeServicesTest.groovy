@@ -49,7 +49,8 @@ import org.gradle.internal.logging.events.OutputEventListener
 import org.gradle.internal.logging.progress.ProgressLoggerFactory
 import org.gradle.internal.nativeintegration.filesystem.FileSystem
 import org.gradle.internal.progress.NoOpProgressLoggerFactory
-import org.gradle.internal.remote.MessagingServer
+import org.gradle.internal.remote.services.LocalMessagingServer
+import org.gradle.internal.remote.services.MessagingServices
 import org.gradle.internal.resource.local.FileAccessTimeJournal
 import org.gradle.internal.service.ServiceRegistry
 import org.gradle.internal.service.ServiceRegistryBuilder
@@ -113,7 +114,9 @@ class GradleUserHomeScopeServicesTest extends WorkspaceTest {
         expectParentServiceLocated(StartParameter)
         expectParentServiceLocated(ExecutorFactory)
         expectParentServiceLocated(ModuleRegistry)
-        expectParentServiceLocated(MessagingServer)
+        expectParentServiceLocated(MessagingServices) {
+            _ * it.newLocalMessagingServer(_) >> Mock(LocalMessagingServer)
+        }
         expectParentServiceLocated(TemporaryFileProvider)
         expectParentServiceLocated(JavaExecHandleFactory)
         expectParentServiceLocated(JvmVersionDetector)
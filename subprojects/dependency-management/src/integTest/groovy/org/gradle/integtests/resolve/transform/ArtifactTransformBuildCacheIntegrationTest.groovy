@@ -0,0 +1,136 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.integtests.resolve.transform
+
+import org.gradle.integtests.fixtures.AbstractIntegrationSpec
+import org.gradle.integtests.fixtures.DirectoryBuildCacheFixture
+import org.gradle.test.fixtures.file.TestFile
+
+class ArtifactTransformBuildCacheIntegrationTest extends AbstractIntegrationSpec implements DirectoryBuildCacheFixture {
+
+    def setup() {
+        executer.requireOwnGradleUserHomeDir()
+    }
+
+    def "cacheable transform is stored in and loaded from the build cache"() {
+        given:
+        setupProjectIn(testDirectory, true)
+
+        when:
+        withBuildCache().run "resolve"
+
+        then:
+        outputContains("Transformed thing.jar")
+        outputContains("sizes: [9]")
+        listCacheFiles().size() == 1
+
+        when:
+        executer.withGradleUserHomeDir(file("other-user-home"))
+        withBuildCache().run "resolve"
+
+        then:
+        outputDoesNotContain("Transformed thing.jar")
+        outputContains("sizes: [9]")
+    }
+
+    def "transform that is not cacheable is not stored in the build cache"() {
+        given:
+        setupProjectIn(testDirectory, false)
+
+        when:
+        withBuildCache().run "resolve"
+
+        then:
+        outputContains("Transformed thing.jar")
+        listCacheFiles().empty
+
+        when:
+        executer.withGradleUserHomeDir(file("other-user-home"))
+        withBuildCache().run "resolve"
+
+        then:
+        outputContains("Transformed thing.jar")
+    }
+
+    def "cacheable transform is relocatable"() {
+        def originalDir = file("original-dir")
+        originalDir.file("settings.gradle") << localCacheConfiguration()
+        setupProjectIn(originalDir, true)
+
+        def relocatedDir = file("relocated-dir")
+        relocatedDir.file("settings.gradle") << localCacheConfiguration()
+        setupProjectIn(relocatedDir, true)
+
+        when:
+        inDirectory(originalDir)
+        withBuildCache().run "resolve"
+
+        then:
+        outputContains("Transformed thing.jar")
+        outputContains("sizes: [9]")
+
+        when:
+        inDirectory(relocatedDir)
+        executer.withGradleUserHomeDir(file("other-user-home"))
+        withBuildCache().run "resolve"
+
+        then:
+        outputDoesNotContain("Transformed thing.jar")
+        outputContains("sizes: [9]")
+    }
+
+    private static void setupProjectIn(TestFile projectDir, boolean cacheable) {
+        projectDir.file("lib/thing.jar").text = "thing.jar"
+        projectDir.file("build.gradle") << """
+            def artifactType = Attribute.of('artifactType', String)
+
+            ${cacheable ? "@CacheableTransform" : ""}
+            class FileSizer extends ArtifactTransform {
+                List<File> transform(File input) {
+                    def output = new File(outputDirectory, input.name + ".txt")
+                    output.text = String.valueOf(input.length())
+                    println "Transformed \${input.name}"
+                    return [output]
+                }
+            }
+
+            configurations {
+                compile
+            }
+
+            dependencies {
+                registerTransform {
+                    from.attribute(artifactType, "jar")
+                    to.attribute(artifactType, "size")
+                    artifactTransform(FileSizer)
+                }
+                compile files("lib/thing.jar")
+            }
+
+            task resolve {
+                def sizes = configurations.compile.incoming.artifactView {
+                    attributes { it.attribute(artifactType, "size") }
+                }.files
+                inputs.files(sizes)
+                doLast {
+                    println "sizes: " + sizes.collect { it.text }
+                }
+            }
+        """
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser;
+
+import org.apache.commons.io.FileUtils;
+import org.gradle.api.internal.artifacts.DefaultImmutableModuleIdentifierFactory;
+import org.gradle.api.internal.artifacts.ImmutableModuleIdentifierFactory;
+import org.gradle.internal.nativeintegration.services.FileSystems;
+import org.gradle.internal.nativeintegration.services.NativeServices;
+import org.gradle.internal.resource.local.LocalFileStandInExternalResource;
+import org.gradle.internal.resource.local.LocallyAvailableExternalResource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xml.sax.SAXException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Compares parsing a BOM for every module that imports it with reusing the parsed BOM from the {@link ParsedPomCache}.
+ * The BOM is shaped like the large platform BOMs that most modules of a big dependency graph end up importing.
+ *
+ * <p>Run with {@code -prof gc} to compare allocation rates as well as time.</p>
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class PomParsingBenchmark {
+
+    @Param({"50", "500"})
+    int managedDependencies;
+
+    private File tempDir;
+    private LocallyAvailableExternalResource bom;
+    private ImmutableModuleIdentifierFactory moduleIdentifierFactory;
+    private ParsedPomCache cache;
+    private Map<String, String> childProperties;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws IOException {
+        tempDir = Files.createTempDirectory("pom-parsing-benchmark").toFile();
+        NativeServices.initialize(tempDir);
+        File bomFile = new File(tempDir, "bom.pom");
+        FileUtils.writeStringToFile(bomFile, bom(managedDependencies), Charset.forName("UTF-8"));
+        bom = new LocalFileStandInExternalResource(bomFile, FileSystems.getDefault());
+        moduleIdentifierFactory = new DefaultImmutableModuleIdentifierFactory();
+        cache = new ParsedPomCache();
+        childProperties = Collections.singletonMap("child.version", "1.0");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() throws IOException {
+        FileUtils.forceDelete(tempDir);
+    }
+
+    @Benchmark
+    public Object parseForEveryModule() throws SAXException {
+        PomReader pomReader = new PomReader(bom, moduleIdentifierFactory, childProperties);
+        return pomReader.getDependencyMgt();
+    }
+
+    @Benchmark
+    public Object reuseParsedBom() throws SAXException {
+        PomReader pomReader = new PomReader(cache.parse(bom), moduleIdentifierFactory, childProperties);
+        return pomReader.getDependencyMgt();
+    }
+
+    private static String bom(int managedDependencies) {
+        StringBuilder builder = new StringBuilder();
+        builder.append("<project>\n")
+            .append("  <modelVersion>4.0.0</modelVersion>\n")
+            .append("  <groupId>org.gradle.benchmark</groupId>\n")
+            .append("  <artifactId>benchmark-dependencies</artifactId>\n")
+            .append("  <version>1.0</version>\n")
+            .append("  <packaging>pom</packaging>\n")
+            .append("  <properties>\n");
+        for (int i = 0; i < managedDependencies; i++) {
+            builder.append("    <library").append(i).append(".version>").append(i).append(".0.RELEASE</library").append(i).append(".version>\n");
+        }
+        builder.append("  </properties>\n")
+            .append("  <dependencyManagement>\n")
+            .append("    <dependencies>\n");
+        for (int i = 0; i < managedDependencies; i++) {
+            builder.append("      <dependency>\n")
+                .append("        <groupId>org.gradle.benchmark.group").append(i % 20).append("</groupId>\n")
+                .append("        <artifactId>library").append(i).append("</artifactId>\n")
+                .append("        <version>${library").append(i).append(".version}</version>\n")
+                .append("        <exclusions>\n")
+                .append("          <exclusion>\n")
+                .append("            <groupId>commons-logging</groupId>\n")
+                .append("            <artifactId>commons-logging</artifactId>\n")
+                .append("          </exclusion>\n")
+                .append("        </exclusions>\n")
+                .append("      </dependency>\n");
+        }
+        builder.append("    </dependencies>\n")
+            .append("  </dependencyManagement>\n")
+            .append("</project>\n");
+        return builder.toString();
+    }
+}
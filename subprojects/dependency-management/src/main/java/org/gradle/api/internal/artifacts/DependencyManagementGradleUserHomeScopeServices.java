@@ -33,7 +33,9 @@ import org.gradle.internal.event.ListenerManager;
 import org.gradle.internal.execution.history.ExecutionHistoryCacheAccess;
 import org.gradle.internal.execution.history.ExecutionHistoryStore;
 import org.gradle.internal.execution.history.impl.DefaultExecutionHistoryStore;
+import org.gradle.internal.fingerprint.impl.OutputFileCollectionFingerprinter;
 import org.gradle.internal.resource.local.FileAccessTimeJournal;
+import org.gradle.internal.snapshot.FileSystemSnapshotter;
 
 public class DependencyManagementGradleUserHomeScopeServices {
     DefaultArtifactCacheMetadata createArtifactCacheMetaData(CacheScopeMapping cacheScopeMapping) {
@@ -57,8 +59,9 @@ public class DependencyManagementGradleUserHomeScopeServices {
         return new ImmutableTransformationWorkspaceProvider(artifactCacheMetadata.getTransformsStoreDirectory(), cacheRepository, fileAccessTimeJournal, executionHistoryStore);
     }
 
-    ImmutableCachingTransformationWorkspaceProvider createCachingTransformerWorkspaceProvider(ImmutableTransformationWorkspaceProvider immutableTransformationWorkspaceProvider, ListenerManager listenerManager) {
-        ImmutableCachingTransformationWorkspaceProvider cachingWorkspaceProvider = new ImmutableCachingTransformationWorkspaceProvider(immutableTransformationWorkspaceProvider);
+    ImmutableCachingTransformationWorkspaceProvider createCachingTransformerWorkspaceProvider(ImmutableTransformationWorkspaceProvider immutableTransformationWorkspaceProvider, StringInterner stringInterner, FileSystemSnapshotter fileSystemSnapshotter, ListenerManager listenerManager) {
+        OutputFileCollectionFingerprinter outputFingerprinter = new OutputFileCollectionFingerprinter(stringInterner, fileSystemSnapshotter);
+        ImmutableCachingTransformationWorkspaceProvider cachingWorkspaceProvider = new ImmutableCachingTransformationWorkspaceProvider(immutableTransformationWorkspaceProvider, outputFingerprinter);
         listenerManager.addListener(new RootBuildLifecycleListener() {
             @Override
             public void afterStart() {
@@ -66,7 +69,7 @@ public class DependencyManagementGradleUserHomeScopeServices {
 
             @Override
             public void beforeComplete() {
-                cachingWorkspaceProvider.clearInMemoryCache();
+                cachingWorkspaceProvider.invalidateResultsOfCurrentBuild();
             }
         });
         return cachingWorkspaceProvider;
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.gradle.internal.hash.HashUtil;
+import org.gradle.internal.hash.HashValue;
+import org.gradle.internal.resource.local.LocallyAvailableExternalResource;
+import org.w3c.dom.Document;
+
+import java.util.function.Function;
+
+/**
+ * An in-memory cache of parsed parent and imported POMs, keyed by the content hash of the locally available POM file.
+ * The same parent POMs and BOMs are referenced by many modules, and parsing them again for every module dominates the cost of parsing a POM.
+ *
+ * <p>The DOM is not safe for concurrent use, even for reading, so each caller receives its own copy of the cached document.</p>
+ */
+class ParsedPomCache {
+    private static final int MAX_CACHED_DOCUMENTS = 500;
+
+    private final Cache<HashValue, Document> documents = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_DOCUMENTS).softValues().build();
+    private final Function<LocallyAvailableExternalResource, Document> parser;
+
+    ParsedPomCache() {
+        this(PomReader::parsePom);
+    }
+
+    ParsedPomCache(Function<LocallyAvailableExternalResource, Document> parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Returns a private copy of the parsed POM, parsing the resource only when a POM with the same content has not been parsed before.
+     */
+    Document parse(LocallyAvailableExternalResource resource) {
+        HashValue contentHash = HashUtil.sha1(resource.getFile());
+        Document document = documents.getIfPresent(contentHash);
+        if (document == null) {
+            document = parser.apply(resource);
+            documents.put(contentHash, document);
+        }
+        return copyOf(document, resource);
+    }
+
+    private static Document copyOf(Document document, LocallyAvailableExternalResource resource) {
+        Document copy;
+        synchronized (document) {
+            copy = (Document) document.cloneNode(true);
+        }
+        // The copy may have been parsed from another file with the same content
+        copy.setDocumentURI(resource.getFile().toURI().toASCIIString());
+        return copy;
+    }
+}
@@ -18,6 +18,7 @@ package org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.builder
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.gradle.api.Action;
 import org.gradle.api.GradleException;
 import org.gradle.api.artifacts.Configuration;
@@ -212,12 +213,44 @@ public class DependencyGraphBuilder {
         if (dependencies.isEmpty()) {
             return;
         }
+        maybeResolveVersionsInParallel(node, dependencies);
         performSelectionSerially(dependencies, resolveState);
         maybeDownloadMetadataInParallel(node, componentIdentifierCache, dependencies);
         attachToTargetRevisionsSerially(dependencies);
 
     }
 
+    /**
+     * Resolves the dynamic versions of the new dependencies of a node concurrently, ahead of selection. Selection and conflict resolution
+     * still happen serially, in the order of the edges, and reuse the resolved versions where possible, so the resulting graph does not change.
+     */
+    private void maybeResolveVersionsInParallel(NodeState node, List<EdgeState> dependencies) {
+        Set<SelectorState> requiringResolve = null;
+        for (EdgeState dependency : dependencies) {
+            SelectorState selector = dependency.getSelector();
+            if (selector.canPrefetch()) {
+                // Avoid initializing the set if there are no dynamic versions to resolve (a common case)
+                if (requiringResolve == null) {
+                    requiringResolve = Sets.newLinkedHashSet();
+                }
+                requiringResolve.add(selector);
+            }
+        }
+        // Only resolve in parallel if there is more than 1 version to resolve
+        if (requiringResolve != null && requiringResolve.size() > 1) {
+            final ImmutableList<SelectorState> toResolveInParallel = ImmutableList.copyOf(requiringResolve);
+            LOGGER.debug("Submitting {} dynamic versions to resolve in parallel for {}", toResolveInParallel.size(), node);
+            buildOperationExecutor.runAll(new Action<BuildOperationQueue<RunnableBuildOperation>>() {
+                @Override
+                public void execute(BuildOperationQueue<RunnableBuildOperation> buildOperationQueue) {
+                    for (SelectorState selector : toResolveInParallel) {
+                        buildOperationQueue.add(new PrefetchSelectorOperation(selector));
+                    }
+                }
+            });
+        }
+    }
+
     private void performSelectionSerially(List<EdgeState> dependencies, ResolveState resolveState) {
         for (EdgeState dependency : dependencies) {
             SelectorState selector = dependency.getSelector();
@@ -47,6 +47,7 @@ import org.gradle.internal.resolve.result.ComponentIdResolveResult;
 import org.gradle.internal.resolve.result.DefaultBuildableComponentIdResolveResult;
 import org.gradle.internal.text.TreeFormatter;
 
+import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.Set;
 
@@ -77,6 +78,8 @@ class SelectorState implements DependencyGraphSelector, ResolvableSelectorState
 
     private ComponentIdResolveResult preferResult;
     private ComponentIdResolveResult requireResult;
+    private ComponentIdResolveResult prefetchedResult;
+    private VersionSelector prefetchedRejector;
     private ModuleVersionResolveException failure;
     private ModuleResolveState targetModule;
     private boolean resolved;
@@ -168,6 +171,36 @@ class SelectorState implements DependencyGraphSelector, ResolvableSelectorState
         return requireResult;
     }
 
+    /**
+     * Can the required version of this selector be resolved ahead of selection? This is only worthwhile for dynamic versions,
+     * which require listing the versions of the target module, and for modules that have not been selected yet, where this selector is
+     * likely to be resolved with only its own rejected versions.
+     */
+    boolean canPrefetch() {
+        if (resolved || requireResult != null || prefetchedResult != null || dependencyState.failure != null) {
+            return false;
+        }
+        if (versionConstraint == null || versionConstraint.getPreferredSelector() != null) {
+            return false;
+        }
+        VersionSelector requiredSelector = versionConstraint.getRequiredSelector();
+        return requiredSelector != null && requiredSelector.isDynamic() && targetModule.getSelected() == null;
+    }
+
+    /**
+     * Resolves the required version of this selector ahead of selection, so that the selectors of many dependencies can be resolved concurrently.
+     * The result is used when this selector is later resolved with the same rejected versions, and discarded otherwise.
+     *
+     * This method does not change the state of the graph, and may be called concurrently for different selectors.
+     */
+    void prefetch() {
+        VersionSelector rejector = versionConstraint.getRejectedSelector();
+        BuildableComponentIdResolveResult idResolveResult = new DefaultBuildableComponentIdResolveResult();
+        resolver.resolve(firstSeenDependency, versionConstraint.getRequiredSelector(), rejector, idResolveResult);
+        prefetchedRejector = rejector;
+        prefetchedResult = idResolveResult;
+    }
+
     @Override
     public ComponentIdResolveResult resolvePrefer(VersionSelector allRejects) {
         if (versionConstraint == null || versionConstraint.getPreferredSelector() == null) {
@@ -183,11 +216,15 @@ class SelectorState implements DependencyGraphSelector, ResolvableSelectorState
                 return previousResult;
             }
 
-            BuildableComponentIdResolveResult idResolveResult = new DefaultBuildableComponentIdResolveResult();
-            if (dependencyState.failure != null) {
-                idResolveResult.failed(dependencyState.failure);
-            } else {
-                resolver.resolve(firstSeenDependency, selector, rejector, idResolveResult);
+            ComponentIdResolveResult idResolveResult = takePrefetchedResult(selector, rejector);
+            if (idResolveResult == null) {
+                BuildableComponentIdResolveResult result = new DefaultBuildableComponentIdResolveResult();
+                if (dependencyState.failure != null) {
+                    result.failed(dependencyState.failure);
+                } else {
+                    resolver.resolve(firstSeenDependency, selector, rejector, result);
+                }
+                idResolveResult = result;
             }
 
             if (idResolveResult.getFailure() != null) {
@@ -200,6 +237,16 @@ class SelectorState implements DependencyGraphSelector, ResolvableSelectorState
         }
     }
 
+    @Nullable
+    private ComponentIdResolveResult takePrefetchedResult(VersionSelector selector, VersionSelector rejector) {
+        ComponentIdResolveResult result = prefetchedResult;
+        prefetchedResult = null;
+        if (result != null && selector == versionConstraint.getRequiredSelector() && rejector == prefetchedRejector) {
+            return result;
+        }
+        return null;
+    }
+
     @Override
     public void failed(ModuleVersionResolveException failure) {
         this.failure = failure;
@@ -55,6 +55,7 @@ import org.gradle.internal.action.InstantiatingAction;
 import org.gradle.internal.component.external.model.ModuleComponentArtifactIdentifier;
 import org.gradle.internal.component.external.model.ModuleComponentArtifactMetadata;
 import org.gradle.internal.component.external.model.maven.MutableMavenModuleResolveMetadata;
+import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.internal.isolation.IsolatableFactory;
 import org.gradle.internal.reflect.Instantiator;
 import org.gradle.internal.resource.local.FileResourceRepository;
@@ -93,6 +94,7 @@ public class DefaultMavenArtifactRepository extends AbstractAuthenticationSuppor
     private final IsolatableFactory isolatableFactory;
     private final MavenMetadataSources metadataSources = new MavenMetadataSources();
     private final InstantiatorFactory instantiatorFactory;
+    private final ExecutorFactory executorFactory;
 
     public DefaultMavenArtifactRepository(FileResolver fileResolver, RepositoryTransportFactory transportFactory,
                                           LocallyAvailableResourceFinder<ModuleComponentArtifactMetadata> locallyAvailableResourceFinder,
@@ -107,10 +109,11 @@ public class DefaultMavenArtifactRepository extends AbstractAuthenticationSuppor
                                           FeaturePreviews featurePreviews,
                                           MavenMutableModuleMetadataFactory metadataFactory,
                                           IsolatableFactory isolatableFactory,
-                                          ObjectFactory objectFactory) {
+                                          ObjectFactory objectFactory,
+                                          ExecutorFactory executorFactory) {
         this(new DefaultDescriber(), fileResolver, transportFactory, locallyAvailableResourceFinder, instantiatorFactory,
             artifactFileStore, pomParser, metadataParser, authenticationContainer, moduleIdentifierFactory,
-            resourcesFileStore, fileResourceRepository, featurePreviews, metadataFactory, isolatableFactory, objectFactory);
+            resourcesFileStore, fileResourceRepository, featurePreviews, metadataFactory, isolatableFactory, objectFactory, executorFactory);
     }
 
     public DefaultMavenArtifactRepository(Transformer<String, MavenArtifactRepository> describer,
@@ -127,7 +130,8 @@ public class DefaultMavenArtifactRepository extends AbstractAuthenticationSuppor
                                           FeaturePreviews featurePreviews,
                                           MavenMutableModuleMetadataFactory metadataFactory,
                                           IsolatableFactory isolatableFactory,
-                                          ObjectFactory objectFactory) {
+                                          ObjectFactory objectFactory,
+                                          ExecutorFactory executorFactory) {
         super(instantiatorFactory.decorate(), authenticationContainer, objectFactory);
         this.describer = describer;
         this.fileResolver = fileResolver;
@@ -143,6 +147,7 @@ public class DefaultMavenArtifactRepository extends AbstractAuthenticationSuppor
         this.isolatableFactory = isolatableFactory;
         this.metadataSources.setDefaults(featurePreviews);
         this.instantiatorFactory = instantiatorFactory;
+        this.executorFactory = executorFactory;
     }
 
     @Override
@@ -231,7 +236,7 @@ public class DefaultMavenArtifactRepository extends AbstractAuthenticationSuppor
         Instantiator injector = createInjectorForMetadataSuppliers(transport, instantiatorFactory, getUrl(), resourcesFileStore);
         InstantiatingAction<ComponentMetadataSupplierDetails> supplier = createComponentMetadataSupplierFactory(injector, isolatableFactory);
         InstantiatingAction<ComponentMetadataListerDetails> lister = createComponentMetadataVersionLister(injector, isolatableFactory);
-        return new MavenResolver(getName(), rootUri, transport, locallyAvailableResourceFinder, artifactFileStore, moduleIdentifierFactory, metadataSources, MavenMetadataArtifactProvider.INSTANCE, mavenMetadataLoader, supplier, lister, injector);
+        return new MavenResolver(getName(), rootUri, transport, locallyAvailableResourceFinder, artifactFileStore, moduleIdentifierFactory, metadataSources, MavenMetadataArtifactProvider.INSTANCE, mavenMetadataLoader, supplier, lister, injector, executorFactory);
     }
 
     @Override
@@ -294,6 +299,10 @@ public class DefaultMavenArtifactRepository extends AbstractAuthenticationSuppor
         return instantiatorFactory;
     }
 
+    protected ExecutorFactory getExecutorFactory() {
+        return executorFactory;
+    }
+
     @Override
     protected RepositoryContentDescriptorInternal createRepositoryDescriptor() {
         return new DefaultMavenRepositoryContentDescriptor();
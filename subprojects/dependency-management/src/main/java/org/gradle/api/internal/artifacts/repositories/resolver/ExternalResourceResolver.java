@@ -18,6 +18,7 @@ package org.gradle.api.internal.artifacts.repositories.resolver;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Booleans;
 import org.gradle.api.Transformer;
 import org.gradle.api.artifacts.ComponentMetadataListerDetails;
 import org.gradle.api.artifacts.ComponentMetadataSupplierDetails;
@@ -52,6 +53,7 @@ import org.gradle.internal.component.model.DefaultModuleDescriptorArtifactMetada
 import org.gradle.internal.component.model.IvyArtifactName;
 import org.gradle.internal.component.model.ModuleDescriptorArtifactMetadata;
 import org.gradle.internal.component.model.ModuleSource;
+import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.internal.hash.HashUtil;
 import org.gradle.internal.hash.HashValue;
 import org.gradle.internal.hash.Hasher;
@@ -74,6 +76,7 @@ import org.gradle.internal.resource.local.FileStore;
 import org.gradle.internal.resource.local.LocallyAvailableExternalResource;
 import org.gradle.internal.resource.local.LocallyAvailableResourceFinder;
 import org.gradle.internal.resource.transfer.CacheAwareExternalResourceAccessor;
+import org.gradle.internal.resource.transfer.ParallelUploadQueue;
 import org.gradle.util.CollectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -83,6 +86,7 @@ import java.io.File;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -108,6 +112,7 @@ public abstract class ExternalResourceResolver<T extends ModuleComponentResolveM
     private final InstantiatingAction<ComponentMetadataSupplierDetails> componentMetadataSupplierFactory;
     private final InstantiatingAction<ComponentMetadataListerDetails> providedVersionLister;
     private final Instantiator injector;
+    private final ExecutorFactory executorFactory;
 
     private String id;
     private ExternalResourceArtifactResolver cachedArtifactResolver;
@@ -122,7 +127,8 @@ public abstract class ExternalResourceResolver<T extends ModuleComponentResolveM
                                        MetadataArtifactProvider metadataArtifactProvider,
                                        @Nullable InstantiatingAction<ComponentMetadataSupplierDetails> componentMetadataSupplierFactory,
                                        @Nullable InstantiatingAction<ComponentMetadataListerDetails> providedVersionLister,
-                                       Instantiator injector) {
+                                       Instantiator injector,
+                                       ExecutorFactory executorFactory) {
         this.name = name;
         this.local = local;
         this.cachingResourceAccessor = cachingResourceAccessor;
@@ -134,6 +140,7 @@ public abstract class ExternalResourceResolver<T extends ModuleComponentResolveM
         this.componentMetadataSupplierFactory = componentMetadataSupplierFactory;
         this.providedVersionLister = providedVersionLister;
         this.injector = injector;
+        this.executorFactory = executorFactory;
     }
 
     public String getId() {
@@ -285,11 +292,46 @@ public abstract class ExternalResourceResolver<T extends ModuleComponentResolveM
     }
 
     public void publish(IvyModulePublishMetadata moduleVersion) {
-        for (IvyModuleArtifactPublishMetadata artifact : moduleVersion.getArtifacts()) {
+        List<IvyModuleArtifactPublishMetadata> metadataFiles = new ArrayList<IvyModuleArtifactPublishMetadata>();
+        ParallelUploadQueue uploads = new ParallelUploadQueue("Publish " + moduleVersion.getComponentId().getDisplayName(), executorFactory);
+        try {
+            for (final IvyModuleArtifactPublishMetadata artifact : moduleVersion.getArtifacts()) {
+                if (isMetadataFile(artifact.getArtifactName())) {
+                    metadataFiles.add(artifact);
+                    continue;
+                }
+                uploads.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        publish(new DefaultModuleComponentArtifactMetadata(artifact.getId()), artifact.getFile());
+                    }
+                });
+            }
+            uploads.awaitCompletion();
+        } finally {
+            uploads.stop();
+        }
+
+        // The metadata files are written once all artifacts are in place, with the descriptor last, so that the module only becomes visible when it is complete
+        Collections.sort(metadataFiles, new Comparator<IvyModuleArtifactPublishMetadata>() {
+            @Override
+            public int compare(IvyModuleArtifactPublishMetadata left, IvyModuleArtifactPublishMetadata right) {
+                return Booleans.compare(isDescriptor(left.getArtifactName()), isDescriptor(right.getArtifactName()));
+            }
+        });
+        for (IvyModuleArtifactPublishMetadata artifact : metadataFiles) {
             publish(new DefaultModuleComponentArtifactMetadata(artifact.getId()), artifact.getFile());
         }
     }
 
+    private static boolean isMetadataFile(IvyArtifactName artifactName) {
+        return isDescriptor(artifactName) || "module".equals(artifactName.getExtension());
+    }
+
+    private static boolean isDescriptor(IvyArtifactName artifactName) {
+        return "ivy".equals(artifactName.getType()) || "pom".equals(artifactName.getExtension());
+    }
+
     private void publish(ModuleComponentArtifactMetadata artifact, File src) {
         ResourcePattern destinationPattern;
         if ("ivy".equals(artifact.getName().getType()) && !ivyPatterns.isEmpty()) {
@@ -306,18 +348,22 @@ public abstract class ExternalResourceResolver<T extends ModuleComponentResolveM
     }
 
     private void put(File src, ExternalResourceName destination) {
-        repository.withProgressLogging().resource(destination).put(new FileReadableContent(src));
-        putChecksum(src, destination);
+        Sha1CalculatingReadableContent content = new Sha1CalculatingReadableContent(new FileReadableContent(src));
+        repository.withProgressLogging().resource(destination).put(content);
+        HashValue sha1 = content.getSha1();
+        if (sha1 == null) {
+            sha1 = HashUtil.createHash(src, "SHA1");
+        }
+        putChecksum(sha1, destination);
     }
 
-    private void putChecksum(File source, ExternalResourceName destination) {
-        byte[] checksumFile = createChecksumFile(source, "SHA1", 40);
+    private void putChecksum(HashValue hash, ExternalResourceName destination) {
+        byte[] checksumFile = createChecksumFile(hash, 40);
         ExternalResourceName checksumDestination = destination.append(".sha1");
         repository.resource(checksumDestination).put(new ByteArrayReadableContent(checksumFile));
     }
 
-    private byte[] createChecksumFile(File src, String algorithm, int checksumLength) {
-        HashValue hash = HashUtil.createHash(src, algorithm);
+    private byte[] createChecksumFile(HashValue hash, int checksumLength) {
         String formattedHashString = hash.asZeroPaddedHexString(checksumLength);
         try {
             return formattedHashString.getBytes("US-ASCII");
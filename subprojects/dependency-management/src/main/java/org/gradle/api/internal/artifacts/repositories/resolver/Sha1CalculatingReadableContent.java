@@ -0,0 +1,110 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.artifacts.repositories.resolver;
+
+import org.gradle.internal.hash.HashValue;
+import org.gradle.internal.hash.Hashing;
+import org.gradle.internal.hash.PrimitiveHasher;
+import org.gradle.internal.resource.ReadableContent;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Calculates the SHA-1 of the content while it is uploaded, so that the checksum file can be published without reading the file again.
+ */
+class Sha1CalculatingReadableContent implements ReadableContent {
+    private final ReadableContent delegate;
+    private volatile HashValue sha1;
+
+    Sha1CalculatingReadableContent(ReadableContent delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public InputStream open() {
+        return new HashingInputStream(delegate.open(), delegate.getContentLength());
+    }
+
+    @Override
+    public long getContentLength() {
+        return delegate.getContentLength();
+    }
+
+    /**
+     * Returns the SHA-1 of the content, or null when no stream of the content has been read to the end.
+     */
+    @Nullable
+    HashValue getSha1() {
+        return sha1;
+    }
+
+    private class HashingInputStream extends InputStream {
+        private final InputStream inputStream;
+        private final long contentLength;
+        private final PrimitiveHasher hasher = Hashing.sha1().newPrimitiveHasher();
+        private long count;
+        private boolean complete;
+
+        HashingInputStream(InputStream inputStream, long contentLength) {
+            this.inputStream = inputStream;
+            this.contentLength = contentLength;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int result = inputStream.read();
+            if (result < 0) {
+                complete();
+            } else {
+                hasher.putByte((byte) result);
+                count++;
+            }
+            return result;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = inputStream.read(b, off, len);
+            if (read < 0) {
+                complete();
+            } else if (read > 0) {
+                hasher.putBytes(b, off, read);
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            // Some uploaders stop reading once they have sent the expected number of bytes
+            if (count == contentLength) {
+                complete();
+            }
+            inputStream.close();
+        }
+
+        private void complete() {
+            if (!complete) {
+                complete = true;
+                sha1 = new HashValue(hasher.hash().toByteArray());
+            }
+        }
+    }
+}
@@ -21,20 +21,39 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import org.gradle.internal.Try;
 import org.gradle.internal.UncheckedException;
+import org.gradle.internal.execution.history.AfterPreviousExecutionState;
 import org.gradle.internal.execution.history.ExecutionHistoryStore;
+import org.gradle.internal.execution.history.changes.OutputFileChanges;
+import org.gradle.internal.fingerprint.impl.OutputFileCollectionFingerprinter;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 import java.io.File;
+import java.util.Optional;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Keeps the results of transformations in memory, so that each transformation is looked up in its workspace at most once.
+ *
+ * <p>The cache is bounded by the number of result files it references. Results can outlive the build that produced them, see {@link #invalidateResultsOfCurrentBuild()}.
+ * A result from an earlier build is only reused once the outputs in its workspace are found to be unchanged since they were recorded in the execution history.</p>
+ */
 @ThreadSafe
 public abstract class AbstractCachingTransformationWorkspaceProvider implements CachingTransformationWorkspaceProvider {
+    private static final long MAX_CACHED_RESULT_FILES = 200000;
 
     private final TransformationWorkspaceProvider delegate;
-    private final Cache<TransformationWorkspaceIdentity, Try<ImmutableList<File>>> inMemoryResultCache = CacheBuilder.newBuilder().build();
+    private final Cache<TransformationWorkspaceIdentity, CachedResult> inMemoryResultCache = CacheBuilder.newBuilder()
+        .maximumWeight(MAX_CACHED_RESULT_FILES)
+        .weigher((TransformationWorkspaceIdentity identity, CachedResult result) -> result.getWeight())
+        .build();
+    private final OutputFileCollectionFingerprinter outputFingerprinter;
+    private final AtomicInteger currentBuild = new AtomicInteger();
 
-    public AbstractCachingTransformationWorkspaceProvider(TransformationWorkspaceProvider delegate) {
+    public AbstractCachingTransformationWorkspaceProvider(TransformationWorkspaceProvider delegate, OutputFileCollectionFingerprinter outputFingerprinter) {
         this.delegate = delegate;
+        this.outputFingerprinter = outputFingerprinter;
     }
 
     @Override
@@ -44,21 +63,101 @@ public abstract class AbstractCachingTransformationWorkspaceProvider implements
 
     @Override
     public boolean hasCachedResult(TransformationWorkspaceIdentity identity) {
-        return inMemoryResultCache.getIfPresent(identity) != null;
+        return getValidResult(identity) != null;
     }
 
     @Override
     public Try<ImmutableList<File>> withWorkspace(TransformationWorkspaceIdentity identity, TransformationWorkspaceAction workspaceAction) {
+        getValidResult(identity);
         try {
             return inMemoryResultCache.get(identity, () -> {
-                    return delegate.withWorkspace(identity, workspaceAction);
-                });
+                    RecordingWorkspaceAction recordingAction = new RecordingWorkspaceAction(workspaceAction);
+                    Try<ImmutableList<File>> result = delegate.withWorkspace(identity, recordingAction);
+                    return new CachedResult(result, recordingAction.transformationIdentity, recordingAction.workspace, currentBuild.get());
+                }).result;
         } catch (ExecutionException e) {
             throw UncheckedException.throwAsUncheckedException(e);
         }
     }
 
-    public void clearInMemoryCache() {
-        inMemoryResultCache.invalidateAll();
+    /**
+     * Returns the cached result, when there is one that is still valid, and drops it otherwise.
+     */
+    @Nullable
+    private CachedResult getValidResult(TransformationWorkspaceIdentity identity) {
+        CachedResult cachedResult = inMemoryResultCache.getIfPresent(identity);
+        int build = currentBuild.get();
+        if (cachedResult == null || cachedResult.build == build) {
+            return cachedResult;
+        }
+        if (hasUnchangedOutputs(cachedResult)) {
+            CachedResult revalidatedResult = cachedResult.withBuild(build);
+            inMemoryResultCache.asMap().replace(identity, cachedResult, revalidatedResult);
+            return revalidatedResult;
+        }
+        inMemoryResultCache.asMap().remove(identity, cachedResult);
+        return null;
+    }
+
+    private boolean hasUnchangedOutputs(CachedResult cachedResult) {
+        if (!cachedResult.result.isSuccessful() || cachedResult.workspace == null) {
+            return false;
+        }
+        Optional<AfterPreviousExecutionState> previousExecution = getExecutionHistoryStore().load(DefaultTransformerInvoker.getExecutionHistoryKey(cachedResult.transformationIdentity));
+        if (!previousExecution.isPresent() || !previousExecution.get().isSuccessful()) {
+            return false;
+        }
+        OutputFileChanges outputChanges = new OutputFileChanges(
+            previousExecution.get().getOutputFileProperties(),
+            DefaultTransformerInvoker.fingerprintOutputs(cachedResult.workspace, outputFingerprinter)
+        );
+        return !outputChanges.hasAnyChanges();
+    }
+
+    /**
+     * Called when a build finishes. Failed results are discarded, and the files of the other results are checked before they are used by a later build.
+     */
+    public void invalidateResultsOfCurrentBuild() {
+        currentBuild.incrementAndGet();
+        inMemoryResultCache.asMap().values().removeIf(cachedResult -> !cachedResult.result.isSuccessful());
+    }
+
+    private static class RecordingWorkspaceAction implements TransformationWorkspaceAction {
+        private final TransformationWorkspaceAction delegate;
+        private String transformationIdentity;
+        private TransformationWorkspace workspace;
+
+        RecordingWorkspaceAction(TransformationWorkspaceAction delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Try<ImmutableList<File>> useWorkspace(String transformationIdentity, TransformationWorkspace workspace) {
+            this.transformationIdentity = transformationIdentity;
+            this.workspace = workspace;
+            return delegate.useWorkspace(transformationIdentity, workspace);
+        }
+    }
+
+    private static class CachedResult {
+        private final Try<ImmutableList<File>> result;
+        private final String transformationIdentity;
+        private final TransformationWorkspace workspace;
+        private final int build;
+
+        CachedResult(Try<ImmutableList<File>> result, @Nullable String transformationIdentity, @Nullable TransformationWorkspace workspace, int build) {
+            this.result = result;
+            this.transformationIdentity = transformationIdentity;
+            this.workspace = workspace;
+            this.build = build;
+        }
+
+        CachedResult withBuild(int build) {
+            return new CachedResult(result, transformationIdentity, workspace, build);
+        }
+
+        int getWeight() {
+            return 1 + (result.isSuccessful() ? result.get().size() : 0);
+        }
     }
 }
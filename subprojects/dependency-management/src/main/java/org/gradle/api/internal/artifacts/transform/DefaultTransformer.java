@@ -19,6 +19,7 @@ package org.gradle.api.internal.artifacts.transform;
 import org.gradle.api.InvalidUserDataException;
 import org.gradle.api.artifacts.transform.ArtifactTransform;
 import org.gradle.api.artifacts.transform.ArtifactTransformDependencies;
+import org.gradle.api.artifacts.transform.CacheableTransform;
 import org.gradle.api.internal.InjectUtil;
 import org.gradle.api.internal.InstantiatorFactory;
 import org.gradle.api.internal.attributes.ImmutableAttributes;
@@ -36,6 +37,7 @@ public class DefaultTransformer implements Transformer {
 
     private final Class<? extends ArtifactTransform> implementationClass;
     private final boolean requiresDependencies;
+    private final boolean cacheable;
     private final Isolatable<Object[]> parameters;
     private final InstantiatorFactory instantiatorFactory;
     private final HashCode inputsHash;
@@ -44,6 +46,7 @@ public class DefaultTransformer implements Transformer {
     public DefaultTransformer(Class<? extends ArtifactTransform> implementationClass, Isolatable<Object[]> parameters, HashCode inputsHash, InstantiatorFactory instantiatorFactory, ImmutableAttributes fromAttributes) {
         this.implementationClass = implementationClass;
         this.requiresDependencies = hasDependenciesAmongConstructorParameters(implementationClass);
+        this.cacheable = implementationClass.isAnnotationPresent(CacheableTransform.class);
         this.parameters = parameters;
         this.instantiatorFactory = instantiatorFactory;
         this.inputsHash = inputsHash;
@@ -64,6 +67,11 @@ public class DefaultTransformer implements Transformer {
         return requiresDependencies;
     }
 
+    @Override
+    public boolean isCacheable() {
+        return cacheable;
+    }
+
     @Override
     public ImmutableAttributes getFromAttributes() {
         return fromAttributes;
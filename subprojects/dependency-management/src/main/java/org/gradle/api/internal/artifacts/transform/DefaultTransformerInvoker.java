@@ -16,6 +16,7 @@
 
 package org.gradle.api.internal.artifacts.transform;
 
+import com.google.common.base.CaseFormat;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSortedMap;
 import org.gradle.api.UncheckedIOException;
@@ -26,6 +27,7 @@ import org.gradle.api.internal.artifacts.transform.TransformationWorkspaceProvid
 import org.gradle.api.internal.file.collections.ImmutableFileCollection;
 import org.gradle.api.internal.project.ProjectInternal;
 import org.gradle.caching.BuildCacheKey;
+import org.gradle.caching.internal.controller.BuildCacheController;
 import org.gradle.caching.internal.origin.OriginMetadata;
 import org.gradle.internal.Try;
 import org.gradle.internal.UncheckedException;
@@ -53,6 +55,7 @@ import org.gradle.internal.fingerprint.impl.OutputFileCollectionFingerprinter;
 import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.hash.Hasher;
 import org.gradle.internal.hash.Hashing;
+import org.gradle.internal.metrics.Metrics;
 import org.gradle.internal.snapshot.FileSystemLocationSnapshot;
 import org.gradle.internal.snapshot.FileSystemSnapshotter;
 import org.gradle.internal.snapshot.ValueSnapshot;
@@ -67,12 +70,19 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
+/**
+ * Executes transformers in their workspaces, reusing the results of earlier executions when possible.
+ *
+ * <p>For each implementation type, the number of requested transformations and the outcome of the transformations that were not
+ * found in memory are recorded as {@code transform.<type>.requested}, {@code .upToDate}, {@code .fromCache} and {@code .executed} metrics.</p>
+ */
 public class DefaultTransformerInvoker implements TransformerInvoker {
 
     private final FileSystemSnapshotter fileSystemSnapshotter;
@@ -83,6 +93,7 @@ public class DefaultTransformerInvoker implements TransformerInvoker {
     private final OutputFileCollectionFingerprinter outputFingerprinter;
     private final ClassLoaderHierarchyHasher classLoaderHierarchyHasher;
     private final ProjectFinder projectFinder;
+    private final BuildCacheController buildCacheController;
     private final boolean useTransformationWorkspaces;
 
     public DefaultTransformerInvoker(WorkExecutor<UpToDateResult> workExecutor,
@@ -93,6 +104,7 @@ public class DefaultTransformerInvoker implements TransformerInvoker {
                                      OutputFileCollectionFingerprinter outputFileCollectionFingerprinter,
                                      ClassLoaderHierarchyHasher classLoaderHierarchyHasher,
                                      ProjectFinder projectFinder,
+                                     BuildCacheController buildCacheController,
                                      boolean useTransformationWorkspaces) {
         this.workExecutor = workExecutor;
         this.fileSystemSnapshotter = fileSystemSnapshotter;
@@ -102,6 +114,7 @@ public class DefaultTransformerInvoker implements TransformerInvoker {
         this.outputFingerprinter = outputFileCollectionFingerprinter;
         this.classLoaderHierarchyHasher = classLoaderHierarchyHasher;
         this.projectFinder = projectFinder;
+        this.buildCacheController = buildCacheController;
         this.useTransformationWorkspaces = useTransformationWorkspaces;
     }
 
@@ -112,6 +125,7 @@ public class DefaultTransformerInvoker implements TransformerInvoker {
         CachingTransformationWorkspaceProvider workspaceProvider = determineWorkspaceProvider(producerProject);
         FileSystemLocationSnapshot primaryInputSnapshot = fileSystemSnapshotter.snapshot(primaryInput);
         TransformationWorkspaceIdentity identity = getTransformationIdentity(producerProject, primaryInputSnapshot, transformer, dependenciesFingerprint);
+        Metrics.counter(metricName(transformer, "requested")).increment();
         return workspaceProvider.withWorkspace(identity, (identityString, workspace) -> {
             return fireTransformListeners(transformer, subject, () -> {
                 CurrentFileCollectionFingerprint primaryInputFingerprint = DefaultCurrentFileCollectionFingerprint.from(ImmutableList.of(primaryInputSnapshot), AbsolutePathFingerprintingStrategy.INCLUDE_MISSING);
@@ -123,17 +137,43 @@ public class DefaultTransformerInvoker implements TransformerInvoker {
                     identityString,
                     workspaceProvider.getExecutionHistoryStore(),
                     primaryInput,
+                    primaryInputSnapshot,
                     primaryInputFingerprint,
                     dependencies,
                     dependenciesFingerprint,
-                    outputFingerprinter
+                    outputFingerprinter,
+                    buildCacheController
                 );
                 UpToDateResult outcome = workExecutor.execute(execution);
+                outcome.getOutcome().ifSuccessful(executionOutcome -> {
+                    Metrics.counter(metricName(transformer, CaseFormat.UPPER_UNDERSCORE.to(CaseFormat.LOWER_CAMEL, executionOutcome.name()))).increment();
+                });
                 return execution.getResult(outcome);
             });
         });
     }
 
+    /**
+     * Returns the key under which the execution history of the transformation with the given workspace identity is stored.
+     */
+    static String getExecutionHistoryKey(String transformationIdentity) {
+        return "transform/" + transformationIdentity;
+    }
+
+    /**
+     * Fingerprints the outputs in the given workspace, in the same way as they are recorded in the execution history.
+     */
+    static ImmutableSortedMap<String, CurrentFileCollectionFingerprint> fingerprintOutputs(TransformationWorkspace workspace, OutputFileCollectionFingerprinter outputFingerprinter) {
+        return ImmutableSortedMap.of(
+            TransformerExecution.OUTPUT_DIRECTORY_PROPERTY_NAME, outputFingerprinter.fingerprint(ImmutableFileCollection.of(workspace.getOutputDirectory())),
+            TransformerExecution.RESULTS_FILE_PROPERTY_NAME, outputFingerprinter.fingerprint(ImmutableFileCollection.of(workspace.getResultsFile()))
+        );
+    }
+
+    private static String metricName(Transformer transformer, String outcome) {
+        return "transform." + transformer.getImplementationClass().getName() + "." + outcome;
+    }
+
     private TransformationWorkspaceIdentity getTransformationIdentity(@Nullable ProjectInternal project, FileSystemLocationSnapshot primaryInputSnapshot, Transformer transformer, CurrentFileCollectionFingerprint dependenciesFingerprint) {
         return project == null
             ? getImmutableTransformationIdentity(primaryInputSnapshot, transformer, dependenciesFingerprint)
@@ -195,12 +235,15 @@ public class DefaultTransformerInvoker implements TransformerInvoker {
         private final ImplementationSnapshot implementationSnapshot;
         private final TransformationWorkspace workspace;
         private final File primaryInput;
+        private final FileSystemLocationSnapshot primaryInputSnapshot;
         private final String identityString;
         private final ExecutionHistoryStore executionHistoryStore;
         private final ArtifactTransformDependenciesInternal dependencies;
         private final ImmutableSortedMap<String, ValueSnapshot> inputSnapshots;
         private final ImmutableSortedMap<String, CurrentFileCollectionFingerprint> inputFileFingerprints;
+        private final CurrentFileCollectionFingerprint dependenciesFingerprint;
         private final OutputFileCollectionFingerprinter outputFingerprinter;
+        private final BuildCacheController buildCacheController;
 
         public TransformerExecution(
             Transformer transformer,
@@ -209,16 +252,19 @@ public class DefaultTransformerInvoker implements TransformerInvoker {
             String identityString,
             ExecutionHistoryStore executionHistoryStore,
             File primaryInput,
+            FileSystemLocationSnapshot primaryInputSnapshot,
             CurrentFileCollectionFingerprint primaryInputFingerprint,
             ArtifactTransformDependenciesInternal dependencies,
             CurrentFileCollectionFingerprint dependenciesFingerprint,
-            OutputFileCollectionFingerprinter outputFingerprinter
+            OutputFileCollectionFingerprinter outputFingerprinter,
+            BuildCacheController buildCacheController
         ) {
             this.implementationSnapshot = implementationSnapshot;
             this.primaryInput = primaryInput;
+            this.primaryInputSnapshot = primaryInputSnapshot;
             this.transformer = transformer;
             this.workspace = workspace;
-            this.identityString = "transform/" + identityString;
+            this.identityString = getExecutionHistoryKey(identityString);
             this.executionHistoryStore = executionHistoryStore;
             this.dependencies = dependencies;
             this.inputSnapshots = ImmutableSortedMap.of(
@@ -226,7 +272,9 @@ public class DefaultTransformerInvoker implements TransformerInvoker {
                 SECONDARY_INPUTS_HASH_PROPERTY_NAME, ImplementationSnapshot.of("secondary inputs", transformer.getSecondaryInputHash())
             );
             this.inputFileFingerprints = createInputFileFingerprints(primaryInputFingerprint, dependenciesFingerprint);
+            this.dependenciesFingerprint = dependenciesFingerprint;
             this.outputFingerprinter = outputFingerprinter;
+            this.buildCacheController = buildCacheController;
         }
 
         private static ImmutableSortedMap<String, CurrentFileCollectionFingerprint> createInputFileFingerprints(
@@ -324,18 +372,49 @@ public class DefaultTransformerInvoker implements TransformerInvoker {
 
         @Override
         public CacheHandler createCacheHandler() {
+            BuildCacheKey cacheKey = buildCacheController.isEnabled() && transformer.isCacheable()
+                ? createBuildCacheKey()
+                : null;
             return new CacheHandler() {
                 @Override
                 public <T> Optional<T> load(Function<BuildCacheKey, T> loader) {
-                    return Optional.empty();
+                    return cacheKey == null
+                        ? Optional.empty()
+                        : Optional.ofNullable(loader.apply(cacheKey));
                 }
 
                 @Override
                 public void store(Consumer<BuildCacheKey> storer) {
+                    if (cacheKey != null) {
+                        storer.accept(cacheKey);
+                    }
                 }
             };
         }
 
+        /**
+         * Creates a cache key that does not depend on the location of the input files, so that results can be shared between machines.
+         * Returns {@code null} when the implementation of the transformer cannot be identified.
+         */
+        @Nullable
+        private BuildCacheKey createBuildCacheKey() {
+            Hasher hasher = Hashing.newHasher();
+            implementationSnapshot.appendToHasher(hasher);
+            hasher.putHash(transformer.getSecondaryInputHash());
+            hasher.putString(primaryInput.getName());
+            hasher.putHash(primaryInputSnapshot.getHash());
+            for (Map.Entry<String, HashCode> dependencyRoot : dependenciesFingerprint.getRootHashes().entries()) {
+                hasher.putString(new File(dependencyRoot.getKey()).getName());
+                hasher.putHash(dependencyRoot.getValue());
+            }
+            hasher.putString(OUTPUT_DIRECTORY_PROPERTY_NAME);
+            hasher.putString(RESULTS_FILE_PROPERTY_NAME);
+            if (!hasher.isValid()) {
+                return null;
+            }
+            return new TransformerExecutionBuildCacheKey(hasher.hash(), getDisplayName());
+        }
+
         @Override
         public void persistResult(ImmutableSortedMap<String, CurrentFileCollectionFingerprint> finalOutputs, boolean successful, OriginMetadata originMetadata) {
             if (successful) {
@@ -388,7 +467,8 @@ public class DefaultTransformerInvoker implements TransformerInvoker {
 
         @Override
         public void visitOutputTrees(CacheableTreeVisitor visitor) {
-            throw new UnsupportedOperationException("we don't cache yet");
+            visitor.visitOutputTree(OUTPUT_DIRECTORY_PROPERTY_NAME, TreeType.DIRECTORY, workspace.getOutputDirectory());
+            visitor.visitOutputTree(RESULTS_FILE_PROPERTY_NAME, TreeType.FILE, workspace.getResultsFile());
         }
 
         @Override
@@ -429,6 +509,31 @@ public class DefaultTransformerInvoker implements TransformerInvoker {
         }
     }
 
+    private static class TransformerExecutionBuildCacheKey implements BuildCacheKey {
+        private final HashCode hashCode;
+        private final String displayName;
+
+        TransformerExecutionBuildCacheKey(HashCode hashCode, String displayName) {
+            this.hashCode = hashCode;
+            this.displayName = displayName;
+        }
+
+        @Override
+        public String getHashCode() {
+            return hashCode.toString();
+        }
+
+        @Override
+        public String getDisplayName() {
+            return hashCode + " for " + displayName;
+        }
+
+        @Override
+        public String toString() {
+            return getDisplayName();
+        }
+    }
+
     private static class AllOutputFileChanges extends AbstractFingerprintChanges {
 
         public AllOutputFileChanges(ImmutableSortedMap<String, FileCollectionFingerprint> previous, ImmutableSortedMap<String, CurrentFileCollectionFingerprint> current) {
@@ -16,8 +16,10 @@
 
 package org.gradle.api.internal.artifacts.transform;
 
+import org.gradle.internal.fingerprint.impl.OutputFileCollectionFingerprinter;
+
 public class ImmutableCachingTransformationWorkspaceProvider extends AbstractCachingTransformationWorkspaceProvider {
-    public ImmutableCachingTransformationWorkspaceProvider(TransformationWorkspaceProvider delegate) {
-        super(delegate);
+    public ImmutableCachingTransformationWorkspaceProvider(TransformationWorkspaceProvider delegate, OutputFileCollectionFingerprinter outputFingerprinter) {
+        super(delegate, outputFingerprinter);
     }
 }
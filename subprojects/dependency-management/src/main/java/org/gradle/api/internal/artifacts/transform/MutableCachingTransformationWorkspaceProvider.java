@@ -16,8 +16,10 @@
 
 package org.gradle.api.internal.artifacts.transform;
 
+import org.gradle.internal.fingerprint.impl.OutputFileCollectionFingerprinter;
+
 public class MutableCachingTransformationWorkspaceProvider extends AbstractCachingTransformationWorkspaceProvider {
-    public MutableCachingTransformationWorkspaceProvider(TransformationWorkspaceProvider delegate) {
-        super(delegate);
+    public MutableCachingTransformationWorkspaceProvider(TransformationWorkspaceProvider delegate, OutputFileCollectionFingerprinter outputFingerprinter) {
+        super(delegate, outputFingerprinter);
     }
 }
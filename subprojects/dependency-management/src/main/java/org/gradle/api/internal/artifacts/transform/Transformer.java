@@ -40,6 +40,11 @@ public interface Transformer extends Describable {
      */
     boolean requiresDependencies();
 
+    /**
+     * Whether the results of the transformer can be stored in and loaded from the build cache.
+     */
+    boolean isCacheable();
+
     List<File> transform(File primaryInput, File outputDir, ArtifactTransformDependencies dependencies);
 
     /**
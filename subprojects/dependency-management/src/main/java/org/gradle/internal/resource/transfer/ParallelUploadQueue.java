@@ -0,0 +1,127 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.resource.transfer;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.ManagedExecutor;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.operations.BuildOperationRef;
+import org.gradle.internal.operations.CurrentBuildOperationRef;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Runs the uploads of a publication concurrently, on a bounded number of threads.
+ *
+ * <p>Publishers upload the metadata files of a module themselves, once {@link #awaitCompletion()} has returned, so that the module only becomes visible in the repository
+ * when all of its artifacts are there. Once an upload has failed, the uploads that have not started yet are skipped.</p>
+ */
+public class ParallelUploadQueue implements Stoppable {
+    public static final String MAX_CONCURRENT_UPLOADS_PROPERTY = "org.gradle.internal.publish.maxConcurrentUploads";
+    private static final int DEFAULT_MAX_CONCURRENT_UPLOADS = 4;
+
+    private final ManagedExecutor executor;
+    private final CurrentBuildOperationRef currentBuildOperationRef = CurrentBuildOperationRef.instance();
+    private final BuildOperationRef buildOperation;
+    private final List<Future<?>> pending = new ArrayList<Future<?>>();
+    private volatile boolean skipRemaining;
+    private Throwable failure;
+
+    public ParallelUploadQueue(String displayName, ExecutorFactory executorFactory) {
+        this(displayName, executorFactory, Math.max(1, Integer.getInteger(MAX_CONCURRENT_UPLOADS_PROPERTY, DEFAULT_MAX_CONCURRENT_UPLOADS)));
+    }
+
+    public ParallelUploadQueue(String displayName, ExecutorFactory executorFactory, int maxConcurrentUploads) {
+        this.executor = executorFactory.create(displayName, maxConcurrentUploads);
+        this.buildOperation = currentBuildOperationRef.get();
+    }
+
+    /**
+     * Queues the given upload. The returned future fails when the upload fails.
+     */
+    public Future<?> submit(final Runnable upload) {
+        FutureTask<Void> task = new FutureTask<Void>(new Callable<Void>() {
+            @Override
+            public Void call() {
+                if (skipRemaining) {
+                    return null;
+                }
+                // Associate the progress of the upload with the operation that queued it
+                BuildOperationRef previous = currentBuildOperationRef.get();
+                currentBuildOperationRef.set(buildOperation);
+                try {
+                    upload.run();
+                    return null;
+                } catch (RuntimeException e) {
+                    skipRemaining = true;
+                    throw e;
+                } catch (Error e) {
+                    skipRemaining = true;
+                    throw e;
+                } finally {
+                    currentBuildOperationRef.set(previous);
+                }
+            }
+        });
+        synchronized (pending) {
+            pending.add(task);
+        }
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * Waits for all queued uploads to complete, and rethrows the failure of the first queued upload that failed.
+     * Once an upload has failed, every later call rethrows that failure.
+     */
+    public void awaitCompletion() {
+        List<Future<?>> uploads;
+        synchronized (pending) {
+            uploads = new ArrayList<Future<?>>(pending);
+            pending.clear();
+        }
+        for (Future<?> upload : uploads) {
+            try {
+                Uninterruptibles.getUninterruptibly(upload);
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                }
+            }
+        }
+        if (failure != null) {
+            throw UncheckedException.throwAsUncheckedException(failure);
+        }
+    }
+
+    /**
+     * Skips the uploads that have not started yet, and waits for the others to complete.
+     */
+    @Override
+    public void stop() {
+        skipRemaining = true;
+        executor.stop();
+    }
+}
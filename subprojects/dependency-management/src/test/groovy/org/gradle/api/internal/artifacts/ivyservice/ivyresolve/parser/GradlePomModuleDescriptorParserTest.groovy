@@ -17,6 +17,9 @@ package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser
 
 import groovy.transform.NotYetImplemented
 import org.gradle.api.internal.artifacts.DefaultModuleIdentifier
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.DefaultVersionComparator
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.DefaultVersionSelectorScheme
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionParser
 import org.gradle.internal.component.external.descriptor.MavenScope
 import org.gradle.internal.component.external.model.maven.MavenDependencyDescriptor
 import org.gradle.internal.component.external.model.maven.MutableMavenModuleResolveMetadata
@@ -25,6 +28,8 @@ import org.gradle.internal.hash.HashUtil
 import spock.lang.Issue
 import spock.lang.Unroll
 
+import java.util.function.Function
+
 import static org.gradle.api.internal.component.ArtifactType.MAVEN_POM
 
 class GradlePomModuleDescriptorParserTest extends AbstractGradlePomModuleDescriptorParserTest {
@@ -156,6 +161,71 @@ class GradlePomModuleDescriptorParserTest extends AbstractGradlePomModuleDescrip
         inheritedDep.scope == MavenScope.Compile
     }
 
+    def "reuses parsed parent pom for children with different properties"() {
+        given:
+        def parent = tmpDir.file("parent.xml") << """
+<project>
+    <modelVersion>4.0.0</modelVersion>
+    <groupId>group-one</groupId>
+    <artifactId>parent</artifactId>
+    <version>version-one</version>
+
+    <dependencies>
+        <dependency>
+            <groupId>group-two</groupId>
+            <artifactId>artifact-two</artifactId>
+            <version>\${shared.version}</version>
+        </dependency>
+    </dependencies>
+</project>
+"""
+        def childPom = { String artifactId, String sharedVersion ->
+            """
+<project>
+    <modelVersion>4.0.0</modelVersion>
+    <artifactId>${artifactId}</artifactId>
+
+    <parent>
+        <groupId>group-one</groupId>
+        <artifactId>parent</artifactId>
+        <version>version-one</version>
+    </parent>
+
+    <properties>
+        <shared.version>${sharedVersion}</shared.version>
+    </properties>
+</project>
+"""
+        }
+
+        and:
+        parseContext.getMetaDataArtifact(_, _, MAVEN_POM) >> asResource(parent)
+        def parsedPoms = []
+        def cache = new ParsedPomCache({ resource ->
+            parsedPoms << resource.file
+            PomReader.parsePom(resource)
+        } as Function)
+        def cachingParser = new GradlePomModuleDescriptorParser(new DefaultVersionSelectorScheme(new DefaultVersionComparator(), new VersionParser()), moduleIdentifierFactory, fileRepository, mavenMetadataFactory, cache)
+
+        when:
+        pomFile << childPom('artifact-one', '1.0')
+        def first = cachingParser.parseMetaData(parseContext, pomFile, true)
+        pomFile.text = childPom('artifact-three', '2.0')
+        def second = cachingParser.parseMetaData(parseContext, pomFile, true)
+
+        then:
+        first.id == componentId('group-one', 'artifact-one', 'version-one')
+        first.dependencies.size() == 1
+        first.dependencies[0].selector == moduleId('group-two', 'artifact-two', '1.0')
+
+        second.id == componentId('group-one', 'artifact-three', 'version-one')
+        second.dependencies.size() == 1
+        second.dependencies[0].selector == moduleId('group-two', 'artifact-two', '2.0')
+
+        and:
+        parsedPoms == [parent]
+    }
+
     def "uses dependency management section to provide default values for a dependency"() {
         given:
         pomFile << """
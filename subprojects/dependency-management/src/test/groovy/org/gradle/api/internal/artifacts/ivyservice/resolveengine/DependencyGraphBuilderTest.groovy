@@ -204,6 +204,31 @@ class DependencyGraphBuilderTest extends Specification {
         result.components == ids(root, a, b, c, d)
     }
 
+    def "resolves dynamic versions of new modules once, ahead of selection"() {
+        given:
+        def a = revision("a")
+        def b = revision("b")
+        def c = revision("c")
+        traverses root, a, revision: '1.+'
+        traverses root, b, revision: '1.+'
+        traverses root, c
+        def operations = []
+
+        when:
+        def result = resolve()
+        result.rethrowFailure()
+
+        then:
+        _ * buildOperationProcessor.runAll(_) >> { args ->
+            args[0].execute([add: { operation ->
+                operations << operation.class.simpleName
+                operation.run(null)
+            }] as BuildOperationQueue)
+        }
+        operations.count { it == 'PrefetchSelectorOperation' } == 2
+        result.components == ids(root, a, b, c)
+    }
+
     def "does not include evicted module or dependencies when selected module already traversed before conflict detected"() {
         given:
         def selected = revision('a', '1.2')
@@ -25,6 +25,7 @@ import org.gradle.api.internal.artifacts.repositories.transport.RepositoryTransp
 import org.gradle.api.internal.file.FileResolver
 import org.gradle.api.internal.filestore.ivy.ArtifactIdentifierFileStore
 import org.gradle.api.model.ObjectFactory
+import org.gradle.internal.concurrent.ExecutorFactory
 import org.gradle.internal.logging.progress.ProgressLoggerFactory
 import org.gradle.internal.resource.ExternalResourceRepository
 import org.gradle.internal.resource.local.FileResourceRepository
@@ -59,7 +60,8 @@ class DefaultMavenLocalRepositoryTest extends Specification {
         TestUtil.featurePreviews(),
         mavenMetadataFactory,
         SnapshotTestUtil.valueSnapshotter(),
-        Mock(ObjectFactory)
+        Mock(ObjectFactory),
+        Mock(ExecutorFactory)
     )
     final ProgressLoggerFactory progressLoggerFactory = Mock()
 
@@ -31,6 +31,7 @@ import org.gradle.internal.action.ConfigurableRule
 import org.gradle.internal.action.DefaultConfigurableRules
 import org.gradle.internal.action.InstantiatingAction
 import org.gradle.internal.component.model.DefaultComponentOverrideMetadata
+import org.gradle.internal.concurrent.ExecutorFactory
 import org.gradle.internal.reflect.Instantiator
 import org.gradle.internal.resolve.result.DefaultBuildableModuleComponentMetaDataResolveResult
 import org.gradle.internal.resource.local.FileResourceRepository
@@ -194,7 +195,7 @@ class IvyResolverTest extends Specification {
             supplier,
             lister,
             metadataSources,
-            metadataArtifactProvider, Mock(Instantiator)).with {
+            metadataArtifactProvider, Mock(Instantiator), Stub(ExecutorFactory)).with {
             if (ivyPattern) {
                 it.addDescriptorLocation(URI.create(""), ivyPattern)
             }
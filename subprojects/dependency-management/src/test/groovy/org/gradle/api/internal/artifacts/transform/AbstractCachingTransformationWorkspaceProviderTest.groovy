@@ -17,8 +17,19 @@
 package org.gradle.api.internal.artifacts.transform
 
 import com.google.common.collect.ImmutableList
+import com.google.common.collect.ImmutableSortedMap
+import org.gradle.api.internal.cache.StringInterner
+import org.gradle.api.internal.changedetection.state.DefaultWellKnownFileLocations
+import org.gradle.api.internal.file.TestFiles
+import org.gradle.caching.internal.origin.OriginMetadata
 import org.gradle.internal.Try
-import org.gradle.internal.execution.history.ExecutionHistoryStore
+import org.gradle.internal.execution.TestExecutionHistoryStore
+import org.gradle.internal.fingerprint.impl.OutputFileCollectionFingerprinter
+import org.gradle.internal.hash.HashCode
+import org.gradle.internal.id.UniqueId
+import org.gradle.internal.snapshot.impl.DefaultFileSystemMirror
+import org.gradle.internal.snapshot.impl.DefaultFileSystemSnapshotter
+import org.gradle.internal.snapshot.impl.ImplementationSnapshot
 import org.gradle.test.fixtures.concurrent.ConcurrentSpec
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
 import org.junit.Rule
@@ -29,8 +40,11 @@ class AbstractCachingTransformationWorkspaceProviderTest extends ConcurrentSpec
     @Rule
     TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
 
-    def executionHistoryStore = Mock(ExecutionHistoryStore)
-    private workspaceProvider = new AbstractCachingTransformationWorkspaceProvider(new TestTransformationWorkspaceProvider(tmpDir.file("transforms"), executionHistoryStore)) {}
+    def executionHistoryStore = new TestExecutionHistoryStore()
+    def fileSystemMirror = new DefaultFileSystemMirror(new DefaultWellKnownFileLocations([]))
+    def fileSystemSnapshotter = new DefaultFileSystemSnapshotter(TestFiles.fileHasher(), new StringInterner(), TestFiles.fileSystem(), fileSystemMirror)
+    def outputFingerprinter = new OutputFileCollectionFingerprinter(new StringInterner(), fileSystemSnapshotter)
+    private workspaceProvider = new AbstractCachingTransformationWorkspaceProvider(new TestTransformationWorkspaceProvider(tmpDir.file("transforms"), executionHistoryStore), outputFingerprinter) {}
 
     def "locks on transformer identity"() {
         def numberOfCalls = new AtomicInteger()
@@ -94,6 +108,106 @@ class AbstractCachingTransformationWorkspaceProviderTest extends ConcurrentSpec
         !workspaceProvider.hasCachedResult(new TestWorkspaceIdentity("second"))
     }
 
+    def "keeps successful results for later builds while their outputs are unchanged"() {
+        def numberOfCalls = 0
+        TransformationWorkspaceProvider.TransformationWorkspace usedWorkspace = null
+        def action = { String id, TransformationWorkspaceProvider.TransformationWorkspace workspace ->
+            numberOfCalls++
+            usedWorkspace = workspace
+            def output = new File(workspace.outputDirectory, "output.txt")
+            output.parentFile.mkdirs()
+            output.text = "output"
+            workspace.resultsFile.text = "o/output.txt"
+            recordExecution(id, workspace)
+            return Try.successful(ImmutableList.of(output))
+        } as TransformationWorkspaceProvider.TransformationWorkspaceAction
+
+        when:
+        workspaceProvider.withWorkspace(new TestWorkspaceIdentity("first"), action)
+        finishBuild()
+        def result = workspaceProvider.withWorkspace(new TestWorkspaceIdentity("first"), action)
+
+        then:
+        numberOfCalls == 1
+        result.get() == [new File(usedWorkspace.outputDirectory, "output.txt")]
+
+        when:
+        finishBuild()
+        new File(usedWorkspace.outputDirectory, "output.txt").text = "changed"
+
+        then:
+        !workspaceProvider.hasCachedResult(new TestWorkspaceIdentity("first"))
+
+        when:
+        workspaceProvider.withWorkspace(new TestWorkspaceIdentity("first"), action)
+
+        then:
+        numberOfCalls == 2
+    }
+
+    def "does not keep results for later builds when their execution history is missing"() {
+        def numberOfCalls = 0
+        def action = { String id, TransformationWorkspaceProvider.TransformationWorkspace workspace ->
+            numberOfCalls++
+            recordExecution(id, workspace)
+            return Try.successful(ImmutableList.of())
+        } as TransformationWorkspaceProvider.TransformationWorkspaceAction
+
+        when:
+        workspaceProvider.withWorkspace(new TestWorkspaceIdentity("first"), action)
+        finishBuild()
+        executionHistoryStore.remove(DefaultTransformerInvoker.getExecutionHistoryKey("first"))
+
+        then:
+        !workspaceProvider.hasCachedResult(new TestWorkspaceIdentity("first"))
+
+        when:
+        workspaceProvider.withWorkspace(new TestWorkspaceIdentity("first"), action)
+
+        then:
+        numberOfCalls == 2
+    }
+
+    def "discards failed results when the build finishes"() {
+        def numberOfCalls = 0
+        def action = { id, workspace ->
+            numberOfCalls++
+            return Try.failure(new RuntimeException("broken"))
+        } as TransformationWorkspaceProvider.TransformationWorkspaceAction
+
+        when:
+        workspaceProvider.withWorkspace(new TestWorkspaceIdentity("first"), action)
+        workspaceProvider.withWorkspace(new TestWorkspaceIdentity("first"), action)
+
+        then:
+        numberOfCalls == 1
+
+        when:
+        workspaceProvider.invalidateResultsOfCurrentBuild()
+        workspaceProvider.withWorkspace(new TestWorkspaceIdentity("first"), action)
+
+        then:
+        numberOfCalls == 2
+    }
+
+    private void recordExecution(String identity, TransformationWorkspaceProvider.TransformationWorkspace workspace) {
+        executionHistoryStore.store(
+            DefaultTransformerInvoker.getExecutionHistoryKey(identity),
+            OriginMetadata.fromCurrentBuild(UniqueId.generate(), 0),
+            ImplementationSnapshot.of("transform", HashCode.fromInt(1234)),
+            ImmutableList.of(),
+            ImmutableSortedMap.of(),
+            ImmutableSortedMap.of(),
+            DefaultTransformerInvoker.fingerprintOutputs(workspace, outputFingerprinter),
+            true
+        )
+    }
+
+    private void finishBuild() {
+        workspaceProvider.invalidateResultsOfCurrentBuild()
+        fileSystemMirror.beforeBuildFinished()
+    }
+
     private static class TestWorkspaceIdentity implements TransformationWorkspaceIdentity {
         private final String name
 
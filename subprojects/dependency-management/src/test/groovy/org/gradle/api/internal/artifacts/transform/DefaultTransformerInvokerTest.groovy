@@ -91,6 +91,7 @@ class DefaultTransformerInvokerTest extends AbstractProjectBuilderSpec {
         outputFilesFingerprinter,
         classloaderHasher,
         projectFinder,
+        workExecutorTestFixture.buildCacheController,
         true
     )
 
@@ -122,6 +123,11 @@ class DefaultTransformerInvokerTest extends AbstractProjectBuilderSpec {
             return false
         }
 
+        @Override
+        boolean isCacheable() {
+            return false
+        }
+
         @Override
         List<File> transform(File primaryInput, File outputDir, ArtifactTransformDependencies dependencies) {
             return transformationAction.apply(primaryInput, outputDir)
@@ -103,4 +103,8 @@ public class WorkExecutorTestFixture {
     public WorkExecutor<UpToDateResult> getWorkExecutor() {
         return workExecutor;
     }
+
+    public BuildCacheController getBuildCacheController() {
+        return buildCacheController;
+    }
 }
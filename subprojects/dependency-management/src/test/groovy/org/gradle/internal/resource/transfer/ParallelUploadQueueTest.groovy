@@ -0,0 +1,98 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.resource.transfer
+
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import spock.lang.Specification
+
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class ParallelUploadQueueTest extends Specification {
+    def "runs uploads concurrently up to the maximum"() {
+        def started = new CountDownLatch(2)
+        def release = new CountDownLatch(1)
+        def running = new AtomicInteger()
+        def maxRunning = new AtomicInteger()
+        def queue = new ParallelUploadQueue("test", new DefaultExecutorFactory(), 2)
+
+        when:
+        4.times {
+            queue.submit {
+                def nowRunning = running.incrementAndGet()
+                maxRunning.accumulateAndGet(nowRunning, { a, b -> Math.max(a, b) })
+                started.countDown()
+                release.await()
+                running.decrementAndGet()
+            }
+        }
+
+        then:
+        started.await(10, TimeUnit.SECONDS)
+
+        when:
+        release.countDown()
+        queue.awaitCompletion()
+
+        then:
+        maxRunning.get() == 2
+        running.get() == 0
+
+        cleanup:
+        queue.stop()
+    }
+
+    def "rethrows the failure of the first failed upload and skips uploads that have not started"() {
+        def failure = new RuntimeException("broken")
+        def uploaded = new CopyOnWriteArrayList()
+        def queue = new ParallelUploadQueue("test", new DefaultExecutorFactory(), 1)
+
+        given:
+        queue.submit { uploaded << "a" }
+        def failed = queue.submit { throw failure }
+        queue.submit { uploaded << "c" }
+
+        when:
+        queue.awaitCompletion()
+
+        then:
+        def e = thrown(RuntimeException)
+        e.is(failure)
+        uploaded == ["a"]
+
+        when:
+        failed.get()
+
+        then:
+        def executionException = thrown(ExecutionException)
+        executionException.cause.is(failure)
+
+        when:
+        queue.awaitCompletion()
+
+        then:
+        def rethrown = thrown(RuntimeException)
+        rethrown.is(failure)
+
+        cleanup:
+        queue.stop()
+    }
+}
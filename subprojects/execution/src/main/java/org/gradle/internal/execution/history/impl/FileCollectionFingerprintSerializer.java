@@ -27,10 +27,16 @@ import org.gradle.internal.serialize.Decoder;
 import org.gradle.internal.serialize.Encoder;
 import org.gradle.internal.serialize.HashCodeSerializer;
 import org.gradle.internal.serialize.Serializer;
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Map;
 
+/**
+ * Writes the entries of a fingerprint as a block of their own, so that reading a fingerprint back only needs to decode its root hashes.
+ * The entries are decoded by {@link LazyFileCollectionFingerprint} when they are needed to compute the changes to a file collection.
+ */
 public class FileCollectionFingerprintSerializer implements Serializer<FileCollectionFingerprint> {
 
     private final FingerprintMapSerializer fingerprintMapSerializer;
@@ -45,12 +51,12 @@ public class FileCollectionFingerprintSerializer implements Serializer<FileColle
 
     @Override
     public FileCollectionFingerprint read(Decoder decoder) throws IOException {
-        Map<String, FileSystemLocationFingerprint> fingerprints = fingerprintMapSerializer.read(decoder);
-        if (fingerprints.isEmpty()) {
+        if (!decoder.readBoolean()) {
             return FileCollectionFingerprint.EMPTY;
         }
+        byte[] encodedFingerprints = decoder.readBinary();
         ImmutableMultimap<String, HashCode> rootHashes = readRootHashes(decoder);
-        return new SerializableFileCollectionFingerprint(fingerprints, rootHashes);
+        return new LazyFileCollectionFingerprint(fingerprintMapSerializer, encodedFingerprints, rootHashes);
     }
 
     private ImmutableMultimap<String, HashCode> readRootHashes(Decoder decoder) throws IOException {
@@ -69,10 +75,28 @@ public class FileCollectionFingerprintSerializer implements Serializer<FileColle
 
     @Override
     public void write(Encoder encoder, FileCollectionFingerprint value) throws Exception {
-        fingerprintMapSerializer.write(encoder, value.getFingerprints());
-        if (!value.getFingerprints().isEmpty()) {
-            writeRootHashes(encoder, value.getRootHashes());
+        byte[] encodedFingerprints = value instanceof LazyFileCollectionFingerprint
+            ? ((LazyFileCollectionFingerprint) value).getEncodedFingerprints()
+            : null;
+        if (encodedFingerprints == null) {
+            Map<String, FileSystemLocationFingerprint> fingerprints = value.getFingerprints();
+            if (fingerprints.isEmpty()) {
+                encoder.writeBoolean(false);
+                return;
+            }
+            encodedFingerprints = encode(fingerprints);
         }
+        encoder.writeBoolean(true);
+        encoder.writeBinary(encodedFingerprints);
+        writeRootHashes(encoder, value.getRootHashes());
+    }
+
+    private byte[] encode(Map<String, FileSystemLocationFingerprint> fingerprints) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        KryoBackedEncoder encoder = new KryoBackedEncoder(outputStream);
+        fingerprintMapSerializer.write(encoder, fingerprints);
+        encoder.flush();
+        return outputStream.toByteArray();
     }
 
     private void writeRootHashes(Encoder encoder, ImmutableMultimap<String, HashCode> rootHashes) throws IOException {
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.execution.history.impl;
+
+import com.google.common.collect.ImmutableMultimap;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.fingerprint.FileCollectionFingerprint;
+import org.gradle.internal.fingerprint.FileSystemLocationFingerprint;
+import org.gradle.internal.fingerprint.impl.FingerprintMapSerializer;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.util.Map;
+
+/**
+ * A fingerprint loaded from the execution history that decodes its entries only when they are first requested.
+ *
+ * <p>The root hashes are enough to tell that a file collection has not changed, so for an up-to-date unit of work the individual entries are never decoded.</p>
+ */
+public class LazyFileCollectionFingerprint implements FileCollectionFingerprint {
+
+    private final FingerprintMapSerializer fingerprintMapSerializer;
+    private final ImmutableMultimap<String, HashCode> rootHashes;
+    private byte[] encodedFingerprints;
+    private Map<String, FileSystemLocationFingerprint> fingerprints;
+
+    public LazyFileCollectionFingerprint(FingerprintMapSerializer fingerprintMapSerializer, byte[] encodedFingerprints, ImmutableMultimap<String, HashCode> rootHashes) {
+        this.fingerprintMapSerializer = fingerprintMapSerializer;
+        this.encodedFingerprints = encodedFingerprints;
+        this.rootHashes = rootHashes;
+    }
+
+    @Override
+    public synchronized Map<String, FileSystemLocationFingerprint> getFingerprints() {
+        if (fingerprints == null) {
+            try (KryoBackedDecoder decoder = new KryoBackedDecoder(new ByteArrayInputStream(encodedFingerprints), encodedFingerprints.length)) {
+                fingerprints = fingerprintMapSerializer.read(decoder);
+            } catch (Exception e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+            encodedFingerprints = null;
+        }
+        return fingerprints;
+    }
+
+    /**
+     * Returns the encoded entries when they have not been decoded yet, so that they can be written back without decoding them.
+     */
+    @Nullable
+    synchronized byte[] getEncodedFingerprints() {
+        return encodedFingerprints;
+    }
+
+    @Override
+    public ImmutableMultimap<String, HashCode> getRootHashes() {
+        return rootHashes;
+    }
+
+}
@@ -90,4 +90,61 @@ class FileCollectionFingerprintSerializerTest extends SerializerSpec {
         out.fingerprints.keySet() as List == ["/3", "/2", "/1"]
         out.rootHashes.keySet() as List == ["/3", "/2", "/1"]
     }
+
+    def "restores paths that share a prefix with the previous path"() {
+        def fingerprints = [
+            '/root/dir': new DefaultFileSystemLocationFingerprint('dir', FileType.Directory, FileSystemLocationFingerprint.DIR_SIGNATURE),
+            '/root/dir/file-1.txt': new DefaultFileSystemLocationFingerprint('dir/file-1.txt', FileType.RegularFile, HashCode.fromInt(1)),
+            '/root/dir/file-2.txt': new DefaultFileSystemLocationFingerprint('dir\\file-2.txt', FileType.RegularFile, HashCode.fromInt(2)),
+            '/root/dir/sub/\uD83D\uDE00': new DefaultFileSystemLocationFingerprint('\uD83D\uDE00', FileType.Missing, FileSystemLocationFingerprint.MISSING_FILE_SIGNATURE),
+            '/root/dir/sub/\uD83D\uDE01': new DefaultFileSystemLocationFingerprint('', FileType.Missing, FileSystemLocationFingerprint.MISSING_FILE_SIGNATURE),
+            '/other': IgnoredPathFileSystemLocationFingerprint.create(FileType.RegularFile, HashCode.fromInt(3))
+        ]
+
+        when:
+        def out = serialize(new SerializableFileCollectionFingerprint(fingerprints, ImmutableMultimap.of('/root/dir', HashCode.fromInt(4), '/other', HashCode.fromInt(3))), serializer)
+
+        then:
+        out.fingerprints.keySet() as List == fingerprints.keySet() as List
+        out.fingerprints.collect { it.value.normalizedPath } == fingerprints.collect { it.value.normalizedPath }
+        out.fingerprints.collect { it.value.normalizedContentHash } == fingerprints.collect { it.value.normalizedContentHash }
+    }
+
+    def "decodes entries only when they are requested"() {
+        def rootHashes = ImmutableMultimap.of("/1", HashCode.fromInt(1234))
+
+        when:
+        def out = serialize(new SerializableFileCollectionFingerprint(
+            '/1': new DefaultFileSystemLocationFingerprint("1", FileType.RegularFile, HashCode.fromInt(1234)),
+            rootHashes
+        ), serializer)
+
+        then:
+        out instanceof LazyFileCollectionFingerprint
+        out.rootHashes == rootHashes
+        out.encodedFingerprints != null
+
+        when:
+        def fingerprints = out.fingerprints
+
+        then:
+        fingerprints.keySet() as List == ["/1"]
+        out.encodedFingerprints == null
+    }
+
+    def "writes entries that have not been decoded as they were read"() {
+        def rootHashes = ImmutableMultimap.of("/1", HashCode.fromInt(1234))
+        def original = new SerializableFileCollectionFingerprint(
+            '/1': new DefaultFileSystemLocationFingerprint("1", FileType.RegularFile, HashCode.fromInt(1234)),
+            rootHashes
+        )
+        def bytes = toBytes(original, serializer)
+
+        when:
+        def copy = toBytes(fromBytes(bytes, serializer), serializer)
+
+        then:
+        copy == bytes
+        fromBytes(copy, serializer).fingerprints['/1'].normalizedPath == "1"
+    }
 }
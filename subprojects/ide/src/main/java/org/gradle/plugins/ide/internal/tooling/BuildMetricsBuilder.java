@@ -0,0 +1,46 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.plugins.ide.internal.tooling;
+
+import org.gradle.api.Project;
+import org.gradle.internal.metrics.BuildSessionMetrics;
+import org.gradle.tooling.internal.build.DefaultBuildMetrics;
+import org.gradle.tooling.provider.model.ToolingModelBuilder;
+
+import java.util.TreeMap;
+
+/**
+ * Builds the BuildMetrics model from the metrics recorded so far in the current build session.
+ */
+public class BuildMetricsBuilder implements ToolingModelBuilder {
+    private final BuildSessionMetrics buildSessionMetrics;
+
+    public BuildMetricsBuilder(BuildSessionMetrics buildSessionMetrics) {
+        this.buildSessionMetrics = buildSessionMetrics;
+    }
+
+    @Override
+    public boolean canBuild(String modelName) {
+        return modelName.equals("org.gradle.tooling.model.build.BuildMetrics");
+    }
+
+    @Override
+    public Object buildAll(String modelName, Project target) {
+        return new DefaultBuildMetrics(new TreeMap<String, Long>(buildSessionMetrics.getMetrics().getValues()));
+    }
+}
@@ -19,6 +19,7 @@ package org.gradle.plugins.ide.internal.tooling;
 import org.gradle.api.internal.artifacts.ivyservice.projectmodule.ProjectPublicationRegistry;
 import org.gradle.api.internal.project.ProjectStateRegistry;
 import org.gradle.api.internal.project.ProjectTaskLister;
+import org.gradle.internal.metrics.BuildSessionMetrics;
 import org.gradle.internal.service.ServiceRegistration;
 import org.gradle.internal.service.ServiceRegistry;
 import org.gradle.internal.service.scopes.AbstractPluginServiceRegistry;
@@ -42,6 +43,7 @@ public class ToolingModelServices extends AbstractPluginServiceRegistry {
         protected BuildScopeToolingModelBuilderRegistryAction createIdeBuildScopeToolingModelBuilderRegistryAction(
             final ProjectTaskLister taskLister,
             final ProjectPublicationRegistry projectPublicationRegistry,
+            final BuildSessionMetrics buildSessionMetrics,
             final ServiceRegistry services) {
 
             return new BuildScopeToolingModelBuilderRegistryAction() {
@@ -57,6 +59,7 @@ public class ToolingModelServices extends AbstractPluginServiceRegistry {
                     registry.register(new BuildInvocationsBuilder(taskLister));
                     registry.register(new PublicationsBuilder(projectPublicationRegistry));
                     registry.register(new BuildEnvironmentBuilder());
+                    registry.register(new BuildMetricsBuilder(buildSessionMetrics));
                 }
             };
         }
@@ -23,6 +23,7 @@ import static java.util.concurrent.TimeUnit.DAYS
 import static org.gradle.api.internal.changedetection.state.DefaultFileAccessTimeJournal.CACHE_KEY
 import static org.gradle.api.internal.changedetection.state.DefaultFileAccessTimeJournal.FILE_ACCESS_CACHE_NAME
 import static org.gradle.api.internal.changedetection.state.DefaultFileAccessTimeJournal.FILE_ACCESS_PROPERTIES_FILE_NAME
+import static org.gradle.api.internal.changedetection.state.DefaultFileAccessTimeJournal.FULL_SCAN_CACHE_NAME
 import static org.gradle.api.internal.changedetection.state.DefaultFileAccessTimeJournal.INCEPTION_TIMESTAMP_KEY
 import static org.gradle.internal.serialize.BaseSerializerFactory.FILE_SERIALIZER
 import static org.gradle.internal.serialize.BaseSerializerFactory.LONG_SERIALIZER
@@ -43,6 +44,8 @@ trait FileAccessTimeJournalFixture extends CachingIntegrationFixture {
         } finally {
             cache.close()
         }
+        // The access time index is not aware of access times moved into the past, so make the next cleanup walk the cache directories
+        userHomeCacheDir.file(CACHE_KEY, FULL_SCAN_CACHE_NAME + ".bin").delete()
     }
 
     void writeJournalInceptionTimestamp(long millis) {
@@ -120,6 +120,10 @@ class SFTPServer extends ServerWithExpectations implements RepositoryServer {
         }
     }
 
+    int getActiveSessionCount() {
+        sshd.activeSessions.size()
+    }
+
     @Override
     protected void after() {
         super.after()
@@ -20,6 +20,7 @@ import org.gradle.integtests.fixtures.executer.ProgressLoggingFixture
 import org.gradle.internal.jvm.Jvm
 import org.gradle.test.fixtures.file.TestFile
 import org.gradle.test.fixtures.server.http.AuthScheme
+import org.gradle.test.fixtures.server.http.HttpResource
 import org.gradle.test.fixtures.server.http.HttpServer
 import org.gradle.test.fixtures.server.http.IvyHttpModule
 import org.gradle.test.fixtures.server.http.IvyHttpRepository
@@ -31,6 +32,10 @@ import org.mortbay.jetty.HttpStatus
 import spock.lang.Issue
 import spock.lang.Unroll
 
+import javax.servlet.http.HttpServletRequest
+import javax.servlet.http.HttpServletResponse
+import java.util.concurrent.CopyOnWriteArrayList
+
 import static org.gradle.test.matchers.UserAgentMatcher.matchesNameAndVersion
 import static org.gradle.util.Matchers.matchesRegexp
 import static org.gradle.util.TestPrecondition.FIX_TO_WORK_ON_JAVA9
@@ -251,6 +256,53 @@ credentials {
         failure.assertThatCause(matchesRegexp(".*?Connect to localhost:${repositoryPort} (\\[.*\\])? failed: Connection refused.*"))
     }
 
+    def "writes metadata files once all artifacts have been uploaded"() {
+        given:
+        server.start()
+        def classifiers = (1..12).collect { "extra$it" }
+        settingsFile << 'rootProject.name = "publish"'
+        buildFile << """
+            apply plugin: 'java'
+            apply plugin: 'ivy-publish'
+
+            version = '2'
+            group = 'org.gradle'
+
+            publishing {
+                repositories {
+                    ivy { url "${ivyHttpRepo.uri}" }
+                }
+                publications {
+                    ivy(IvyPublication) {
+                        from components.java
+                        ${classifiers.collect { "artifact(file('${it}.txt')) { classifier = '${it}' }" }.join('\n')}
+                    }
+                }
+            }
+        """
+        classifiers.each { file("${it}.txt") << "content of $it" }
+
+        and:
+        def requests = new CopyOnWriteArrayList<String>()
+        def artifacts = [module.jar] + classifiers.collect { module.getArtifact(classifier: it, type: 'txt', ext: 'txt') }
+        def metadataFiles = [module.moduleMetadata, module.ivy]
+        (artifacts + metadataFiles).each { resource ->
+            [resource, resource.sha1].each { expectRecordedPut(it, requests) }
+        }
+
+        when:
+        succeeds 'publish'
+
+        then:
+        def metadataPaths = metadataFiles.collect { it.path }
+        def isMetadata = { String request -> metadataPaths.any { request.contains(it) } }
+        requests.findLastIndexOf { it.startsWith('end') && !isMetadata(it) } < requests.findIndexOf { it.startsWith('start') && isMetadata(it) }
+        requests.indexOf("end ${module.moduleMetadata.path}".toString()) < requests.indexOf("start ${module.ivy.path}".toString())
+
+        and:
+        (artifacts + metadataFiles).each { it.verifyChecksums() }
+    }
+
     def "uses first configured pattern for publication"() {
         given:
         server.start()
@@ -384,4 +436,15 @@ credentials {
         module.jarFile.assertExists()
         module.ivyFile.assertDoesNotExist()
     }
+
+    private void expectRecordedPut(HttpResource resource, List<String> requests) {
+        server.expect(resource.path, ['PUT'], new HttpServer.ActionSupport("write request to ${resource.file.name}") {
+            void handle(HttpServletRequest request, HttpServletResponse response) {
+                requests << "start ${request.pathInfo}".toString()
+                resource.file.parentFile.mkdirs()
+                resource.file.bytes = request.inputStream.bytes
+                requests << "end ${request.pathInfo}".toString()
+            }
+        })
+    }
 }
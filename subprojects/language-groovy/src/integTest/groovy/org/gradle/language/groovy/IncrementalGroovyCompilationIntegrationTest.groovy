@@ -0,0 +1,175 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.language.groovy
+
+import org.gradle.integtests.fixtures.AbstractIntegrationSpec
+import org.gradle.integtests.fixtures.CompilationOutputsFixture
+
+class IncrementalGroovyCompilationIntegrationTest extends AbstractIntegrationSpec {
+
+    CompilationOutputsFixture outputs
+
+    def setup() {
+        outputs = new CompilationOutputsFixture(file("build/classes"))
+
+        buildFile << """
+            apply plugin: 'groovy'
+
+            dependencies {
+                compile localGroovy()
+            }
+
+            compileGroovy.options.incremental = true
+        """
+    }
+
+    private File groovy(String... classBodies) {
+        File out
+        for (String body : classBodies) {
+            def className = (body =~ /(?s).*?(?:class|interface|enum|trait) (\w+) .*/)[0][1]
+            assert className: "unable to find class name"
+            def f = file("src/main/groovy/${className}.groovy")
+            f.createFile()
+            f.text = body
+            out = f
+        }
+        out
+    }
+
+    def "recompiles only the changed class when it has no dependents"() {
+        groovy "class A {}", "class B {}"
+
+        outputs.snapshot { run "compileGroovy" }
+
+        when:
+        groovy "class A { /* change */ }"
+        run "compileGroovy"
+
+        then:
+        outputs.recompiledClasses 'A'
+    }
+
+    def "recompiles the dependents of a changed class"() {
+        groovy "class A {}", "class B extends A {}", "class C {}"
+
+        outputs.snapshot { run "compileGroovy" }
+
+        when:
+        groovy "class A { String name }"
+        run "compileGroovy"
+
+        then:
+        outputs.recompiledClasses 'A', 'B'
+    }
+
+    def "recompiles closures of a changed class"() {
+        groovy """class A {
+            def run() { [1, 2].each { println it } }
+        }"""
+        groovy "class B {}"
+
+        outputs.snapshot { run "compileGroovy" }
+
+        when:
+        groovy """class A {
+            def run() { [1, 2].each { println it * 2 } }
+        }"""
+        run "compileGroovy"
+
+        then:
+        outputs.recompiledClasses 'A', 'A$_run_closure1'
+    }
+
+    def "detects deletion of a source class"() {
+        def a = groovy "class A {}"
+        groovy "class B {}"
+
+        outputs.snapshot { run "compileGroovy" }
+
+        when:
+        assert a.delete()
+        run "compileGroovy"
+
+        then:
+        outputs.noneRecompiled()
+        outputs.deletedClasses 'A'
+    }
+
+    def "recompiles Java classes that depend on a changed Groovy class in joint compilation"() {
+        groovy "class A {}", "class C {}"
+        file("src/main/groovy/B.java").text = "class B extends A {}"
+
+        outputs.snapshot { run "compileGroovy" }
+
+        when:
+        groovy "class A { String name }"
+        run "compileGroovy"
+
+        then:
+        outputs.recompiledClasses 'A', 'B'
+    }
+
+    def "does a full recompilation when a source file declares more than one class"() {
+        groovy "class A {}", "class B {}"
+        file("src/main/groovy/C.groovy").text = "class C {}\nclass D {}"
+
+        outputs.snapshot { run "compileGroovy" }
+
+        when:
+        groovy "class A { /* change */ }"
+        run "compileGroovy", "--info"
+
+        then:
+        outputs.recompiledClasses 'A', 'B', 'C', 'D'
+        output.contains("C.groovy' declares more than one top level class")
+    }
+
+    def "does a full recompilation when the compiler configuration script changes"() {
+        groovy "class A {}", "class B {}"
+        file("groovycConfig.groovy") << "withConfig(configuration) { }"
+        buildFile << """
+            compileGroovy.groovyOptions.configurationScript = file('groovycConfig.groovy')
+        """
+
+        outputs.snapshot { run "compileGroovy" }
+
+        when:
+        file("groovycConfig.groovy") << "\n// change"
+        run "compileGroovy", "--info"
+
+        then:
+        outputs.recompiledClasses 'A', 'B'
+        output.contains("Full recompilation is required because Compiler configuration changed")
+    }
+
+    def "recompiles all classes when incremental compilation is not enabled"() {
+        buildFile << """
+            compileGroovy.options.incremental = false
+        """
+        groovy "class A {}", "class B {}"
+
+        outputs.snapshot { run "compileGroovy" }
+
+        when:
+        groovy "class A { /* change */ }"
+        run "compileGroovy"
+
+        then:
+        outputs.recompiledClasses 'A', 'B'
+    }
+}
@@ -175,8 +175,10 @@ public class ApiGroovyCompiler implements org.gradle.language.base.internal.comp
             }
         });
 
+        String fullRebuildCause;
         try {
             unit.compile();
+            fullRebuildCause = GroovyIncrementalCompilationAnalyzer.findFullRebuildCause(unit, astTransformClassLoader);
         } catch (org.codehaus.groovy.control.CompilationFailedException e) {
             System.err.println(e.getMessage());
             // Explicit flush, System.err is an auto-flushing PrintWriter unless it is replaced.
@@ -191,6 +193,9 @@ public class ApiGroovyCompiler implements org.gradle.language.base.internal.comp
             CompositeStoppable.stoppable(classPathLoader, astTransformClassLoader).stop();
         }
 
+        if (fullRebuildCause != null) {
+            return new FullRebuildRequiredResult(fullRebuildCause);
+        }
         return WorkResults.didWork(true);
     }
 
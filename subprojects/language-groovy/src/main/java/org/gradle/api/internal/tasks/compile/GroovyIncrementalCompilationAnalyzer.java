@@ -0,0 +1,189 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.compile;
+
+import org.codehaus.groovy.ast.AnnotatedNode;
+import org.codehaus.groovy.ast.AnnotationNode;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.control.CompilationUnit;
+
+import javax.annotation.Nullable;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Decides whether the class files produced by a Groovy compilation can be used as the basis for a later incremental compilation.
+ *
+ * Incremental compilation maps a changed source file to the class of the same name and recompiles the classes that depend on it, based on the
+ * dependencies in the class files. This only works when each source file declares exactly one top level class, named after the file, and when
+ * the compiler does not generate code in one class based on the contents of another, as AST transformations may do.
+ */
+class GroovyIncrementalCompilationAnalyzer {
+    private static final String LOCAL_TRANSFORMATION_ANNOTATION = "org.codehaus.groovy.transform.GroovyASTTransformationClass";
+    private static final String[] GLOBAL_TRANSFORMATION_DESCRIPTORS = {
+        "META-INF/services/org.codehaus.groovy.transform.ASTTransformation",
+        "META-INF/groovy/org.codehaus.groovy.transform.ASTTransformation"
+    };
+    // Spock's transformation only rewrites the specification classes it is applied to
+    private static final String[] SAFE_GLOBAL_TRANSFORMATIONS = {"org.spockframework.compiler.SpockTransform"};
+
+    private GroovyIncrementalCompilationAnalyzer() {
+    }
+
+    /**
+     * Returns the reason why a full recompilation is required the next time any source file changes, or null if an incremental compilation is possible.
+     */
+    @Nullable
+    static String findFullRebuildCause(CompilationUnit unit, ClassLoader astTransformClassLoader) {
+        try {
+            String cause = findGlobalTransformation(astTransformClassLoader);
+            if (cause != null) {
+                return cause;
+            }
+            List<ModuleNode> modules = unit.getAST().getModules();
+            for (ModuleNode module : modules) {
+                cause = analyzeModule(module);
+                if (cause != null) {
+                    return cause;
+                }
+            }
+            return null;
+        } catch (LinkageError e) {
+            return "the Groovy compiler does not support incremental compilation";
+        }
+    }
+
+    @Nullable
+    private static String analyzeModule(ModuleNode module) {
+        String sourcePath = module.getContext().getName().replace(File.separatorChar, '/');
+        int topLevelClasses = 0;
+        for (ClassNode classNode : module.getClasses()) {
+            if (classNode.getOuterClass() != null) {
+                continue;
+            }
+            topLevelClasses++;
+            if (topLevelClasses > 1) {
+                return "'" + sourcePath + "' declares more than one top level class";
+            }
+            String expectedPath = classNode.getName().replace('.', '/') + ".groovy";
+            if (!sourcePath.equals(expectedPath) && !sourcePath.endsWith("/" + expectedPath)) {
+                return "'" + sourcePath + "' declares the class " + classNode.getName() + " which does not match its file name";
+            }
+        }
+        for (ClassNode classNode : module.getClasses()) {
+            String cause = findLocalTransformation(classNode);
+            if (cause == null) {
+                cause = findLocalTransformation(classNode.getFields());
+            }
+            if (cause == null) {
+                cause = findLocalTransformation(classNode.getDeclaredConstructors());
+            }
+            if (cause == null) {
+                cause = findLocalTransformation(classNode.getMethods());
+            }
+            if (cause != null) {
+                return cause;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static String findLocalTransformation(List<? extends AnnotatedNode> nodes) {
+        for (AnnotatedNode node : nodes) {
+            String cause = findLocalTransformation(node);
+            if (cause != null) {
+                return cause;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static String findLocalTransformation(AnnotatedNode node) {
+        for (AnnotationNode annotation : node.getAnnotations()) {
+            ClassNode annotationType = annotation.getClassNode();
+            if (isGroovyType(annotationType.getName())) {
+                continue;
+            }
+            for (AnnotationNode metaAnnotation : annotationType.getAnnotations()) {
+                if (metaAnnotation.getClassNode().getName().equals(LOCAL_TRANSFORMATION_ANNOTATION)) {
+                    return "the AST transformation annotation @" + annotationType.getNameWithoutPackage() + " is used";
+                }
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static String findGlobalTransformation(ClassLoader classLoader) {
+        try {
+            for (String descriptor : GLOBAL_TRANSFORMATION_DESCRIPTORS) {
+                Enumeration<URL> resources = classLoader.getResources(descriptor);
+                while (resources.hasMoreElements()) {
+                    for (String transformation : readTransformations(resources.nextElement())) {
+                        if (!isGroovyType(transformation) && !isSafeGlobalTransformation(transformation)) {
+                            return "the global AST transformation " + transformation + " is on the compile classpath";
+                        }
+                    }
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            return "the global AST transformations on the compile classpath could not be determined";
+        }
+    }
+
+    private static List<String> readTransformations(URL descriptor) throws IOException {
+        List<String> transformations = new ArrayList<String>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(descriptor.openStream(), "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int comment = line.indexOf('#');
+                String transformation = (comment >= 0 ? line.substring(0, comment) : line).trim();
+                if (transformation.length() > 0) {
+                    transformations.add(transformation);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return transformations;
+    }
+
+    private static boolean isGroovyType(String className) {
+        return className.startsWith("groovy.") || className.startsWith("org.codehaus.groovy.");
+    }
+
+    private static boolean isSafeGlobalTransformation(String className) {
+        for (String safeTransformation : SAFE_GLOBAL_TRANSFORMATIONS) {
+            if (safeTransformation.equals(className)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
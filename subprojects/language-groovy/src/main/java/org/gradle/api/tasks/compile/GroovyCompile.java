@@ -26,11 +26,13 @@ import org.gradle.api.internal.file.collections.ImmutableFileCollection;
 import org.gradle.api.internal.project.ProjectInternal;
 import org.gradle.api.internal.tasks.JavaToolChainFactory;
 import org.gradle.api.internal.tasks.compile.CleaningGroovyCompiler;
+import org.gradle.api.internal.tasks.compile.CleaningJavaCompilerSupport;
 import org.gradle.api.internal.tasks.compile.CompilerForkUtils;
 import org.gradle.api.internal.tasks.compile.DefaultGroovyJavaJointCompileSpec;
 import org.gradle.api.internal.tasks.compile.DefaultGroovyJavaJointCompileSpecFactory;
 import org.gradle.api.internal.tasks.compile.GroovyCompilerFactory;
 import org.gradle.api.internal.tasks.compile.GroovyJavaJointCompileSpec;
+import org.gradle.api.internal.tasks.compile.incremental.IncrementalCompilerFactory;
 import org.gradle.api.internal.tasks.compile.processing.AnnotationProcessorDetector;
 import org.gradle.api.model.ObjectFactory;
 import org.gradle.api.tasks.CacheableTask;
@@ -42,6 +44,7 @@ import org.gradle.api.tasks.PathSensitive;
 import org.gradle.api.tasks.PathSensitivity;
 import org.gradle.api.tasks.TaskAction;
 import org.gradle.api.tasks.WorkResult;
+import org.gradle.api.tasks.incremental.IncrementalTaskInputs;
 import org.gradle.internal.file.PathToFileResolver;
 import org.gradle.internal.jvm.inspection.JvmVersionDetector;
 import org.gradle.jvm.toolchain.JavaToolChain;
@@ -52,6 +55,7 @@ import org.gradle.workers.internal.WorkerDaemonFactory;
 
 import javax.inject.Inject;
 import java.io.File;
+import java.util.List;
 
 /**
  * Compiles Groovy source files, and optionally, Java source files.
@@ -66,11 +70,36 @@ public class GroovyCompile extends AbstractCompile {
     public GroovyCompile() {
         CompileOptions compileOptions = getServices().get(ObjectFactory.class).newInstance(CompileOptions.class);
         this.compileOptions = compileOptions;
+        // Incremental Groovy compilation is opt-in, as it falls back to a full recompilation more often than incremental Java compilation
+        compileOptions.setIncremental(false);
         CompilerForkUtils.doNotCacheIfForkingViaExecutable(compileOptions, getOutputs());
     }
 
-    @Override
+    /**
+     * Compiles the sources, only recompiling the changed sources and the classes that depend on them when incremental compilation is enabled
+     * using {@link CompileOptions#setIncremental(boolean)}.
+     *
+     * @since 5.2
+     */
     @TaskAction
+    protected void compile(IncrementalTaskInputs inputs) {
+        checkGroovyClasspathIsNonEmpty();
+        DefaultGroovyJavaJointCompileSpec spec = createSpec();
+        Compiler<GroovyJavaJointCompileSpec> compiler = getCompiler(spec);
+        if (compileOptions.isIncremental() && compiler instanceof CleaningJavaCompilerSupport) {
+            compiler = getIncrementalCompilerFactory().makeIncremental(
+                (CleaningJavaCompilerSupport<GroovyJavaJointCompileSpec>) compiler,
+                getPath(),
+                inputs,
+                getSource(),
+                getFullRebuildInputs()
+            );
+        }
+        WorkResult result = compiler.execute(spec);
+        setDidWork(result.getDidWork());
+    }
+
+    @Override
     protected void compile() {
         checkGroovyClasspathIsNonEmpty();
         DefaultGroovyJavaJointCompileSpec spec = createSpec();
@@ -78,6 +107,17 @@ public class GroovyCompile extends AbstractCompile {
         setDidWork(result.getDidWork());
     }
 
+    /**
+     * A change to the Groovy compiler or its configuration can change the class files of every source file.
+     */
+    private Iterable<File> getFullRebuildInputs() {
+        List<File> fullRebuildInputs = Lists.newArrayList(getGroovyClasspath());
+        if (groovyCompileOptions.getConfigurationScript() != null) {
+            fullRebuildInputs.add(groovyCompileOptions.getConfigurationScript());
+        }
+        return fullRebuildInputs;
+    }
+
     private Compiler<GroovyJavaJointCompileSpec> getCompiler(GroovyJavaJointCompileSpec spec) {
         if (compiler == null) {
             ProjectInternal projectInternal = (ProjectInternal) getProject();
@@ -201,6 +241,14 @@ public class GroovyCompile extends AbstractCompile {
         this.compiler = compiler;
     }
 
+    /**
+     * @since 5.2
+     */
+    @Inject
+    protected IncrementalCompilerFactory getIncrementalCompilerFactory() {
+        throw new UnsupportedOperationException();
+    }
+
     @Inject
     protected JavaToolChainFactory getJavaToolChainFactory() {
         throw new UnsupportedOperationException();
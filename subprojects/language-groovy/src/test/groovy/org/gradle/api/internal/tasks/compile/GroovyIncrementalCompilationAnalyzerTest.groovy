@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.compile
+
+import org.codehaus.groovy.control.CompilationUnit
+import org.codehaus.groovy.control.CompilerConfiguration
+import org.codehaus.groovy.control.Phases
+import org.codehaus.groovy.transform.GroovyASTTransformationClass
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class GroovyIncrementalCompilationAnalyzerTest extends Specification {
+    @Rule TestNameTestDirectoryProvider temp = new TestNameTestDirectoryProvider()
+    def classLoader = new GroovyClassLoader(getClass().classLoader)
+
+    def "allows incremental compilation of a class per source file"() {
+        expect:
+        analyze("org/gradle/A.groovy": "package org.gradle; class A { class Inner {}; def run() { [1].each { it } } }", "B.groovy": "class B {}") == null
+    }
+
+    def "allows incremental compilation of a script named after its file"() {
+        expect:
+        analyze("script.groovy": "println 'hello'") == null
+    }
+
+    def "allows incremental compilation with Groovy's own AST transformations"() {
+        expect:
+        analyze("A.groovy": "@groovy.transform.ToString class A { @Lazy String name = 'a' }") == null
+    }
+
+    def "requires a full recompilation when a source file declares more than one top level class"() {
+        expect:
+        analyze("A.groovy": "class A {}; class B {}").endsWith("A.groovy' declares more than one top level class")
+    }
+
+    def "requires a full recompilation when a class does not match its source file"() {
+        expect:
+        analyze("org/gradle/A.groovy": "package org.other; class A {}").endsWith("declares the class org.other.A which does not match its file name")
+    }
+
+    def "requires a full recompilation when a local AST transformation is used"() {
+        expect:
+        analyze("A.groovy": "class A { @${CustomTransformation.name} void run() {} }") == "the AST transformation annotation @CustomTransformation is used"
+    }
+
+    def "requires a full recompilation when a global AST transformation is on the compile classpath"() {
+        def servicesDir = temp.createDir("services")
+        servicesDir.file("META-INF/services/org.codehaus.groovy.transform.ASTTransformation") << """
+            # Transformations
+            org.codehaus.groovy.SomeTransformation
+            org.spockframework.compiler.SpockTransform
+            com.example.GlobalTransformation
+        """
+        classLoader.addURL(servicesDir.toURI().toURL())
+
+        expect:
+        analyze("A.groovy": "class A {}") == "the global AST transformation com.example.GlobalTransformation is on the compile classpath"
+    }
+
+    private String analyze(Map<String, String> sources) {
+        def unit = new CompilationUnit(new CompilerConfiguration(), null, classLoader)
+        sources.each { path, text ->
+            def file = temp.file("src", path)
+            file.text = text
+            unit.addSource(file)
+        }
+        unit.compile(Phases.SEMANTIC_ANALYSIS)
+        return GroovyIncrementalCompilationAnalyzer.findFullRebuildCause(unit, classLoader)
+    }
+}
+
+@GroovyASTTransformationClass(classes = [])
+@interface CustomTransformation {
+}
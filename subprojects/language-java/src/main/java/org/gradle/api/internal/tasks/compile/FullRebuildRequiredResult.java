@@ -0,0 +1,38 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.compile;
+
+import org.gradle.workers.internal.DefaultWorkResult;
+
+/**
+ * The result of a successful compilation whose class files cannot be used as the basis for a later incremental compilation,
+ * for example because the compiler generated classes that do not correspond to the source file they were compiled from.
+ */
+public class FullRebuildRequiredResult extends DefaultWorkResult {
+
+    private final String fullRebuildCause;
+
+    public FullRebuildRequiredResult(String fullRebuildCause) {
+        super(true, null);
+        this.fullRebuildCause = fullRebuildCause;
+    }
+
+    public String getFullRebuildCause() {
+        return fullRebuildCause;
+    }
+}
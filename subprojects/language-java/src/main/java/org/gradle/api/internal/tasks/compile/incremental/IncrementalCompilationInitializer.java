@@ -100,6 +100,8 @@ class IncrementalCompilationInitializer {
 
             sourceToCompile.include(path.concat(".java"));
             sourceToCompile.include(path.concat("$*.java"));
+            sourceToCompile.include(path.concat(".groovy"));
+            sourceToCompile.include(path.concat("$*.groovy"));
         }
     }
 }
@@ -18,6 +18,7 @@ package org.gradle.api.internal.tasks.compile.incremental.recomp;
 
 import org.gradle.api.Action;
 import org.gradle.api.tasks.incremental.InputFileDetails;
+import org.gradle.internal.file.FileHierarchySet;
 
 import java.io.File;
 
@@ -25,12 +26,14 @@ import static org.gradle.internal.FileUtils.hasExtension;
 
 class InputChangeAction implements Action<InputFileDetails> {
     private final RecompilationSpec spec;
+    private final FileHierarchySet fullRebuildInputs;
     private final JavaChangeProcessor javaChangeProcessor;
     private final AnnotationProcessorChangeProcessor annotationProcessorChangeProcessor;
     private final ResourceChangeProcessor resourceChangeProcessor;
 
-    InputChangeAction(RecompilationSpec spec, JavaChangeProcessor javaChangeProcessor, AnnotationProcessorChangeProcessor annotationProcessorChangeProcessor, ResourceChangeProcessor resourceChangeProcessor) {
+    InputChangeAction(RecompilationSpec spec, FileHierarchySet fullRebuildInputs, JavaChangeProcessor javaChangeProcessor, AnnotationProcessorChangeProcessor annotationProcessorChangeProcessor, ResourceChangeProcessor resourceChangeProcessor) {
         this.spec = spec;
+        this.fullRebuildInputs = fullRebuildInputs;
         this.javaChangeProcessor = javaChangeProcessor;
         this.annotationProcessorChangeProcessor = annotationProcessorChangeProcessor;
         this.resourceChangeProcessor = resourceChangeProcessor;
@@ -43,7 +46,9 @@ class InputChangeAction implements Action<InputFileDetails> {
         }
 
         File file = input.getFile();
-        if (hasExtension(file, ".java")) {
+        if (fullRebuildInputs.contains(file)) {
+            spec.setFullRebuildCause("Compiler configuration changed", file);
+        } else if (hasExtension(file, ".java") || hasExtension(file, ".groovy")) {
             javaChangeProcessor.processChange(input, spec);
         } else if (hasExtension(file, ".jar") || hasExtension(file, ".class")) {
             annotationProcessorChangeProcessor.processChange(input, spec);
@@ -42,6 +42,9 @@ public class PreviousCompilation {
     }
 
     public DependentsSet getDependents(Set<String> allClasses, IntSet constants) {
+        if (data.getFullRebuildCause() != null) {
+            return DependentsSet.dependencyToAll(data.getFullRebuildCause());
+        }
         return getClassAnalysis().getRelevantDependents(allClasses, constants);
     }
 
@@ -61,6 +64,9 @@ public class PreviousCompilation {
     }
 
     public DependentsSet getDependents(String className, IntSet newConstants) {
+        if (data.getFullRebuildCause() != null) {
+            return DependentsSet.dependencyToAll(data.getFullRebuildCause());
+        }
         IntSet constants = new IntOpenHashSet(getClassAnalysis().getConstants(className));
         constants.removeAll(newConstants);
         return getClassAnalysis().getRelevantDependents(className, constants);
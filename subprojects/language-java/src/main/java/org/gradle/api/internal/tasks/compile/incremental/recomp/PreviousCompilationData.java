@@ -26,6 +26,7 @@ import org.gradle.internal.serialize.Decoder;
 import org.gradle.internal.serialize.Encoder;
 import org.gradle.internal.serialize.ListSerializer;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.util.List;
 
@@ -34,12 +35,14 @@ public class PreviousCompilationData {
     private final AnnotationProcessingData annotationProcessingData;
     private final ClasspathSnapshotData classpathSnapshot;
     private final List<File> annotationProcessorPath;
+    private final String fullRebuildCause;
 
-    public PreviousCompilationData(File destinationDir, AnnotationProcessingData annotationProcessingData, ClasspathSnapshotData classpathSnapshot, List<File> annotationProcessorPath) {
+    public PreviousCompilationData(File destinationDir, AnnotationProcessingData annotationProcessingData, ClasspathSnapshotData classpathSnapshot, List<File> annotationProcessorPath, @Nullable String fullRebuildCause) {
         this.destinationDir = destinationDir;
         this.annotationProcessingData = annotationProcessingData;
         this.classpathSnapshot = classpathSnapshot;
         this.annotationProcessorPath = annotationProcessorPath;
+        this.fullRebuildCause = fullRebuildCause;
     }
 
     public File getDestinationDir() {
@@ -58,6 +61,14 @@ public class PreviousCompilationData {
         return annotationProcessorPath;
     }
 
+    /**
+     * The reason why the output of the previous compilation cannot be used for an incremental compilation, as reported by the compiler, if any.
+     */
+    @Nullable
+    public String getFullRebuildCause() {
+        return fullRebuildCause;
+    }
+
     public static class Serializer extends AbstractSerializer<PreviousCompilationData> {
         private final ClasspathSnapshotDataSerializer classpathSnapshotDataSerializer;
         private final ListSerializer<File> processorPathSerializer;
@@ -75,7 +86,8 @@ public class PreviousCompilationData {
             ClasspathSnapshotData classpathSnapshot = classpathSnapshotDataSerializer.read(decoder);
             List<File> processorPath = processorPathSerializer.read(decoder);
             AnnotationProcessingData annotationProcessingData = annotationProcessingDataSerializer.read(decoder);
-            return new PreviousCompilationData(destinationDir, annotationProcessingData, classpathSnapshot, processorPath);
+            String fullRebuildCause = decoder.readNullableString();
+            return new PreviousCompilationData(destinationDir, annotationProcessingData, classpathSnapshot, processorPath, fullRebuildCause);
         }
 
         @Override
@@ -84,6 +96,7 @@ public class PreviousCompilationData {
             classpathSnapshotDataSerializer.write(encoder, value.classpathSnapshot);
             processorPathSerializer.write(encoder, value.annotationProcessorPath);
             annotationProcessingDataSerializer.write(encoder, value.annotationProcessingData);
+            encoder.writeNullableString(value.fullRebuildCause);
         }
     }
 }
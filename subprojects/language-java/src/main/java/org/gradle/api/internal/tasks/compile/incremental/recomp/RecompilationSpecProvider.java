@@ -19,6 +19,7 @@ package org.gradle.api.internal.tasks.compile.incremental.recomp;
 import org.gradle.api.internal.tasks.compile.incremental.classpath.ClasspathEntrySnapshot;
 import org.gradle.api.internal.tasks.compile.incremental.classpath.ClasspathSnapshot;
 import org.gradle.internal.change.FileChange;
+import org.gradle.internal.file.FileHierarchySet;
 import org.gradle.internal.file.FileType;
 import org.gradle.internal.util.Alignment;
 
@@ -29,9 +30,11 @@ import java.util.Set;
 public class RecompilationSpecProvider {
 
     private final SourceToNameConverter sourceToNameConverter;
+    private final FileHierarchySet fullRebuildInputs;
 
-    public RecompilationSpecProvider(SourceToNameConverter sourceToNameConverter) {
+    public RecompilationSpecProvider(SourceToNameConverter sourceToNameConverter, FileHierarchySet fullRebuildInputs) {
         this.sourceToNameConverter = sourceToNameConverter;
+        this.fullRebuildInputs = fullRebuildInputs;
     }
 
     public RecompilationSpec provideRecompilationSpec(CurrentCompilation current, PreviousCompilation previous) {
@@ -78,7 +81,7 @@ public class RecompilationSpecProvider {
         JavaChangeProcessor javaChangeProcessor = new JavaChangeProcessor(previous, sourceToNameConverter);
         AnnotationProcessorChangeProcessor annotationProcessorChangeProcessor = new AnnotationProcessorChangeProcessor(current, previous);
         ResourceChangeProcessor resourceChangeProcessor = new ResourceChangeProcessor(current.getAnnotationProcessorPath());
-        InputChangeAction action = new InputChangeAction(spec, javaChangeProcessor, annotationProcessorChangeProcessor, resourceChangeProcessor);
+        InputChangeAction action = new InputChangeAction(spec, fullRebuildInputs, javaChangeProcessor, annotationProcessorChangeProcessor, resourceChangeProcessor);
         current.visitChanges(action);
     }
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.language.nativeplatform.internal.incremental.sourceparser;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+
+/**
+ * Compares extracting the include directives of a tree of headers with reading every line of the headers, which is what the parser used to do.
+ * The headers are shaped like those of large header-only libraries: mostly declarations and comments, with a few directives each.
+ *
+ * <p>Run with {@code -prof gc} to compare allocation rates as well as time.</p>
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class CSourceParserBenchmark {
+
+    @Param({"2000"})
+    int headerCount;
+
+    @Param({"300"})
+    int linesPerHeader;
+
+    private File headersDir;
+    private File[] headers;
+    private RegexBackedCSourceParser parser;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws IOException {
+        headersDir = Files.createTempDirectory("c-source-parser-benchmark").toFile();
+        headers = new File[headerCount];
+        for (int i = 0; i < headerCount; i++) {
+            headers[i] = new File(headersDir, "header" + i + ".hpp");
+            FileUtils.writeStringToFile(headers[i], header(i), Charset.defaultCharset());
+        }
+        parser = new RegexBackedCSourceParser();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() throws IOException {
+        FileUtils.forceDelete(headersDir);
+    }
+
+    @Benchmark
+    public void readAllLines(Blackhole bh) throws IOException {
+        StringBuilder line = new StringBuilder();
+        for (File header : headers) {
+            try (Reader reader = new BufferedReader(new FileReader(header))) {
+                PreprocessingReader lineReader = new PreprocessingReader(reader);
+                while (lineReader.readNextLine(line)) {
+                    bh.consume(line.length());
+                    line.setLength(0);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void parseDirectives(Blackhole bh) {
+        for (File header : headers) {
+            bh.consume(parser.parseSource(header));
+        }
+    }
+
+    private String header(int index) {
+        StringBuilder builder = new StringBuilder();
+        builder.append("//  Copyright the original author or authors.\n")
+            .append("//  Distributed under the Software License, Version 1.0.\n\n")
+            .append("#ifndef BENCHMARK_HEADER").append(index).append("_HPP\n")
+            .append("#define BENCHMARK_HEADER").append(index).append("_HPP\n\n")
+            .append("#include <benchmark/config.hpp>\n");
+        for (int i = 1; i <= 4; i++) {
+            builder.append("#include <benchmark/detail/header").append((index + i) % headerCount).append(".hpp>\n");
+        }
+        builder.append("#include BENCHMARK_ABI_PREFIX\n\n");
+        for (int i = 0; i < linesPerHeader; i += 6) {
+            builder.append("/**\n")
+                .append(" * Returns the value of the member at position ").append(i).append(", see \"detail/values.hpp\".\n")
+                .append(" */\n")
+                .append("template <typename T, typename Alloc = std::allocator<T> >\n")
+                .append("inline typename Alloc::value_type member").append(i).append("(const T& value) { return value.get<").append(i).append(">(); }\n")
+                .append("\n");
+        }
+        builder.append("#endif // BENCHMARK_HEADER").append(index).append("_HPP\n");
+        return builder.toString();
+    }
+}
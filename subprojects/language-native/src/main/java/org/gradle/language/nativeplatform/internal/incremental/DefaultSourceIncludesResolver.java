@@ -15,9 +15,7 @@
  */
 package org.gradle.language.nativeplatform.internal.incremental;
 
-import com.google.common.base.Objects;
 import org.gradle.internal.file.FileType;
-import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.snapshot.FileSystemSnapshotter;
 import org.gradle.language.nativeplatform.internal.Expression;
 import org.gradle.language.nativeplatform.internal.Include;
@@ -25,6 +23,8 @@ import org.gradle.language.nativeplatform.internal.IncludeDirectives;
 import org.gradle.language.nativeplatform.internal.IncludeType;
 import org.gradle.language.nativeplatform.internal.Macro;
 import org.gradle.language.nativeplatform.internal.MacroFunction;
+import org.gradle.language.nativeplatform.internal.incremental.IncludeDirectoryIndex.CachedIncludeFile;
+import org.gradle.language.nativeplatform.internal.incremental.IncludeDirectoryIndex.DirectoryContents;
 import org.gradle.language.nativeplatform.internal.incremental.sourceparser.ComplexExpression;
 import org.gradle.language.nativeplatform.internal.incremental.sourceparser.SimpleExpression;
 
@@ -41,16 +41,18 @@ import java.util.Map;
 import java.util.Set;
 
 public class DefaultSourceIncludesResolver implements SourceIncludesResolver {
-    private static final MissingIncludeFile MISSING_INCLUDE_FILE = new MissingIncludeFile();
-    private final FileSystemSnapshotter fileSystemSnapshotter;
-    private final Map<File, DirectoryContents> includeRoots = new HashMap<File, DirectoryContents>();
+    private final IncludeDirectoryIndex includeDirectoryIndex;
     private final FixedIncludePath includePath;
 
     public DefaultSourceIncludesResolver(List<File> includePaths, FileSystemSnapshotter fileSystemSnapshotter) {
-        this.fileSystemSnapshotter = fileSystemSnapshotter;
+        this(includePaths, new IncludeDirectoryIndex(fileSystemSnapshotter));
+    }
+
+    public DefaultSourceIncludesResolver(List<File> includePaths, IncludeDirectoryIndex includeDirectoryIndex) {
+        this.includeDirectoryIndex = includeDirectoryIndex;
         List<DirectoryContents> includeDirs = new ArrayList<DirectoryContents>(includePaths.size());
         for (File includeDir : includePaths) {
-            includeDirs.add(toDir(includeDir));
+            includeDirs.add(includeDirectoryIndex.getDirectory(includeDir));
         }
         this.includePath = new FixedIncludePath(includeDirs);
     }
@@ -257,22 +259,13 @@ public class DefaultSourceIncludesResolver implements SourceIncludesResolver {
         return path.searchForDependency(includePath, sourceFile != null);
     }
 
-    private DirectoryContents toDir(File includeDir) {
-        DirectoryContents directoryContents = includeRoots.get(includeDir);
-        if (directoryContents == null) {
-            directoryContents = new DirectoryContents(includeDir);
-            includeRoots.put(includeDir, directoryContents);
-        }
-        return directoryContents;
-    }
-
     private IncludePath prependSourceDir(File sourceFile, FixedIncludePath includePaths) {
         File sourceDir = sourceFile.getParentFile();
         if (includePaths.startsWith(sourceDir)) {
             // Source dir already at the start of the path, just use the include path
             return includePaths;
         }
-        return new PrefixedIncludePath(toDir(sourceDir), includePaths);
+        return new PrefixedIncludePath(includeDirectoryIndex.getDirectory(sourceDir), includePaths);
     }
 
     private static abstract class IncludePath {
@@ -320,7 +313,7 @@ public class DefaultSourceIncludesResolver implements SourceIncludesResolver {
                     }
                 }
                 if (includeFile == null) {
-                    includeFile = MISSING_INCLUDE_FILE;
+                    includeFile = IncludeDirectoryIndex.missingIncludeFile();
                 }
                 cachedLookups.put(includePath, includeFile);
             }
@@ -335,121 +328,6 @@ public class DefaultSourceIncludesResolver implements SourceIncludesResolver {
         }
     }
 
-    private class DirectoryContents {
-        private final File searchDir;
-        private final Map<String, CachedIncludeFile> contents = new HashMap<String, CachedIncludeFile>();
-
-        DirectoryContents(File searchDir) {
-            this.searchDir = searchDir;
-        }
-
-        CachedIncludeFile get(String includePath) {
-            CachedIncludeFile includeFile = contents.get(includePath);
-            if (includeFile != null) {
-                return includeFile;
-            }
-
-            File candidate = new File(searchDir, includePath);
-            HashCode contentHash = fileSystemSnapshotter.getRegularFileContentHash(candidate);
-            includeFile = contentHash != null ? new SystemIncludeFile(candidate, includePath, contentHash) : MISSING_INCLUDE_FILE;
-            contents.put(includePath, includeFile);
-            return includeFile;
-        }
-    }
-
-    private static abstract class CachedIncludeFile {
-        abstract FileType getType();
-
-        abstract IncludeFile toIncludeFile(boolean quotedPath);
-    }
-
-    private static class MissingIncludeFile extends CachedIncludeFile {
-        MissingIncludeFile() {
-        }
-
-        @Override
-        FileType getType() {
-            return FileType.Missing;
-        }
-
-        @Override
-        IncludeFile toIncludeFile(boolean quotedPath) {
-            throw new UnsupportedOperationException();
-        }
-    }
-
-    private static class SystemIncludeFile extends CachedIncludeFile implements IncludeFile {
-        final File file;
-        final String includePath;
-        final HashCode contentHash;
-
-        SystemIncludeFile(File file, String includePath, HashCode contentHash) {
-            this.file = file;
-            this.includePath = includePath;
-            this.contentHash = contentHash;
-        }
-
-        @Override
-        public String getPath() {
-            return includePath;
-        }
-
-        @Override
-        public boolean isQuotedInclude() {
-            return false;
-        }
-
-        @Override
-        public File getFile() {
-            return file;
-        }
-
-        @Override
-        FileType getType() {
-            return FileType.RegularFile;
-        }
-
-        @Override
-        public HashCode getContentHash() {
-            return contentHash;
-        }
-
-        @Override
-        public boolean equals(Object obj) {
-            if (obj == this) {
-                return true;
-            }
-            if (obj == null || getClass() != obj.getClass()) {
-                return false;
-            }
-            SystemIncludeFile other = (SystemIncludeFile) obj;
-            return Objects.equal(file, other.file) && contentHash.equals(other.contentHash);
-        }
-
-        @Override
-        public int hashCode() {
-            return contentHash.hashCode();
-        }
-
-        IncludeFile toIncludeFile(boolean quotedPath) {
-            if (quotedPath) {
-                return new QuotedIncludeFile(file, includePath, contentHash);
-            }
-            return this;
-        }
-
-        private static class QuotedIncludeFile extends SystemIncludeFile {
-            QuotedIncludeFile(File file, String includePath, HashCode contentHash) {
-                super(file, includePath, contentHash);
-            }
-
-            @Override
-            public boolean isQuotedInclude() {
-                return true;
-            }
-        }
-    }
-
     private interface ExpressionVisitor {
         /**
          * Called when an expression is about to be visited. Called for each intermediate expression as macros are expanded.
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.language.nativeplatform.internal.incremental;
+
+import com.google.common.base.Objects;
+import org.gradle.internal.event.ListenerManager;
+import org.gradle.internal.execution.OutputChangeListener;
+import org.gradle.internal.file.FileType;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.snapshot.FileSystemSnapshotter;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A build scoped index of the contents of include directories, shared by all native compile tasks.
+ *
+ * Many compile tasks share the same system and third-party include directories, so the result of looking up an include path in a directory is kept for the remainder of the build,
+ * unless the outputs of some work are about to change a file that a lookup may have seen.
+ */
+public class IncludeDirectoryIndex implements OutputChangeListener {
+    private static final MissingIncludeFile MISSING_INCLUDE_FILE = new MissingIncludeFile();
+
+    private final FileSystemSnapshotter fileSystemSnapshotter;
+    private final ConcurrentMap<File, DirectoryContents> includeRoots = new ConcurrentHashMap<File, DirectoryContents>();
+
+    public IncludeDirectoryIndex(FileSystemSnapshotter fileSystemSnapshotter, ListenerManager listenerManager) {
+        this(fileSystemSnapshotter);
+        listenerManager.addListener(this);
+    }
+
+    IncludeDirectoryIndex(FileSystemSnapshotter fileSystemSnapshotter) {
+        this.fileSystemSnapshotter = fileSystemSnapshotter;
+    }
+
+    DirectoryContents getDirectory(File includeDir) {
+        DirectoryContents directoryContents = includeRoots.get(includeDir);
+        if (directoryContents == null) {
+            directoryContents = new DirectoryContents(includeDir);
+            DirectoryContents existing = includeRoots.putIfAbsent(includeDir, directoryContents);
+            if (existing != null) {
+                directoryContents = existing;
+            }
+        }
+        return directoryContents;
+    }
+
+    static CachedIncludeFile missingIncludeFile() {
+        return MISSING_INCLUDE_FILE;
+    }
+
+    @Override
+    public void beforeOutputChange() {
+        includeRoots.clear();
+    }
+
+    @Override
+    public void beforeOutputChange(Iterable<String> affectedOutputPaths) {
+        for (String affectedOutputPath : affectedOutputPaths) {
+            Iterator<DirectoryContents> iterator = includeRoots.values().iterator();
+            while (iterator.hasNext()) {
+                DirectoryContents directoryContents = iterator.next();
+                if (isSameOrDescendant(directoryContents.searchDirPath, affectedOutputPath)) {
+                    iterator.remove();
+                } else if (isSameOrDescendant(affectedOutputPath, directoryContents.searchDirPath)) {
+                    directoryContents.invalidate(affectedOutputPath);
+                }
+            }
+        }
+    }
+
+    private static boolean isSameOrDescendant(String path, String ancestor) {
+        return path.startsWith(ancestor) && (path.length() == ancestor.length() || path.charAt(ancestor.length()) == File.separatorChar);
+    }
+
+    class DirectoryContents {
+        final File searchDir;
+        private final String searchDirPath;
+        private final Map<String, CachedIncludeFile> contents = new ConcurrentHashMap<String, CachedIncludeFile>();
+
+        DirectoryContents(File searchDir) {
+            this.searchDir = searchDir;
+            this.searchDirPath = searchDir.getAbsolutePath();
+        }
+
+        CachedIncludeFile get(String includePath) {
+            CachedIncludeFile includeFile = contents.get(includePath);
+            if (includeFile != null) {
+                return includeFile;
+            }
+
+            File candidate = new File(searchDir, includePath);
+            HashCode contentHash = fileSystemSnapshotter.getRegularFileContentHash(candidate);
+            includeFile = contentHash != null ? new SystemIncludeFile(candidate, includePath, contentHash) : MISSING_INCLUDE_FILE;
+            contents.put(includePath, includeFile);
+            return includeFile;
+        }
+
+        private void invalidate(String affectedOutputPath) {
+            Iterator<String> iterator = contents.keySet().iterator();
+            while (iterator.hasNext()) {
+                String candidatePath = new File(searchDir, iterator.next()).getAbsolutePath();
+                if (isSameOrDescendant(candidatePath, affectedOutputPath)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    static abstract class CachedIncludeFile {
+        abstract FileType getType();
+
+        abstract SourceIncludesResolver.IncludeFile toIncludeFile(boolean quotedPath);
+    }
+
+    private static class MissingIncludeFile extends CachedIncludeFile {
+        MissingIncludeFile() {
+        }
+
+        @Override
+        FileType getType() {
+            return FileType.Missing;
+        }
+
+        @Override
+        SourceIncludesResolver.IncludeFile toIncludeFile(boolean quotedPath) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class SystemIncludeFile extends CachedIncludeFile implements SourceIncludesResolver.IncludeFile {
+        final File file;
+        final String includePath;
+        final HashCode contentHash;
+
+        SystemIncludeFile(File file, String includePath, HashCode contentHash) {
+            this.file = file;
+            this.includePath = includePath;
+            this.contentHash = contentHash;
+        }
+
+        @Override
+        public String getPath() {
+            return includePath;
+        }
+
+        @Override
+        public boolean isQuotedInclude() {
+            return false;
+        }
+
+        @Override
+        public File getFile() {
+            return file;
+        }
+
+        @Override
+        FileType getType() {
+            return FileType.RegularFile;
+        }
+
+        @Override
+        public HashCode getContentHash() {
+            return contentHash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            SystemIncludeFile other = (SystemIncludeFile) obj;
+            return Objects.equal(file, other.file) && contentHash.equals(other.contentHash);
+        }
+
+        @Override
+        public int hashCode() {
+            return contentHash.hashCode();
+        }
+
+        SourceIncludesResolver.IncludeFile toIncludeFile(boolean quotedPath) {
+            if (quotedPath) {
+                return new QuotedIncludeFile(file, includePath, contentHash);
+            }
+            return this;
+        }
+
+        private static class QuotedIncludeFile extends SystemIncludeFile {
+            QuotedIncludeFile(File file, String includePath, HashCode contentHash) {
+                super(file, includePath, contentHash);
+            }
+
+            @Override
+            public boolean isQuotedInclude() {
+                return true;
+            }
+        }
+    }
+}
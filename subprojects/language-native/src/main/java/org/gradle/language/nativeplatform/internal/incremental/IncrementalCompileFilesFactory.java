@@ -60,6 +60,60 @@ public class IncrementalCompileFilesFactory {
         return new DefaultIncementalCompileSourceProcessor(previousCompileState);
     }
 
+    /**
+     * Returns the source files whose content has changed since the previous compilation, and so will have to be parsed when they are processed.
+     */
+    public List<File> changedSourceFiles(Collection<File> sourceFiles, @Nullable CompilationState previousCompileState) {
+        List<File> changed = new ArrayList<File>();
+        for (File sourceFile : sourceFiles) {
+            HashCode fileContent = fileSystemSnapshotter.getRegularFileContentHash(sourceFile);
+            if (fileContent == null) {
+                continue;
+            }
+            SourceFileState previousState = previousCompileState == null ? null : previousCompileState.getState(sourceFile);
+            if (previousState == null || !fileContent.equals(previousState.getHash())) {
+                changed.add(sourceFile);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Parses the given source or header file, so that the result is cached by the time the file is processed. The parse results are cached per file
+     * in a thread-safe cache, so this method can be called concurrently.
+     */
+    public void parseFile(File file) {
+        sourceIncludesParser.parseIncludes(file);
+    }
+
+    /**
+     * Returns the header files that the given source or header file includes using a quoted or system include. Includes that use macros are not resolved here,
+     * as their values depend on where the file appears in the include graph.
+     *
+     * <p>Resolving include files is not thread-safe, so this method should only be called from a single thread.</p>
+     */
+    public Collection<File> resolveDirectIncludes(File file) {
+        List<Include> allIncludes = sourceIncludesParser.parseIncludes(file).getAll();
+        if (allIncludes.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<File> includedFiles = new LinkedHashSet<File>();
+        for (Include include : allIncludes) {
+            SourceIncludesResolver.IncludeFile includeFile;
+            if (include.getType() == IncludeType.QUOTED) {
+                includeFile = sourceIncludesResolver.resolveInclude(file, include.getValue());
+            } else if (include.getType() == IncludeType.SYSTEM) {
+                includeFile = sourceIncludesResolver.resolveInclude(null, include.getValue());
+            } else {
+                continue;
+            }
+            if (includeFile != null) {
+                includedFiles.add(includeFile.getFile());
+            }
+        }
+        return includedFiles;
+    }
+
     private class DefaultIncementalCompileSourceProcessor implements IncementalCompileSourceProcessor {
         private final CompilationState previous;
         private final BuildableCompilationState current = new BuildableCompilationState();
@@ -15,14 +15,21 @@
  */
 package org.gradle.language.nativeplatform.internal.incremental;
 
+import org.gradle.api.Action;
 import org.gradle.cache.PersistentStateCache;
 import org.gradle.internal.operations.BuildOperationContext;
 import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.BuildOperationQueue;
 import org.gradle.internal.operations.CallableBuildOperation;
 import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.RunnableBuildOperation;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 public class IncrementalCompileProcessor {
     private final PersistentStateCache<CompilationState> previousCompileStateCache;
@@ -40,6 +47,7 @@ public class IncrementalCompileProcessor {
             @Override
             public IncrementalCompilation call(BuildOperationContext context) {
                 CompilationState previousCompileState = previousCompileStateCache.get();
+                parseChangedSourceFilesInParallel(previousCompileState);
                 IncementalCompileSourceProcessor processor = incrementalCompileFilesFactory.files(previousCompileState);
                 for (File sourceFile : sourceFiles) {
                     processor.processSource(sourceFile);
@@ -47,6 +55,54 @@ public class IncrementalCompileProcessor {
                 return processor.getResult();
             }
 
+            /**
+             * Parses the changed source files and the header files they include concurrently on the worker pool, one level of the include graph at a time.
+             * The quoted and system includes of each level are resolved on this thread to find the files of the next level. The include file graphs are
+             * then calculated serially, in order, from the cached parse results. Headers that are only reachable through macro includes are parsed as
+             * the serial walk discovers them.
+             */
+            private void parseChangedSourceFilesInParallel(CompilationState previousCompileState) {
+                List<File> level = incrementalCompileFilesFactory.changedSourceFiles(sourceFiles, previousCompileState);
+                Set<File> seen = new HashSet<File>(level);
+                while (!level.isEmpty()) {
+                    parseInParallel(level);
+                    List<File> nextLevel = new ArrayList<File>();
+                    for (File file : level) {
+                        for (File includedFile : incrementalCompileFilesFactory.resolveDirectIncludes(file)) {
+                            if (seen.add(includedFile)) {
+                                nextLevel.add(includedFile);
+                            }
+                        }
+                    }
+                    level = nextLevel;
+                }
+            }
+
+            private void parseInParallel(final List<File> files) {
+                if (files.size() < 2) {
+                    // Not worth handing off to the worker pool, the file is parsed when its includes are resolved
+                    return;
+                }
+                buildOperationExecutor.runAll(new Action<BuildOperationQueue<RunnableBuildOperation>>() {
+                    @Override
+                    public void execute(BuildOperationQueue<RunnableBuildOperation> queue) {
+                        for (final File file : files) {
+                            queue.add(new RunnableBuildOperation() {
+                                @Override
+                                public void run(BuildOperationContext context) {
+                                    incrementalCompileFilesFactory.parseFile(file);
+                                }
+
+                                @Override
+                                public BuildOperationDescriptor.Builder description() {
+                                    return BuildOperationDescriptor.displayName("Parse " + file.getName());
+                                }
+                            });
+                        }
+                    }
+                });
+            }
+
             @Override
             public BuildOperationDescriptor.Builder description() {
                 ProcessSourceFilesDetails operationDetails = new ProcessSourceFilesDetails(sourceFiles.size());
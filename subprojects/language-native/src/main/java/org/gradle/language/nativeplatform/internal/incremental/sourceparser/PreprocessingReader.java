@@ -23,7 +23,15 @@ import java.io.Reader;
  * This code is largely adopted from org.apache.tools.ant.filters.StripJavaComments.
  */
 public class PreprocessingReader {
+    private static final int BUFFER_SIZE = 8192;
     private final Reader reader;
+
+    /**
+     * Characters read from the underlying reader in bulk, to avoid a call to the reader for every character.
+     */
+    private final char[] chars = new char[BUFFER_SIZE];
+    private int charsPos;
+    private int charsLength;
     /**
      * The read-ahead characters, used for reading ahead up to 2 characters and pushing back into stream.
      * A value of -1 indicates that no character is in the buffer.
@@ -71,6 +79,43 @@ public class PreprocessingReader {
         return read;
     }
 
+    /**
+     * Collects the next preprocessor directive from the filtered stream into the given buffer, skipping all other lines.
+     * A directive is a line whose first non-whitespace character is {@code #}. The whitespace before the {@code #} is not collected.
+     *
+     * @return true if a directive is available, false when end of stream reached.
+     */
+    public boolean readNextDirective(Appendable buffer) throws IOException {
+        int ch;
+        boolean directive = false;
+        boolean skipLine = false;
+        while ((ch = read()) >= 0) {
+            if (ch == '\n' || ch == '\r') {
+                if (ch == '\r') {
+                    int next = next();
+                    if (next != '\n') {
+                        pushBack(next);
+                    }
+                }
+                if (directive) {
+                    return true;
+                }
+                skipLine = false;
+            } else if (directive) {
+                buffer.append((char) ch);
+            } else if (!skipLine) {
+                if (ch == '#') {
+                    buffer.append('#');
+                    directive = true;
+                } else if (!Character.isWhitespace(ch) && ch != 0) {
+                    // Not a directive, but the rest of the line still needs to be read to keep track of comments and strings
+                    skipLine = true;
+                }
+            }
+        }
+        return directive;
+    }
+
     /**
      * Returns the next character in the filtered stream:
      * <ul>
@@ -153,7 +198,18 @@ public class PreprocessingReader {
             return ch;
         }
 
-        return reader.read();
+        if (charsPos == charsLength) {
+            int count = reader.read(chars, 0, chars.length);
+            if (count < 0) {
+                return -1;
+            }
+            charsPos = 0;
+            charsLength = count;
+            if (count == 0) {
+                return next();
+            }
+        }
+        return chars[charsPos++];
     }
 
     private void pushBack(int ch) {
@@ -28,7 +28,6 @@ import org.gradle.language.nativeplatform.internal.Macro;
 import org.gradle.language.nativeplatform.internal.MacroFunction;
 
 import javax.annotation.Nullable;
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
@@ -58,15 +57,13 @@ public class RegexBackedCSourceParser implements CSourceParser {
         Set<Include> includes = Sets.newLinkedHashSet();
         List<Macro> macros = Lists.newArrayList();
         List<MacroFunction> macroFunctions = Lists.newArrayList();
-        BufferedReader reader = new BufferedReader(sourceReader);
-        PreprocessingReader lineReader = new PreprocessingReader(reader);
+        PreprocessingReader lineReader = new PreprocessingReader(sourceReader);
         Buffer buffer = new Buffer();
         while (true) {
             buffer.reset();
-            if (!lineReader.readNextLine(buffer.value)) {
+            if (!lineReader.readNextDirective(buffer.value)) {
                 break;
             }
-            buffer.consumeWhitespace();
             if (!buffer.consume('#')) {
                 continue;
             }
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.language.nativeplatform.internal.incremental
+
+import org.gradle.internal.snapshot.impl.TestFileSnapshotter
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class IncludeDirectoryIndexTest extends Specification {
+    @Rule final TestNameTestDirectoryProvider temporaryFolder = new TestNameTestDirectoryProvider()
+    def includeDir = temporaryFolder.testDirectory.createDir("include")
+    def index = new IncludeDirectoryIndex(new TestFileSnapshotter())
+
+    def "shares lookups between resolvers with the same include roots"() {
+        given:
+        def header = includeDir.createFile("test.h")
+        def resolver1 = new DefaultSourceIncludesResolver([includeDir], index)
+        def resolver2 = new DefaultSourceIncludesResolver([includeDir], index)
+
+        expect:
+        resolver1.resolveInclude(null, "test.h").file == header
+        resolver1.resolveInclude(null, "missing.h") == null
+
+        when:
+        header.delete()
+        includeDir.createFile("missing.h")
+
+        then:
+        // The second resolver uses the lookups of the first, rather than probing the file system again
+        resolver2.resolveInclude(null, "test.h").file == header
+        resolver2.resolveInclude(null, "missing.h") == null
+    }
+
+    def "discards lookups that may be affected by an output change"() {
+        given:
+        def resolver = new DefaultSourceIncludesResolver([includeDir], index)
+        resolver.resolveInclude(null, "generated/test.h")
+        resolver.resolveInclude(null, "other.h")
+
+        when:
+        def header = includeDir.createFile("generated/test.h")
+        includeDir.createFile("other.h")
+        index.beforeOutputChange([includeDir.file("generated").absolutePath])
+
+        then:
+        new DefaultSourceIncludesResolver([includeDir], index).resolveInclude(null, "generated/test.h").file == header
+        new DefaultSourceIncludesResolver([includeDir], index).resolveInclude(null, "other.h") == null
+    }
+
+    def "discards all lookups for an include root that is affected by an output change"() {
+        given:
+        new DefaultSourceIncludesResolver([includeDir], index).resolveInclude(null, "test.h")
+
+        when:
+        def header = includeDir.createFile("test.h")
+        index.beforeOutputChange([includeDir.absolutePath])
+
+        then:
+        new DefaultSourceIncludesResolver([includeDir], index).resolveInclude(null, "test.h").file == header
+    }
+
+    def "discards all lookups when outputs change"() {
+        given:
+        new DefaultSourceIncludesResolver([includeDir], index).resolveInclude(null, "test.h")
+
+        when:
+        def header = includeDir.createFile("test.h")
+        index.beforeOutputChange()
+
+        then:
+        new DefaultSourceIncludesResolver([includeDir], index).resolveInclude(null, "test.h").file == header
+    }
+}
@@ -40,7 +40,8 @@ class IncrementalCompileProcessorTest extends Specification {
     def dependencyResolver = new DummyResolver()
     def fileSystemSnapshotter = new TestFileSnapshotter()
     def stateCache = new DummyPersistentStateCache()
-    def incrementalCompileProcessor = new IncrementalCompileProcessor(stateCache, new IncrementalCompileFilesFactory(IncludeDirectives.EMPTY, includesParser, dependencyResolver, fileSystemSnapshotter), new TestBuildOperationExecutor())
+    def buildOperationExecutor = new TestBuildOperationExecutor()
+    def incrementalCompileProcessor = new IncrementalCompileProcessor(stateCache, new IncrementalCompileFilesFactory(IncludeDirectives.EMPTY, includesParser, dependencyResolver, fileSystemSnapshotter), buildOperationExecutor)
 
     def source1 = sourceFile("source1")
     def source2 = sourceFile("source2")
@@ -375,6 +376,27 @@ class IncrementalCompileProcessorTest extends Specification {
         result.unresolvedHeaders
     }
 
+    def "parses changed source files and the headers they include on the worker pool"() {
+        given:
+        initialFiles()
+
+        expect:
+        parsedInParallel() == ["source1", "source2", "dep1", "dep2", "dep3", "dep4"]
+
+        when:
+        buildOperationExecutor.log.records.clear()
+        modified(source1)
+
+        then:
+        checkCompile recompiled: [source1], removed: []
+        // The only changed source file is parsed on this thread, its headers on the worker pool
+        parsedInParallel() == ["dep1", "dep2"]
+    }
+
+    private List<String> parsedInParallel() {
+        return buildOperationExecutor.operations*.displayName.findAll { it.startsWith("Parse ") }.collect { it.substring("Parse ".length()) }
+    }
+
     def checkCompile(Map<String, List<File>> args) {
         parseAndResolve()
         with(state) {
@@ -152,4 +152,26 @@ line comments.
         "inline comment" | "/* inline comment at the start */of the line" | " of the line"
         "line continuation" | "${BN} at the start of the content" | " at the start of the content"
     }
+
+    def "reads only directive lines"() {
+        when:
+        def reader = new PreprocessingReader(new StringReader("""
+int a; /* a comment
+#include "commented.h"
+*/ int c;
+#include "after-comment.h"
+  \t#define A \\
+  1
+char *b = "#include \\"in-string.h\\"";
+#import <last.h>"""))
+        def directives = []
+        def directive = new StringBuilder()
+        while (reader.readNextDirective(directive)) {
+            directives << directive.toString()
+            directive.setLength(0)
+        }
+
+        then:
+        directives == ['#include "after-comment.h"', '#define A   1', '#import <last.h>']
+    }
 }
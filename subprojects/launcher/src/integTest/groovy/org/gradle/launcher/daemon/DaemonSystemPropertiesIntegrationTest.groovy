@@ -18,6 +18,7 @@ package org.gradle.launcher.daemon
 
 import org.gradle.cache.internal.HeapProportionalCacheSizer
 import org.gradle.integtests.fixtures.daemon.DaemonIntegrationSpec
+import org.gradle.internal.hash.FileContentHashingScheme
 import spock.lang.Issue
 
 @Issue("GRADLE-2460")
@@ -230,6 +231,43 @@ task verify {
         daemons(gradleVersion).daemons.size() == 2
     }
 
+    def "forks new daemon for changed file content hashing scheme sys property"() {
+        setup:
+        buildScript """
+            task copy(type: Copy) {
+                from 'input.txt'
+                into 'build/out'
+            }
+        """
+        file("input.txt").text = "input"
+        def fileHashes = file(".gradle/${distribution.version.version}/fileHashes")
+
+        when:
+        run "copy"
+
+        then:
+        daemons.daemons.size() == 1
+        fileHashes.file("fileHashes.bin").exists()
+        !fileHashes.file("fileHashes-murmur3-v1.bin").exists()
+
+        when:
+        file("input.txt").text = "changed"
+        executer.withArgument("-D${FileContentHashingScheme.SYSTEM_PROPERTY}=murmur3")
+        run "copy"
+
+        then:
+        daemons.daemons.size() == 2
+        fileHashes.file("fileHashes-murmur3-v1.bin").exists()
+
+        when:
+        file("input.txt").text = "changed again"
+        executer.withArgument("-D${FileContentHashingScheme.SYSTEM_PROPERTY}=murmur3")
+        run "copy"
+
+        then:
+        daemons.daemons.size() == 2
+    }
+
     String tempFolder(String folderName) {
         def dir = temporaryFolder.createDir(folderName)
         dir.mkdirs();
@@ -20,6 +20,7 @@ import org.gradle.api.logging.LogLevel;
 import org.gradle.configuration.GradleLauncherMetaData;
 import org.gradle.internal.classpath.ClassPath;
 import org.gradle.internal.classpath.DefaultClassPath;
+import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.invocation.BuildAction;
 import org.gradle.internal.logging.events.LogEvent;
 import org.gradle.internal.logging.events.LogLevelChangeEvent;
@@ -58,8 +59,10 @@ import org.gradle.tooling.internal.provider.serialization.SerializedPayloadSeria
 
 import java.io.File;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.gradle.internal.serialize.BaseSerializerFactory.FILE_SERIALIZER;
@@ -296,6 +299,14 @@ public class DaemonMessageSerializer {
             encoder.writeBoolean(parameters.isUseDaemon()); // Can probably skip this
             encoder.writeBoolean(parameters.isContinuous());
             classPathSerializer.write(encoder, parameters.getInjectedPluginClasspath().getAsFiles());
+            Set<HashCode> cachedPayloadChunks = parameters.getCachedPayloadChunks();
+            encoder.writeBoolean(cachedPayloadChunks != null);
+            if (cachedPayloadChunks != null) {
+                encoder.writeSmallInt(cachedPayloadChunks.size());
+                for (HashCode hashCode : cachedPayloadChunks) {
+                    encoder.writeBinary(hashCode.toByteArray());
+                }
+            }
         }
 
         @Override
@@ -307,7 +318,15 @@ public class DaemonMessageSerializer {
             boolean useDaemon = decoder.readBoolean();
             boolean continuous = decoder.readBoolean();
             ClassPath classPath = DefaultClassPath.of(classPathSerializer.read(decoder));
-            return new DefaultBuildActionParameters(sysProperties, envVariables, currentDir, logLevel, useDaemon, continuous, classPath);
+            Set<HashCode> cachedPayloadChunks = null;
+            if (decoder.readBoolean()) {
+                int count = decoder.readSmallInt();
+                cachedPayloadChunks = new HashSet<HashCode>(count);
+                for (int i = 0; i < count; i++) {
+                    cachedPayloadChunks.add(HashCode.fromBytes(decoder.readBinary()));
+                }
+            }
+            return new DefaultBuildActionParameters(sysProperties, envVariables, currentDir, logLevel, useDaemon, continuous, classPath, cachedPayloadChunks);
         }
     }
 
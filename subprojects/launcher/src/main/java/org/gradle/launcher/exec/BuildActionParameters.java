@@ -17,9 +17,12 @@ package org.gradle.launcher.exec;
 
 import org.gradle.api.logging.LogLevel;
 import org.gradle.internal.classpath.ClassPath;
+import org.gradle.internal.hash.HashCode;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.util.Map;
+import java.util.Set;
 
 public interface BuildActionParameters {
     Map<String, String> getSystemProperties();
@@ -35,4 +38,11 @@ public interface BuildActionParameters {
     boolean isContinuous();
 
     ClassPath getInjectedPluginClasspath();
+
+    /**
+     * Returns the hashes of the payload chunks that the client still holds from a previous result, and that can be left out of the result of this build.
+     * Returns null when the client does not keep payload chunks.
+     */
+    @Nullable
+    Set<HashCode> getCachedPayloadChunks();
 }
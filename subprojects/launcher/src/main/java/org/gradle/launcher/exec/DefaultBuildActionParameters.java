@@ -17,12 +17,15 @@ package org.gradle.launcher.exec;
 
 import org.gradle.api.logging.LogLevel;
 import org.gradle.internal.classpath.ClassPath;
+import org.gradle.internal.hash.HashCode;
 import org.gradle.util.GUtil;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 public class DefaultBuildActionParameters implements BuildActionParameters, Serializable {
     private final File currentDir;
@@ -33,8 +36,13 @@ public class DefaultBuildActionParameters implements BuildActionParameters, Seri
     private final boolean useDaemon;
     private final boolean continuous;
     private final ClassPath injectedPluginClasspath;
+    private final Set<HashCode> cachedPayloadChunks;
 
     public DefaultBuildActionParameters(Map<?, ?> systemProperties, Map<String, String> envVariables, File currentDir, LogLevel logLevel, boolean useDaemon, boolean continuous, ClassPath injectedPluginClasspath) {
+        this(systemProperties, envVariables, currentDir, logLevel, useDaemon, continuous, injectedPluginClasspath, null);
+    }
+
+    public DefaultBuildActionParameters(Map<?, ?> systemProperties, Map<String, String> envVariables, File currentDir, LogLevel logLevel, boolean useDaemon, boolean continuous, ClassPath injectedPluginClasspath, @Nullable Set<HashCode> cachedPayloadChunks) {
         this.currentDir = currentDir;
         this.logLevel = logLevel;
         this.useDaemon = useDaemon;
@@ -45,6 +53,7 @@ public class DefaultBuildActionParameters implements BuildActionParameters, Seri
         GUtil.addToMap(this.systemProperties, systemProperties);
         this.envVariables = new HashMap<String, String>(envVariables);
         this.injectedPluginClasspath = injectedPluginClasspath;
+        this.cachedPayloadChunks = cachedPayloadChunks;
     }
 
     public Map<String, String> getSystemProperties() {
@@ -73,6 +82,7 @@ public class DefaultBuildActionParameters implements BuildActionParameters, Seri
             + ", useDaemon=" + useDaemon
             + ", continuous=" + continuous
             + ", injectedPluginClasspath=" + injectedPluginClasspath
+            + ", cachedPayloadChunks=" + (cachedPayloadChunks == null ? null : cachedPayloadChunks.size())
             + '}';
     }
 
@@ -87,4 +97,10 @@ public class DefaultBuildActionParameters implements BuildActionParameters, Seri
     public ClassPath getInjectedPluginClasspath() {
         return injectedPluginClasspath;
     }
+
+    @Nullable
+    @Override
+    public Set<HashCode> getCachedPayloadChunks() {
+        return cachedPayloadChunks;
+    }
 }
@@ -35,7 +35,7 @@ public class InProcessBuildActionExecuter implements BuildActionExecuter<BuildAc
         this.buildActionRunner = buildActionRunner;
     }
 
-    public BuildActionResult execute(final BuildAction action, final BuildRequestContext buildRequestContext, BuildActionParameters actionParameters, ServiceRegistry contextServices) {
+    public BuildActionResult execute(final BuildAction action, final BuildRequestContext buildRequestContext, final BuildActionParameters actionParameters, ServiceRegistry contextServices) {
         BuildStateRegistry buildRegistry = contextServices.get(BuildStateRegistry.class);
         final PayloadSerializer payloadSerializer = contextServices.get(PayloadSerializer.class);
         BuildOperationNotificationValve buildOperationNotificationValve = contextServices.get(BuildOperationNotificationValve.class);
@@ -48,7 +48,7 @@ public class InProcessBuildActionExecuter implements BuildActionExecuter<BuildAc
                 public BuildActionResult transform(BuildController buildController) {
                     BuildActionRunner.Result result = buildActionRunner.run(action, buildController);
                     if (result.getBuildFailure() == null) {
-                        return BuildActionResult.of(payloadSerializer.serialize(result.getClientResult()));
+                        return BuildActionResult.of(payloadSerializer.serialize(result.getClientResult(), actionParameters.getCachedPayloadChunks()));
                     }
                     if (buildRequestContext.getCancellationToken().isCancellationRequested()) {
                         return BuildActionResult.cancelled(payloadSerializer.serialize(result.getBuildFailure()));
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.tooling.internal.provider.serialization;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import org.gradle.internal.hash.HashCode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Splits a serialized payload into chunks whose boundaries are chosen by the content, using a rolling hash over the bytes.
+ * A change to a part of the payload only changes the chunks around it, so the other chunks keep their content hash from one payload to the next.
+ */
+class PayloadChunker {
+    private static final int MIN_CHUNK_SIZE = 8 * 1024;
+    private static final int MAX_CHUNK_SIZE = 256 * 1024;
+    // Gives an average chunk size of about 32k, after the minimum chunk size. Uses the high bits, as these depend on the last 64 bytes rather than the last few
+    private static final long BOUNDARY_MASK = ((1L << 15) - 1) << 49;
+    private static final long[] GEAR = new long[256];
+    private static final HashFunction CHUNK_HASH = Hashing.murmur3_128();
+
+    static {
+        // The boundaries must be the same in every process, so use a fixed seed
+        Random random = new Random(0x6772616465L);
+        for (int i = 0; i < GEAR.length; i++) {
+            GEAR[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * Splits the given bytes into chunks. Returns the chunks and their hashes, in the same order.
+     */
+    static Chunks split(byte[] bytes) {
+        List<byte[]> chunks = new ArrayList<byte[]>();
+        List<HashCode> hashes = new ArrayList<HashCode>();
+        int start = 0;
+        while (start < bytes.length) {
+            int end = nextBoundary(bytes, start);
+            chunks.add(Arrays.copyOfRange(bytes, start, end));
+            hashes.add(hash(bytes, start, end - start));
+            start = end;
+        }
+        return new Chunks(chunks, hashes);
+    }
+
+    private static int nextBoundary(byte[] bytes, int start) {
+        int limit = Math.min(bytes.length, start + MAX_CHUNK_SIZE);
+        int pos = start + MIN_CHUNK_SIZE;
+        if (pos >= limit) {
+            return limit;
+        }
+        long fingerprint = 0;
+        for (; pos < limit; pos++) {
+            fingerprint = (fingerprint << 1) + GEAR[bytes[pos] & 0xff];
+            if ((fingerprint & BOUNDARY_MASK) == 0) {
+                return pos + 1;
+            }
+        }
+        return limit;
+    }
+
+    static HashCode hash(byte[] bytes, int offset, int length) {
+        // Chunks are only compared with chunks of the same payload type held by the same client, so a fast non-cryptographic hash is enough
+        return HashCode.fromBytes(CHUNK_HASH.hashBytes(bytes, offset, length).asBytes());
+    }
+
+    static class Chunks {
+        final List<byte[]> chunks;
+        final List<HashCode> hashes;
+
+        Chunks(List<byte[]> chunks, List<HashCode> hashes) {
+            this.chunks = chunks;
+            this.hashes = hashes;
+        }
+    }
+}
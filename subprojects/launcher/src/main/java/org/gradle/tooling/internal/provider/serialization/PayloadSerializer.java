@@ -19,15 +19,19 @@ package org.gradle.tooling.internal.provider.serialization;
 import net.jcip.annotations.ThreadSafe;
 import org.gradle.internal.IoActions;
 import org.gradle.internal.UncheckedException;
+import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.io.StreamByteBuffer;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @ThreadSafe
 public class PayloadSerializer {
@@ -38,6 +42,15 @@ public class PayloadSerializer {
     }
 
     public SerializedPayload serialize(@Nullable Object payload) {
+        return serialize(payload, null);
+    }
+
+    /**
+     * Serializes the given payload, leaving out the chunks of the serialized model that the receiver already holds.
+     *
+     * @param chunksHeldByReceiver The hashes of the chunks held by the receiver, or null when the receiver does not keep chunks.
+     */
+    public SerializedPayload serialize(@Nullable Object payload, @Nullable Set<HashCode> chunksHeldByReceiver) {
         if (payload == null) {
             return new SerializedPayload(null, Collections.<byte[]>emptyList());
         }
@@ -55,13 +68,24 @@ public class PayloadSerializer {
 
             Map<Short, ClassLoaderDetails> classLoaders = new HashMap<Short, ClassLoaderDetails>();
             map.collectClassLoaderDefinitions(classLoaders);
-            return new SerializedPayload(classLoaders, buffer.readAsListOfByteArrays());
+            if (chunksHeldByReceiver == null) {
+                return new SerializedPayload(classLoaders, buffer.readAsListOfByteArrays());
+            }
+            PayloadChunker.Chunks chunks = PayloadChunker.split(buffer.readAsByteArray());
+            List<byte[]> serializedModel = new ArrayList<byte[]>(chunks.chunks.size());
+            for (int i = 0; i < chunks.chunks.size(); i++) {
+                serializedModel.add(chunksHeldByReceiver.contains(chunks.hashes.get(i)) ? null : chunks.chunks.get(i));
+            }
+            return new SerializedPayload(classLoaders, serializedModel, chunks.hashes);
         } catch (IOException e) {
             throw UncheckedException.throwAsUncheckedException(e);
         }
     }
 
     public @Nullable Object deserialize(SerializedPayload payload) {
+        if (payload.hasMissingChunks()) {
+            throw new IllegalArgumentException("Cannot deserialize a payload with missing chunks.");
+        }
         if (payload.getSerializedModel().isEmpty()) {
             return null;
         }
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.tooling.internal.provider.serialization;
+
+import net.jcip.annotations.ThreadSafe;
+import org.gradle.internal.hash.HashCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Holds the chunks of the last payload received from the daemon for each type of model, so that the daemon can leave out the chunks that have not changed from
+ * the next payload of the same type. A model fetched again without changes to the build is then mostly made up of chunks that are already held by the client.
+ *
+ * <p>The total size of the chunks held is bounded. The chunks of the least recently received types of model are discarded first.</p>
+ */
+@ThreadSafe
+public class ReceivedPayloadCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReceivedPayloadCache.class);
+    static final long DEFAULT_MAX_BYTES = 64 * 1024 * 1024;
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, Chunks> chunksByModelType = new LinkedHashMap<String, Chunks>(16, 0.75f, true);
+    private long totalBytes;
+
+    public ReceivedPayloadCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    ReceivedPayloadCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the chunks currently held for the given type of model. The daemon should only leave out chunks of the snapshot, as the cache may change before the result is received.
+     */
+    public synchronized Snapshot snapshot(String modelType) {
+        Chunks chunks = chunksByModelType.get(modelType);
+        return new Snapshot(modelType, chunks == null ? Collections.<HashCode, byte[]>emptyMap() : chunks.chunks);
+    }
+
+    /**
+     * Fills in the chunks left out of the given payload from the given snapshot, and replaces the chunks held for the type of model of the snapshot with the chunks of the payload.
+     */
+    public SerializedPayload resolve(Snapshot snapshot, SerializedPayload payload) {
+        List<HashCode> chunkHashes = payload.getChunkHashes();
+        if (chunkHashes.isEmpty()) {
+            return payload;
+        }
+        List<byte[]> serializedModel = payload.getSerializedModel();
+        List<byte[]> resolved = new ArrayList<byte[]>(serializedModel.size());
+        Map<HashCode, byte[]> received = new HashMap<HashCode, byte[]>();
+        long receivedBytes = 0;
+        long transferredBytes = 0;
+        int reusedChunks = 0;
+        for (int i = 0; i < serializedModel.size(); i++) {
+            HashCode hash = chunkHashes.get(i);
+            byte[] bytes = serializedModel.get(i);
+            if (bytes == null) {
+                bytes = snapshot.chunks.get(hash);
+                if (bytes == null) {
+                    throw new IllegalStateException("Payload chunk " + hash + " was left out, but is not held by the client.");
+                }
+                reusedChunks++;
+            } else {
+                transferredBytes += bytes.length;
+            }
+            if (received.put(hash, bytes) == null) {
+                receivedBytes += bytes.length;
+            }
+            resolved.add(bytes);
+        }
+        store(snapshot.modelType, new Chunks(received, receivedBytes));
+        LOGGER.debug("Received {} payload bytes for {}, reusing {} cached chunks.", transferredBytes, snapshot.modelType, reusedChunks);
+        return new SerializedPayload(payload.getHeader(), resolved);
+    }
+
+    private synchronized void store(String modelType, Chunks chunks) {
+        Chunks previous = chunksByModelType.remove(modelType);
+        if (previous != null) {
+            totalBytes -= previous.size;
+        }
+        if (chunks.size > maxBytes) {
+            // Too large to hold, the next payload of this type is sent in full
+            return;
+        }
+        chunksByModelType.put(modelType, chunks);
+        totalBytes += chunks.size;
+        Iterator<Chunks> iterator = chunksByModelType.values().iterator();
+        while (totalBytes > maxBytes) {
+            // Discard the least recently used types first, which never includes the type just stored
+            totalBytes -= iterator.next().size;
+            iterator.remove();
+        }
+    }
+
+    synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    private static class Chunks {
+        private final Map<HashCode, byte[]> chunks;
+        private final long size;
+
+        Chunks(Map<HashCode, byte[]> chunks, long size) {
+            this.chunks = chunks;
+            this.size = size;
+        }
+    }
+
+    public static class Snapshot {
+        private final String modelType;
+        private final Map<HashCode, byte[]> chunks;
+
+        private Snapshot(String modelType, Map<HashCode, byte[]> chunks) {
+            this.modelType = modelType;
+            this.chunks = chunks;
+        }
+
+        /**
+         * Returns the hashes of the chunks held.
+         */
+        public Set<HashCode> getChunkHashes() {
+            return new HashSet<HashCode>(chunks.keySet());
+        }
+    }
+}
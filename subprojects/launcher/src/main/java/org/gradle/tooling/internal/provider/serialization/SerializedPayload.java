@@ -16,16 +16,29 @@
 
 package org.gradle.tooling.internal.provider.serialization;
 
+import org.gradle.internal.hash.HashCode;
+
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.List;
 
 public class SerializedPayload implements Serializable {
     private final List<byte[]> serializedModel;
     private final Object header;
+    private final List<HashCode> chunkHashes;
 
     public SerializedPayload(Object header, List<byte[]> serializedModel) {
+        this(header, serializedModel, Collections.<HashCode>emptyList());
+    }
+
+    /**
+     * Creates a payload whose serialized model is split into content-defined chunks with the given hashes. A chunk can be null, when the receiver
+     * already holds a chunk with the same hash.
+     */
+    public SerializedPayload(Object header, List<byte[]> serializedModel, List<HashCode> chunkHashes) {
         this.header = header;
         this.serializedModel = serializedModel;
+        this.chunkHashes = chunkHashes;
     }
 
     public Object getHeader() {
@@ -35,4 +48,18 @@ public class SerializedPayload implements Serializable {
     public List<byte[]> getSerializedModel() {
         return serializedModel;
     }
+
+    /**
+     * Returns the hashes of the chunks of the serialized model, or an empty list when the model is not split into content-defined chunks.
+     */
+    public List<HashCode> getChunkHashes() {
+        return chunkHashes;
+    }
+
+    /**
+     * Returns true when some chunks of the serialized model have been left out, to be provided by the receiver.
+     */
+    public boolean hasMissingChunks() {
+        return serializedModel.contains(null);
+    }
 }
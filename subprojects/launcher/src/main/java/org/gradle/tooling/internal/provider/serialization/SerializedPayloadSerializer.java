@@ -16,12 +16,14 @@
 
 package org.gradle.tooling.internal.provider.serialization;
 
+import org.gradle.internal.hash.HashCode;
 import org.gradle.internal.serialize.Decoder;
 import org.gradle.internal.serialize.DefaultSerializer;
 import org.gradle.internal.serialize.Encoder;
 import org.gradle.internal.serialize.Serializer;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class SerializedPayloadSerializer implements Serializer<SerializedPayload> {
@@ -30,8 +32,20 @@ public class SerializedPayloadSerializer implements Serializer<SerializedPayload
     @Override
     public void write(Encoder encoder, SerializedPayload value) throws Exception {
         javaSerializer.write(encoder, value.getHeader());
-        encoder.writeSmallInt(value.getSerializedModel().size());
-        for (byte[] bytes : value.getSerializedModel()) {
+        List<byte[]> serializedModel = value.getSerializedModel();
+        List<HashCode> chunkHashes = value.getChunkHashes();
+        boolean hasHashes = !chunkHashes.isEmpty();
+        encoder.writeSmallInt(serializedModel.size());
+        encoder.writeBoolean(hasHashes);
+        for (int i = 0; i < serializedModel.size(); i++) {
+            byte[] bytes = serializedModel.get(i);
+            if (hasHashes) {
+                encoder.writeBinary(chunkHashes.get(i).toByteArray());
+                encoder.writeBoolean(bytes != null);
+                if (bytes == null) {
+                    continue;
+                }
+            }
             encoder.writeBinary(bytes);
         }
     }
@@ -40,10 +54,19 @@ public class SerializedPayloadSerializer implements Serializer<SerializedPayload
     public SerializedPayload read(Decoder decoder) throws Exception {
         Object header = javaSerializer.read(decoder);
         int count = decoder.readSmallInt();
+        boolean hasHashes = decoder.readBoolean();
         List<byte[]> chunks = new ArrayList<byte[]>(count);
+        List<HashCode> chunkHashes = hasHashes ? new ArrayList<HashCode>(count) : Collections.<HashCode>emptyList();
         for (int i = 0; i < count; i++) {
+            if (hasHashes) {
+                chunkHashes.add(HashCode.fromBytes(decoder.readBinary()));
+                if (!decoder.readBoolean()) {
+                    chunks.add(null);
+                    continue;
+                }
+            }
             chunks.add(decoder.readBinary());
         }
-        return new SerializedPayload(header, chunks);
+        return new SerializedPayload(header, chunks, chunkHashes);
     }
 }
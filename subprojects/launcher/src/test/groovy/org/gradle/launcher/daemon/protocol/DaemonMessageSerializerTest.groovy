@@ -20,6 +20,7 @@ import org.gradle.api.internal.StartParameterInternal
 import org.gradle.api.logging.LogLevel
 import org.gradle.configuration.GradleLauncherMetaData
 import org.gradle.internal.classpath.ClassPath
+import org.gradle.internal.hash.HashCode
 import org.gradle.internal.logging.events.LogLevelChangeEvent
 import org.gradle.internal.logging.events.OutputEvent
 import org.gradle.internal.logging.events.PromptOutputEvent
@@ -200,6 +201,35 @@ class DaemonMessageSerializerTest extends SerializerSpec {
         result.parameters
     }
 
+    def "can serialize Build message with cached payload chunks"() {
+        expect:
+        def action = new ExecuteBuildAction(new StartParameterInternal())
+        def clientMetadata = new GradleLauncherMetaData()
+        def chunks = [HashCode.fromInt(1), HashCode.fromInt(2)] as Set
+        def params = new DefaultBuildActionParameters([:], [:], new File("some-dir"), LogLevel.ERROR, true, false, ClassPath.EMPTY, chunks)
+        def message = new Build(UUID.randomUUID(), [1, 2, 3] as byte[], action, clientMetadata, 1234L, true, params)
+        def result = serialize(message, serializer)
+        result instanceof Build
+        result.parameters.cachedPayloadChunks == chunks
+
+        def params2 = new DefaultBuildActionParameters([:], [:], new File("some-dir"), LogLevel.ERROR, true, false, ClassPath.EMPTY)
+        def result2 = serialize(new Build(UUID.randomUUID(), [1, 2, 3] as byte[], action, clientMetadata, 1234L, true, params2), serializer)
+        result2.parameters.cachedPayloadChunks == null
+    }
+
+    def "can serialize Success message with chunked BuildActionResult payload"() {
+        expect:
+        def hashes = [HashCode.fromInt(1), HashCode.fromInt(2)]
+        def buildResult = BuildActionResult.of(new SerializedPayload("header", [null, "hi".bytes], hashes))
+        def result = serialize(new Success(buildResult), serializer)
+        result instanceof Success
+        result.value.result.header == "header"
+        result.value.result.chunkHashes == hashes
+        result.value.result.serializedModel[0] == null
+        result.value.result.serializedModel[1] == "hi".bytes
+        result.value.result.hasMissingChunks()
+    }
+
     def "can serialize DaemonUnavailable message"() {
         expect:
         def message = new DaemonUnavailable("reason")
@@ -43,6 +43,56 @@ class PayloadSerializerTest extends AbstractClassGraphSpec {
         "some value" | _
     }
 
+    def "leaves out chunks held by the receiver"() {
+        def cache = new ReceivedPayloadCache()
+        def original = largeModel()
+
+        when:
+        def first = originator.serialize(original, cache.snapshot("model").chunkHashes)
+
+        then:
+        first.chunkHashes.size() > 1
+        !first.hasMissingChunks()
+
+        when:
+        def firstReceived = receiver.deserialize(cache.resolve(cache.snapshot("model"), first))
+        def snapshot = cache.snapshot("model")
+        def second = originator.serialize(original, snapshot.chunkHashes)
+
+        then:
+        firstReceived == original
+        second.chunkHashes == first.chunkHashes
+        second.serializedModel.every { it == null }
+        receiver.deserialize(cache.resolve(snapshot, second)) == original
+    }
+
+    def "sends only the chunks that have changed"() {
+        def cache = new ReceivedPayloadCache()
+        def original = largeModel()
+        def changed = new ArrayList<String>(original)
+        changed.set(original.size() / 2 as int, "changed")
+        def snapshot = cache.snapshot("model")
+        cache.resolve(snapshot, originator.serialize(original, snapshot.chunkHashes))
+
+        when:
+        snapshot = cache.snapshot("model")
+        def serialized = originator.serialize(changed, snapshot.chunkHashes)
+
+        then:
+        serialized.hasMissingChunks()
+        serialized.serializedModel.count { it != null } < serialized.serializedModel.size() / 2
+        receiver.deserialize(cache.resolve(snapshot, serialized)) == changed
+    }
+
+    def "does not split payload into chunks when receiver does not hold chunks"() {
+        when:
+        def serialized = originator.serialize(largeModel())
+
+        then:
+        serialized.chunkHashes.empty
+        !serialized.hasMissingChunks()
+    }
+
     def "implementation classpath travels with object"() {
         def payloadClass = isolated(CustomPayload, PayloadInterface).loadClass(CustomPayload.name)
         def original = payloadClass.newInstance(value: 'value')
@@ -205,4 +255,10 @@ class PayloadSerializerTest extends AbstractClassGraphSpec {
             return "result!"
         }
     }
+
+    private static List<String> largeModel() {
+        def model = []
+        20000.times { model << "project :sub${it} source set main dependency org.gradle:lib${it}:1.0".toString() }
+        return model
+    }
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.tooling.internal.provider.serialization
+
+import org.gradle.internal.hash.HashCode
+import org.gradle.internal.hash.Hashing
+import spock.lang.Specification
+
+class ReceivedPayloadCacheTest extends Specification {
+    def cache = new ReceivedPayloadCache(100)
+
+    def "holds the chunks of the last payload of each type of model"() {
+        when:
+        receive("a", chunk("a1", 10), chunk("a2", 10))
+        receive("b", chunk("b1", 10))
+
+        then:
+        cache.snapshot("a").chunkHashes == hashes("a1", "a2")
+        cache.snapshot("b").chunkHashes == hashes("b1")
+        cache.snapshot("c").chunkHashes.empty
+
+        when:
+        receive("a", chunk("a3", 10))
+
+        then:
+        cache.snapshot("a").chunkHashes == hashes("a3")
+        cache.snapshot("b").chunkHashes == hashes("b1")
+        cache.totalBytes == 20
+    }
+
+    def "fills in chunks left out of the payload from the snapshot"() {
+        receive("a", chunk("a1", 10), chunk("a2", 10))
+        def snapshot = cache.snapshot("a")
+
+        when:
+        def resolved = cache.resolve(snapshot, new SerializedPayload("header", [null, bytes("a3", 5)], [hash("a1"), hash("a3")]))
+
+        then:
+        resolved.serializedModel*.length == [10, 5]
+        cache.snapshot("a").chunkHashes == hashes("a1", "a3")
+    }
+
+    def "discards the chunks of the least recently used types of model when the total size is exceeded"() {
+        when:
+        receive("a", chunk("a1", 40))
+        receive("b", chunk("b1", 40))
+        cache.snapshot("a")
+        receive("c", chunk("c1", 40))
+
+        then:
+        cache.snapshot("a").chunkHashes == hashes("a1")
+        cache.snapshot("b").chunkHashes.empty
+        cache.snapshot("c").chunkHashes == hashes("c1")
+        cache.totalBytes == 80
+    }
+
+    def "does not hold a payload that is larger than the total size"() {
+        when:
+        receive("a", chunk("a1", 40))
+        receive("b", chunk("b1", 60), chunk("b2", 60))
+
+        then:
+        cache.snapshot("a").chunkHashes == hashes("a1")
+        cache.snapshot("b").chunkHashes.empty
+        cache.totalBytes == 40
+    }
+
+    private void receive(String modelType, Map<HashCode, byte[]>... chunks) {
+        def hashes = chunks.collect { it.keySet().first() }
+        def serializedModel = chunks.collect { it.values().first() }
+        cache.resolve(cache.snapshot(modelType), new SerializedPayload("header", serializedModel, hashes))
+    }
+
+    private static Map<HashCode, byte[]> chunk(String name, int size) {
+        return [(hash(name)): bytes(name, size)]
+    }
+
+    private static byte[] bytes(String name, int size) {
+        def bytes = new byte[size]
+        Arrays.fill(bytes, name.hashCode() as byte)
+        return bytes
+    }
+
+    private static HashCode hash(String name) {
+        return Hashing.hashString(name)
+    }
+
+    private static Set<HashCode> hashes(String... names) {
+        return names.collect { hash(it) } as Set
+    }
+}
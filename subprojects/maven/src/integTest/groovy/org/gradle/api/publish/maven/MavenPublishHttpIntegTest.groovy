@@ -20,6 +20,7 @@ import org.gradle.api.artifacts.repositories.PasswordCredentials
 import org.gradle.internal.credentials.DefaultPasswordCredentials
 import org.gradle.integtests.fixtures.publish.maven.AbstractMavenPublishIntegTest
 import org.gradle.test.fixtures.server.http.AuthScheme
+import org.gradle.test.fixtures.server.http.HttpResource
 import org.gradle.test.fixtures.server.http.HttpServer
 import org.gradle.test.fixtures.server.http.MavenHttpModule
 import org.gradle.test.fixtures.server.http.MavenHttpRepository
@@ -27,6 +28,10 @@ import org.junit.Rule
 import spock.lang.Issue
 import spock.lang.Unroll
 
+import javax.servlet.http.HttpServletRequest
+import javax.servlet.http.HttpServletResponse
+import java.util.concurrent.CopyOnWriteArrayList
+
 class MavenPublishHttpIntegTest extends AbstractMavenPublishIntegTest {
 
     @Rule
@@ -126,8 +131,6 @@ class MavenPublishHttpIntegTest extends AbstractMavenPublishIntegTest {
 
         server.authenticationScheme = authScheme
         module.artifact.expectPut(401, credentials)
-        module.pom.expectPut(401, credentials)
-        module.moduleMetadata.expectPut(401, credentials)
 
         when:
         fails 'publish'
@@ -148,8 +151,6 @@ class MavenPublishHttpIntegTest extends AbstractMavenPublishIntegTest {
         buildFile << publicationBuild(version, group, mavenRemoteRepo.uri)
         server.authenticationScheme = authScheme
         module.artifact.expectPut(401)
-        module.pom.expectPut(401)
-        module.moduleMetadata.expectPut(401)
 
         when:
         fails 'publish'
@@ -264,6 +265,43 @@ class MavenPublishHttpIntegTest extends AbstractMavenPublishIntegTest {
         module.rootMetaData.versions == ["2", "3"]
     }
 
+    def "writes metadata files once all artifacts have been uploaded"() {
+        given:
+        def classifiers = (1..12).collect { "extra$it" }
+        buildFile << publicationBuild(version, group, mavenRemoteRepo.uri)
+        buildFile << """
+            publishing.publications.maven {
+                ${classifiers.collect { "artifact(file('${it}.txt')) { classifier = '${it}' }" }.join('\n')}
+            }
+        """
+        classifiers.each { file("${it}.txt") << "content of $it" }
+
+        and:
+        def requests = new CopyOnWriteArrayList<String>()
+        def artifacts = [module.artifact] + classifiers.collect { module.getArtifact(classifier: it, type: 'txt') }
+        def metadataFiles = [module.moduleMetadata, module.pom, module.rootMetaData]
+        module.rootMetaData.expectGetMissing()
+        (artifacts + metadataFiles).each { resource ->
+            [resource, resource.sha1, resource.md5].each { expectRecordedPut(it, requests) }
+        }
+
+        when:
+        succeeds 'publish'
+
+        then:
+        def metadataPaths = metadataFiles.collect { it.path }
+        def isMetadata = { String request -> metadataPaths.any { request.contains(it) } }
+        requests.findLastIndexOf { it.startsWith('end') && !isMetadata(it) } < requests.findIndexOf { it.startsWith('start') && isMetadata(it) }
+        requests.indexOf("end ${module.moduleMetadata.path}".toString()) < requests.indexOf("start ${module.pom.path}".toString())
+        requests.indexOf("end ${module.pom.path}".toString()) < requests.indexOf("start ${module.rootMetaData.path}".toString())
+
+        and:
+        artifacts.each { it.verifyChecksums() }
+        module.pom.verifyChecksums()
+        module.moduleMetadata.verifyChecksums()
+        module.rootMetaData.verifyChecksums()
+    }
+
     private String publicationBuild(String version, String group, URI uri, PasswordCredentials credentials = null) {
         String credentialsBlock = credentials ? """
                         credentials{
@@ -310,4 +348,15 @@ class MavenPublishHttpIntegTest extends AbstractMavenPublishIntegTest {
             }
         }
     }
+
+    private void expectRecordedPut(HttpResource resource, List<String> requests) {
+        server.expect(resource.path, ['PUT'], new HttpServer.ActionSupport("write request to ${resource.file.name}") {
+            void handle(HttpServletRequest request, HttpServletResponse response) {
+                requests << "start ${request.pathInfo}".toString()
+                resource.file.parentFile.mkdirs()
+                resource.file.bytes = request.inputStream.bytes
+                requests << "end ${request.pathInfo}".toString()
+            }
+        })
+    }
 }
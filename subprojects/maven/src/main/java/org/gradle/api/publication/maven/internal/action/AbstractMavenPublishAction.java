@@ -89,16 +89,23 @@ abstract class AbstractMavenPublishAction implements MavenPublishAction {
 
     public void publish() {
         List<Artifact> artifacts = new ArrayList<Artifact>();
+        List<Artifact> metadataArtifacts = new ArrayList<Artifact>();
         if (mainArtifact.getFile() != null) {
             artifacts.add(mainArtifact);
         }
-        artifacts.add(pomArtifact);
         for (Artifact artifact : attached) {
             File file = artifact.getFile();
             if (file != null && file.isFile()) {
-                artifacts.add(artifact);
+                if ("module".equals(artifact.getExtension())) {
+                    metadataArtifacts.add(artifact);
+                } else {
+                    artifacts.add(artifact);
+                }
             }
         }
+        // Deploy the metadata files after the artifacts they describe, with the POM last
+        artifacts.addAll(metadataArtifacts);
+        artifacts.add(pomArtifact);
 
         try {
             publishArtifacts(artifacts, newRepositorySystem(), session);
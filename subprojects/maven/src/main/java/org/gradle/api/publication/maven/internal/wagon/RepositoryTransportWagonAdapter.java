@@ -16,22 +16,46 @@
 
 package org.gradle.api.publication.maven.internal.wagon;
 
+import com.google.common.io.ByteStreams;
 import org.gradle.api.internal.artifacts.repositories.transport.RepositoryTransport;
 import org.gradle.api.resources.ResourceException;
+import org.gradle.internal.UncheckedException;
 import org.gradle.internal.resource.ExternalResource;
 import org.gradle.internal.resource.ExternalResourceName;
 import org.gradle.internal.resource.ReadableContent;
+import org.gradle.internal.resource.ResourceExceptions;
+import org.gradle.internal.resource.local.ByteArrayReadableContent;
+import org.gradle.internal.resource.transfer.ParallelUploadQueue;
 
+import javax.annotation.Nullable;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 public class RepositoryTransportWagonAdapter {
+    private static final String[] CHECKSUM_EXTENSIONS = {".sha1", ".md5"};
+
     private final RepositoryTransport transport;
     private final URI rootUri;
+    private final ParallelUploadQueue uploads;
+    private final Map<String, Future<?>> queuedUploads = new HashMap<String, Future<?>>();
 
     public RepositoryTransportWagonAdapter(RepositoryTransport transport, URI rootUri) {
+        this(transport, rootUri, null);
+    }
+
+    /**
+     * Creates an adapter that queues the upload of artifacts and their checksums, and writes the metadata files of the module only once all queued uploads have completed.
+     */
+    public RepositoryTransportWagonAdapter(RepositoryTransport transport, URI rootUri, @Nullable ParallelUploadQueue uploads) {
         this.transport = transport;
         this.rootUri = rootUri;
+        this.uploads = uploads;
     }
 
     public boolean getRemoteFile(File destination, String resourceName) throws ResourceException {
@@ -40,10 +64,80 @@ public class RepositoryTransportWagonAdapter {
         return resource.writeToIfPresent(destination) != null;
     }
 
-    public void putRemoteFile(ReadableContent content, String resourceName) throws ResourceException {
+    public void putRemoteFile(ReadableContent content, final String resourceName) throws ResourceException {
+        if (uploads == null) {
+            doPutRemoteFile(content, resourceName);
+        } else if (isMetadataFile(resourceName)) {
+            uploads.awaitCompletion();
+            doPutRemoteFile(content, resourceName);
+        } else {
+            final Future<?> checksummedUpload;
+            final ReadableContent queuedContent;
+            String checksummedResourceName = stripChecksumExtension(resourceName);
+            if (checksummedResourceName.equals(resourceName)) {
+                checksummedUpload = null;
+                queuedContent = content;
+            } else {
+                // Checksums are only written once the file they belong to has been uploaded.
+                // The deployer deletes the checksum file once this method returns, so keep its content.
+                checksummedUpload = queuedUploads.get(checksummedResourceName);
+                queuedContent = new ByteArrayReadableContent(readContent(content, resourceName));
+            }
+            Future<?> upload = uploads.submit(new Runnable() {
+                @Override
+                public void run() {
+                    if (checksummedUpload != null && !succeeded(checksummedUpload)) {
+                        return;
+                    }
+                    doPutRemoteFile(queuedContent, resourceName);
+                }
+            });
+            queuedUploads.put(resourceName, upload);
+        }
+    }
+
+    private void doPutRemoteFile(ReadableContent content, String resourceName) {
         transport.getRepository().withProgressLogging().resource(getLocationForResource(resourceName)).put(content);
     }
 
+    private byte[] readContent(ReadableContent content, String resourceName) {
+        try {
+            InputStream inputStream = content.open();
+            try {
+                return ByteStreams.toByteArray(inputStream);
+            } finally {
+                inputStream.close();
+            }
+        } catch (IOException e) {
+            throw ResourceExceptions.putFailed(getLocationForResource(resourceName).getUri(), e);
+        }
+    }
+
+    private static boolean succeeded(Future<?> upload) {
+        try {
+            upload.get();
+            return true;
+        } catch (ExecutionException e) {
+            return false;
+        } catch (InterruptedException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+
+    private static boolean isMetadataFile(String resourceName) {
+        String name = stripChecksumExtension(resourceName);
+        return name.endsWith(".pom") || name.endsWith(".module") || name.endsWith("maven-metadata.xml");
+    }
+
+    private static String stripChecksumExtension(String resourceName) {
+        for (String extension : CHECKSUM_EXTENSIONS) {
+            if (resourceName.endsWith(extension)) {
+                return resourceName.substring(0, resourceName.length() - extension.length());
+            }
+        }
+        return resourceName;
+    }
+
     private ExternalResourceName getLocationForResource(String resource) {
         return new ExternalResourceName(rootUri, resource);
     }
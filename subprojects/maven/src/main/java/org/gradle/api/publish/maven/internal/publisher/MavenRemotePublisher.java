@@ -28,6 +28,8 @@ import org.gradle.api.publication.maven.internal.wagon.RepositoryTransportDeploy
 import org.gradle.api.publication.maven.internal.wagon.RepositoryTransportWagonAdapter;
 import org.gradle.internal.Factory;
 import org.gradle.internal.artifacts.repositories.AuthenticationSupportedInternal;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.resource.transfer.ParallelUploadQueue;
 
 import java.io.File;
 import java.net.URI;
@@ -35,15 +37,17 @@ import java.net.URI;
 public class MavenRemotePublisher extends AbstractMavenPublisher {
     private final Factory<File> temporaryDirFactory;
     private final RepositoryTransportFactory repositoryTransportFactory;
+    private final ExecutorFactory executorFactory;
 
-    public MavenRemotePublisher(LocalMavenRepositoryLocator mavenRepositoryLocator, Factory<File> temporaryDirFactory, RepositoryTransportFactory repositoryTransportFactory) {
+    public MavenRemotePublisher(LocalMavenRepositoryLocator mavenRepositoryLocator, Factory<File> temporaryDirFactory, RepositoryTransportFactory repositoryTransportFactory, ExecutorFactory executorFactory) {
         super(mavenRepositoryLocator);
         this.temporaryDirFactory = temporaryDirFactory;
         this.repositoryTransportFactory = repositoryTransportFactory;
+        this.executorFactory = executorFactory;
     }
 
     protected MavenPublishAction createDeployTask(String packaging, MavenProjectIdentity projectIdentity, LocalMavenRepositoryLocator mavenRepositoryLocator, MavenArtifactRepository artifactRepository) {
-        GradleWagonMavenDeployAction deployTask = new GradleWagonMavenDeployAction(packaging, projectIdentity, artifactRepository, repositoryTransportFactory);
+        GradleWagonMavenDeployAction deployTask = new GradleWagonMavenDeployAction(packaging, projectIdentity, artifactRepository, repositoryTransportFactory, executorFactory);
         deployTask.setLocalMavenRepositoryLocation(temporaryDirFactory.create());
         deployTask.setRepositories(createMavenRemoteRepository(artifactRepository), null);
         return deployTask;
@@ -61,11 +65,13 @@ public class MavenRemotePublisher extends AbstractMavenPublisher {
     private static class GradleWagonMavenDeployAction extends MavenDeployAction {
         private final MavenArtifactRepository artifactRepository;
         private final RepositoryTransportFactory repositoryTransportFactory;
+        private final ExecutorFactory executorFactory;
 
-        public GradleWagonMavenDeployAction(String packaging, MavenProjectIdentity projectIdentity, MavenArtifactRepository artifactRepository, RepositoryTransportFactory repositoryTransportFactory) {
+        public GradleWagonMavenDeployAction(String packaging, MavenProjectIdentity projectIdentity, MavenArtifactRepository artifactRepository, RepositoryTransportFactory repositoryTransportFactory, ExecutorFactory executorFactory) {
             super(packaging, projectIdentity, null);
             this.artifactRepository = artifactRepository;
             this.repositoryTransportFactory = repositoryTransportFactory;
+            this.executorFactory = executorFactory;
 
             registerWagonProtocols();
         }
@@ -80,20 +86,23 @@ public class MavenRemotePublisher extends AbstractMavenPublisher {
         @Override
         public void publish() {
             String protocol = artifactRepository.getUrl().getScheme().toLowerCase();
-            RepositoryTransportWagonAdapter adapter = createAdapter(protocol, artifactRepository, repositoryTransportFactory);
+            ParallelUploadQueue uploads = new ParallelUploadQueue("Publish to " + artifactRepository.getName(), executorFactory);
+            RepositoryTransportWagonAdapter adapter = createAdapter(protocol, artifactRepository, repositoryTransportFactory, uploads);
             RepositoryTransportDeployWagon.contextualize(adapter);
             try {
                 super.publish();
+                uploads.awaitCompletion();
             } finally {
                 RepositoryTransportDeployWagon.decontextualize();
+                uploads.stop();
             }
         }
 
-        private RepositoryTransportWagonAdapter createAdapter(String protocol, MavenArtifactRepository artifactRepository, RepositoryTransportFactory repositoryTransportFactory) {
+        private RepositoryTransportWagonAdapter createAdapter(String protocol, MavenArtifactRepository artifactRepository, RepositoryTransportFactory repositoryTransportFactory, ParallelUploadQueue uploads) {
             RepositoryTransport transport = repositoryTransportFactory.createTransport(protocol, artifactRepository.getName(),
                     ((AuthenticationSupportedInternal)artifactRepository).getConfiguredAuthentication());
             URI rootUri = artifactRepository.getUrl();
-            return new RepositoryTransportWagonAdapter(transport, rootUri);
+            return new RepositoryTransportWagonAdapter(transport, rootUri, uploads);
         }
     }
 }
@@ -17,12 +17,19 @@
 package org.gradle.api.publication.maven.internal.wagon
 
 import org.gradle.api.internal.artifacts.repositories.transport.RepositoryTransport
+import org.gradle.api.resources.ResourceException
+import org.gradle.internal.concurrent.DefaultExecutorFactory
 import org.gradle.internal.resource.ExternalResource
 import org.gradle.internal.resource.ExternalResourceReadResult
 import org.gradle.internal.resource.ExternalResourceRepository
+import org.gradle.internal.resource.ReadableContent
+import org.gradle.internal.resource.local.ByteArrayReadableContent
+import org.gradle.internal.resource.transfer.ParallelUploadQueue
 import spock.lang.Specification
 import spock.lang.Unroll
 
+import java.util.concurrent.CopyOnWriteArrayList
+
 class RepositoryTransportWagonAdapterTest extends Specification {
 
     public static final URI S3_URI = new URI("s3://somewhere/maven")
@@ -99,4 +106,75 @@ class RepositoryTransportWagonAdapterTest extends Specification {
         1 * externalResourceRepo.resource({ it.toString() == 's3://somewhere/maven/something.jar'}) >> externalResource
         1 * externalResource.put(_)
     }
+
+    def "writes metadata files once all queued uploads have completed"() {
+        given:
+        def uploaded = new CopyOnWriteArrayList<String>()
+        RepositoryTransport repositoryTransport = Mock()
+        ExternalResourceRepository externalResourceRepo = Mock()
+        ExternalResource externalResource = Mock()
+        repositoryTransport.getRepository() >> externalResourceRepo
+        externalResourceRepo.withProgressLogging() >> externalResourceRepo
+        externalResourceRepo.resource(_) >> externalResource
+        externalResource.put(_) >> { ReadableContent content ->
+            def name = new String(content.open().bytes)
+            if (name.endsWith('.jar')) {
+                Thread.sleep(100)
+            }
+            uploaded << name
+            null
+        }
+        def uploads = new ParallelUploadQueue("test", new DefaultExecutorFactory(), 2)
+        RepositoryTransportWagonAdapter delegate = new RepositoryTransportWagonAdapter(repositoryTransport, S3_URI, uploads)
+
+        when:
+        ['a.jar', 'a.jar.sha1', 'b.jar', 'b.jar.sha1', 'a.pom', 'a.pom.sha1', 'maven-metadata.xml'].each {
+            delegate.putRemoteFile(new ByteArrayReadableContent(it.bytes), it)
+        }
+
+        then:
+        uploaded.size() == 7
+        uploaded.indexOf('a.jar') < uploaded.indexOf('a.jar.sha1')
+        uploaded.indexOf('b.jar') < uploaded.indexOf('b.jar.sha1')
+        uploaded.subList(4, 7) == ['a.pom', 'a.pom.sha1', 'maven-metadata.xml']
+
+        cleanup:
+        uploads.stop()
+    }
+
+    def "does not write checksums or metadata files when a queued upload fails"() {
+        given:
+        def failure = new ResourceException("broken")
+        def uploaded = new CopyOnWriteArrayList<String>()
+        RepositoryTransport repositoryTransport = Mock()
+        ExternalResourceRepository externalResourceRepo = Mock()
+        ExternalResource externalResource = Mock()
+        repositoryTransport.getRepository() >> externalResourceRepo
+        externalResourceRepo.withProgressLogging() >> externalResourceRepo
+        externalResourceRepo.resource(_) >> externalResource
+        externalResource.put(_) >> { ReadableContent content ->
+            def name = new String(content.open().bytes)
+            if (name == 'a.jar') {
+                throw failure
+            }
+            uploaded << name
+            null
+        }
+        def uploads = new ParallelUploadQueue("test", new DefaultExecutorFactory(), 1)
+        RepositoryTransportWagonAdapter delegate = new RepositoryTransportWagonAdapter(repositoryTransport, S3_URI, uploads)
+
+        when:
+        ['a.jar', 'a.jar.sha1'].each {
+            delegate.putRemoteFile(new ByteArrayReadableContent(it.bytes), it)
+        }
+        delegate.putRemoteFile(new ByteArrayReadableContent('a.pom'.bytes), 'a.pom')
+
+        then:
+        def e = thrown(ResourceException)
+        e.is(failure)
+        uploaded.empty
+
+        cleanup:
+        uploads.stop()
+    }
 }
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.remote.internal.hub;
+
+import org.gradle.api.Action;
+import org.gradle.internal.concurrent.CompositeStoppable;
+import org.gradle.internal.concurrent.DefaultExecutorFactory;
+import org.gradle.internal.id.UUIDGenerator;
+import org.gradle.internal.remote.ConnectionAcceptor;
+import org.gradle.internal.remote.ObjectConnection;
+import org.gradle.internal.remote.internal.IncomingConnector;
+import org.gradle.internal.remote.internal.OutgoingConnector;
+import org.gradle.internal.remote.internal.inet.InetAddressFactory;
+import org.gradle.internal.remote.internal.inet.TcpIncomingConnector;
+import org.gradle.internal.remote.internal.inet.TcpOutgoingConnector;
+import org.gradle.internal.remote.internal.unix.UnixDomainSockets;
+import org.gradle.internal.remote.internal.unix.UnixSocketIncomingConnector;
+import org.gradle.internal.remote.internal.unix.UnixSocketOutgoingConnector;
+import org.gradle.internal.serialize.BaseSerializerFactory;
+import org.gradle.internal.serialize.DefaultSerializerRegistry;
+import org.gradle.internal.serialize.SerializerRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Measures the rate at which messages can be sent from a client to a server through a pair of message hubs, over loopback TCP and over a Unix domain socket.
+ * The messages are shaped like the test and logging events that a worker process streams to the build process. Also measures round trips, where
+ * each message is answered by the server before the next one is sent.
+ *
+ * <p>Run with {@code -prof gc} to see the allocation per message. The {@code unix} transport requires Linux and Java 16 or later.</p>
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class MessageHubThroughputBenchmark {
+    private static final int MESSAGE_COUNT = 10000;
+
+    @Param({"tcp", "unix"})
+    String transport;
+
+    @Param({"128", "8192"})
+    int payloadSize;
+
+    private DefaultExecutorFactory executorFactory;
+    private ConnectionAcceptor acceptor;
+    private ObjectConnection serverConnection;
+    private ObjectConnection clientConnection;
+    private CountingSink receiver;
+    private CountingSink replyReceiver;
+    private Sink sender;
+    private Requests requests;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        executorFactory = new DefaultExecutorFactory();
+        UUIDGenerator idGenerator = new UUIDGenerator();
+        IncomingConnector incomingConnector = new TcpIncomingConnector(executorFactory, new InetAddressFactory(), idGenerator);
+        OutgoingConnector outgoingConnector = new TcpOutgoingConnector();
+        if (transport.equals("unix")) {
+            if (!UnixDomainSockets.isSupported()) {
+                throw new IllegalStateException("Unix domain sockets are not available in this JVM.");
+            }
+            incomingConnector = new UnixSocketIncomingConnector(executorFactory, incomingConnector, idGenerator, new File(System.getProperty("java.io.tmpdir")));
+            outgoingConnector = new UnixSocketOutgoingConnector(outgoingConnector);
+        }
+
+        receiver = new CountingSink();
+        replyReceiver = new CountingSink();
+        acceptor = new MessageHubBackedServer(incomingConnector, executorFactory).accept(new Action<ObjectConnection>() {
+            @Override
+            public void execute(ObjectConnection connection) {
+                connection.useParameterSerializers(parameterSerializers());
+                connection.addIncoming(Sink.class, receiver);
+                final Sink replies = connection.addOutgoing(Sink.class);
+                connection.addIncoming(Requests.class, new Requests() {
+                    @Override
+                    public void request(byte[] payload) {
+                        replies.receive(payload);
+                    }
+                });
+                connection.connect();
+                serverConnection = connection;
+            }
+        });
+        clientConnection = new MessageHubBackedClient(outgoingConnector, executorFactory).getConnection(acceptor.getAddress());
+        clientConnection.useParameterSerializers(parameterSerializers());
+        sender = clientConnection.addOutgoing(Sink.class);
+        requests = clientConnection.addOutgoing(Requests.class);
+        clientConnection.addIncoming(Sink.class, replyReceiver);
+        clientConnection.connect();
+
+        payload = new byte[payloadSize];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) i;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        CompositeStoppable.stoppable(clientConnection, serverConnection, acceptor, executorFactory).stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGE_COUNT)
+    public void sendMessages() throws InterruptedException {
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            sender.receive(payload);
+        }
+        receiver.awaitMessages(MESSAGE_COUNT);
+    }
+
+    @Benchmark
+    public void roundTrip() throws InterruptedException {
+        requests.request(payload);
+        replyReceiver.awaitMessages(1);
+    }
+
+    private static SerializerRegistry parameterSerializers() {
+        SerializerRegistry registry = new DefaultSerializerRegistry();
+        registry.register(byte[].class, BaseSerializerFactory.BYTE_ARRAY_SERIALIZER);
+        return registry;
+    }
+
+    public interface Sink {
+        void receive(byte[] payload);
+    }
+
+    public interface Requests {
+        void request(byte[] payload);
+    }
+
+    private static class CountingSink implements Sink {
+        private final Semaphore received = new Semaphore(0);
+
+        @Override
+        public void receive(byte[] payload) {
+            received.release();
+        }
+
+        void awaitMessages(int count) throws InterruptedException {
+            received.acquire(count);
+        }
+    }
+}
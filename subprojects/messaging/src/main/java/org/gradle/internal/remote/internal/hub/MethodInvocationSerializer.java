@@ -45,11 +45,13 @@ public class MethodInvocationSerializer implements StatefulSerializer<MethodInvo
         final int methodId;
         final Method method;
         final Serializer<Object[]> argsSerializer;
+        final int parameterCount;
 
         MethodDetails(int methodId, Method method, Serializer<Object[]> argsSerializer) {
             this.methodId = methodId;
             this.method = method;
             this.argsSerializer = argsSerializer;
+            this.parameterCount = method.getParameterTypes().length;
         }
     }
 
@@ -64,7 +66,10 @@ public class MethodInvocationSerializer implements StatefulSerializer<MethodInvo
         }
 
         public void write(MethodInvocation value) throws Exception {
-            if (value.getArguments().length != value.getMethod().getParameterTypes().length) {
+            // Method.getParameterTypes() copies the parameter types on every call, so use the count from the details of a method that has already been written
+            MethodDetails existing = methods.get(value.getMethod());
+            int parameterCount = existing != null ? existing.parameterCount : value.getMethod().getParameterTypes().length;
+            if (value.getArguments().length != parameterCount) {
                 throw new IllegalArgumentException(String.format("Mismatched number of parameters to method %s.", value.getMethod()));
             }
             MethodDetails methodDetails = writeMethod(value.getMethod());
@@ -51,7 +51,24 @@ public class EndPointQueue implements Dispatch<InterHubMessage> {
                 }
             }
         }
-        drainTo.addAll(queue);
+        transferTo(drainTo);
+    }
+
+    /**
+     * Takes any messages that are available to this endpoint, without blocking. When there are none, the endpoint is considered to be waiting for messages.
+     */
+    public void poll(Collection<InterHubMessage> drainTo) {
+        if (queue.isEmpty()) {
+            owner.empty(this);
+        }
+        transferTo(drainTo);
+    }
+
+    private void transferTo(Collection<InterHubMessage> drainTo) {
+        // Add the messages one at a time, as addAll() copies the queue to an array
+        for (int i = 0; i < queue.size(); i++) {
+            drainTo.add(queue.get(i));
+        }
         queue.clear();
     }
 
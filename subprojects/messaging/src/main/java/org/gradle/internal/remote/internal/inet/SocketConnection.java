@@ -20,6 +20,10 @@ import com.google.common.base.Objects;
 import org.gradle.internal.UncheckedException;
 import org.gradle.internal.concurrent.CompositeStoppable;
 import org.gradle.internal.io.BufferCaster;
+import org.gradle.internal.metrics.Counter;
+import org.gradle.internal.metrics.Histogram;
+import org.gradle.internal.metrics.Metrics;
+import org.gradle.internal.remote.Address;
 import org.gradle.internal.remote.internal.RecoverableMessageIOException;
 import org.gradle.internal.serialize.FlushableEncoder;
 import org.gradle.internal.serialize.ObjectReader;
@@ -41,9 +45,12 @@ import java.nio.channels.SocketChannel;
 
 public class SocketConnection<T> implements RemoteConnection<T> {
     private static final Logger LOGGER = LoggerFactory.getLogger(SocketConnection.class);
+    private static final Counter BYTES_READ = Metrics.counter("messaging.bytes.read");
+    private static final Counter BYTES_WRITTEN = Metrics.counter("messaging.bytes.written");
+    private static final Histogram WRITE_BLOCKED_TIME = Metrics.histogram("messaging.write.blocked.nanos");
     private final SocketChannel socket;
-    private final SocketInetAddress localAddress;
-    private final SocketInetAddress remoteAddress;
+    private final Address localAddress;
+    private final Address remoteAddress;
     private final ObjectWriter<T> objectWriter;
     private final ObjectReader<T> objectReader;
     private final InputStream instr;
@@ -51,7 +58,16 @@ public class SocketConnection<T> implements RemoteConnection<T> {
     private final FlushableEncoder encoder;
 
     public SocketConnection(SocketChannel socket, MessageSerializer streamSerializer, StatefulSerializer<T> messageSerializer) {
+        this(socket, localAddressOf(socket), remoteAddressOf(socket), streamSerializer, messageSerializer);
+    }
+
+    /**
+     * Creates a connection over a channel that is not necessarily an internet socket, such as a Unix domain socket, using the given endpoints in diagnostics.
+     */
+    public SocketConnection(SocketChannel socket, Address localAddress, Address remoteAddress, MessageSerializer streamSerializer, StatefulSerializer<T> messageSerializer) {
         this.socket = socket;
+        this.localAddress = localAddress;
+        this.remoteAddress = remoteAddress;
         try {
             // NOTE: we use non-blocking IO as there is no reliable way when using blocking IO to shutdown reads while
             // keeping writes active. For example, Socket.shutdownInput() does not work on Windows.
@@ -61,15 +77,21 @@ public class SocketConnection<T> implements RemoteConnection<T> {
         } catch (IOException e) {
             throw UncheckedException.throwAsUncheckedException(e);
         }
-        InetSocketAddress localSocketAddress = (InetSocketAddress) socket.socket().getLocalSocketAddress();
-        localAddress = new SocketInetAddress(localSocketAddress.getAddress(), localSocketAddress.getPort());
-        InetSocketAddress remoteSocketAddress = (InetSocketAddress) socket.socket().getRemoteSocketAddress();
-        remoteAddress = new SocketInetAddress(remoteSocketAddress.getAddress(), remoteSocketAddress.getPort());
         objectReader = messageSerializer.newReader(streamSerializer.newDecoder(instr));
         encoder = streamSerializer.newEncoder(outstr);
         objectWriter = messageSerializer.newWriter(encoder);
     }
 
+    private static SocketInetAddress localAddressOf(SocketChannel socket) {
+        InetSocketAddress localSocketAddress = (InetSocketAddress) socket.socket().getLocalSocketAddress();
+        return new SocketInetAddress(localSocketAddress.getAddress(), localSocketAddress.getPort());
+    }
+
+    private static SocketInetAddress remoteAddressOf(SocketChannel socket) {
+        InetSocketAddress remoteSocketAddress = (InetSocketAddress) socket.socket().getRemoteSocketAddress();
+        return new SocketInetAddress(remoteSocketAddress.getAddress(), remoteSocketAddress.getPort());
+    }
+
     @Override
     public String toString() {
         return "socket connection from " + localAddress + " to " + remoteAddress;
@@ -155,7 +177,7 @@ public class SocketConnection<T> implements RemoteConnection<T> {
             this.socket = socket;
             selector = Selector.open();
             socket.register(selector, SelectionKey.OP_READ);
-            buffer = ByteBuffer.allocateDirect(4096);
+            buffer = ByteBuffer.allocateDirect(32 * 1024);
             BufferCaster.cast(buffer).limit(0);
         }
 
@@ -175,37 +197,51 @@ public class SocketConnection<T> implements RemoteConnection<T> {
             }
 
             if (buffer.remaining() == 0) {
+                if (fillBuffer() < 0) {
+                    return -1;
+                }
+            }
+
+            int count = Math.min(buffer.remaining(), max);
+            buffer.get(dest, offset, count);
+            return count;
+        }
+
+        private int fillBuffer() throws IOException {
+            // Read whatever is already available before waiting on the selector, which saves a system call per read when the peer is busy
+            BufferCaster.cast(buffer).clear();
+            int nread = readFromChannel();
+            while (nread == 0) {
                 try {
                     selector.select();
                 } catch (ClosedSelectorException e) {
-                    return -1;
+                    nread = -1;
+                    break;
                 }
                 if (!selector.isOpen()) {
-                    return -1;
+                    nread = -1;
+                    break;
                 }
+                nread = readFromChannel();
+            }
+            if (nread > 0) {
+                BYTES_READ.add(nread);
+            }
+            BufferCaster.cast(buffer).flip();
+            return nread;
+        }
 
-                BufferCaster.cast(buffer).clear();
-                int nread;
-                try {
-                    nread = socket.read(buffer);
-                } catch (IOException e) {
-                    if (isEndOfStream(e)) {
-                        BufferCaster.cast(buffer).position(0);
-                        BufferCaster.cast(buffer).limit(0);
-                        return -1;
-                    }
-                    throw e;
-                }
-                BufferCaster.cast(buffer).flip();
-
-                if (nread < 0) {
+        private int readFromChannel() throws IOException {
+            try {
+                return socket.read(buffer);
+            } catch (IOException e) {
+                // The selector is closed first when this stream is closed, so a failure after that is also treated as the end of the stream
+                if (isEndOfStream(e) || !selector.isOpen()) {
+                    BufferCaster.cast(buffer).position(0);
                     return -1;
                 }
+                throw e;
             }
-
-            int count = Math.min(buffer.remaining(), max);
-            buffer.get(dest, offset, count);
-            return count;
         }
 
         @Override
@@ -261,7 +297,15 @@ public class SocketConnection<T> implements RemoteConnection<T> {
             int count = writeWithNonBlockingRetry();
             if (count == 0) {
                 // buffer was still full after non-blocking retries, now block
-                waitForWriteBufferToDrain();
+                if (Metrics.isEnabled()) {
+                    long start = System.nanoTime();
+                    waitForWriteBufferToDrain();
+                    WRITE_BLOCKED_TIME.record(System.nanoTime() - start);
+                } else {
+                    waitForWriteBufferToDrain();
+                }
+            } else {
+                BYTES_WRITTEN.add(count);
             }
             buffer.compact();
         }
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.remote.internal.unix;
+
+import org.gradle.internal.remote.Address;
+import org.gradle.internal.remote.internal.inet.MultiChoiceAddress;
+import org.gradle.internal.remote.internal.inet.MultiChoiceAddressSerializer;
+import org.gradle.internal.serialize.Decoder;
+import org.gradle.internal.serialize.Encoder;
+import org.gradle.internal.serialize.Serializer;
+
+import java.io.IOException;
+
+/**
+ * Serializes the address of a server accepting local connections, which is either a {@link MultiChoiceAddress} or a {@link UnixSocketAddress}.
+ */
+public class LocalServerAddressSerializer implements Serializer<Address> {
+    private static final byte MULTI_CHOICE = 0;
+    private static final byte UNIX_SOCKET = 1;
+    private final MultiChoiceAddressSerializer multiChoiceAddressSerializer = new MultiChoiceAddressSerializer();
+
+    @Override
+    public Address read(Decoder decoder) throws IOException {
+        byte tag = decoder.readByte();
+        switch (tag) {
+            case MULTI_CHOICE:
+                return multiChoiceAddressSerializer.read(decoder);
+            case UNIX_SOCKET:
+                String path = decoder.readString();
+                return new UnixSocketAddress(path, multiChoiceAddressSerializer.read(decoder));
+            default:
+                throw new IllegalArgumentException("Unexpected address type tag: " + tag);
+        }
+    }
+
+    @Override
+    public void write(Encoder encoder, Address address) throws IOException {
+        if (address instanceof UnixSocketAddress) {
+            UnixSocketAddress unixSocketAddress = (UnixSocketAddress) address;
+            encoder.writeByte(UNIX_SOCKET);
+            encoder.writeString(unixSocketAddress.getPath());
+            multiChoiceAddressSerializer.write(encoder, unixSocketAddress.getFallback());
+        } else if (address instanceof MultiChoiceAddress) {
+            encoder.writeByte(MULTI_CHOICE);
+            multiChoiceAddressSerializer.write(encoder, (MultiChoiceAddress) address);
+        } else {
+            throw new IllegalArgumentException("Cannot serialize address of unknown type: " + address);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.remote.internal.unix;
+
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.os.OperatingSystem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.SocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Access to Unix domain socket channels, which are available from Java 16. The channels are located reflectively, as this code also runs on older JVMs.
+ *
+ * <p>Unix domain sockets are only supported on Linux. A process only listens on a Unix domain socket when the {@value #ENABLED_PROPERTY} system property is set to {@code true}.
+ * A process that supports Unix domain sockets always uses them to connect to an address that offers one.</p>
+ */
+public class UnixDomainSockets {
+    public static final String ENABLED_PROPERTY = "org.gradle.internal.remote.unix-domain-sockets";
+
+    /**
+     * The maximum length of a socket path, leaving some room below the limit of the {@code sun_path} field of {@code sockaddr_un}.
+     */
+    static final int MAX_PATH_LENGTH = 100;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UnixDomainSockets.class);
+    private static final UnixDomainSockets INSTANCE = locate();
+
+    private final Object unixProtocolFamily;
+    private final Method openServerSocketChannel;
+    private final Method openSocketChannel;
+    private final Method bind;
+    private final Method addressOf;
+
+    private UnixDomainSockets(Object unixProtocolFamily, Method openServerSocketChannel, Method openSocketChannel, Method bind, Method addressOf) {
+        this.unixProtocolFamily = unixProtocolFamily;
+        this.openServerSocketChannel = openServerSocketChannel;
+        this.openSocketChannel = openSocketChannel;
+        this.bind = bind;
+        this.addressOf = addressOf;
+    }
+
+    private static UnixDomainSockets locate() {
+        if (!OperatingSystem.current().isLinux()) {
+            return null;
+        }
+        try {
+            Class<?> protocolFamilyType = Class.forName("java.net.ProtocolFamily");
+            Object unixProtocolFamily = null;
+            for (Object protocolFamily : Class.forName("java.net.StandardProtocolFamily").getEnumConstants()) {
+                if (protocolFamily.toString().equals("UNIX")) {
+                    unixProtocolFamily = protocolFamily;
+                }
+            }
+            if (unixProtocolFamily == null) {
+                return null;
+            }
+            Method openServerSocketChannel = ServerSocketChannel.class.getMethod("open", protocolFamilyType);
+            Method openSocketChannel = SocketChannel.class.getMethod("open", protocolFamilyType);
+            Method bind = ServerSocketChannel.class.getMethod("bind", SocketAddress.class);
+            Method addressOf = Class.forName("java.net.UnixDomainSocketAddress").getMethod("of", String.class);
+            return new UnixDomainSockets(unixProtocolFamily, openServerSocketChannel, openSocketChannel, bind, addressOf);
+        } catch (Exception e) {
+            LOGGER.debug("Unix domain sockets are not available in this JVM.", e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns true when Unix domain sockets can be used by this process.
+     */
+    public static boolean isSupported() {
+        return INSTANCE != null;
+    }
+
+    /**
+     * Returns true when this process should accept local connections over Unix domain sockets.
+     */
+    public static boolean isEnabled() {
+        return isSupported() && Boolean.getBoolean(ENABLED_PROPERTY);
+    }
+
+    static ServerSocketChannel bind(String path) throws IOException {
+        ServerSocketChannel serverSocket = (ServerSocketChannel) INSTANCE.invoke(INSTANCE.openServerSocketChannel, null, INSTANCE.unixProtocolFamily);
+        try {
+            INSTANCE.invoke(INSTANCE.bind, serverSocket, INSTANCE.invoke(INSTANCE.addressOf, null, path));
+        } catch (IOException e) {
+            serverSocket.close();
+            throw e;
+        }
+        return serverSocket;
+    }
+
+    static SocketChannel connect(String path) throws IOException {
+        SocketChannel socket = (SocketChannel) INSTANCE.invoke(INSTANCE.openSocketChannel, null, INSTANCE.unixProtocolFamily);
+        try {
+            socket.connect((SocketAddress) INSTANCE.invoke(INSTANCE.addressOf, null, path));
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+        return socket;
+    }
+
+    private Object invoke(Method method, Object target, Object argument) throws IOException {
+        try {
+            return method.invoke(target, argument);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw UncheckedException.unwrapAndRethrow(e);
+        } catch (IllegalAccessException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.remote.internal.unix;
+
+import org.gradle.internal.remote.Address;
+import org.gradle.internal.remote.internal.inet.MultiChoiceAddress;
+
+/**
+ * The address of a server listening on a Unix domain socket. The server also listens on a TCP port, for clients that cannot use Unix domain sockets.
+ */
+public class UnixSocketAddress implements Address {
+    private final String path;
+    private final MultiChoiceAddress fallback;
+
+    public UnixSocketAddress(String path, MultiChoiceAddress fallback) {
+        this.path = path;
+        this.fallback = fallback;
+    }
+
+    public String getDisplayName() {
+        return "[unix:" + path + ", fallback:" + fallback + "]";
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public MultiChoiceAddress getFallback() {
+        return fallback;
+    }
+
+    @Override
+    public String toString() {
+        return getDisplayName();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        UnixSocketAddress other = (UnixSocketAddress) o;
+        return other.path.equals(path) && other.fallback.equals(fallback);
+    }
+
+    @Override
+    public int hashCode() {
+        return path.hashCode();
+    }
+}
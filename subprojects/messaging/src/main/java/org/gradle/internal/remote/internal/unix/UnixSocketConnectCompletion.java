@@ -0,0 +1,45 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.remote.internal.unix;
+
+import org.gradle.internal.remote.internal.ConnectCompletion;
+import org.gradle.internal.remote.internal.KryoBackedMessageSerializer;
+import org.gradle.internal.remote.internal.RemoteConnection;
+import org.gradle.internal.remote.internal.inet.SocketConnection;
+import org.gradle.internal.serialize.StatefulSerializer;
+
+import java.nio.channels.SocketChannel;
+
+class UnixSocketConnectCompletion implements ConnectCompletion {
+    private final SocketChannel socket;
+    private final UnixSocketAddress address;
+
+    public UnixSocketConnectCompletion(SocketChannel socket, UnixSocketAddress address) {
+        this.socket = socket;
+        this.address = address;
+    }
+
+    @Override
+    public String toString() {
+        return "unix:" + address.getPath();
+    }
+
+    public <T> RemoteConnection<T> create(StatefulSerializer<T> serializer) {
+        // Both ends of the connection are identified by the socket path, as the client end is unnamed
+        return new SocketConnection<T>(socket, address, address, new KryoBackedMessageSerializer(), serializer);
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.remote.internal.unix;
+
+import org.gradle.api.Action;
+import org.gradle.internal.concurrent.CompositeStoppable;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.ManagedExecutor;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.id.IdGenerator;
+import org.gradle.internal.remote.Address;
+import org.gradle.internal.remote.ConnectionAcceptor;
+import org.gradle.internal.remote.internal.ConnectCompletion;
+import org.gradle.internal.remote.internal.IncomingConnector;
+import org.gradle.internal.remote.internal.inet.MultiChoiceAddress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Accepts local connections over a Unix domain socket, which avoids the loopback TCP stack. Connections are also accepted using the given TCP connector,
+ * so that clients that cannot use Unix domain sockets can still connect. Remote connections and platforms without Unix domain sockets use TCP only.
+ *
+ * <p>The socket files are created in the given directory, and are named after the process that listens on them. Socket files left behind by processes
+ * that are no longer running are deleted when the first socket is created. Stopping the connector stops any Unix domain socket acceptors that are still open.</p>
+ */
+public class UnixSocketIncomingConnector implements IncomingConnector, Stoppable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(UnixSocketIncomingConnector.class);
+    private static final Pattern SOCKET_FILE_NAME = Pattern.compile("gradle-(\\d+)-.+\\.sock");
+    private final ExecutorFactory executorFactory;
+    private final IncomingConnector tcpConnector;
+    private final IdGenerator<UUID> idGenerator;
+    private final File socketDir;
+    private final String socketFilePrefix;
+    private final Set<ConnectionAcceptor> acceptors = new HashSet<ConnectionAcceptor>();
+    private boolean socketDirPrepared;
+
+    public UnixSocketIncomingConnector(ExecutorFactory executorFactory, IncomingConnector tcpConnector, IdGenerator<UUID> idGenerator, File socketDir) {
+        this.executorFactory = executorFactory;
+        this.tcpConnector = tcpConnector;
+        this.idGenerator = idGenerator;
+        this.socketDir = socketDir;
+        String processId = currentProcessId();
+        this.socketFilePrefix = processId == null ? "gradle-" : "gradle-" + processId + "-";
+    }
+
+    public ConnectionAcceptor accept(Action<ConnectCompletion> action, boolean allowRemote) {
+        final ConnectionAcceptor tcpAcceptor = tcpConnector.accept(action, allowRemote);
+        if (allowRemote || !UnixDomainSockets.isSupported() || !(tcpAcceptor.getAddress() instanceof MultiChoiceAddress)) {
+            return tcpAcceptor;
+        }
+
+        final File socketFile = new File(socketDir, socketFilePrefix + idGenerator.generateId() + ".sock");
+        if (socketFile.getAbsolutePath().length() > UnixDomainSockets.MAX_PATH_LENGTH) {
+            LOGGER.debug("Socket path {} is too long, accepting TCP connections only.", socketFile);
+            return tcpAcceptor;
+        }
+        if (!prepareSocketDir()) {
+            LOGGER.debug("Could not create socket directory {}, accepting TCP connections only.", socketDir);
+            return tcpAcceptor;
+        }
+        final ServerSocketChannel serverSocket;
+        try {
+            serverSocket = UnixDomainSockets.bind(socketFile.getAbsolutePath());
+        } catch (IOException e) {
+            LOGGER.debug("Could not listen on Unix domain socket {}, accepting TCP connections only.", socketFile, e);
+            return tcpAcceptor;
+        }
+
+        final UnixSocketAddress address = new UnixSocketAddress(socketFile.getAbsolutePath(), (MultiChoiceAddress) tcpAcceptor.getAddress());
+        LOGGER.debug("Listening on {}.", address);
+
+        final ManagedExecutor executor = executorFactory.create("Incoming local Unix socket Connector on " + socketFile.getName());
+        executor.execute(new Receiver(serverSocket, socketFile, address, action));
+
+        ConnectionAcceptor acceptor = new ConnectionAcceptor() {
+            public Address getAddress() {
+                return address;
+            }
+
+            public void requestStop() {
+                close(serverSocket, socketFile);
+                tcpAcceptor.requestStop();
+            }
+
+            public void stop() {
+                requestStop();
+                executor.stop();
+                tcpAcceptor.stop();
+                synchronized (acceptors) {
+                    acceptors.remove(this);
+                }
+            }
+        };
+        synchronized (acceptors) {
+            acceptors.add(acceptor);
+        }
+        return acceptor;
+    }
+
+    public void stop() {
+        List<ConnectionAcceptor> openAcceptors;
+        synchronized (acceptors) {
+            openAcceptors = new ArrayList<ConnectionAcceptor>(acceptors);
+        }
+        CompositeStoppable.stoppable(openAcceptors).stop();
+    }
+
+    private synchronized boolean prepareSocketDir() {
+        if (!socketDirPrepared) {
+            socketDirPrepared = true;
+            if (socketDir.mkdirs() || socketDir.isDirectory()) {
+                deleteStaleSocketFiles();
+            }
+        }
+        return socketDir.isDirectory();
+    }
+
+    /**
+     * Deletes the socket files of processes that are no longer running, for example because they were killed.
+     */
+    private void deleteStaleSocketFiles() {
+        File[] files = socketDir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            Matcher matcher = SOCKET_FILE_NAME.matcher(file.getName());
+            if (matcher.matches() && !new File("/proc", matcher.group(1)).exists()) {
+                LOGGER.debug("Deleting stale socket file {}.", file);
+                file.delete();
+            }
+        }
+    }
+
+    @Nullable
+    private static String currentProcessId() {
+        try {
+            // Unix domain sockets are only used on Linux
+            return new File("/proc/self").getCanonicalFile().getName();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void close(ServerSocketChannel serverSocket, File socketFile) {
+        CompositeStoppable.stoppable(serverSocket).stop();
+        // Connections that have already been accepted are not affected by removing the socket file
+        socketFile.delete();
+    }
+
+    private static class Receiver implements Runnable {
+        private final ServerSocketChannel serverSocket;
+        private final File socketFile;
+        private final UnixSocketAddress address;
+        private final Action<ConnectCompletion> action;
+
+        public Receiver(ServerSocketChannel serverSocket, File socketFile, UnixSocketAddress address, Action<ConnectCompletion> action) {
+            this.serverSocket = serverSocket;
+            this.socketFile = socketFile;
+            this.address = address;
+            this.action = action;
+        }
+
+        public void run() {
+            try {
+                try {
+                    while (true) {
+                        final SocketChannel socket = serverSocket.accept();
+                        LOGGER.debug("Accepted connection on {}.", address);
+                        try {
+                            action.execute(new UnixSocketConnectCompletion(socket, address));
+                        } catch (Throwable t) {
+                            socket.close();
+                            throw t;
+                        }
+                    }
+                } catch (ClosedChannelException e) {
+                    // Ignore
+                } catch (Throwable e) {
+                    LOGGER.error("Could not accept local connection.", e);
+                }
+            } finally {
+                close(serverSocket, socketFile);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.remote.internal.unix;
+
+import org.gradle.internal.remote.Address;
+import org.gradle.internal.remote.internal.ConnectCompletion;
+import org.gradle.internal.remote.internal.ConnectException;
+import org.gradle.internal.remote.internal.OutgoingConnector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Connects to a {@link UnixSocketAddress} over the Unix domain socket when possible, and otherwise using the given TCP connector.
+ */
+public class UnixSocketOutgoingConnector implements OutgoingConnector {
+    private static final Logger LOGGER = LoggerFactory.getLogger(UnixSocketOutgoingConnector.class);
+    private final OutgoingConnector tcpConnector;
+
+    public UnixSocketOutgoingConnector(OutgoingConnector tcpConnector) {
+        this.tcpConnector = tcpConnector;
+    }
+
+    public ConnectCompletion connect(Address destinationAddress) throws ConnectException {
+        if (!(destinationAddress instanceof UnixSocketAddress)) {
+            return tcpConnector.connect(destinationAddress);
+        }
+        UnixSocketAddress address = (UnixSocketAddress) destinationAddress;
+        if (UnixDomainSockets.isSupported()) {
+            LOGGER.debug("Attempting to connect to {}.", address);
+            try {
+                SocketChannel socket = UnixDomainSockets.connect(address.getPath());
+                LOGGER.debug("Connected to unix:{}.", address.getPath());
+                return new UnixSocketConnectCompletion(socket, address);
+            } catch (IOException e) {
+                LOGGER.debug("Cannot connect to unix:{}, falling back to TCP.", address.getPath(), e);
+            }
+        }
+        return tcpConnector.connect(address.getFallback());
+    }
+}
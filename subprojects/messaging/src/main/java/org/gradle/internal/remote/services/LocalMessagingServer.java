@@ -0,0 +1,50 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.remote.services;
+
+import org.gradle.api.Action;
+import org.gradle.internal.concurrent.CompositeStoppable;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.remote.ConnectionAcceptor;
+import org.gradle.internal.remote.MessagingServer;
+import org.gradle.internal.remote.ObjectConnection;
+
+import javax.annotation.Nullable;
+
+/**
+ * A {@link MessagingServer} for connections from local processes, created by {@link MessagingServices#newLocalMessagingServer(java.io.File)}.
+ * The owner of the server should stop it, which stops any Unix domain sockets the server still listens on.
+ */
+public class LocalMessagingServer implements MessagingServer, Stoppable {
+    private final MessagingServer server;
+    private final Stoppable resources;
+
+    LocalMessagingServer(MessagingServer server, @Nullable Stoppable resources) {
+        this.server = server;
+        this.resources = resources;
+    }
+
+    @Override
+    public ConnectionAcceptor accept(Action<ObjectConnection> action) {
+        return server.accept(action);
+    }
+
+    @Override
+    public void stop() {
+        CompositeStoppable.stoppable(resources).stop();
+    }
+}
@@ -31,7 +31,11 @@ import org.gradle.internal.remote.internal.hub.MessageHubBackedServer;
 import org.gradle.internal.remote.internal.inet.InetAddressFactory;
 import org.gradle.internal.remote.internal.inet.TcpIncomingConnector;
 import org.gradle.internal.remote.internal.inet.TcpOutgoingConnector;
+import org.gradle.internal.remote.internal.unix.UnixDomainSockets;
+import org.gradle.internal.remote.internal.unix.UnixSocketIncomingConnector;
+import org.gradle.internal.remote.internal.unix.UnixSocketOutgoingConnector;
 
+import java.io.File;
 import java.util.UUID;
 
 /**
@@ -61,7 +65,7 @@ public class MessagingServices extends DefaultServiceRegistry implements Stoppab
     }
 
     protected OutgoingConnector createOutgoingConnector() {
-        return new TcpOutgoingConnector();
+        return new UnixSocketOutgoingConnector(new TcpOutgoingConnector());
     }
 
     protected IncomingConnector createIncomingConnector(ExecutorFactory executorFactory, InetAddressFactory inetAddressFactory) {
@@ -83,4 +87,23 @@ public class MessagingServices extends DefaultServiceRegistry implements Stoppab
                 incomingConnector,
                 executorFactory);
     }
+
+    /**
+     * Creates a server for connections from local processes, which the caller is responsible for stopping. When Unix domain sockets are enabled, the server also
+     * accepts connections over a Unix domain socket in the given directory, which should be owned by the current user. Otherwise, connections are accepted by the
+     * {@link MessagingServer} service.
+     */
+    public LocalMessagingServer newLocalMessagingServer(File socketDir) {
+        if (!UnixDomainSockets.isEnabled()) {
+            return new LocalMessagingServer(get(MessagingServer.class), null);
+        }
+        ExecutorFactory executorFactory = get(ExecutorFactory.class);
+        UnixSocketIncomingConnector connector = new UnixSocketIncomingConnector(
+                executorFactory,
+                get(IncomingConnector.class),
+                idGenerator,
+                socketDir
+        );
+        return new LocalMessagingServer(new MessageHubBackedServer(connector, executorFactory), connector);
+    }
 }
@@ -97,6 +97,19 @@ class MethodInvocationSerializerTest extends Specification {
         result[2].arguments == [4, 5] as Object[]
     }
 
+    def "fails when the number of arguments does not match a method that has already been seen"() {
+        def method = String.class.getMethod("substring", Integer.TYPE, Integer.TYPE)
+        def writer = serializer.newWriter(new KryoBackedEncoder(new ByteArrayOutputStream()))
+        writer.write(new MethodInvocation(method, [1, 2] as Object[]))
+
+        when:
+        writer.write(new MethodInvocation(method, [1] as Object[]))
+
+        then:
+        def e = thrown(IllegalArgumentException)
+        e.message == "Mismatched number of parameters to method ${method}."
+    }
+
     def "uses provided ClassLoader to locate incoming method invocation"() {
         Class cl = classLoader.parseClass('package org.gradle.test; class TestObj { void doStuff() { } }')
         def method = cl.getMethod("doStuff")
@@ -162,4 +162,65 @@ class MultiEndPointQueueTest extends AbstractQueueTest {
         messages.size() == 1
         messages[0] instanceof EndOfStream
     }
+
+    def "poll takes queued messages without waiting"() {
+        given:
+        def message1 = unicast()
+        def message2 = unicast()
+        def endpoint = queue.newEndpoint()
+
+        and:
+        queue.dispatch(message1)
+        queue.dispatch(message2)
+
+        when:
+        def messages = []
+        endpoint.poll(messages)
+
+        then:
+        messages == [message1, message2]
+    }
+
+    def "poll returns nothing when nothing queued and endpoint then receives messages"() {
+        given:
+        def message = unicast()
+        def endpoint = queue.newEndpoint()
+
+        when:
+        def messages = []
+        endpoint.poll(messages)
+
+        then:
+        messages.empty
+
+        when:
+        queue.dispatch(message)
+        endpoint.take(messages)
+
+        then:
+        messages == [message]
+    }
+
+    def "endpoint that polls and then takes is only waiting once"() {
+        given:
+        def message1 = unicast()
+        def message2 = unicast()
+        def endpoint1 = queue.newEndpoint()
+        def endpoint2 = queue.newEndpoint()
+
+        when:
+        endpoint1.poll([])
+        queue.empty(endpoint1)
+        queue.dispatch(message1)
+        queue.empty(endpoint2)
+        queue.dispatch(message2)
+        def messages1 = []
+        def messages2 = []
+        endpoint1.take(messages1)
+        endpoint2.take(messages2)
+
+        then:
+        messages1 == [message1]
+        messages2 == [message2]
+    }
 }
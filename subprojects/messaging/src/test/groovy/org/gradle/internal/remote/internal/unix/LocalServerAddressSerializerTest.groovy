@@ -0,0 +1,36 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.remote.internal.unix
+
+import org.gradle.internal.remote.internal.inet.MultiChoiceAddress
+import org.gradle.internal.serialize.SerializerSpec
+
+class LocalServerAddressSerializerTest extends SerializerSpec {
+    def address = new MultiChoiceAddress(UUID.randomUUID(), 1234, [InetAddress.getLocalHost(), InetAddress.getByName(null)])
+
+    def "serializes a multi choice address"() {
+        expect:
+        serialize(address, new LocalServerAddressSerializer()) == address
+    }
+
+    def "serializes a unix socket address"() {
+        def unixSocketAddress = new UnixSocketAddress("/tmp/gradle.sock", address)
+
+        expect:
+        serialize(unixSocketAddress, new LocalServerAddressSerializer()) == unixSocketAddress
+    }
+}
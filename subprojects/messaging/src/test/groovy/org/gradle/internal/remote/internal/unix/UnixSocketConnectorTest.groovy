@@ -0,0 +1,192 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.remote.internal.unix
+
+import org.gradle.api.Action
+import org.gradle.internal.id.UUIDGenerator
+import org.gradle.internal.remote.internal.inet.InetAddressFactory
+import org.gradle.internal.remote.internal.inet.MultiChoiceAddress
+import org.gradle.internal.remote.internal.inet.TcpIncomingConnector
+import org.gradle.internal.remote.internal.inet.TcpOutgoingConnector
+import org.gradle.internal.serialize.BaseSerializerFactory
+import org.gradle.internal.serialize.Serializers
+import org.gradle.test.fixtures.concurrent.ConcurrentSpec
+import spock.lang.Requires
+import spock.lang.Shared
+import spock.lang.Timeout
+
+@Timeout(60)
+@Requires({ UnixDomainSockets.supported })
+class UnixSocketConnectorTest extends ConcurrentSpec {
+    @Shared def serializer = Serializers.stateful(BaseSerializerFactory.STRING_SERIALIZER)
+    final def idGenerator = new UUIDGenerator()
+    final def tcpOutgoingConnector = new TcpOutgoingConnector()
+    final def outgoingConnector = new UnixSocketOutgoingConnector(tcpOutgoingConnector)
+    // Keep the socket paths short
+    final def socketDir = new File("/tmp", "gt-" + idGenerator.generateId().toString().substring(0, 8))
+    final def incomingConnector = new UnixSocketIncomingConnector(executorFactory, new TcpIncomingConnector(executorFactory, new InetAddressFactory(), idGenerator), idGenerator, socketDir)
+
+    def cleanup() {
+        socketDir.deleteDir()
+    }
+
+    def "client can send messages to server over unix domain socket"() {
+        def received = new LinkedList()
+        def action = { completion ->
+            def connection = completion.create(serializer)
+            received << connection.receive()
+            connection.stop()
+            instant.received
+        } as Action
+
+        when:
+        def acceptor = incomingConnector.accept(action, false)
+        def completion = outgoingConnector.connect(acceptor.address)
+        def connection = completion.create(serializer)
+        connection.dispatch("message")
+        connection.flush()
+        thread.blockUntil.received
+
+        then:
+        acceptor.address instanceof UnixSocketAddress
+        completion instanceof UnixSocketConnectCompletion
+        received == ["message"]
+
+        cleanup:
+        connection?.stop()
+        acceptor?.stop()
+    }
+
+    def "client can connect to fallback TCP address"() {
+        Action action = Mock()
+
+        when:
+        def acceptor = incomingConnector.accept(action, false)
+        def connection = tcpOutgoingConnector.connect(((UnixSocketAddress) acceptor.address).fallback).create(serializer)
+        thread.blockUntil.connected
+
+        then:
+        1 * action.execute(!null) >> { instant.connected }
+
+        cleanup:
+        connection?.stop()
+        acceptor?.stop()
+    }
+
+    def "uses TCP only when remote connections are allowed"() {
+        when:
+        def acceptor = incomingConnector.accept(Mock(Action), true)
+
+        then:
+        acceptor.address instanceof MultiChoiceAddress
+
+        cleanup:
+        acceptor?.stop()
+    }
+
+    def "uses TCP only when socket cannot be created"() {
+        def notADirectory = File.createTempFile("gradle-test", ".tmp", new File("/tmp"))
+        def connector = new UnixSocketIncomingConnector(executorFactory, new TcpIncomingConnector(executorFactory, new InetAddressFactory(), idGenerator), idGenerator, notADirectory)
+
+        when:
+        def acceptor = connector.accept(Mock(Action), false)
+
+        then:
+        acceptor.address instanceof MultiChoiceAddress
+
+        cleanup:
+        acceptor?.stop()
+        notADirectory.delete()
+    }
+
+    def "creates socket directory and deletes socket files of processes that are no longer running"() {
+        def ownPid = new File("/proc/self").canonicalFile.name
+        socketDir.mkdirs()
+        new File(socketDir, "gradle-999999999-stale.sock").createNewFile()
+        def live = new File(socketDir, "gradle-${ownPid}-live.sock")
+        live.createNewFile()
+        def other = new File(socketDir, "registry.bin")
+        other.createNewFile()
+
+        when:
+        def acceptor = incomingConnector.accept(Mock(Action), false)
+
+        then:
+        acceptor.address instanceof UnixSocketAddress
+        new File(((UnixSocketAddress) acceptor.address).path).name.startsWith("gradle-${ownPid}-")
+        !new File(socketDir, "gradle-999999999-stale.sock").exists()
+        live.exists()
+        other.exists()
+
+        cleanup:
+        acceptor?.stop()
+    }
+
+    def "removes socket file when stopped"() {
+        when:
+        def acceptor = incomingConnector.accept(Mock(Action), false)
+        def socketFile = new File(((UnixSocketAddress) acceptor.address).path)
+
+        then:
+        socketFile.exists()
+
+        when:
+        acceptor.stop()
+
+        then:
+        !socketFile.exists()
+    }
+
+    def "stopping the connector stops open acceptors and removes their socket files"() {
+        when:
+        def first = incomingConnector.accept(Mock(Action), false)
+        def second = incomingConnector.accept(Mock(Action), false)
+        def firstSocketFile = new File(((UnixSocketAddress) first.address).path)
+        def secondSocketFile = new File(((UnixSocketAddress) second.address).path)
+        second.stop()
+
+        then:
+        firstSocketFile.exists()
+        !secondSocketFile.exists()
+
+        when:
+        incomingConnector.stop()
+
+        then:
+        !firstSocketFile.exists()
+    }
+
+    def "falls back to TCP when socket file has been removed"() {
+        Action action = Mock()
+
+        when:
+        def acceptor = incomingConnector.accept(action, false)
+        def address = (UnixSocketAddress) acceptor.address
+        new File(address.path).delete()
+        def completion = outgoingConnector.connect(address)
+        def connection = completion.create(serializer)
+        thread.blockUntil.connected
+
+        then:
+        !(completion instanceof UnixSocketConnectCompletion)
+        1 * action.execute(!null) >> { instant.connected }
+
+        cleanup:
+        connection?.stop()
+        acceptor?.stop()
+    }
+}
@@ -41,10 +41,7 @@ public abstract class AbstractCacheCleanup implements CleanupAction {
         for (File file : findEligibleFiles(cleanableStore)) {
             if (shouldDelete(file)) {
                 progressMonitor.incrementDeleted();
-                if (FileUtils.deleteQuietly(file)) {
-                    handleDeletion(file);
-                    filesDeleted += 1 + deleteEmptyParentDirectories(cleanableStore.getBaseDir(), file.getParentFile());
-                }
+                filesDeleted += delete(cleanableStore, file);
             } else {
                 progressMonitor.incrementSkipped();
             }
@@ -52,6 +49,17 @@ public abstract class AbstractCacheCleanup implements CleanupAction {
         LOGGER.debug("{} cleanup deleted {} files/directories.", cleanableStore.getDisplayName(), filesDeleted);
     }
 
+    /**
+     * Deletes the given file and any parent directories that become empty, returning the number of deleted files and directories.
+     */
+    protected int delete(CleanableStore cleanableStore, File file) {
+        if (FileUtils.deleteQuietly(file)) {
+            handleDeletion(file);
+            return 1 + deleteEmptyParentDirectories(cleanableStore.getBaseDir(), file.getParentFile());
+        }
+        return 0;
+    }
+
     protected int deleteEmptyParentDirectories(File baseDir, File dir) {
         if (dir.equals(baseDir)) {
             return 0;
@@ -68,7 +76,7 @@ public abstract class AbstractCacheCleanup implements CleanupAction {
 
     protected abstract void handleDeletion(File file);
 
-    private Iterable<File> findEligibleFiles(CleanableStore cleanableStore) {
+    protected Iterable<File> findEligibleFiles(CleanableStore cleanableStore) {
         return eligibleFilesFinder.find(cleanableStore.getBaseDir(), new NonReservedFileFilter(cleanableStore.getReservedCacheFiles()));
     }
 
@@ -38,6 +38,9 @@ import org.gradle.internal.concurrent.CompositeStoppable;
 import org.gradle.internal.concurrent.Stoppable;
 import org.gradle.internal.id.IdGenerator;
 import org.gradle.internal.id.RandomLongIdGenerator;
+import org.gradle.internal.metrics.Counter;
+import org.gradle.internal.metrics.Histogram;
+import org.gradle.internal.metrics.Metrics;
 import org.gradle.internal.time.CountdownTimer;
 import org.gradle.internal.time.Time;
 import org.gradle.util.GFileUtils;
@@ -62,6 +65,8 @@ import static org.gradle.internal.UncheckedException.throwAsUncheckedException;
 public class DefaultFileLockManager implements FileLockManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultFileLockManager.class);
     public static final int DEFAULT_LOCK_TIMEOUT = 60000;
+    private static final Histogram LOCK_ACQUIRE_TIME = Metrics.histogram("cache.lock.acquire.nanos");
+    private static final Counter LOCK_RETRIES = Metrics.counter("cache.lock.retries");
 
     private final Set<File> lockedFiles = new CopyOnWriteArraySet<File>();
     private final ProcessMetaDataProvider metaDataProvider;
@@ -158,7 +163,13 @@ public class DefaultFileLockManager implements FileLockManager {
                 if (whenContended != null) {
                     fileLockContentionHandler.start(lockId, whenContended);
                 }
-                lockState = lock(options.getMode());
+                if (Metrics.isEnabled()) {
+                    long start = System.nanoTime();
+                    lockState = lock(options.getMode());
+                    LOCK_ACQUIRE_TIME.record(System.nanoTime() - start);
+                } else {
+                    lockState = lock(options.getMode());
+                }
             } catch (Throwable t) {
                 // Also releases any locks
                 lockFileAccess.close();
@@ -351,6 +362,7 @@ public class DefaultFileLockManager implements FileLockManager {
                     if (fileLock != null) {
                         return fileLock;
                     }
+                    LOCK_RETRIES.increment();
                     if (port != -1) { //we don't like the assumption about the port very much
                         LockInfo lockInfo = readInformationRegion(backoff);
                         if (lockInfo.port != -1) {
@@ -19,35 +19,148 @@ package org.gradle.cache.internal;
 import org.gradle.cache.CleanableStore;
 import org.gradle.cache.CleanupProgressMonitor;
 import org.gradle.internal.resource.local.FileAccessTimeJournal;
+import org.gradle.internal.resource.local.IndexedFileAccessTimeJournal;
+import org.gradle.internal.time.CountdownTimer;
+import org.gradle.internal.time.Time;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.io.File;
+import java.io.FileFilter;
 import java.util.Date;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Deletes any cache entries not accessed within the specified number of days.
+ *
+ * <p>When the journal keeps an index of the files by their last access time, the expired entries are taken from the index,
+ * and the cache directory is only walked every {@value #FULL_SCAN_INTERVAL_IN_DAYS} days to pick up entries missing from the index.</p>
+ *
+ * <p>A cleanup can be given a time limit, so that the cache is not locked for too long. A cleanup that reaches its limit stops,
+ * and the next cleanup continues with the remaining entries. An interrupted walk of the cache directory continues after the last file it handled,
+ * which relies on the {@link FilesFinder} returning the files in order of their relative paths.</p>
  */
 public class LeastRecentlyUsedCacheCleanup extends AbstractCacheCleanup {
     private static final Logger LOGGER = LoggerFactory.getLogger(LeastRecentlyUsedCacheCleanup.class);
 
     public static final long DEFAULT_MAX_AGE_IN_DAYS_FOR_RECREATABLE_CACHE_ENTRIES = 7;
     public static final long DEFAULT_MAX_AGE_IN_DAYS_FOR_EXTERNAL_CACHE_ENTRIES = 30;
+    public static final long DEFAULT_MAX_CLEANUP_DURATION_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final long FULL_SCAN_INTERVAL_IN_DAYS = 30;
 
     private final FileAccessTimeJournal journal;
     private final long minimumTimestamp;
+    private final Long maxCleanupDurationMillis;
 
     public LeastRecentlyUsedCacheCleanup(FilesFinder eligibleFilesFinder, FileAccessTimeJournal journal, long numberOfDays) {
+        this(eligibleFilesFinder, journal, numberOfDays, null);
+    }
+
+    /**
+     * Creates a cleanup that stops after the given number of milliseconds, or that runs until it has handled all entries when no time limit is given.
+     */
+    public LeastRecentlyUsedCacheCleanup(FilesFinder eligibleFilesFinder, FileAccessTimeJournal journal, long numberOfDays, @Nullable Long maxCleanupDurationMillis) {
         super(eligibleFilesFinder);
         this.journal = journal;
         this.minimumTimestamp = Math.max(0, System.currentTimeMillis() - TimeUnit.DAYS.toMillis(numberOfDays));
+        this.maxCleanupDurationMillis = maxCleanupDurationMillis;
     }
 
     @Override
     public void clean(CleanableStore cleanableStore, CleanupProgressMonitor progressMonitor) {
         LOGGER.info("{} removing files not accessed on or after {}.", cleanableStore.getDisplayName(), new Date(minimumTimestamp));
-        super.clean(cleanableStore, progressMonitor);
+        CountdownTimer timer = maxCleanupDurationMillis == null ? null : Time.startCountdownTimer(maxCleanupDurationMillis);
+        boolean completed;
+        if (journal instanceof IndexedFileAccessTimeJournal) {
+            IndexedFileAccessTimeJournal indexedJournal = (IndexedFileAccessTimeJournal) journal;
+            if (isFullScanDue(indexedJournal, cleanableStore.getBaseDir())) {
+                completed = cleanByScanning(indexedJournal, cleanableStore, progressMonitor, timer);
+            } else {
+                completed = cleanUsingIndex(indexedJournal, cleanableStore, progressMonitor, timer);
+            }
+        } else {
+            completed = cleanByScanning(null, cleanableStore, progressMonitor, timer);
+        }
+        if (!completed) {
+            LOGGER.info("{} cleanup stopped after {}. The remaining files will be removed by the next cleanup.", cleanableStore.getDisplayName(), timer.getElapsed());
+        }
+    }
+
+    private static boolean isFullScanDue(IndexedFileAccessTimeJournal journal, File baseDir) {
+        return journal.getFullScanProgress(baseDir) != null
+            || System.currentTimeMillis() - journal.getLastFullScanTime(baseDir) >= TimeUnit.DAYS.toMillis(FULL_SCAN_INTERVAL_IN_DAYS);
+    }
+
+    /**
+     * Walks the cache directory, deleting the expired entries and adding the remaining entries to the index, if any.
+     * When the walk stops early, the last file it handled is recorded in the index, and the next walk continues after it.
+     */
+    private boolean cleanByScanning(@Nullable IndexedFileAccessTimeJournal indexedJournal, CleanableStore cleanableStore, CleanupProgressMonitor progressMonitor, @Nullable CountdownTimer timer) {
+        File baseDir = cleanableStore.getBaseDir();
+        String resumeAfter = indexedJournal == null ? null : indexedJournal.getFullScanProgress(baseDir);
+        String lastScannedPath = resumeAfter;
+        int filesDeleted = 0;
+        for (File file : findEligibleFiles(cleanableStore)) {
+            String relativePath = relativePath(baseDir, file);
+            if (resumeAfter != null && compareRelativePaths(relativePath, resumeAfter) <= 0) {
+                // Handled by an earlier cleanup
+                continue;
+            }
+            if (hasExpired(timer)) {
+                if (indexedJournal != null) {
+                    indexedJournal.setFullScanProgress(baseDir, lastScannedPath);
+                }
+                LOGGER.debug("{} cleanup deleted {} files/directories.", cleanableStore.getDisplayName(), filesDeleted);
+                return false;
+            }
+            if (shouldDelete(file)) {
+                progressMonitor.incrementDeleted();
+                filesDeleted += delete(cleanableStore, file);
+            } else {
+                progressMonitor.incrementSkipped();
+                if (indexedJournal != null) {
+                    indexedJournal.addToIndex(file);
+                }
+            }
+            lastScannedPath = relativePath;
+        }
+        if (indexedJournal != null) {
+            indexedJournal.setLastFullScanTime(baseDir, System.currentTimeMillis());
+            indexedJournal.setFullScanProgress(baseDir, null);
+        }
+        LOGGER.debug("{} cleanup deleted {} files/directories.", cleanableStore.getDisplayName(), filesDeleted);
+        return true;
+    }
+
+    private boolean cleanUsingIndex(IndexedFileAccessTimeJournal journal, CleanableStore cleanableStore, CleanupProgressMonitor progressMonitor, @Nullable CountdownTimer timer) {
+        DeletingVisitor visitor = new DeletingVisitor(cleanableStore, progressMonitor, timer);
+        journal.visitFilesAccessedBefore(cleanableStore.getBaseDir(), minimumTimestamp, visitor);
+        LOGGER.debug("{} cleanup deleted {} files/directories.", cleanableStore.getDisplayName(), visitor.filesDeleted);
+        return !visitor.stopped;
+    }
+
+    private static boolean hasExpired(@Nullable CountdownTimer timer) {
+        return timer != null && timer.hasExpired();
+    }
+
+    private static String relativePath(File baseDir, File file) {
+        return file.getAbsolutePath().substring(baseDir.getAbsolutePath().length() + 1).replace(File.separatorChar, '/');
+    }
+
+    /**
+     * Compares relative paths name by name, which is the order in which a walk that visits the entries of each directory sorted by name returns them.
+     */
+    private static int compareRelativePaths(String first, String second) {
+        String[] firstNames = first.split("/");
+        String[] secondNames = second.split("/");
+        for (int i = 0; i < Math.min(firstNames.length, secondNames.length); i++) {
+            int result = firstNames[i].compareTo(secondNames[i]);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return firstNames.length - secondNames.length;
     }
 
     @Override
@@ -59,4 +172,36 @@ public class LeastRecentlyUsedCacheCleanup extends AbstractCacheCleanup {
     protected void handleDeletion(File file) {
         journal.deleteLastAccessTime(file);
     }
+
+    private class DeletingVisitor implements IndexedFileAccessTimeJournal.ExpiredFileVisitor {
+        private final CleanableStore cleanableStore;
+        private final FileFilter filter;
+        private final CleanupProgressMonitor progressMonitor;
+        private final CountdownTimer timer;
+        private int filesDeleted;
+        private boolean stopped;
+
+        DeletingVisitor(CleanableStore cleanableStore, CleanupProgressMonitor progressMonitor, @Nullable CountdownTimer timer) {
+            this.cleanableStore = cleanableStore;
+            this.filter = new NonReservedFileFilter(cleanableStore.getReservedCacheFiles());
+            this.progressMonitor = progressMonitor;
+            this.timer = timer;
+        }
+
+        @Override
+        public boolean visitFile(File file) {
+            if (!filter.accept(file)) {
+                return true;
+            }
+            progressMonitor.incrementDeleted();
+            if (file.exists()) {
+                filesDeleted += delete(cleanableStore, file);
+            } else {
+                // Already removed by some other means
+                handleDeletion(file);
+            }
+            stopped = hasExpired(timer);
+            return !stopped;
+        }
+    }
 }
@@ -24,11 +24,23 @@ import javax.annotation.Nonnull;
 import java.io.File;
 import java.io.FileFilter;
 import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Deque;
 import java.util.Iterator;
 
+/**
+ * Finds the files at the given depth below the base directory, in order of their relative paths, compared name by name.
+ */
 public class SingleDepthFilesFinder implements FilesFinder {
+    private static final Comparator<File> BY_NAME = new Comparator<File>() {
+        @Override
+        public int compare(File first, File second) {
+            return first.getName().compareTo(second.getName());
+        }
+    };
+
     private final int depth;
 
     public SingleDepthFilesFinder(int depth) {
@@ -85,7 +97,11 @@ public class SingleDepthFilesFinder implements FilesFinder {
 
         private Iterator<File> listFiles(File baseDir) {
             File[] files = baseDir.listFiles(filter);
-            return files == null ? Collections.<File>emptyIterator() : Iterators.forArray(files);
+            if (files == null) {
+                return Collections.<File>emptyIterator();
+            }
+            Arrays.sort(files, BY_NAME);
+            return Iterators.forArray(files);
         }
     }
 }
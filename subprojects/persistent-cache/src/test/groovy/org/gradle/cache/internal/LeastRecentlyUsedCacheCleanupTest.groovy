@@ -18,6 +18,7 @@ package org.gradle.cache.internal
 
 import org.gradle.cache.CleanableStore
 import org.gradle.cache.CleanupProgressMonitor
+import org.gradle.internal.resource.local.IndexedFileAccessTimeJournal
 import org.gradle.internal.resource.local.ModificationTimeFileAccessTimeJournal
 import org.gradle.internal.time.CountdownTimer
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
@@ -80,6 +81,122 @@ class LeastRecentlyUsedCacheCleanupTest extends Specification {
         0 * fileAccessTimeJournal.deleteLastAccessTime(_)
     }
 
+    def "deletes files taken from the index without walking the cache directory"() {
+        given:
+        long now = System.currentTimeMillis()
+        def indexedJournal = Mock(IndexedFileAccessTimeJournal)
+        def cleanup = new LeastRecentlyUsedCacheCleanup(new SingleDepthFilesFinder(1), indexedJournal, 1)
+        def cacheEntries = [
+            createCacheEntry(now),
+            createCacheEntry(now),
+        ]
+
+        when:
+        cleanup.clean(cleanableStore, progressMonitor)
+
+        then:
+        1 * indexedJournal.getLastFullScanTime(cacheDir) >> now
+        1 * indexedJournal.visitFilesAccessedBefore(cacheDir, { it <= now - TimeUnit.DAYS.toMillis(1) }, _) >> { File baseDir, long timestamp, IndexedFileAccessTimeJournal.ExpiredFileVisitor visitor ->
+            assert visitor.visitFile(cacheEntries[1])
+        }
+        1 * indexedJournal.deleteLastAccessTime(cacheEntries[1])
+        0 * indexedJournal.getLastAccessTime(_)
+        0 * indexedJournal.setLastFullScanTime(_, _)
+
+        and:
+        cacheEntries[0].assertExists()
+        cacheEntries[1].assertDoesNotExist()
+    }
+
+    def "walks the cache directory when it has not been fully scanned recently"() {
+        given:
+        long now = System.currentTimeMillis()
+        def indexedJournal = Mock(IndexedFileAccessTimeJournal)
+        def cleanup = new LeastRecentlyUsedCacheCleanup(new SingleDepthFilesFinder(1), indexedJournal, 1)
+        def cacheEntries = [
+            createCacheEntry(now),
+            createCacheEntry(now),
+        ]
+
+        when:
+        cleanup.clean(cleanableStore, progressMonitor)
+
+        then:
+        1 * indexedJournal.getLastFullScanTime(cacheDir) >> now - TimeUnit.DAYS.toMillis(31)
+        1 * indexedJournal.getLastAccessTime(cacheEntries[0]) >> now
+        1 * indexedJournal.getLastAccessTime(cacheEntries[1]) >> now - TimeUnit.DAYS.toMillis(5)
+        1 * indexedJournal.addToIndex(cacheEntries[0])
+        1 * indexedJournal.deleteLastAccessTime(cacheEntries[1])
+        1 * indexedJournal.setLastFullScanTime(cacheDir, { it >= now })
+        1 * indexedJournal.setFullScanProgress(cacheDir, null)
+        0 * indexedJournal.visitFilesAccessedBefore(_, _, _)
+
+        and:
+        cacheEntries[0].assertExists()
+        cacheEntries[1].assertDoesNotExist()
+    }
+
+    def "stops deleting files from the index once the time limit is reached"() {
+        given:
+        long now = System.currentTimeMillis()
+        def indexedJournal = Mock(IndexedFileAccessTimeJournal)
+        def cleanup = new LeastRecentlyUsedCacheCleanup(new SingleDepthFilesFinder(1), indexedJournal, 1, 1)
+        def cacheEntries = [
+            createCacheEntry(now - TimeUnit.DAYS.toMillis(5)),
+            createCacheEntry(now - TimeUnit.DAYS.toMillis(5)),
+        ]
+
+        when:
+        cleanup.clean(cleanableStore, progressMonitor)
+
+        then:
+        1 * indexedJournal.getLastFullScanTime(cacheDir) >> now
+        1 * indexedJournal.visitFilesAccessedBefore(cacheDir, _, _) >> { File baseDir, long timestamp, IndexedFileAccessTimeJournal.ExpiredFileVisitor visitor ->
+            Thread.sleep(10)
+            assert !visitor.visitFile(cacheEntries[0])
+        }
+
+        and:
+        cacheEntries[0].assertDoesNotExist()
+        cacheEntries[1].assertExists()
+    }
+
+    def "continues a walk of the cache directory that reached the time limit after the last file it handled"() {
+        given:
+        long now = System.currentTimeMillis()
+        def indexedJournal = Mock(IndexedFileAccessTimeJournal)
+        def cacheEntries = [
+            createCacheEntry(now),
+            createCacheEntry(now),
+            createCacheEntry(now),
+        ].sort { it.name }
+
+        when:
+        new LeastRecentlyUsedCacheCleanup(new SingleDepthFilesFinder(1), indexedJournal, 1, 1).clean(cleanableStore, progressMonitor)
+
+        then:
+        _ * indexedJournal.getLastFullScanTime(cacheDir) >> 0
+        1 * indexedJournal.getLastAccessTime(cacheEntries[0]) >> {
+            Thread.sleep(10)
+            now
+        }
+        1 * indexedJournal.addToIndex(cacheEntries[0])
+        1 * indexedJournal.setFullScanProgress(cacheDir, cacheEntries[0].name)
+        0 * indexedJournal.getLastAccessTime(_)
+        0 * indexedJournal.setLastFullScanTime(_, _)
+
+        when:
+        new LeastRecentlyUsedCacheCleanup(new SingleDepthFilesFinder(1), indexedJournal, 1).clean(cleanableStore, progressMonitor)
+
+        then:
+        _ * indexedJournal.getFullScanProgress(cacheDir) >> cacheEntries[0].name
+        1 * indexedJournal.getLastAccessTime(cacheEntries[1]) >> now
+        1 * indexedJournal.getLastAccessTime(cacheEntries[2]) >> now
+        0 * indexedJournal.getLastAccessTime(_)
+        1 * indexedJournal.setLastFullScanTime(cacheDir, { it >= now })
+        1 * indexedJournal.setFullScanProgress(cacheDir, null)
+    }
+
     private Random r = new Random()
     def createCacheEntry(long timestamp) {
         def cacheEntry = cacheDir.file(String.format("%032x", r.nextInt()))
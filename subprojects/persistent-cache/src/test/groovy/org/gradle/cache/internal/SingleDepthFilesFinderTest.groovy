@@ -60,6 +60,20 @@ class SingleDepthFilesFinderTest extends Specification {
         result as List == [includedFile]
     }
 
+    def "finds files in order of their relative paths"() {
+        given:
+        tmpDir.file("b/a").createFile("1")
+        tmpDir.file("a/b").createFile("2")
+        tmpDir.file("a/a").createFile("3")
+        tmpDir.file("ab/a").createFile("4")
+
+        when:
+        def result = new SingleDepthFilesFinder(2).find(tmpDir.getTestDirectory(), { true })
+
+        then:
+        result as List == ["a/a", "a/b", "ab/a", "b/a"].collect { tmpDir.file(it) }
+    }
+
     def "handles empty dir"() {
         when:
         def result = new SingleDepthFilesFinder(1).find(tmpDir.getTestDirectory(), { true })
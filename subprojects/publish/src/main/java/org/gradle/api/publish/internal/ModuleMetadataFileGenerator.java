@@ -46,7 +46,7 @@ import org.gradle.api.internal.component.SoftwareComponentInternal;
 import org.gradle.api.internal.component.UsageContext;
 import org.gradle.api.publish.internal.versionmapping.VariantVersionMappingStrategyInternal;
 import org.gradle.api.publish.internal.versionmapping.VersionMappingStrategyInternal;
-import org.gradle.internal.hash.HashUtil;
+import org.gradle.internal.hash.HashFanOut;
 import org.gradle.internal.scopeids.id.BuildInvocationScopeId;
 import org.gradle.util.GUtil;
 import org.gradle.util.GradleVersion;
@@ -367,10 +367,11 @@ public class ModuleMetadataFileGenerator {
 
         jsonWriter.name("size");
         jsonWriter.value(artifact.getFile().length());
+        HashFanOut hashes = new HashFanOut("SHA1", "MD5").hash(artifact.getFile());
         jsonWriter.name("sha1");
-        jsonWriter.value(HashUtil.sha1(artifact.getFile()).asHexString());
+        jsonWriter.value(hashes.getHash("SHA1").asHexString());
         jsonWriter.name("md5");
-        jsonWriter.value(HashUtil.createHash(artifact.getFile(), "md5").asHexString());
+        jsonWriter.value(hashes.getHash("MD5").asHexString());
 
         jsonWriter.endObject();
     }
@@ -65,6 +65,20 @@ public class HttpClientResponse implements Closeable {
         }
     }
 
+    /**
+     * Closes the response without reading the remaining content, which also discards the underlying connection.
+     */
+    void abort() {
+        if (!closed) {
+            closed = true;
+            try {
+                httpResponse.close();
+            } catch (IOException e) {
+                // Ignore
+            }
+        }
+    }
+
     String getMethod() {
         return method;
     }
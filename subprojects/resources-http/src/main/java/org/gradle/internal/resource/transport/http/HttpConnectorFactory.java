@@ -22,14 +22,17 @@ import org.gradle.authentication.http.BasicAuthentication;
 import org.gradle.authentication.http.DigestAuthentication;
 import org.gradle.authentication.http.HttpHeaderAuthentication;
 import org.gradle.internal.authentication.AllSchemesAuthentication;
+import org.gradle.internal.concurrent.ManagedExecutor;
+import org.gradle.internal.concurrent.Stoppable;
 import org.gradle.internal.resource.connector.ResourceConnectorFactory;
 import org.gradle.internal.resource.connector.ResourceConnectorSpecification;
 import org.gradle.internal.resource.transfer.DefaultExternalResourceConnector;
 import org.gradle.internal.resource.transfer.ExternalResourceConnector;
 
+import java.io.File;
 import java.util.Set;
 
-public class HttpConnectorFactory implements ResourceConnectorFactory {
+public class HttpConnectorFactory implements ResourceConnectorFactory, Stoppable {
     private final static Set<String> SUPPORTED_PROTOCOLS = ImmutableSet.of("http", "https");
     private final static Set<Class<? extends Authentication>> SUPPORTED_AUTHENTICATION = ImmutableSet.of(
         BasicAuthentication.class,
@@ -38,10 +41,14 @@ public class HttpConnectorFactory implements ResourceConnectorFactory {
         AllSchemesAuthentication.class
     );
 
-    private SslContextFactory sslContextFactory;
+    private final SslContextFactory sslContextFactory;
+    private final File partialDownloadsDir;
+    private final ManagedExecutor downloadExecutor;
 
-    public HttpConnectorFactory(SslContextFactory sslContextFactory) {
+    public HttpConnectorFactory(SslContextFactory sslContextFactory, File partialDownloadsDir, ManagedExecutor downloadExecutor) {
         this.sslContextFactory = sslContextFactory;
+        this.partialDownloadsDir = partialDownloadsDir;
+        this.downloadExecutor = downloadExecutor;
     }
 
     @Override
@@ -61,9 +68,14 @@ public class HttpConnectorFactory implements ResourceConnectorFactory {
             .withSslContextFactory(sslContextFactory)
             .build()
         );
-        HttpResourceAccessor accessor = new HttpResourceAccessor(http);
+        HttpResourceAccessor accessor = new HttpResourceAccessor(http, new ParallelRangeDownloader(http, partialDownloadsDir, downloadExecutor));
         HttpResourceLister lister = new HttpResourceLister(accessor);
         HttpResourceUploader uploader = new HttpResourceUploader(http);
         return new DefaultExternalResourceConnector(accessor, lister, uploader);
     }
+
+    @Override
+    public void stop() {
+        downloadExecutor.stop();
+    }
 }
@@ -19,6 +19,7 @@ package org.gradle.internal.resource.transport.http;
 import org.gradle.internal.IoActions;
 import org.gradle.internal.resource.metadata.ExternalResourceMetaData;
 import org.gradle.internal.resource.transfer.ExternalResourceAccessor;
+import org.gradle.internal.resource.transfer.ExternalResourceReadResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,19 +30,29 @@ public class HttpResourceAccessor implements ExternalResourceAccessor {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(HttpResourceAccessor.class);
     private final HttpClientHelper http;
+    private final ParallelRangeDownloader rangeDownloader;
 
     public HttpResourceAccessor(HttpClientHelper http) {
+        this(http, null);
+    }
+
+    public HttpResourceAccessor(HttpClientHelper http, @Nullable ParallelRangeDownloader rangeDownloader) {
         this.http = http;
+        this.rangeDownloader = rangeDownloader;
     }
 
     @Nullable
-    public HttpResponseResource openResource(final URI uri, boolean revalidate) {
+    public ExternalResourceReadResponse openResource(final URI uri, boolean revalidate) {
         String location = uri.toString();
         LOGGER.debug("Constructing external resource: {}", location);
 
         HttpClientResponse response = http.performGet(location, revalidate);
         if (response != null) {
-            return wrapResponse(uri, response);
+            HttpResponseResource resource = wrapResponse(uri, response);
+            if (rangeDownloader != null) {
+                return rangeDownloader.maybeDownloadInRanges(uri, resource, revalidate);
+            }
+            return resource;
         }
 
         return null;
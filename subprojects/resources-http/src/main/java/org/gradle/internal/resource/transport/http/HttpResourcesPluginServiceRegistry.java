@@ -19,19 +19,28 @@ package org.gradle.internal.resource.transport.http;
 import org.gradle.authentication.http.BasicAuthentication;
 import org.gradle.authentication.http.DigestAuthentication;
 import org.gradle.authentication.http.HttpHeaderAuthentication;
+import org.gradle.cache.internal.CacheScopeMapping;
+import org.gradle.cache.internal.VersionStrategy;
 import org.gradle.internal.authentication.AuthenticationSchemeRegistry;
 import org.gradle.internal.authentication.DefaultBasicAuthentication;
 import org.gradle.internal.authentication.DefaultDigestAuthentication;
 import org.gradle.internal.authentication.DefaultHttpHeaderAuthentication;
+import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.internal.resource.connector.ResourceConnectorFactory;
 import org.gradle.internal.service.ServiceRegistration;
 import org.gradle.internal.service.scopes.AbstractPluginServiceRegistry;
 
+import java.io.File;
+
 public class HttpResourcesPluginServiceRegistry extends AbstractPluginServiceRegistry {
     public void registerGlobalServices(ServiceRegistration registration) {
         registration.addProvider(new GlobalScopeServices());
     }
 
+    public void registerGradleUserHomeServices(ServiceRegistration registration) {
+        registration.addProvider(new GradleUserHomeScopeServices());
+    }
+
     public void registerBuildServices(ServiceRegistration registration) {
         registration.addProvider(new AuthenticationSchemeAction());
     }
@@ -40,9 +49,12 @@ public class HttpResourcesPluginServiceRegistry extends AbstractPluginServiceReg
         SslContextFactory createSslContextFactory() {
             return new DefaultSslContextFactory();
         }
+    }
 
-        ResourceConnectorFactory createHttpConnectorFactory(SslContextFactory sslContextFactory) {
-            return new HttpConnectorFactory(sslContextFactory);
+    private static class GradleUserHomeScopeServices {
+        ResourceConnectorFactory createHttpConnectorFactory(SslContextFactory sslContextFactory, CacheScopeMapping cacheScopeMapping, ExecutorFactory executorFactory) {
+            File partialDownloadsDir = cacheScopeMapping.getBaseDirectory(null, "http-downloads", VersionStrategy.CachePerVersion);
+            return new HttpConnectorFactory(sslContextFactory, partialDownloadsDir, executorFactory.create("HTTP range downloads"));
         }
     }
 
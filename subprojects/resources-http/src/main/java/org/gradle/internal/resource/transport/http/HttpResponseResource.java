@@ -114,6 +114,10 @@ public class HttpResponseResource implements ExternalResourceReadResponse {
         response.close();
     }
 
+    void abort() {
+        response.abort();
+    }
+
     private static String getEtag(HttpClientResponse response) {
         return response.getHeader(HttpHeaders.ETAG);
     }
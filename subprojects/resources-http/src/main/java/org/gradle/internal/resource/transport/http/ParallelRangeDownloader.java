@@ -0,0 +1,112 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.resource.transport.http;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.http.HttpHeaders;
+import org.gradle.internal.hash.HashUtil;
+import org.gradle.internal.resource.transfer.ExternalResourceReadResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.concurrent.Executor;
+
+/**
+ * Downloads large resources using several concurrent HTTP range requests, when the server advertises that it accepts byte ranges.
+ *
+ * <p>The ranges are written to a partial download file, along with a record of the ranges that have been completed. When a download fails or is
+ * interrupted, the next download of the same resource continues from the completed ranges, as long as the resource has not changed in the meantime.</p>
+ */
+public class ParallelRangeDownloader {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelRangeDownloader.class);
+
+    public static final String CONNECTIONS_SYSTEM_PROPERTY = "org.gradle.internal.http.download.connections";
+    public static final String MIN_SIZE_SYSTEM_PROPERTY = "org.gradle.internal.http.download.parallelThreshold";
+    public static final int DEFAULT_CONNECTIONS = 4;
+    public static final long DEFAULT_MIN_SIZE = 32 * 1024 * 1024;
+    static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    private final HttpClientHelper http;
+    private final File partialDownloadsDir;
+    private final Executor executor;
+    private final int connections;
+    private final long minSize;
+    private final int chunkSize;
+
+    public ParallelRangeDownloader(HttpClientHelper http, File partialDownloadsDir, Executor executor) {
+        this(http, partialDownloadsDir, executor, (int) readProperty(CONNECTIONS_SYSTEM_PROPERTY, DEFAULT_CONNECTIONS), readProperty(MIN_SIZE_SYSTEM_PROPERTY, DEFAULT_MIN_SIZE), DEFAULT_CHUNK_SIZE);
+    }
+
+    ParallelRangeDownloader(HttpClientHelper http, File partialDownloadsDir, Executor executor, int connections, long minSize, int chunkSize) {
+        this.http = http;
+        this.partialDownloadsDir = partialDownloadsDir;
+        this.executor = executor;
+        this.connections = connections;
+        this.minSize = minSize;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Returns a response that downloads the content of the given resource using range requests, or the given response when the resource is not suitable for this.
+     */
+    ExternalResourceReadResponse maybeDownloadInRanges(URI uri, HttpResponseResource response, boolean revalidate) {
+        if (connections < 2 || response.getStatusCode() != 200) {
+            return response;
+        }
+        if (!"bytes".equalsIgnoreCase(response.getHeaderValue(HttpHeaders.ACCEPT_RANGES)) || response.getHeaderValue(HttpHeaders.CONTENT_ENCODING) != null) {
+            return response;
+        }
+        long length = response.getContentLength();
+        if (length < minSize) {
+            return response;
+        }
+        String validator = getValidator(response);
+        if (validator == null) {
+            // Without a validator, ranges of different versions of the resource could end up in the same file
+            return response;
+        }
+        LOGGER.debug("Downloading {} ({} bytes) using range requests.", uri, length);
+        String key = HashUtil.sha1(uri.toString().getBytes(Charset.forName("UTF-8"))).asHexString();
+        return new RangedDownload(http, executor, uri, response, revalidate, validator, length, chunkSize, connections,
+            new File(partialDownloadsDir, key + ".part"), new File(partialDownloadsDir, key + ".properties"));
+    }
+
+    private static String getValidator(HttpResponseResource response) {
+        String etag = response.getHeaderValue(HttpHeaders.ETAG);
+        if (etag != null && !etag.startsWith("W/")) {
+            return etag;
+        }
+        // Weak entity tags cannot be used with If-Range
+        return response.getHeaderValue(HttpHeaders.LAST_MODIFIED);
+    }
+
+    private static long readProperty(String propertyName, long defaultValue) {
+        String value = System.getProperty(propertyName);
+        if (!StringUtils.isBlank(value)) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.warn("Invalid value for java system property '{}': {}. Default value '{}' will be used.", propertyName, value, defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,513 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.resource.transport.http;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.methods.HttpGet;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.hash.HashValue;
+import org.gradle.internal.resource.metadata.ExternalResourceMetaData;
+import org.gradle.internal.resource.transfer.ExternalResourceReadResponse;
+import org.gradle.util.GUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A download of a single resource in fixed size ranges, which are fetched by several workers and written to a partial download file.
+ * The first range is read from the response to the original request, and the remaining ranges are requested with {@code Range} requests that are
+ * conditional on the resource being unchanged.
+ *
+ * <p>The content is streamed to the consumer in order as the ranges complete, and its SHA-1 is checked against the one advertised by the server, when available.
+ * Completed ranges are recorded next to the partial download file, so that a failed or interrupted download can be continued later. The partial download
+ * file is locked while it is being written, and a resource that is already being downloaded by another process is downloaded with a single request instead.</p>
+ */
+class RangedDownload implements ExternalResourceReadResponse {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RangedDownload.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long MAX_PARTIAL_DOWNLOAD_AGE_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    private final HttpClientHelper http;
+    private final Executor executor;
+    private final URI uri;
+    private final HttpResponseResource initialResponse;
+    private final boolean revalidate;
+    private final String validator;
+    private final long length;
+    private final int chunkSize;
+    private final int chunkCount;
+    private final int connections;
+    private final File partFile;
+    private final File stateFile;
+
+    private final BitSet completed = new BitSet();
+    private final BitSet claimed = new BitSet();
+    private final Set<HttpClientResponse> inFlight = new HashSet<HttpClientResponse>();
+    private Throwable failure;
+    private boolean cancelled;
+    private int activeWorkers;
+
+    private boolean opened;
+    private boolean singleRequest;
+    private boolean finished;
+    private boolean succeeded;
+    private boolean discard;
+    private RandomAccessFile file;
+    private FileChannel channel;
+    private FileLock lock;
+
+    RangedDownload(HttpClientHelper http, Executor executor, URI uri, HttpResponseResource initialResponse, boolean revalidate, String validator, long length, int chunkSize, int connections, File partFile, File stateFile) {
+        this.http = http;
+        this.executor = executor;
+        this.uri = uri;
+        this.initialResponse = initialResponse;
+        this.revalidate = revalidate;
+        this.validator = validator;
+        this.length = length;
+        this.chunkSize = chunkSize;
+        this.chunkCount = (int) ((length + chunkSize - 1) / chunkSize);
+        this.connections = connections;
+        this.partFile = partFile;
+        this.stateFile = stateFile;
+    }
+
+    @Override
+    public ExternalResourceMetaData getMetaData() {
+        return initialResponse.getMetaData();
+    }
+
+    @Override
+    public InputStream openStream() throws IOException {
+        if (opened) {
+            throw new IOException("Unable to open Stream as it was opened before.");
+        }
+        opened = true;
+
+        partFile.getParentFile().mkdirs();
+        file = new RandomAccessFile(partFile, "rw");
+        channel = file.getChannel();
+        try {
+            lock = tryLock(channel);
+        } finally {
+            if (lock == null) {
+                closeFile();
+            }
+        }
+        if (lock == null) {
+            LOGGER.info("{} is already being downloaded by another process, downloading it with a single request.", uri);
+            singleRequest = true;
+            return initialResponse.openStream();
+        }
+
+        int resumedChunks = restoreState();
+        LOGGER.info("Downloading {} in {} ranges using {} connections, {} ranges were already downloaded.", uri, chunkCount, connections, resumedChunks);
+
+        boolean readFirstChunk = !completed.get(0);
+        if (readFirstChunk) {
+            claimed.set(0);
+        } else {
+            initialResponse.abort();
+        }
+        int remainingChunks = chunkCount - completed.cardinality() - (readFirstChunk ? 1 : 0);
+        int workers = Math.min(connections - (readFirstChunk ? 1 : 0), remainingChunks);
+        synchronized (this) {
+            activeWorkers = workers + (readFirstChunk ? 1 : 0);
+        }
+        if (readFirstChunk) {
+            executor.execute(new Worker(true));
+        }
+        for (int i = 0; i < workers; i++) {
+            executor.execute(new Worker(false));
+        }
+        return new RangedInputStream(initialResponse.getMetaData().getSha1());
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (singleRequest) {
+            initialResponse.close();
+        } else if (lock != null) {
+            finish();
+        } else {
+            // Not opened, so do not read the content
+            initialResponse.abort();
+        }
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            return null;
+        }
+    }
+
+    private int restoreState() throws IOException {
+        if (stateFile.isFile() && partFile.length() == length) {
+            try {
+                Properties state = GUtil.loadProperties(stateFile);
+                if (uri.toString().equals(state.getProperty("uri"))
+                    && validator.equals(state.getProperty("validator"))
+                    && String.valueOf(length).equals(state.getProperty("length"))
+                    && String.valueOf(chunkSize).equals(state.getProperty("chunkSize"))) {
+                    for (String chunk : state.getProperty("completed", "").split(",")) {
+                        if (!chunk.isEmpty()) {
+                            completed.set(Integer.parseInt(chunk));
+                        }
+                    }
+                    return completed.cardinality();
+                }
+            } catch (RuntimeException e) {
+                LOGGER.debug("Could not read the state of the partial download of {}, downloading it again.", uri, e);
+                completed.clear();
+            }
+        }
+        removeStalePartialDownloads();
+        file.setLength(0);
+        file.setLength(length);
+        writeState();
+        return 0;
+    }
+
+    private void removeStalePartialDownloads() {
+        File[] files = partFile.getParentFile().listFiles();
+        if (files == null) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - MAX_PARTIAL_DOWNLOAD_AGE_MILLIS;
+        for (File candidate : files) {
+            if (!candidate.equals(partFile) && !candidate.equals(stateFile) && candidate.lastModified() < cutoff) {
+                candidate.delete();
+            }
+        }
+    }
+
+    private void writeState() {
+        Properties state = new Properties();
+        state.setProperty("uri", uri.toString());
+        state.setProperty("validator", validator);
+        state.setProperty("length", String.valueOf(length));
+        state.setProperty("chunkSize", String.valueOf(chunkSize));
+        StringBuilder chunks = new StringBuilder();
+        for (int chunk = completed.nextSetBit(0); chunk >= 0; chunk = completed.nextSetBit(chunk + 1)) {
+            if (chunks.length() > 0) {
+                chunks.append(',');
+            }
+            chunks.append(chunk);
+        }
+        state.setProperty("completed", chunks.toString());
+        GUtil.savePropertiesNoDateComment(state, stateFile);
+    }
+
+    private long chunkStart(int chunk) {
+        return (long) chunk * chunkSize;
+    }
+
+    private long chunkLength(int chunk) {
+        return Math.min(chunkSize, length - chunkStart(chunk));
+    }
+
+    private synchronized int claimNextChunk() {
+        if (cancelled || failure != null) {
+            return -1;
+        }
+        BitSet taken = (BitSet) completed.clone();
+        taken.or(claimed);
+        int chunk = taken.nextClearBit(0);
+        if (chunk >= chunkCount) {
+            return -1;
+        }
+        claimed.set(chunk);
+        return chunk;
+    }
+
+    private void chunkCompleted(int chunk) throws IOException {
+        channel.force(false);
+        synchronized (this) {
+            completed.set(chunk);
+            writeState();
+            notifyAll();
+        }
+    }
+
+    private synchronized void workerFailed(Throwable throwable) {
+        if (failure == null && !cancelled) {
+            failure = throwable;
+        }
+        notifyAll();
+    }
+
+    private synchronized void workerFinished() {
+        activeWorkers--;
+        notifyAll();
+    }
+
+    private synchronized boolean isCancelled() {
+        return cancelled || failure != null;
+    }
+
+    private synchronized boolean startRequest(HttpClientResponse response) {
+        if (cancelled) {
+            return false;
+        }
+        inFlight.add(response);
+        return true;
+    }
+
+    private synchronized void finishRequest(HttpClientResponse response) {
+        inFlight.remove(response);
+    }
+
+    private synchronized void awaitChunk(int chunk) throws IOException {
+        while (!completed.get(chunk)) {
+            if (failure != null) {
+                throw new IOException(String.format("Could not download '%s'.", uri), failure);
+            }
+            if (activeWorkers == 0) {
+                throw new IOException(String.format("Could not download '%s' as the download was stopped.", uri));
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+        }
+    }
+
+    private void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        synchronized (this) {
+            cancelled = true;
+            initialResponse.abort();
+            for (HttpClientResponse response : inFlight) {
+                response.abort();
+            }
+            while (activeWorkers > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    throw UncheckedException.throwAsUncheckedException(e);
+                }
+            }
+        }
+        lock.release();
+        closeFile();
+        if (succeeded || discard) {
+            partFile.delete();
+            stateFile.delete();
+        }
+    }
+
+    private void closeFile() throws IOException {
+        channel.close();
+        file.close();
+    }
+
+    /**
+     * Copies the given number of bytes from the stream to the partial download file, returning false when the download was stopped first.
+     */
+    private boolean copy(InputStream inputStream, long position, long count) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long remaining = count;
+        while (remaining > 0) {
+            if (isCancelled()) {
+                return false;
+            }
+            int read = inputStream.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (read < 0) {
+                throw new EOFException(String.format("Unexpected end of content while downloading '%s'.", uri));
+            }
+            ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+            while (byteBuffer.hasRemaining()) {
+                position += channel.write(byteBuffer, position);
+            }
+            remaining -= read;
+        }
+        return true;
+    }
+
+    private class Worker implements Runnable {
+        private final boolean readFirstChunk;
+
+        Worker(boolean readFirstChunk) {
+            this.readFirstChunk = readFirstChunk;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (readFirstChunk && !copyFirstChunk()) {
+                    return;
+                }
+                int chunk;
+                while ((chunk = claimNextChunk()) >= 0) {
+                    if (!downloadChunk(chunk)) {
+                        return;
+                    }
+                    chunkCompleted(chunk);
+                }
+            } catch (Throwable throwable) {
+                workerFailed(throwable);
+            } finally {
+                workerFinished();
+            }
+        }
+
+        private boolean copyFirstChunk() throws IOException {
+            try {
+                if (!copy(initialResponse.openStream(), 0, chunkLength(0))) {
+                    return false;
+                }
+            } finally {
+                // Discard the remainder of the content, which is requested in ranges
+                initialResponse.abort();
+            }
+            chunkCompleted(0);
+            return true;
+        }
+
+        private boolean downloadChunk(int chunk) throws IOException {
+            long start = chunkStart(chunk);
+            long end = start + chunkLength(chunk) - 1;
+            HttpGet request = new HttpGet(uri);
+            request.addHeader(HttpHeaders.RANGE, "bytes=" + start + "-" + end);
+            request.addHeader(HttpHeaders.IF_RANGE, validator);
+            HttpClientResponse response = http.performRequest(request, revalidate);
+            if (!startRequest(response)) {
+                response.abort();
+                return false;
+            }
+            boolean complete = false;
+            try {
+                int statusCode = response.getStatusLine().getStatusCode();
+                String expectedRange = "bytes " + start + "-" + end + "/" + length;
+                if (statusCode != 206 || !expectedRange.equals(response.getHeader(HttpHeaders.CONTENT_RANGE))) {
+                    if (statusCode == 200 || statusCode == 206 || statusCode == 416) {
+                        synchronized (RangedDownload.this) {
+                            // The resource has changed, or the server did not honour the range, so the partial download is no use
+                            discard = true;
+                        }
+                    }
+                    throw new IOException(String.format("Could not download range %d-%d of '%s' as the resource has changed or the server did not return the requested range. [HTTP %d, Content-Range: %s]",
+                        start, end, uri, statusCode, response.getHeader(HttpHeaders.CONTENT_RANGE)));
+                }
+                complete = copy(response.getContent(), start, end - start + 1);
+                return complete;
+            } finally {
+                finishRequest(response);
+                if (complete) {
+                    // The content has been read fully, so the connection can be reused
+                    response.close();
+                } else {
+                    response.abort();
+                }
+            }
+        }
+    }
+
+    private class RangedInputStream extends InputStream {
+        private final HashValue expectedSha1;
+        private final MessageDigest digest;
+        private long position;
+
+        RangedInputStream(HashValue expectedSha1) {
+            this.expectedSha1 = expectedSha1;
+            this.digest = expectedSha1 == null ? null : createSha1Digest();
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] buffer = new byte[1];
+            int read = read(buffer, 0, 1);
+            return read < 0 ? -1 : buffer[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (position == length) {
+                verify();
+                return -1;
+            }
+            int chunk = (int) (position / chunkSize);
+            awaitChunk(chunk);
+            long chunkEnd = chunkStart(chunk) + chunkLength(chunk);
+            int count = (int) Math.min(len, chunkEnd - position);
+            int read = channel.read(ByteBuffer.wrap(buffer, offset, count), position);
+            if (read < 0) {
+                throw new EOFException(String.format("Unexpected end of partial download file %s.", partFile));
+            }
+            if (digest != null) {
+                digest.update(buffer, offset, read);
+            }
+            position += read;
+            return read;
+        }
+
+        private void verify() throws IOException {
+            if (succeeded) {
+                return;
+            }
+            if (digest != null) {
+                HashValue actualSha1 = new HashValue(digest.digest());
+                if (!actualSha1.equals(expectedSha1)) {
+                    discard = true;
+                    throw new IOException(String.format("Could not download '%s': the SHA-1 of the downloaded content %s does not match the SHA-1 %s provided by the server.",
+                        uri, actualSha1.asHexString(), expectedSha1.asHexString()));
+                }
+            }
+            succeeded = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+    }
+
+    private static MessageDigest createSha1Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+}
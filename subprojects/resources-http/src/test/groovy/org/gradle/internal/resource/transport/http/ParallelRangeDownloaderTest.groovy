@@ -0,0 +1,291 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.resource.transport.http
+
+import org.apache.http.ssl.SSLContexts
+import org.gradle.internal.hash.HashUtil
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.test.fixtures.server.http.HttpServer
+import org.gradle.util.GUtil
+import org.junit.Rule
+import org.mortbay.jetty.Request
+import org.mortbay.jetty.handler.AbstractHandler
+import spock.lang.Specification
+
+import javax.servlet.http.HttpServletRequest
+import javax.servlet.http.HttpServletResponse
+import java.nio.channels.FileLock
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicInteger
+
+class ParallelRangeDownloaderTest extends Specification {
+    static final int CHUNK_SIZE = 64 * 1024
+    static final int CHUNK_COUNT = 16
+
+    @Rule TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    @Rule HttpServer httpServer = new HttpServer()
+
+    def handler = new ThrottledRangeHandler()
+    def client = new HttpClientHelper(httpSettings)
+    ExecutorService executor = Executors.newCachedThreadPool()
+    File partialDownloadsDir
+    URI uri
+
+    def setup() {
+        partialDownloadsDir = tmpDir.file("http-downloads")
+        handler.content = content(1)
+        httpServer.addHandler(handler)
+        httpServer.start()
+        uri = new URI("${httpServer.uri}/artifact.zip")
+    }
+
+    def cleanup() {
+        client.close()
+        executor.shutdownNow()
+    }
+
+    def "downloads large resource using concurrent range requests"() {
+        when:
+        def bytes = download()
+
+        then:
+        bytes == handler.content
+        handler.ranges.size() == CHUNK_COUNT - 1
+        handler.maxConcurrentRanges.get() > 1
+        partialDownloadsDir.list() as List == []
+    }
+
+    def "verifies the checksum provided by the server"() {
+        given:
+        handler.sha1 = HashUtil.sha1(handler.content).asHexString()
+
+        expect:
+        download() == handler.content
+    }
+
+    def "fails and discards partial download when content does not match the checksum provided by the server"() {
+        given:
+        handler.sha1 = HashUtil.sha1(content(2)).asHexString()
+
+        when:
+        download()
+
+        then:
+        def e = thrown(IOException)
+        e.message.contains("does not match the SHA-1 ${handler.sha1} provided by the server")
+        partialDownloadsDir.list() as List == []
+    }
+
+    def "continues a failed download from the ranges that were already downloaded"() {
+        given:
+        handler.failAfterRanges = 5
+
+        when:
+        download()
+
+        then:
+        thrown(IOException)
+        def completed = completedChunks()
+        !completed.empty
+        completed.size() < CHUNK_COUNT
+
+        when:
+        handler.failAfterRanges = -1
+        handler.ranges.clear()
+        def bytes = download()
+
+        then:
+        bytes == handler.content
+        handler.ranges.size() <= CHUNK_COUNT - completed.size()
+        handler.ranges.every { !completed.contains((int) it.intdiv(CHUNK_SIZE)) }
+        partialDownloadsDir.list() as List == []
+    }
+
+    def "downloads all ranges again when the resource has changed since a failed download"() {
+        given:
+        handler.failAfterRanges = 5
+
+        when:
+        download()
+
+        then:
+        thrown(IOException)
+
+        when:
+        handler.failAfterRanges = -1
+        handler.ranges.clear()
+        handler.content = content(3)
+        handler.etag = '"v2"'
+        def bytes = download()
+
+        then:
+        bytes == handler.content
+        handler.ranges.size() == CHUNK_COUNT - 1
+    }
+
+    def "uses a single request when the server does not accept ranges"() {
+        given:
+        handler.acceptRanges = false
+
+        when:
+        def response = accessor().openResource(uri, false)
+        def bytes = read(response)
+
+        then:
+        response instanceof HttpResponseResource
+        bytes == handler.content
+        handler.ranges.empty
+    }
+
+    def "uses a single request when the resource is smaller than the threshold"() {
+        given:
+        handler.content = new byte[CHUNK_SIZE]
+
+        when:
+        def response = accessor().openResource(uri, false)
+        read(response)
+
+        then:
+        response instanceof HttpResponseResource
+        handler.ranges.empty
+    }
+
+    def "uses a single request when the partial download is locked"() {
+        given:
+        partialDownloadsDir.mkdirs()
+        def partFile = new File(partialDownloadsDir, HashUtil.sha1(uri.toString().getBytes("UTF-8")).asHexString() + ".part")
+        def lockedFile = new RandomAccessFile(partFile, "rw")
+        FileLock lock = lockedFile.channel.lock()
+
+        when:
+        def bytes = download()
+
+        then:
+        bytes == handler.content
+        handler.ranges.empty
+
+        cleanup:
+        lock.release()
+        lockedFile.close()
+    }
+
+    private byte[] download() {
+        return read(accessor().openResource(uri, false))
+    }
+
+    private static byte[] read(response) {
+        try {
+            def stream = response.openStream()
+            try {
+                return stream.bytes
+            } finally {
+                stream.close()
+            }
+        } finally {
+            response.close()
+        }
+    }
+
+    private HttpResourceAccessor accessor() {
+        new HttpResourceAccessor(client, new ParallelRangeDownloader(client, partialDownloadsDir, executor, 4, CHUNK_SIZE * 2, CHUNK_SIZE))
+    }
+
+    private Set<Integer> completedChunks() {
+        def stateFile = partialDownloadsDir.listFiles().find { it.name.endsWith(".properties") }
+        GUtil.loadProperties(stateFile).getProperty("completed").split(",").findAll { it }.collect { it as int } as Set
+    }
+
+    private static byte[] content(int seed) {
+        def bytes = new byte[CHUNK_SIZE * CHUNK_COUNT]
+        new Random(seed).nextBytes(bytes)
+        return bytes
+    }
+
+    private HttpSettings getHttpSettings() {
+        Stub(HttpSettings) {
+            getProxySettings() >> Mock(HttpProxySettings)
+            getSecureProxySettings() >> Mock(HttpProxySettings)
+            getTimeoutSettings() >> { new JavaSystemPropertiesHttpTimeoutSettings() }
+            getSslContextFactory() >> Mock(SslContextFactory) {
+                createSslContext() >> SSLContexts.createDefault()
+            }
+        }
+    }
+
+    /**
+     * Serves a single resource slowly, honouring range requests that are conditional on the current entity tag.
+     */
+    static class ThrottledRangeHandler extends AbstractHandler {
+        volatile byte[] content
+        volatile String etag = '"v1"'
+        volatile String sha1
+        volatile boolean acceptRanges = true
+        volatile int failAfterRanges = -1
+        final List<Long> ranges = Collections.synchronizedList([])
+        final AtomicInteger concurrentRanges = new AtomicInteger()
+        final AtomicInteger maxConcurrentRanges = new AtomicInteger()
+
+        void handle(String target, HttpServletRequest request, HttpServletResponse response, int dispatch) {
+            if (request.pathInfo != "/artifact.zip") {
+                return
+            }
+            ((Request) request).handled = true
+            long start = 0
+            long end = content.length - 1
+            def range = request.getHeader("Range")
+            boolean ranged = range != null && acceptRanges && request.getHeader("If-Range") == etag
+            if (ranged) {
+                def matcher = range =~ /bytes=(\d+)-(\d+)/
+                start = matcher[0][1] as long
+                end = matcher[0][2] as long
+                ranges << start
+                if (failAfterRanges >= 0 && ranges.size() > failAfterRanges) {
+                    response.sendError(503)
+                    return
+                }
+                response.status = 206
+                response.setHeader("Content-Range", "bytes $start-$end/$content.length")
+            }
+            response.setHeader("ETag", etag)
+            if (acceptRanges) {
+                response.setHeader("Accept-Ranges", "bytes")
+            }
+            if (sha1) {
+                response.setHeader("X-Checksum-Sha1", sha1)
+            }
+            response.setContentLength((int) (end - start + 1))
+            int concurrent = ranged ? concurrentRanges.incrementAndGet() : 0
+            maxConcurrentRanges.set(Math.max(maxConcurrentRanges.get(), concurrent))
+            try {
+                def output = response.outputStream
+                for (long pos = start; pos <= end; pos += 4096) {
+                    output.write(content, (int) pos, (int) Math.min(4096, end - pos + 1))
+                    output.flush()
+                    Thread.sleep(1)
+                }
+            } catch (IOException e) {
+                // The client has stopped reading
+            } finally {
+                if (ranged) {
+                    concurrentRanges.decrementAndGet()
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.integtests.resource.s3
+
+import org.gradle.internal.credentials.DefaultAwsCredentials
+import org.gradle.internal.hash.HashUtil
+import org.gradle.internal.resource.ResourceException
+import org.gradle.internal.resource.transfer.ExternalResourceReadResponse
+import org.gradle.internal.resource.transport.aws.s3.S3Client
+import org.gradle.internal.resource.transport.aws.s3.S3ConnectionProperties
+import org.gradle.internal.resource.transport.aws.s3.S3ResourceConnector
+import org.gradle.internal.resource.transport.http.HttpProxySettings
+import org.gradle.test.fixtures.server.http.HttpServer
+import org.junit.Rule
+import org.mortbay.jetty.Request
+import org.mortbay.jetty.handler.AbstractHandler
+import spock.lang.Specification
+
+import javax.servlet.http.HttpServletRequest
+import javax.servlet.http.HttpServletResponse
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicInteger
+
+class S3ClientMultipartIntegrationTest extends Specification {
+    static final int PART_SIZE = 64 * 1024
+    static final String KEY = "/org.gradle.artifacts/maven/release/large.zip"
+
+    @Rule HttpServer server = new HttpServer()
+
+    def handler = new InMemoryS3Handler()
+    ExecutorService executor = Executors.newFixedThreadPool(4)
+    URI uri = new URI("s3://org.gradle.artifacts/maven/release/large.zip")
+
+    def setup() {
+        server.addHandler(handler)
+        server.start()
+    }
+
+    def cleanup() {
+        executor.shutdownNow()
+    }
+
+    def "uploads large resource in concurrent parts"() {
+        given:
+        def content = content(10 * PART_SIZE + 123)
+        def client = client(PART_SIZE, 4)
+
+        when:
+        client.put(new ByteArrayInputStream(content), content.length, uri)
+
+        then:
+        handler.objects[KEY] == content
+        handler.parts.get() == 11
+        handler.maxConcurrentRequests.get() > 1
+        handler.maxConcurrentRequests.get() <= 4
+        handler.uploads.isEmpty()
+    }
+
+    def "uploads resource below the multipart threshold in a single request"() {
+        given:
+        def content = content(3 * PART_SIZE)
+        def client = client(4 * PART_SIZE, 4)
+
+        when:
+        client.put(new ByteArrayInputStream(content), content.length, uri)
+
+        then:
+        handler.objects[KEY] == content
+        handler.parts.get() == 0
+    }
+
+    def "aborts multipart upload when a part cannot be uploaded"() {
+        given:
+        def content = content(6 * PART_SIZE)
+        def client = client(PART_SIZE, 2)
+        handler.failPartNumber = 3
+
+        when:
+        client.put(new ByteArrayInputStream(content), content.length, uri)
+
+        then:
+        def e = thrown(ResourceException)
+        e.message.startsWith("Could not write to resource '$uri'")
+        handler.aborted.size() == 1
+        handler.uploads.isEmpty()
+        !handler.objects.containsKey(KEY)
+    }
+
+    def "downloads large resource using concurrent range requests"() {
+        given:
+        def content = content(10 * PART_SIZE + 123)
+        handler.store(KEY, content, md5(content))
+
+        when:
+        def resource = connector(PART_SIZE, 4).openResource(uri, false)
+        def bytes = read(resource)
+
+        then:
+        resource.metaData.contentLength == content.length
+        bytes == content
+        handler.ranges.size() == 11
+        handler.maxConcurrentRequests.get() > 1
+    }
+
+    def "downloads resource uploaded in parts using concurrent range requests"() {
+        given:
+        def content = content(5 * PART_SIZE)
+        client(PART_SIZE, 4).put(new ByteArrayInputStream(content), content.length, uri)
+
+        expect:
+        read(connector(PART_SIZE, 4).openResource(uri, false)) == content
+    }
+
+    def "downloads small and empty resources in a single request"() {
+        given:
+        handler.store(KEY, content(length), md5(content(length)))
+
+        expect:
+        read(connector(PART_SIZE, 4).openResource(uri, false)) == content(length)
+        handler.ranges.size() <= 1
+
+        where:
+        length << [0, 123, PART_SIZE]
+    }
+
+    def "fails when the content does not match the MD5 ETag"() {
+        given:
+        def content = content(3 * PART_SIZE)
+        handler.store(KEY, content, md5(content))
+        handler.corruptRanges = true
+
+        when:
+        read(connector(PART_SIZE, 4).openResource(uri, false))
+
+        then:
+        def e = thrown(IOException)
+        e.message.contains("does not match its ETag")
+    }
+
+    def "fails when the resource changes while it is downloaded"() {
+        given:
+        def content = content(3 * PART_SIZE)
+        handler.store(KEY, content, md5(content))
+        def resource = connector(PART_SIZE, 2).openResource(uri, false)
+        handler.store(KEY, content(3 * PART_SIZE + 1), "0123456789abcdef0123456789abcdef")
+
+        when:
+        read(resource)
+
+        then:
+        def e = thrown(IOException)
+        e.message.contains("changed while it was being downloaded")
+    }
+
+    private S3ResourceConnector connector(long partSize, int maxConcurrency) {
+        new S3ResourceConnector(client(partSize, maxConcurrency))
+    }
+
+    private S3Client client(long partSize, int maxConcurrency) {
+        def credentials = new DefaultAwsCredentials()
+        credentials.accessKey = 'gradle-access-key'
+        credentials.secretKey = 'gradle-secret-key'
+        def properties = new S3ConnectionProperties(Stub(HttpProxySettings), Stub(HttpProxySettings), server.uri, 0, partSize, 2 * partSize, maxConcurrency)
+        new S3Client(credentials, properties, executor)
+    }
+
+    private static byte[] read(ExternalResourceReadResponse resource) {
+        try {
+            return resource.openStream().withStream { it.bytes }
+        } finally {
+            resource.close()
+        }
+    }
+
+    static String md5(byte[] content) {
+        HashUtil.createHash(new ByteArrayInputStream(content), "MD5").asZeroPaddedHexString(32)
+    }
+
+    private static byte[] content(int length) {
+        def bytes = new byte[length]
+        new Random(length).nextBytes(bytes)
+        bytes
+    }
+
+    /**
+     * A minimal S3 compatible server, which keeps objects in memory and supports multipart uploads and ranged downloads.
+     */
+    static class InMemoryS3Handler extends AbstractHandler {
+        final Map<String, byte[]> objects = new ConcurrentHashMap<>()
+        final Map<String, String> etags = new ConcurrentHashMap<>()
+        final Map<String, Map<Integer, byte[]>> uploads = new ConcurrentHashMap<>()
+        final List<String> aborted = Collections.synchronizedList([])
+        final List<String> ranges = Collections.synchronizedList([])
+        final AtomicInteger parts = new AtomicInteger()
+        final AtomicInteger concurrentRequests = new AtomicInteger()
+        final AtomicInteger maxConcurrentRequests = new AtomicInteger()
+        volatile int failPartNumber = -1
+        volatile boolean corruptRanges
+
+        void store(String key, byte[] content, String etag) {
+            objects[key] = content
+            etags[key] = etag
+        }
+
+        void handle(String target, HttpServletRequest request, HttpServletResponse response, int dispatch) {
+            ((Request) request).handled = true
+            String key = request.pathInfo
+            Map<String, String> query = [:]
+            request.queryString?.split('&')?.each { String param ->
+                def nameAndValue = param.split('=', 2)
+                query[nameAndValue[0]] = nameAndValue.length > 1 ? URLDecoder.decode(nameAndValue[1], "UTF-8") : ''
+            }
+            if (request.method == 'POST' && query.containsKey('uploads')) {
+                def uploadId = UUID.randomUUID().toString()
+                uploads[uploadId] = new ConcurrentHashMap<Integer, byte[]>()
+                xml(response, "<InitiateMultipartUploadResult><Bucket>bucket</Bucket><Key>${key}</Key><UploadId>${uploadId}</UploadId></InitiateMultipartUploadResult>")
+            } else if (request.method == 'PUT' && query.containsKey('uploadId')) {
+                uploadPart(request, response, uploads[query.uploadId], query.partNumber as int)
+            } else if (request.method == 'POST' && query.containsKey('uploadId')) {
+                def uploadParts = uploads.remove(query.uploadId)
+                def content = new ByteArrayOutputStream()
+                uploadParts.keySet().sort().each { content.write(uploadParts[it]) }
+                def etag = md5(content.toByteArray()) + "-" + uploadParts.size()
+                store(key, content.toByteArray(), etag)
+                xml(response, "<CompleteMultipartUploadResult><Location>${key}</Location><Bucket>bucket</Bucket><Key>${key}</Key><ETag>&quot;${etag}&quot;</ETag></CompleteMultipartUploadResult>")
+            } else if (request.method == 'DELETE' && query.containsKey('uploadId')) {
+                uploads.remove(query.uploadId)
+                aborted << query.uploadId
+                response.status = 204
+            } else if (request.method == 'PUT') {
+                def content = request.inputStream.bytes
+                store(key, content, md5(content))
+                response.setHeader("ETag", "\"${etags[key]}\"")
+            } else if (request.method == 'GET') {
+                get(request, response, key)
+            } else {
+                response.sendError(405)
+            }
+        }
+
+        private void uploadPart(HttpServletRequest request, HttpServletResponse response, Map<Integer, byte[]> uploadParts, int partNumber) {
+            track {
+                def content = request.inputStream.bytes
+                if (partNumber == failPartNumber) {
+                    response.sendError(403)
+                    return
+                }
+                uploadParts[partNumber] = content
+                parts.incrementAndGet()
+                response.setHeader("ETag", "\"${md5(content)}\"")
+            }
+        }
+
+        private void get(HttpServletRequest request, HttpServletResponse response, String key) {
+            byte[] content = objects[key]
+            String etag = etags[key]
+            def ifMatch = request.getHeader("If-Match")
+            if (ifMatch != null && ifMatch != "\"${etag}\"") {
+                response.sendError(412)
+                return
+            }
+            long start = 0
+            long end = content.length - 1
+            def range = request.getHeader("Range")
+            if (range != null) {
+                def matcher = range =~ /bytes=(\d+)-(\d+)/
+                start = matcher[0][1] as long
+                end = Math.min(matcher[0][2] as long, end)
+                if (start > end) {
+                    response.status = 416
+                    xml(response, "<Error><Code>InvalidRange</Code><Message>The requested range is not satisfiable</Message></Error>")
+                    return
+                }
+                ranges << "${start}-${end}".toString()
+                response.status = 206
+                response.setHeader("Content-Range", "bytes ${start}-${end}/${content.length}")
+            }
+            response.setHeader("ETag", "\"${etag}\"")
+            response.setHeader("Last-Modified", "Mon, 29 Sep 2014 11:04:27 GMT")
+            response.contentType = "application/octet-stream"
+            byte[] body = Arrays.copyOfRange(content, (int) start, (int) end + 1)
+            if (corruptRanges && start > 0) {
+                body[0]++
+            }
+            response.setContentLength(body.length)
+            track {
+                response.outputStream.write(body)
+            }
+        }
+
+        private void track(Closure<?> action) {
+            int concurrent = concurrentRequests.incrementAndGet()
+            maxConcurrentRequests.set(Math.max(maxConcurrentRequests.get(), concurrent))
+            try {
+                // Give other requests the chance to overlap with this one
+                Thread.sleep(20)
+                action.call()
+            } finally {
+                concurrentRequests.decrementAndGet()
+            }
+        }
+
+        private static void xml(HttpServletResponse response, String content) {
+            response.contentType = "application/xml"
+            response.outputStream.write(("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + content).getBytes("UTF-8"))
+        }
+    }
+}
@@ -34,6 +34,7 @@ import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.S3Object;
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.gradle.api.artifacts.repositories.PasswordCredentials;
 import org.gradle.api.credentials.AwsCredentials;
 import org.gradle.internal.resource.ResourceExceptions;
@@ -41,9 +42,11 @@ import org.gradle.internal.resource.transport.http.HttpProxySettings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 @SuppressWarnings("deprecation")
 public class S3Client {
@@ -52,10 +55,19 @@ public class S3Client {
     private S3ResourceResolver resourceResolver = new S3ResourceResolver();
     private AmazonS3Client amazonS3Client;
     private final S3ConnectionProperties s3ConnectionProperties;
+    private final Executor executor;
 
     public S3Client(AmazonS3Client amazonS3Client, S3ConnectionProperties s3ConnectionProperties) {
+        this(amazonS3Client, s3ConnectionProperties, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * @param executor runs the part uploads and ranged downloads of large resources.
+     */
+    public S3Client(AmazonS3Client amazonS3Client, S3ConnectionProperties s3ConnectionProperties, Executor executor) {
         this.s3ConnectionProperties = s3ConnectionProperties;
         this.amazonS3Client = amazonS3Client;
+        this.executor = executor;
     }
 
     /**
@@ -63,13 +75,23 @@ public class S3Client {
      * @since 3.1
      */
     public S3Client(S3ConnectionProperties s3ConnectionProperties) {
+        this(s3ConnectionProperties, MoreExecutors.directExecutor());
+    }
+
+    public S3Client(S3ConnectionProperties s3ConnectionProperties, Executor executor) {
         this.s3ConnectionProperties = s3ConnectionProperties;
+        this.executor = executor;
         amazonS3Client = new AmazonS3Client(createConnectionProperties());
         setAmazonS3ConnectionEndpoint();
     }
 
     public S3Client(AwsCredentials awsCredentials, S3ConnectionProperties s3ConnectionProperties) {
+        this(awsCredentials, s3ConnectionProperties, MoreExecutors.directExecutor());
+    }
+
+    public S3Client(AwsCredentials awsCredentials, S3ConnectionProperties s3ConnectionProperties, Executor executor) {
         this.s3ConnectionProperties = s3ConnectionProperties;
+        this.executor = executor;
         AWSCredentials credentials = null;
         if (awsCredentials != null) {
             if (awsCredentials.getSessionToken() == null) {
@@ -119,6 +141,13 @@ public class S3Client {
             String s3BucketKey = s3RegionalResource.getKey();
             configureClient(s3RegionalResource);
 
+            if (isMultipartUpload(contentLength)) {
+                LOGGER.debug("Attempting to put resource:[{}] into s3 bucket [{}] in parts", s3BucketKey, bucketName);
+                new S3MultipartUpload(amazonS3Client, executor, bucketName, s3BucketKey, s3ConnectionProperties.getPartSize(), s3ConnectionProperties.getMaxConcurrency())
+                    .upload(inputStream, contentLength);
+                return;
+            }
+
             ObjectMetadata objectMetadata = new ObjectMetadata();
             objectMetadata.setContentLength(contentLength);
 
@@ -129,18 +158,46 @@ public class S3Client {
             amazonS3Client.putObject(putObjectRequest);
         } catch (AmazonClientException e) {
             throw ResourceExceptions.putFailed(destination, e);
+        } catch (IOException e) {
+            throw ResourceExceptions.putFailed(destination, e);
         }
     }
 
+    private boolean isMultipartUpload(Long contentLength) {
+        long partSize = s3ConnectionProperties.getPartSize();
+        return partSize > 0 && contentLength != null && contentLength > s3ConnectionProperties.getMultipartThreshold() && contentLength > partSize;
+    }
+
+    private boolean isParallelDownload() {
+        return s3ConnectionProperties.getPartSize() > 0 && s3ConnectionProperties.getMaxConcurrency() > 1;
+    }
+
     public S3Object getMetaData(URI uri) {
         LOGGER.debug("Attempting to get s3 meta-data: [{}]", uri.toString());
         //Would typically use GetObjectMetadataRequest but it does not work with v4 signatures
-        return doGetS3Object(uri, true);
+        return doGetS3Object(uri, 0);
     }
 
     public S3Object getResource(URI uri) {
         LOGGER.debug("Attempting to get s3 resource: [{}]", uri.toString());
-        return doGetS3Object(uri, false);
+        if (isParallelDownload()) {
+            // Request the first part only, the remaining parts are requested in parallel when the content is read
+            return doGetS3Object(uri, s3ConnectionProperties.getPartSize() - 1);
+        }
+        return doGetS3Object(uri, -1);
+    }
+
+    /**
+     * Opens the content of an object returned by {@link #getResource(URI)}. When only the first part of a large object was returned,
+     * the remaining parts are requested in parallel as the content is read.
+     */
+    public InputStream openContent(URI uri, S3Object s3Object) {
+        ObjectMetadata metadata = s3Object.getObjectMetadata();
+        if (metadata.getInstanceLength() <= metadata.getContentLength()) {
+            return s3Object.getObjectContent();
+        }
+        S3RegionalResource s3RegionalResource = new S3RegionalResource(uri);
+        return new S3RangedInputStream(amazonS3Client, executor, s3RegionalResource.getBucketName(), s3RegionalResource.getKey(), s3Object, s3ConnectionProperties.getPartSize(), s3ConnectionProperties.getMaxConcurrency());
     }
 
     public List<String> listDirectChildren(URI parent) {
@@ -165,16 +222,18 @@ public class S3Client {
         return builder.build();
     }
 
-    private S3Object doGetS3Object(URI uri, boolean isLightWeight) {
+    /**
+     * Gets the object, or the bytes of the object up to and including {@code rangeEnd} when it is not negative.
+     */
+    private S3Object doGetS3Object(URI uri, long rangeEnd) {
         S3RegionalResource s3RegionalResource = new S3RegionalResource(uri);
         String bucketName = s3RegionalResource.getBucketName();
         String s3BucketKey = s3RegionalResource.getKey();
         configureClient(s3RegionalResource);
 
         GetObjectRequest getObjectRequest = new GetObjectRequest(bucketName, s3BucketKey);
-        if (isLightWeight) {
-            //Skip content download
-            getObjectRequest.setRange(0, 0);
+        if (rangeEnd >= 0) {
+            getObjectRequest.setRange(0, rangeEnd);
         }
 
         try {
@@ -184,6 +243,10 @@ public class S3Client {
             if (null != errorCode && errorCode.equalsIgnoreCase("NoSuchKey")) {
                 return null;
             }
+            if (rangeEnd >= 0 && e.getStatusCode() == 416) {
+                // An empty object has no satisfiable range
+                return doGetS3Object(uri, -1);
+            }
             throw ResourceExceptions.getFailed(uri, e);
         }
     }
@@ -19,6 +19,7 @@ package org.gradle.internal.resource.transport.aws.s3;
 import com.google.common.base.Optional;
 import com.google.common.collect.Sets;
 import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
 import org.apache.commons.lang.StringUtils;
 import org.gradle.internal.resource.transport.http.HttpProxySettings;
 import org.gradle.internal.resource.transport.http.JavaSystemPropertiesHttpProxySettings;
@@ -35,25 +36,49 @@ public class S3ConnectionProperties {
     public static final String S3_ENDPOINT_PROPERTY = "org.gradle.s3.endpoint";
     //The maximum number of times to retry a request when S3 responds with a http 5xx error
     public static final String S3_MAX_ERROR_RETRY = "org.gradle.s3.maxErrorRetry";
+    //The size of the parts of multipart uploads and ranged downloads
+    public static final String S3_PART_SIZE = "org.gradle.s3.partSize";
+    //The size above which a resource is uploaded in parts
+    public static final String S3_MULTIPART_THRESHOLD = "org.gradle.s3.multipartThreshold";
+    //The maximum number of parts of a resource to transfer concurrently
+    public static final String S3_MAX_CONCURRENCY = "org.gradle.s3.maxConcurrency";
+    //S3 requires all parts of a multipart upload but the last one to be at least 5MB
+    public static final long MIN_PART_SIZE = 5 * 1024 * 1024;
+    public static final long DEFAULT_PART_SIZE = 8 * 1024 * 1024;
+    public static final long DEFAULT_MULTIPART_THRESHOLD = 64 * 1024 * 1024;
+    public static final int DEFAULT_MAX_CONCURRENCY = 4;
     private static final Set<String> SUPPORTED_SCHEMES = Sets.newHashSet("HTTP", "HTTPS");
 
     private final Optional<URI> endpoint;
     private final HttpProxySettings proxySettings;
     private final HttpProxySettings secureProxySettings;
     private final Optional<Integer> maxErrorRetryCount;
+    private final long partSize;
+    private final long multipartThreshold;
+    private final int maxConcurrency;
 
     public S3ConnectionProperties() {
         endpoint = configureEndpoint(getProperty(S3_ENDPOINT_PROPERTY));
         proxySettings = new JavaSystemPropertiesHttpProxySettings();
         secureProxySettings = new JavaSystemPropertiesSecureHttpProxySettings();
         maxErrorRetryCount = configureErrorRetryCount(getProperty(S3_MAX_ERROR_RETRY));
+        partSize = configurePartSize(getProperty(S3_PART_SIZE));
+        multipartThreshold = configureMultipartThreshold(getProperty(S3_MULTIPART_THRESHOLD));
+        maxConcurrency = configureMaxConcurrency(getProperty(S3_MAX_CONCURRENCY));
     }
 
     public S3ConnectionProperties(HttpProxySettings proxySettings, HttpProxySettings secureProxySettings, URI endpoint, Integer maxErrorRetryCount) {
+        this(proxySettings, secureProxySettings, endpoint, maxErrorRetryCount, DEFAULT_PART_SIZE, DEFAULT_MULTIPART_THRESHOLD, DEFAULT_MAX_CONCURRENCY);
+    }
+
+    public S3ConnectionProperties(HttpProxySettings proxySettings, HttpProxySettings secureProxySettings, URI endpoint, Integer maxErrorRetryCount, long partSize, long multipartThreshold, int maxConcurrency) {
         this.endpoint = Optional.fromNullable(endpoint);
         this.proxySettings = proxySettings;
         this.secureProxySettings = secureProxySettings;
         this.maxErrorRetryCount = Optional.fromNullable(maxErrorRetryCount);
+        this.partSize = partSize;
+        this.multipartThreshold = multipartThreshold;
+        this.maxConcurrency = maxConcurrency;
     }
 
     private Optional<URI> configureEndpoint(String property) {
@@ -102,4 +127,58 @@ public class S3ConnectionProperties {
     public Optional<Integer> getMaxErrorRetryCount() {
         return maxErrorRetryCount;
     }
+
+    private long configurePartSize(String property) {
+        if (null == property) {
+            return DEFAULT_PART_SIZE;
+        }
+        Long size = Longs.tryParse(property);
+        if (null == size || size < MIN_PART_SIZE || size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("System property [" + S3_PART_SIZE + "=" + property + "]  must be a number of bytes between " + MIN_PART_SIZE + " and " + Integer.MAX_VALUE);
+        }
+        return size;
+    }
+
+    private long configureMultipartThreshold(String property) {
+        if (null == property) {
+            return DEFAULT_MULTIPART_THRESHOLD;
+        }
+        Long threshold = Longs.tryParse(property);
+        if (null == threshold || threshold < 0) {
+            throw new IllegalArgumentException("System property [" + S3_MULTIPART_THRESHOLD + "=" + property + "]  must be a valid positive number of bytes");
+        }
+        return threshold;
+    }
+
+    private int configureMaxConcurrency(String property) {
+        if (null == property) {
+            return DEFAULT_MAX_CONCURRENCY;
+        }
+        Integer concurrency = Ints.tryParse(property);
+        if (null == concurrency || concurrency < 1) {
+            throw new IllegalArgumentException("System property [" + S3_MAX_CONCURRENCY + "=" + property + "]  must be an Integer greater than 0");
+        }
+        return concurrency;
+    }
+
+    /**
+     * The size of each part of a multipart upload, and of each range of a ranged download.
+     */
+    public long getPartSize() {
+        return partSize;
+    }
+
+    /**
+     * Resources larger than this are uploaded using a multipart upload.
+     */
+    public long getMultipartThreshold() {
+        return multipartThreshold;
+    }
+
+    /**
+     * The maximum number of parts of a single resource that are uploaded or downloaded at the same time. A value of 1 disables ranged downloads.
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
 }
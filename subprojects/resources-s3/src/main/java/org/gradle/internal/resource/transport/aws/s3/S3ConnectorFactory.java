@@ -25,11 +25,20 @@ import org.gradle.api.credentials.AwsCredentials;
 import org.gradle.authentication.Authentication;
 import org.gradle.authentication.aws.AwsImAuthentication;
 import org.gradle.internal.authentication.AllSchemesAuthentication;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.ManagedExecutor;
+import org.gradle.internal.concurrent.Stoppable;
 import org.gradle.internal.resource.connector.ResourceConnectorFactory;
 import org.gradle.internal.resource.connector.ResourceConnectorSpecification;
 import org.gradle.internal.resource.transfer.ExternalResourceConnector;
 
-public class S3ConnectorFactory implements ResourceConnectorFactory {
+public class S3ConnectorFactory implements ResourceConnectorFactory, Stoppable {
+    private final ManagedExecutor executor;
+
+    public S3ConnectorFactory(ExecutorFactory executorFactory) {
+        this.executor = executorFactory.create("S3 transfers");
+    }
+
     @Override
     public Set<String> getSupportedProtocols() {
         return Collections.singleton("s3");
@@ -56,14 +65,19 @@ public class S3ConnectorFactory implements ResourceConnectorFactory {
                 if(awsCredentials == null) {
                     throw new IllegalArgumentException("AwsCredentials must be set for S3 backed repository.");
                 }
-                return new S3ResourceConnector(new S3Client(awsCredentials, new S3ConnectionProperties()));
+                return new S3ResourceConnector(new S3Client(awsCredentials, new S3ConnectionProperties(), executor));
             }
 
             if (authentication instanceof AwsImAuthentication) {
-                return new S3ResourceConnector(new S3Client(new S3ConnectionProperties()));
+                return new S3ResourceConnector(new S3Client(new S3ConnectionProperties(), executor));
             }
         }
 
         throw new IllegalArgumentException("S3 resource should either specify AwsImAuthentication or provide some AwsCredentials.");
     }
+
+    @Override
+    public void stop() {
+        executor.stop();
+    }
 }
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.resource.transport.aws.s3;
+
+import com.amazonaws.services.s3.AmazonS3Client;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CannedAccessControlList;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.google.common.io.ByteStreams;
+import org.gradle.internal.UncheckedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Uploads a stream to S3 using a multipart upload. The parts are read from the stream one after the other, and up to the configured number of parts
+ * are uploaded at the same time, which also bounds the number of part buffers held in memory.
+ */
+class S3MultipartUpload {
+    private static final Logger LOGGER = LoggerFactory.getLogger(S3MultipartUpload.class);
+
+    private final AmazonS3Client amazonS3Client;
+    private final Executor executor;
+    private final String bucketName;
+    private final String key;
+    private final long partSize;
+    private final int maxConcurrency;
+    private final AtomicBoolean failed = new AtomicBoolean();
+
+    S3MultipartUpload(AmazonS3Client amazonS3Client, Executor executor, String bucketName, String key, long partSize, int maxConcurrency) {
+        this.amazonS3Client = amazonS3Client;
+        this.executor = executor;
+        this.bucketName = bucketName;
+        this.key = key;
+        this.partSize = partSize;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    void upload(InputStream inputStream, long contentLength) throws IOException {
+        InitiateMultipartUploadRequest initiateRequest = new InitiateMultipartUploadRequest(bucketName, key, new ObjectMetadata())
+            .withCannedACL(CannedAccessControlList.BucketOwnerFullControl);
+        String uploadId = amazonS3Client.initiateMultipartUpload(initiateRequest).getUploadId();
+        LOGGER.debug("Started multipart upload [{}] of resource:[{}] into s3 bucket [{}]", uploadId, key, bucketName);
+        boolean completed = false;
+        try {
+            List<PartETag> partETags = uploadParts(uploadId, inputStream, contentLength);
+            amazonS3Client.completeMultipartUpload(new CompleteMultipartUploadRequest(bucketName, key, uploadId, partETags));
+            completed = true;
+        } finally {
+            if (!completed) {
+                abort(uploadId);
+            }
+        }
+    }
+
+    private List<PartETag> uploadParts(String uploadId, InputStream inputStream, long contentLength) throws IOException {
+        Semaphore buffers = new Semaphore(maxConcurrency);
+        List<FutureTask<PartETag>> parts = new ArrayList<FutureTask<PartETag>>();
+        boolean succeeded = false;
+        try {
+            long remaining = contentLength;
+            int partNumber = 1;
+            while (remaining > 0) {
+                buffers.acquire();
+                byte[] content = new byte[(int) Math.min(partSize, remaining)];
+                ByteStreams.readFully(inputStream, content);
+                FutureTask<PartETag> part = new FutureTask<PartETag>(new UploadPart(uploadId, partNumber, content, buffers));
+                parts.add(part);
+                executor.execute(part);
+                rethrowFailures(parts);
+                remaining -= content.length;
+                partNumber++;
+            }
+            List<PartETag> partETags = new ArrayList<PartETag>(parts.size());
+            for (FutureTask<PartETag> part : parts) {
+                partETags.add(part.get());
+            }
+            succeeded = true;
+            return partETags;
+        } catch (InterruptedException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        } catch (ExecutionException e) {
+            throw UncheckedException.throwAsUncheckedException(e.getCause());
+        } finally {
+            if (!succeeded) {
+                awaitParts(parts);
+            }
+        }
+    }
+
+    /**
+     * Waits for the parts that are being uploaded, as parts that are still in progress when the upload is aborted may be stored anyway.
+     * Parts that have not started yet are skipped.
+     */
+    private void awaitParts(List<FutureTask<PartETag>> parts) {
+        failed.set(true);
+        for (FutureTask<PartETag> part : parts) {
+            try {
+                part.get();
+            } catch (ExecutionException e) {
+                // Already reported, or caused by the original failure
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static void rethrowFailures(List<FutureTask<PartETag>> parts) throws ExecutionException, InterruptedException {
+        for (FutureTask<PartETag> part : parts) {
+            if (part.isDone()) {
+                part.get();
+            }
+        }
+    }
+
+    private void abort(String uploadId) {
+        try {
+            amazonS3Client.abortMultipartUpload(new AbortMultipartUploadRequest(bucketName, key, uploadId));
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not abort multipart upload [{}] of resource:[{}] into s3 bucket [{}]", uploadId, key, bucketName, e);
+        }
+    }
+
+    private class UploadPart implements Callable<PartETag> {
+        private final String uploadId;
+        private final int partNumber;
+        private final byte[] content;
+        private final Semaphore buffers;
+
+        UploadPart(String uploadId, int partNumber, byte[] content, Semaphore buffers) {
+            this.uploadId = uploadId;
+            this.partNumber = partNumber;
+            this.content = content;
+            this.buffers = buffers;
+        }
+
+        @Override
+        public PartETag call() {
+            try {
+                if (failed.get()) {
+                    return null;
+                }
+                LOGGER.debug("Uploading part {} of resource:[{}] into s3 bucket [{}]", partNumber, key, bucketName);
+                UploadPartRequest request = new UploadPartRequest()
+                    .withBucketName(bucketName)
+                    .withKey(key)
+                    .withUploadId(uploadId)
+                    .withPartNumber(partNumber)
+                    .withPartSize(content.length)
+                    .withInputStream(new ByteArrayInputStream(content));
+                return amazonS3Client.uploadPart(request).getPartETag();
+            } finally {
+                buffers.release();
+            }
+        }
+    }
+}
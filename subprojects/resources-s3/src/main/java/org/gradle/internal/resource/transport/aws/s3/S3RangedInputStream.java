@@ -0,0 +1,228 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.resource.transport.aws.s3;
+
+import com.amazonaws.services.s3.AmazonS3Client;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3Object;
+import com.google.common.io.ByteStreams;
+import org.gradle.internal.hash.HashUtil;
+import org.gradle.internal.hash.HashValue;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.regex.Pattern;
+
+/**
+ * Reads a large S3 object as a sequence of ranged GET requests, fetching the ranges that follow the one being read in parallel.
+ *
+ * <p>The first range is the response of the initial request for the object. The following ranges are requested only for the ETag of that response,
+ * so that a stream never mixes the content of different versions of the object. When the ETag is the MD5 hash of the content, which is the case
+ * for objects uploaded in a single request and not encrypted with KMS or a customer provided key, the content is checked against it.</p>
+ */
+class S3RangedInputStream extends InputStream {
+    private static final Pattern MD5_ETAG = Pattern.compile("[0-9a-fA-F]{32}");
+
+    private final AmazonS3Client amazonS3Client;
+    private final Executor executor;
+    private final String bucketName;
+    private final String key;
+    private final String eTag;
+    private final long length;
+    private final long partSize;
+    private final int maxConcurrency;
+    private final Deque<FutureTask<byte[]>> pending = new ArrayDeque<FutureTask<byte[]>>();
+    private final MessageDigest md5;
+    private final S3Object firstRange;
+    private InputStream current;
+    private long position;
+    private long currentEnd;
+    private long nextRangeStart;
+    private boolean closed;
+
+    S3RangedInputStream(AmazonS3Client amazonS3Client, Executor executor, String bucketName, String key, S3Object firstRange, long partSize, int maxConcurrency) {
+        this.amazonS3Client = amazonS3Client;
+        this.executor = executor;
+        this.bucketName = bucketName;
+        this.key = key;
+        this.partSize = partSize;
+        this.maxConcurrency = maxConcurrency;
+        this.firstRange = firstRange;
+        ObjectMetadata metadata = firstRange.getObjectMetadata();
+        this.eTag = metadata.getETag();
+        this.length = metadata.getInstanceLength();
+        this.md5 = isMd5(eTag, metadata) ? createMd5() : null;
+        this.current = firstRange.getObjectContent();
+        this.currentEnd = metadata.getContentLength();
+        this.nextRangeStart = currentEnd;
+        scheduleRanges();
+    }
+
+    private static boolean isMd5(@Nullable String eTag, ObjectMetadata metadata) {
+        return eTag != null && MD5_ETAG.matcher(eTag).matches() && metadata.getSSEAwsKmsKeyId() == null && metadata.getSSECustomerAlgorithm() == null;
+    }
+
+    private static MessageDigest createMd5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] buffer = new byte[1];
+        int read = read(buffer, 0, 1);
+        return read < 0 ? -1 : buffer[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int count) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed.");
+        }
+        while (current != null) {
+            int read = current.read(buffer, offset, count);
+            if (read > 0) {
+                if (md5 != null) {
+                    md5.update(buffer, offset, read);
+                }
+                position += read;
+                return read;
+            }
+            if (read == 0 && count == 0) {
+                return 0;
+            }
+            nextRange();
+        }
+        return -1;
+    }
+
+    private void nextRange() throws IOException {
+        if (position != currentEnd) {
+            throw new IOException(String.format("Received %d bytes of s3 resource: [%s] from bucket [%s] where %d were expected.", position, key, bucketName, currentEnd));
+        }
+        current.close();
+        FutureTask<byte[]> range = pending.poll();
+        if (range == null) {
+            current = null;
+            verifyContent();
+            return;
+        }
+        byte[] content = waitFor(range);
+        current = new ByteArrayInputStream(content);
+        currentEnd += content.length;
+        scheduleRanges();
+    }
+
+    private void verifyContent() throws IOException {
+        if (position != length) {
+            throw new IOException(String.format("Received %d bytes of s3 resource: [%s] from bucket [%s] where %d were expected.", position, key, bucketName, length));
+        }
+        if (md5 != null) {
+            HashValue actual = new HashValue(md5.digest());
+            if (!actual.equals(HashValue.parse(eTag))) {
+                throw new IOException(String.format("MD5 hash %s of s3 resource: [%s] from bucket [%s] does not match its ETag %s.", actual.asHexString(), key, bucketName, eTag));
+            }
+        }
+    }
+
+    private byte[] waitFor(FutureTask<byte[]> range) throws IOException {
+        try {
+            return range.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading s3 resource: [" + key + "]", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Could not read s3 resource: [" + key + "] from bucket [" + bucketName + "]", cause);
+        }
+    }
+
+    private void scheduleRanges() {
+        while (pending.size() < maxConcurrency && nextRangeStart < length) {
+            long start = nextRangeStart;
+            long end = Math.min(start + partSize, length) - 1;
+            FutureTask<byte[]> range = new FutureTask<byte[]>(new GetRange(start, end));
+            pending.add(range);
+            executor.execute(range);
+            nextRangeStart = end + 1;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (FutureTask<byte[]> range : pending) {
+            range.cancel(true);
+        }
+        pending.clear();
+        if (current != null) {
+            current.close();
+        }
+        firstRange.close();
+    }
+
+    private class GetRange implements Callable<byte[]> {
+        private final long start;
+        private final long end;
+
+        GetRange(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public byte[] call() throws IOException {
+            GetObjectRequest request = new GetObjectRequest(bucketName, key)
+                .withRange(start, end)
+                .withMatchingETagConstraint('"' + eTag + '"');
+            S3Object range = amazonS3Client.getObject(request);
+            if (range == null) {
+                throw new IOException(String.format("s3 resource: [%s] in bucket [%s] changed while it was being downloaded.", key, bucketName));
+            }
+            try {
+                byte[] content = ByteStreams.toByteArray(range.getObjectContent());
+                if (content.length != end - start + 1) {
+                    throw new IOException(String.format("Received %d bytes for range %d-%d of s3 resource: [%s] from bucket [%s].", content.length, start, end, key, bucketName));
+                }
+                return content;
+            } finally {
+                range.close();
+            }
+        }
+    }
+}
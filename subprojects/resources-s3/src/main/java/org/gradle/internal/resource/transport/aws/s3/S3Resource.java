@@ -29,16 +29,18 @@ import java.util.Date;
 
 public class S3Resource implements ExternalResourceReadResponse {
 
+    private final S3Client s3Client;
     private final S3Object s3Object;
     private final URI uri;
 
-    public S3Resource(S3Object s3Object, URI uri) {
+    public S3Resource(S3Client s3Client, S3Object s3Object, URI uri) {
+        this.s3Client = s3Client;
         this.s3Object = s3Object;
         this.uri = uri;
     }
 
     public InputStream openStream() throws IOException {
-        return s3Object.getObjectContent();
+        return s3Client.openContent(uri, s3Object);
     }
 
     public URI getURI() {
@@ -46,7 +48,8 @@ public class S3Resource implements ExternalResourceReadResponse {
     }
 
     public long getContentLength() {
-        return s3Object.getObjectMetadata().getContentLength();
+        // The object may have been requested for its first part only
+        return s3Object.getObjectMetadata().getInstanceLength();
     }
 
     public boolean isLocal() {
@@ -52,7 +52,7 @@ public class S3ResourceConnector implements ExternalResourceConnector {
         if (s3Object == null) {
             return null;
         }
-        return new S3Resource(s3Object, location);
+        return new S3Resource(s3Client, s3Object, location);
     }
 
     public ExternalResourceMetaData getMetaData(URI location, boolean revalidate) {
@@ -65,7 +65,7 @@ public class S3ResourceConnector implements ExternalResourceConnector {
             ObjectMetadata objectMetadata = s3Object.getObjectMetadata();
             return new DefaultExternalResourceMetaData(location,
                 objectMetadata.getLastModified().getTime(),
-                objectMetadata.getContentLength(),
+                objectMetadata.getInstanceLength(),
                 objectMetadata.getContentType(),
                 objectMetadata.getETag(),
                 null); // Passing null for sha1 - TODO - consider using the etag which is an MD5 hash of the file (when less than 5Gb)
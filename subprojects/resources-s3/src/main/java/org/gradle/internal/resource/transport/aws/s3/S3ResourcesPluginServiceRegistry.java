@@ -19,6 +19,7 @@ package org.gradle.internal.resource.transport.aws.s3;
 import org.gradle.authentication.aws.AwsImAuthentication;
 import org.gradle.internal.authentication.AuthenticationSchemeRegistry;
 import org.gradle.internal.authentication.DefaultAwsImAuthentication;
+import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.internal.resource.connector.ResourceConnectorFactory;
 import org.gradle.internal.service.ServiceRegistration;
 import org.gradle.internal.service.scopes.AbstractPluginServiceRegistry;
@@ -34,8 +35,8 @@ public class S3ResourcesPluginServiceRegistry extends AbstractPluginServiceRegis
     }
 
     private static class GlobalScopeServices {
-        ResourceConnectorFactory createS3ConnectorFactory() {
-            return new S3ConnectorFactory();
+        ResourceConnectorFactory createS3ConnectorFactory(ExecutorFactory executorFactory) {
+            return new S3ConnectorFactory(executorFactory);
         }
     }
 
@@ -102,4 +102,45 @@ class S3ConnectionPropertiesTest extends Specification {
         where:
         value << ['', 'w', '-1', "${Integer.MAX_VALUE + 1}"]
     }
+
+    def "should report invalid partSize"() {
+        when:
+        s3ConnectionProperties.configurePartSize(value)
+        then:
+        def ex = thrown(IllegalArgumentException)
+        ex.message == "System property [org.gradle.s3.partSize=$value]  must be a number of bytes between 5242880 and ${Integer.MAX_VALUE}"
+
+        where:
+        value << ['', 'w', '-1', '5242879', "${Integer.MAX_VALUE + 1L}"]
+    }
+
+    def "should report invalid multipartThreshold"() {
+        when:
+        s3ConnectionProperties.configureMultipartThreshold(value)
+        then:
+        def ex = thrown(IllegalArgumentException)
+        ex.message == "System property [org.gradle.s3.multipartThreshold=$value]  must be a valid positive number of bytes"
+
+        where:
+        value << ['', 'w', '-1']
+    }
+
+    def "should report invalid maxConcurrency"() {
+        when:
+        s3ConnectionProperties.configureMaxConcurrency(value)
+        then:
+        def ex = thrown(IllegalArgumentException)
+        ex.message == "System property [org.gradle.s3.maxConcurrency=$value]  must be an Integer greater than 0"
+
+        where:
+        value << ['', 'w', '0', '-1']
+    }
+
+    def "uses defaults for transfer properties when not set"() {
+        expect:
+        s3ConnectionProperties.configurePartSize(null) == S3ConnectionProperties.DEFAULT_PART_SIZE
+        s3ConnectionProperties.configureMultipartThreshold(null) == S3ConnectionProperties.DEFAULT_MULTIPART_THRESHOLD
+        s3ConnectionProperties.configureMaxConcurrency(null) == S3ConnectionProperties.DEFAULT_MAX_CONCURRENCY
+        s3ConnectionProperties.configurePartSize('6291456') == 6291456
+    }
 }
@@ -20,11 +20,12 @@ import org.gradle.api.credentials.AwsCredentials
 import org.gradle.internal.resource.connector.ResourceConnectorSpecification
 import org.gradle.internal.authentication.DefaultAwsImAuthentication
 import org.gradle.internal.authentication.AllSchemesAuthentication
+import org.gradle.internal.concurrent.ExecutorFactory
 import spock.lang.Specification
 
 class S3ConnectorFactoryTest extends Specification {
 
-    S3ConnectorFactory factory = new S3ConnectorFactory()
+    S3ConnectorFactory factory = new S3ConnectorFactory(Mock(ExecutorFactory))
     def "fails when no aws credentials provided for auth"() {
         setup:
         def resourceConnectorSpecification = Mock(ResourceConnectorSpecification)
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.integtests.resolve.resource.sftp
+
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import org.gradle.internal.credentials.DefaultPasswordCredentials
+import org.gradle.internal.metrics.Metrics
+import org.gradle.internal.resource.local.ByteArrayReadableContent
+import org.gradle.internal.resource.transport.sftp.SftpClientFactory
+import org.gradle.internal.resource.transport.sftp.SftpResourceAccessor
+import org.gradle.internal.resource.transport.sftp.SftpResourceLister
+import org.gradle.internal.resource.transport.sftp.SftpResourceUploader
+import org.gradle.test.fixtures.ConcurrentTestUtil
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.test.fixtures.server.sftp.SFTPServer
+import org.junit.Rule
+import spock.lang.Specification
+
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+class SftpClientPoolIntegrationTest extends Specification {
+    @Rule final TestNameTestDirectoryProvider temporaryFolder = new TestNameTestDirectoryProvider()
+    @Rule final SFTPServer sftpServer = new SFTPServer(temporaryFolder)
+
+    def credentials = new DefaultPasswordCredentials('sftp', 'sftp')
+    ExecutorService executor = Executors.newFixedThreadPool(8)
+    DefaultExecutorFactory executorFactory = new DefaultExecutorFactory()
+    SftpClientFactory factory
+
+    def setup() {
+        System.setProperty(SftpClientFactory.MAX_CLIENTS_PER_HOST_PROPERTY, "4")
+        System.setProperty(SftpClientFactory.MAX_CHANNELS_PER_SESSION_PROPERTY, "2")
+        try {
+            factory = new SftpClientFactory(executorFactory)
+        } finally {
+            System.clearProperty(SftpClientFactory.MAX_CLIENTS_PER_HOST_PROPERTY)
+            System.clearProperty(SftpClientFactory.MAX_CHANNELS_PER_SESSION_PROPERTY)
+        }
+        sftpServer.allowAll()
+    }
+
+    def cleanup() {
+        executor.shutdownNow()
+        factory.stop()
+        executorFactory.stop()
+    }
+
+    def "reads, lists and uploads concurrently using a bounded number of sessions"() {
+        given:
+        20.times { sftpServer.file("repo/file${it}.txt").text = "content ${it}" }
+        def accessor = new SftpResourceAccessor(factory, credentials)
+        def lister = new SftpResourceLister(factory, credentials)
+        def uploader = new SftpResourceUploader(factory, credentials)
+
+        when:
+        def reads = (0..<20).collect { i ->
+            executor.submit({
+                def resource = accessor.openResource(uri("/repo/file${i}.txt"), false)
+                try {
+                    resource.openStream().withStream { it.text }
+                } finally {
+                    resource.close()
+                }
+            } as Callable<String>)
+        }
+        def listings = (0..<5).collect {
+            executor.submit({ lister.list(uri("/repo")) } as Callable<List<String>>)
+        }
+        def uploads = (0..<5).collect { i ->
+            executor.submit({
+                uploader.upload(new ByteArrayReadableContent("uploaded ${i}".bytes), uri("/uploads/file${i}.txt"))
+                null
+            } as Callable<Void>)
+        }
+
+        then:
+        reads*.get() == (0..<20).collect { "content ${it}".toString() }
+        listings*.get().every { it.containsAll((0..<20).collect { "file${it}.txt".toString() }) }
+        uploads*.get()
+        5.times { assert sftpServer.file("uploads/file${it}.txt").text == "uploaded ${it}" }
+        sftpServer.activeSessionCount <= 4
+    }
+
+    def "opens several channels on a session"() {
+        when:
+        def client1 = factory.createSftpClient(sftpServer.uri, credentials)
+        def client2 = factory.createSftpClient(sftpServer.uri, credentials)
+        def client3 = factory.createSftpClient(sftpServer.uri, credentials)
+
+        then:
+        [client1, client2, client3]*.sftpClient.unique().size() == 3
+        [client1, client2, client3].every { it.sftpClient.lstat("/") != null }
+        sftpServer.activeSessionCount == 2
+
+        when:
+        factory.releaseSftpClient(client1)
+        factory.releaseSftpClient(client2)
+        factory.releaseSftpClient(client3)
+        factory.stop()
+
+        then:
+        ConcurrentTestUtil.poll { assert sftpServer.activeSessionCount == 0 }
+    }
+
+    def "closes idle sessions"() {
+        given:
+        System.setProperty(SftpClientFactory.IDLE_TIMEOUT_PROPERTY, "0")
+        def idleFactory
+        try {
+            idleFactory = new SftpClientFactory(executorFactory)
+        } finally {
+            System.clearProperty(SftpClientFactory.IDLE_TIMEOUT_PROPERTY)
+        }
+        sftpServer.file("repo/file.txt").text = "content"
+        def accessor = new SftpResourceAccessor(idleFactory, credentials)
+        def waits = Metrics.counter("sftp.pool.wait.count").value
+
+        when:
+        accessor.getMetaData(uri("/repo/file.txt"), false)
+        accessor.getMetaData(uri("/repo/file.txt"), false)
+
+        then:
+        Metrics.counter("sftp.pool.wait.count").value == waits
+        ConcurrentTestUtil.poll { assert sftpServer.activeSessionCount == 0 }
+
+        cleanup:
+        idleFactory?.stop()
+    }
+
+    private URI uri(String path) {
+        new URI("${sftpServer.uri}${path}")
+    }
+}
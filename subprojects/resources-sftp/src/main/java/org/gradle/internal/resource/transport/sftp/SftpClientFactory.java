@@ -17,96 +17,342 @@
 package org.gradle.internal.resource.transport.sftp;
 
 import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.HashMultiset;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multiset;
 import com.jcraft.jsch.*;
 import net.jcip.annotations.ThreadSafe;
 import org.gradle.api.artifacts.repositories.PasswordCredentials;
 import org.gradle.api.resources.ResourceException;
+import org.gradle.internal.UncheckedException;
 import org.gradle.internal.concurrent.CompositeStoppable;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.ManagedScheduledExecutor;
 import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.metrics.Counter;
+import org.gradle.internal.metrics.Histogram;
+import org.gradle.internal.metrics.Metrics;
+import org.gradle.internal.time.Clock;
+import org.gradle.internal.time.CountdownTimer;
+import org.gradle.internal.time.Time;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.URI;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * A pool of sftp clients. Each client is an sftp channel, and the channels to a host share a bounded number of SSH sessions.
+ *
+ * <p>The number of clients in use for a host at the same time is bounded, and further requests for a client wait until one is released,
+ * failing when none is released within the acquire timeout.
+ * Clients that have been idle for longer than the idle timeout are closed the next time a client is acquired or released, or by a periodic check
+ * when the pool is not in use, and a session is closed along with its last channel. Clients are closed without holding the lock of the pool.
+ * The number of waits for a client and the time spent waiting are recorded in the {@code sftp.pool.wait.count} and {@code sftp.pool.wait.nanos} metrics.
+ * The limits can be changed using the {@value #MAX_CLIENTS_PER_HOST_PROPERTY}, {@value #MAX_CHANNELS_PER_SESSION_PROPERTY},
+ * {@value #IDLE_TIMEOUT_PROPERTY} (in milliseconds) and {@value #ACQUIRE_TIMEOUT_PROPERTY} (in milliseconds) system properties.</p>
+ */
 @ThreadSafe
 public class SftpClientFactory implements Stoppable {
+    public static final String MAX_CLIENTS_PER_HOST_PROPERTY = "org.gradle.internal.sftp.maxClientsPerHost";
+    public static final String MAX_CHANNELS_PER_SESSION_PROPERTY = "org.gradle.internal.sftp.maxChannelsPerSession";
+    public static final String IDLE_TIMEOUT_PROPERTY = "org.gradle.internal.sftp.idleTimeout";
+    public static final String ACQUIRE_TIMEOUT_PROPERTY = "org.gradle.internal.sftp.acquireTimeout";
+
     private static final Logger LOGGER = LoggerFactory.getLogger(SftpClientFactory.class);
+    private static final int DEFAULT_MAX_CLIENTS_PER_HOST = 8;
+    // OpenSSH allows 10 channels per session by default
+    private static final int DEFAULT_MAX_CHANNELS_PER_SESSION = 4;
+    private static final long DEFAULT_IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(2);
+    private static final long DEFAULT_ACQUIRE_TIMEOUT = TimeUnit.MINUTES.toMillis(10);
+    private static final long MIN_EVICTION_INTERVAL = TimeUnit.SECONDS.toMillis(1);
+    private static final Counter POOL_WAITS = Metrics.counter("sftp.pool.wait.count");
+    private static final Histogram POOL_WAIT_TIME = Metrics.histogram("sftp.pool.wait.nanos");
 
-    private SftpClientCreator sftpClientCreator = new SftpClientCreator();
-    private final Object lock = new Object();
+    private SftpClientCreator sftpClientCreator;
+    private Clock clock = Time.clock();
+    private final int maxClientsPerHost;
+    private final long idleTimeout;
+    private final long acquireTimeout;
+    private final Lock lock = new ReentrantLock();
+    private final Condition clientReleased = lock.newCondition();
     private final List<LockableSftpClient> allClients = Lists.newArrayList();
     private final ListMultimap<SftpHost, LockableSftpClient> idleClients = ArrayListMultimap.create();
+    private final Map<LockableSftpClient, Long> idleSince = Maps.newHashMap();
+    // Includes the clients that are being created
+    private final Multiset<SftpHost> clientsPerHost = HashMultiset.create();
+    private ManagedScheduledExecutor evictionScheduler;
+
+    public SftpClientFactory(ExecutorFactory executorFactory) {
+        this(Integer.getInteger(MAX_CLIENTS_PER_HOST_PROPERTY, DEFAULT_MAX_CLIENTS_PER_HOST),
+            Integer.getInteger(MAX_CHANNELS_PER_SESSION_PROPERTY, DEFAULT_MAX_CHANNELS_PER_SESSION),
+            Long.getLong(IDLE_TIMEOUT_PROPERTY, DEFAULT_IDLE_TIMEOUT),
+            Long.getLong(ACQUIRE_TIMEOUT_PROPERTY, DEFAULT_ACQUIRE_TIMEOUT));
+        scheduleIdleClientEviction(executorFactory);
+    }
+
+    SftpClientFactory(int maxClientsPerHost, int maxChannelsPerSession, long idleTimeout) {
+        this(maxClientsPerHost, maxChannelsPerSession, idleTimeout, DEFAULT_ACQUIRE_TIMEOUT);
+    }
+
+    SftpClientFactory(int maxClientsPerHost, int maxChannelsPerSession, long idleTimeout, long acquireTimeout) {
+        this.maxClientsPerHost = Math.max(1, maxClientsPerHost);
+        this.idleTimeout = idleTimeout;
+        this.acquireTimeout = Math.max(1, acquireTimeout);
+        this.sftpClientCreator = new SftpClientCreator(Math.max(1, maxChannelsPerSession));
+    }
+
+    /**
+     * Closes idle clients periodically, so that a daemon that no longer uses an sftp repository does not keep its sessions open.
+     */
+    void scheduleIdleClientEviction(ExecutorFactory executorFactory) {
+        long interval = Math.max(MIN_EVICTION_INTERVAL, idleTimeout);
+        evictionScheduler = executorFactory.createScheduled("sftp idle client eviction", 1);
+        evictionScheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                evictIdleClients();
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
 
+    /**
+     * Returns an idle client for the host, or connects a new one. Waits for a client to be released when the maximum number of clients for the host are in use.
+     *
+     * @throws ResourceException when no client is released within the acquire timeout.
+     */
     public LockableSftpClient createSftpClient(URI uri, PasswordCredentials credentials) {
-        synchronized (lock) {
-            SftpHost sftpHost = new SftpHost(uri, credentials);
-            return acquireClient(sftpHost);
+        SftpHost sftpHost = new SftpHost(uri, credentials);
+        List<LockableSftpClient> clientsToStop = Lists.newArrayList();
+        lock.lock();
+        try {
+            LockableSftpClient client = acquireClient(sftpHost, clientsToStop);
+            if (client != null) {
+                return client;
+            }
+            clientsPerHost.add(sftpHost);
+        } finally {
+            lock.unlock();
+            stopClients(clientsToStop);
+        }
+        // Connect without holding the lock, so that clients for other hosts, and idle clients, can be handed out meanwhile
+        return createNewClient(sftpHost);
+    }
+
+    /**
+     * Returns an idle client, or null when a new client can be created. Clients that are discarded on the way are added to the given list, to be stopped once the lock is released.
+     */
+    private LockableSftpClient acquireClient(SftpHost sftpHost, List<LockableSftpClient> clientsToStop) {
+        evictIdleClients(clientsToStop);
+        CountdownTimer timer = null;
+        long waitStart = 0;
+        try {
+            while (true) {
+                LockableSftpClient client = reuseExistingClient(sftpHost, clientsToStop);
+                if (client != null || clientsPerHost.count(sftpHost) < maxClientsPerHost) {
+                    return client;
+                }
+                if (!clientsToStop.isEmpty()) {
+                    // Don't keep discarded clients open while waiting
+                    lock.unlock();
+                    try {
+                        stopClients(clientsToStop);
+                    } finally {
+                        lock.lock();
+                    }
+                    continue;
+                }
+                if (timer == null) {
+                    LOGGER.debug("All {} sftp clients for {} are in use. Waiting for one to be released.", maxClientsPerHost, sftpHost);
+                    timer = Time.startCountdownTimer(acquireTimeout);
+                    POOL_WAITS.increment();
+                    if (Metrics.isEnabled()) {
+                        waitStart = System.nanoTime();
+                    }
+                }
+                if (timer.hasExpired()) {
+                    throw acquireTimeoutFailure(sftpHost);
+                }
+                clientReleased.await(timer.getRemainingMillis(), TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        } finally {
+            if (timer != null && Metrics.isEnabled()) {
+                POOL_WAIT_TIME.record(System.nanoTime() - waitStart);
+            }
         }
     }
 
-    private LockableSftpClient acquireClient(SftpHost sftpHost) {
-        return idleClients.containsKey(sftpHost) ? reuseExistingOrCreateNewClient(sftpHost) : createNewClient(sftpHost);
+    private ResourceException acquireTimeoutFailure(SftpHost sftpHost) {
+        URI serverUri = URI.create(String.format("sftp://%s:%d", sftpHost.getHostname(), sftpHost.getPort()));
+        return new ResourceException(serverUri, String.format("Timed out after %dms waiting for a connection to SFTP server at %s, as all %d connections to the server were in use. The timeout can be changed using the %s system property.",
+            acquireTimeout, serverUri, maxClientsPerHost, ACQUIRE_TIMEOUT_PROPERTY));
     }
 
-    private LockableSftpClient reuseExistingOrCreateNewClient(SftpHost sftpHost) {
+    private LockableSftpClient reuseExistingClient(SftpHost sftpHost, List<LockableSftpClient> clientsToStop) {
         List<LockableSftpClient> clientsByHost = idleClients.get(sftpHost);
+        while (!clientsByHost.isEmpty()) {
+            LockableSftpClient client = clientsByHost.remove(0);
+            idleSince.remove(client);
+            if (client.isConnected()) {
+                LOGGER.debug("Reusing an existing sftp client.");
+                return client;
+            }
+            LOGGER.info("Tried to reuse an existing sftp client, but unexpectedly found it disconnected.  Discarding and trying again.");
+            discard(sftpHost, client, clientsToStop);
+        }
+        return null;
+    }
 
+    private LockableSftpClient createNewClient(SftpHost sftpHost) {
         LockableSftpClient client = null;
-        if (clientsByHost.isEmpty()) {
-            LOGGER.debug("No existing sftp clients.  Creating a new one.");
-            client = createNewClient(sftpHost);
-        } else {
-            client = clientsByHost.remove(0);
-            if (!client.isConnected()) {
-                LOGGER.info("Tried to reuse an existing sftp client, but unexpectedly found it disconnected.  Discarding and trying again.");
-                discard(client);
-                client = reuseExistingOrCreateNewClient(sftpHost);
-            } else {
-                LOGGER.debug("Reusing an existing sftp client.");
+        try {
+            client = sftpClientCreator.createNewClient(sftpHost);
+            return client;
+        } finally {
+            lock.lock();
+            try {
+                if (client != null) {
+                    allClients.add(client);
+                } else {
+                    clientsPerHost.remove(sftpHost);
+                    clientReleased.signalAll();
+                }
+            } finally {
+                lock.unlock();
             }
         }
+    }
 
-        return client;
+    void evictIdleClients() {
+        List<LockableSftpClient> clientsToStop = Lists.newArrayList();
+        lock.lock();
+        try {
+            evictIdleClients(clientsToStop);
+        } finally {
+            lock.unlock();
+            stopClients(clientsToStop);
+        }
     }
 
-    private LockableSftpClient createNewClient(SftpHost sftpHost) {
-        LockableSftpClient client = sftpClientCreator.createNewClient(sftpHost);
-        allClients.add(client);
-        return client;
+    private void evictIdleClients(List<LockableSftpClient> clientsToStop) {
+        if (idleClients.isEmpty()) {
+            return;
+        }
+        long now = clock.getCurrentTime();
+        Iterator<Map.Entry<SftpHost, LockableSftpClient>> iterator = idleClients.entries().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<SftpHost, LockableSftpClient> entry = iterator.next();
+            LockableSftpClient client = entry.getValue();
+            if (now - idleSince.get(client) >= idleTimeout) {
+                LOGGER.debug("Closing sftp client for {} that has been idle for more than {}ms.", entry.getKey(), idleTimeout);
+                iterator.remove();
+                idleSince.remove(client);
+                discard(entry.getKey(), client, clientsToStop);
+            }
+        }
     }
 
-    private void discard(LockableSftpClient client) {
+    /**
+     * Removes the client from the pool. The client is added to the given list, to be stopped once the lock is released.
+     */
+    private void discard(SftpHost sftpHost, LockableSftpClient client, List<LockableSftpClient> clientsToStop) {
+        allClients.remove(client);
+        clientsPerHost.remove(sftpHost);
+        clientsToStop.add(client);
+        clientReleased.signalAll();
+    }
+
+    private static void stopClients(List<LockableSftpClient> clients) {
+        if (clients.isEmpty()) {
+            return;
+        }
         try {
-            client.stop();
+            CompositeStoppable.stoppable(clients).stop();
         } finally {
-            allClients.remove(client);
+            clients.clear();
         }
     }
 
     private static class SftpClientCreator {
+        private final int maxChannelsPerSession;
+        private final Object lock = new Object();
+        private final ListMultimap<SftpHost, SharedSession> sessions = ArrayListMultimap.create();
         private JSch jsch;
 
+        SftpClientCreator(int maxChannelsPerSession) {
+            this.maxChannelsPerSession = maxChannelsPerSession;
+        }
+
         public LockableSftpClient createNewClient(SftpHost sftpHost) {
+            SharedSession session = acquireSession(sftpHost, true);
+            try {
+                return openChannel(sftpHost, session);
+            } catch (JSchException e) {
+                if (!session.releaseAndStopSharing()) {
+                    throw connectionFailure(sftpHost, e);
+                }
+                // The server may limit the number of channels per session
+                LOGGER.debug("Could not open another sftp channel on an existing session. Connecting a new session.", e);
+            }
+            session = acquireSession(sftpHost, false);
+            try {
+                return openChannel(sftpHost, session);
+            } catch (JSchException e) {
+                session.release();
+                throw connectionFailure(sftpHost, e);
+            }
+        }
+
+        private LockableSftpClient openChannel(SftpHost sftpHost, SharedSession session) throws JSchException {
+            Channel channel = session.session.openChannel("sftp");
+            channel.connect();
+            return new DefaultLockableSftpClient(sftpHost, (ChannelSftp) channel, session);
+        }
+
+        private SharedSession acquireSession(SftpHost sftpHost, boolean allowShared) {
+            if (allowShared) {
+                synchronized (lock) {
+                    for (SharedSession session : sessions.get(sftpHost)) {
+                        if (session.shareable && session.channels < maxChannelsPerSession && session.session.isConnected()) {
+                            session.channels++;
+                            return session;
+                        }
+                    }
+                }
+            }
             try {
                 Session session = createJsch().getSession(sftpHost.getUsername(), sftpHost.getHostname(), sftpHost.getPort());
                 session.setPassword(sftpHost.getPassword());
                 session.connect();
-                Channel channel = session.openChannel("sftp");
-                channel.connect();
-                return new DefaultLockableSftpClient(sftpHost, (ChannelSftp) channel, session);
-            } catch (JSchException e) {
-                URI serverUri = URI.create(String.format("sftp://%s:%d", sftpHost.getHostname(), sftpHost.getPort()));
-                if (e.getMessage().equals("Auth fail")) {
-                    throw new ResourceException(serverUri, String.format("Password authentication not supported or invalid credentials for SFTP server at %s", serverUri), e);
+                SharedSession sharedSession = new SharedSession(sftpHost, session);
+                synchronized (lock) {
+                    sessions.put(sftpHost, sharedSession);
                 }
-                throw new ResourceException(serverUri, String.format("Could not connect to SFTP server at %s", serverUri), e);
+                return sharedSession;
+            } catch (JSchException e) {
+                throw connectionFailure(sftpHost, e);
+            }
+        }
+
+        private static ResourceException connectionFailure(SftpHost sftpHost, JSchException e) {
+            URI serverUri = URI.create(String.format("sftp://%s:%d", sftpHost.getHostname(), sftpHost.getPort()));
+            if ("Auth fail".equals(e.getMessage())) {
+                return new ResourceException(serverUri, String.format("Password authentication not supported or invalid credentials for SFTP server at %s", serverUri), e);
             }
+            return new ResourceException(serverUri, String.format("Could not connect to SFTP server at %s", serverUri), e);
         }
 
-        private JSch createJsch() {
+        private synchronized JSch createJsch() {
             if (jsch == null) {
                 JSch.setConfig("PreferredAuthentications", "password");
                 JSch.setConfig("MaxAuthTries", "1");
@@ -150,39 +396,99 @@ public class SftpClientFactory implements Stoppable {
             }
             return jsch;
         }
+
+        /**
+         * An SSH session shared by up to the maximum number of channels. The session is closed when its last channel is closed.
+         */
+        private class SharedSession {
+            private final SftpHost host;
+            private final Session session;
+            private int channels = 1;
+            private boolean shareable = true;
+
+            SharedSession(SftpHost host, Session session) {
+                this.host = host;
+                this.session = session;
+            }
+
+            void release() {
+                synchronized (lock) {
+                    if (--channels > 0) {
+                        return;
+                    }
+                    sessions.remove(host, this);
+                }
+                session.disconnect();
+            }
+
+            /**
+             * Releases a channel that could not be opened, and stops handing out the session for further channels.
+             *
+             * @return true when the session is still used by other channels.
+             */
+            boolean releaseAndStopSharing() {
+                synchronized (lock) {
+                    shareable = false;
+                    if (--channels > 0) {
+                        return true;
+                    }
+                    sessions.remove(host, this);
+                }
+                session.disconnect();
+                return false;
+            }
+        }
     }
 
     public void releaseSftpClient(LockableSftpClient sftpClient) {
-        synchronized (lock) {
+        List<LockableSftpClient> clientsToStop = Lists.newArrayList();
+        lock.lock();
+        try {
             idleClients.put(sftpClient.getHost(), sftpClient);
+            idleSince.put(sftpClient, clock.getCurrentTime());
+            evictIdleClients(clientsToStop);
+            clientReleased.signalAll();
+        } finally {
+            lock.unlock();
+            stopClients(clientsToStop);
         }
     }
 
     public void stop() {
-        synchronized (lock) {
-            try {
-                CompositeStoppable.stoppable(allClients).stop();
-            } finally {
-                allClients.clear();
-                idleClients.clear();
-            }
+        if (evictionScheduler != null) {
+            evictionScheduler.stop();
         }
+        List<LockableSftpClient> clientsToStop;
+        lock.lock();
+        try {
+            clientsToStop = Lists.newArrayList(allClients);
+            allClients.clear();
+            idleClients.clear();
+            idleSince.clear();
+            clientsPerHost.clear();
+        } finally {
+            lock.unlock();
+        }
+        stopClients(clientsToStop);
     }
 
     private static class DefaultLockableSftpClient implements LockableSftpClient {
         final SftpHost host;
         final ChannelSftp channelSftp;
-        final Session session;
+        final SftpClientCreator.SharedSession session;
 
-        private DefaultLockableSftpClient(SftpHost host, ChannelSftp channelSftp, Session session) {
+        private DefaultLockableSftpClient(SftpHost host, ChannelSftp channelSftp, SftpClientCreator.SharedSession session) {
             this.host = host;
             this.channelSftp = channelSftp;
             this.session = session;
         }
 
         public void stop() {
-            channelSftp.disconnect();
-            session.disconnect();
+            try {
+                channelSftp.disconnect();
+            } finally {
+                session.release();
+            }
         }
 
         public SftpHost getHost() {
@@ -63,6 +63,9 @@ public class SftpResource implements ExternalResourceReadResponse {
     }
 
     public void close() {
-        clientFactory.releaseSftpClient(client);
+        if (client != null) {
+            clientFactory.releaseSftpClient(client);
+            client = null;
+        }
     }
 }
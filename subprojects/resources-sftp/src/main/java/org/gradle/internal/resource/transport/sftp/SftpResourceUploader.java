@@ -77,7 +77,19 @@ public class SftpResourceUploader implements ExternalResourceUploader {
         try {
             channel.mkdir(parentPath);
         } catch (com.jcraft.jsch.SftpException e) {
-            throw new ResourceException(parent, String.format("Could not create resource '%s'.", parent), e);
+            if (!exists(channel, parentPath)) {
+                throw new ResourceException(parent, String.format("Could not create resource '%s'.", parent), e);
+            }
+            // Created by a concurrent upload
+        }
+    }
+
+    private static boolean exists(ChannelSftp channel, String path) {
+        try {
+            channel.lstat(path);
+            return true;
+        } catch (com.jcraft.jsch.SftpException e) {
+            return false;
         }
     }
 }
@@ -17,6 +17,7 @@
 package org.gradle.internal.resource.transport.sftp;
 
 
+import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.internal.resource.connector.ResourceConnectorFactory;
 import org.gradle.internal.service.ServiceRegistration;
 import org.gradle.internal.service.scopes.AbstractPluginServiceRegistry;
@@ -27,8 +28,8 @@ public class SftpResourcesPluginServiceRegistry extends AbstractPluginServiceReg
     }
 
     private static class GlobalScopeServices {
-        SftpClientFactory createSftpClientFactory() {
-            return new SftpClientFactory();
+        SftpClientFactory createSftpClientFactory(ExecutorFactory executorFactory) {
+            return new SftpClientFactory(executorFactory);
         }
 
         ResourceConnectorFactory createSftpConnectorFactory(SftpClientFactory clientFactory) {
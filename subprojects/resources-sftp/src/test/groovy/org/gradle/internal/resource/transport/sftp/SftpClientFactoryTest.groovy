@@ -17,13 +17,18 @@
 package org.gradle.internal.resource.transport.sftp
 
 import org.gradle.api.artifacts.repositories.PasswordCredentials
+import org.gradle.api.resources.ResourceException
+import org.gradle.internal.concurrent.DefaultExecutorFactory
 import org.gradle.internal.credentials.DefaultPasswordCredentials
+import org.gradle.internal.metrics.Metrics
+import org.gradle.internal.time.MockClock
+import org.gradle.test.fixtures.ConcurrentTestUtil
 import org.gradle.test.fixtures.concurrent.ConcurrentSpec
 
 import static org.gradle.internal.resource.transport.sftp.SftpClientFactory.SftpClientCreator
 
 class SftpClientFactoryTest extends ConcurrentSpec {
-    SftpClientFactory sftpClientFactory = new SftpClientFactory()
+    SftpClientFactory sftpClientFactory = new SftpClientFactory(8, 4, 120000)
     SftpClientCreator sftpClientCreator = Mock(SftpClientCreator)
 
     def setup() {
@@ -346,6 +351,188 @@ class SftpClientFactoryTest extends ConcurrentSpec {
         1 * mockSftpClient2.stop()
     }
 
+    def "waits for a client to be released when the maximum number of clients for a host are in use"() {
+        def mockSftpClient = Mock(LockableSftpClient)
+        def factory = new SftpClientFactory(1, 1, 60000)
+        factory.sftpClientCreator = sftpClientCreator
+
+        given:
+        URI uri = new URI('http://localhost:22/repo')
+        PasswordCredentials credentials = new DefaultPasswordCredentials('sftp', 'sftp')
+        LockableSftpClient client1
+        LockableSftpClient client2
+        def waits = poolWaits()
+
+        when:
+        async {
+            start {
+                client1 = factory.createSftpClient(uri, credentials)
+                instant.acquired1
+                thread.blockUntil.waiting
+                ConcurrentTestUtil.poll { assert hasWaiters(factory) }
+                factory.releaseSftpClient(client1)
+            }
+            start {
+                thread.blockUntil.acquired1
+                instant.waiting
+                client2 = factory.createSftpClient(uri, credentials)
+                instant.acquired2
+                factory.releaseSftpClient(client2)
+            }
+        }
+
+        then:
+        1 * sftpClientCreator.createNewClient(new SftpHost(uri, credentials)) >> mockSftpClient
+        mockSftpClient.host >> new SftpHost(uri, credentials)
+        mockSftpClient.connected >> true
+        client1 == client2
+        instant.acquired2 > instant.waiting
+        poolWaits() == waits + 1
+        factory.allClients.size() == 1
+    }
+
+    def "fails when no client is released within the acquire timeout"() {
+        def mockSftpClient = Mock(LockableSftpClient)
+        def factory = new SftpClientFactory(1, 1, 60000, 50)
+        factory.sftpClientCreator = sftpClientCreator
+
+        given:
+        URI uri = new URI('http://localhost:22/repo')
+        PasswordCredentials credentials = new DefaultPasswordCredentials('sftp', 'sftp')
+        sftpClientCreator.createNewClient(new SftpHost(uri, credentials)) >> mockSftpClient
+        def waits = poolWaits()
+
+        when:
+        factory.createSftpClient(uri, credentials)
+        factory.createSftpClient(uri, credentials)
+
+        then:
+        def e = thrown(ResourceException)
+        e.message == "Timed out after 50ms waiting for a connection to SFTP server at sftp://localhost:22, as all 1 connections to the server were in use. The timeout can be changed using the org.gradle.internal.sftp.acquireTimeout system property."
+        poolWaits() == waits + 1
+        factory.allClients.size() == 1
+    }
+
+    def "clients for other hosts are not limited by a host whose clients are all in use"() {
+        def mockSftpClient1 = Mock(LockableSftpClient)
+        def mockSftpClient2 = Mock(LockableSftpClient)
+        def factory = new SftpClientFactory(1, 1, 60000)
+        factory.sftpClientCreator = sftpClientCreator
+
+        given:
+        URI uri1 = new URI('http://host1:22/repo')
+        URI uri2 = new URI('http://host2:22/repo')
+        PasswordCredentials credentials = new DefaultPasswordCredentials('sftp', 'sftp')
+        def waits = poolWaits()
+
+        when:
+        def client1 = factory.createSftpClient(uri1, credentials)
+        def client2 = factory.createSftpClient(uri2, credentials)
+
+        then:
+        1 * sftpClientCreator.createNewClient(new SftpHost(uri1, credentials)) >> mockSftpClient1
+        1 * sftpClientCreator.createNewClient(new SftpHost(uri2, credentials)) >> mockSftpClient2
+        client1 == mockSftpClient1
+        client2 == mockSftpClient2
+        poolWaits() == waits
+    }
+
+    def "does not count a client that could not be connected against the limit"() {
+        def mockSftpClient = Mock(LockableSftpClient)
+        def factory = new SftpClientFactory(1, 1, 60000)
+        factory.sftpClientCreator = sftpClientCreator
+
+        given:
+        URI uri = new URI('http://localhost:22/repo')
+        PasswordCredentials credentials = new DefaultPasswordCredentials('sftp', 'sftp')
+
+        when:
+        factory.createSftpClient(uri, credentials)
+
+        then:
+        1 * sftpClientCreator.createNewClient(new SftpHost(uri, credentials)) >> { throw new RuntimeException("broken") }
+        thrown(RuntimeException)
+
+        when:
+        def client = factory.createSftpClient(uri, credentials)
+
+        then:
+        1 * sftpClientCreator.createNewClient(new SftpHost(uri, credentials)) >> mockSftpClient
+        client == mockSftpClient
+        factory.allClients.size() == 1
+    }
+
+    def "closes clients that have been idle for longer than the idle timeout"() {
+        def mockSftpClient1 = Mock(LockableSftpClient)
+        def mockSftpClient2 = Mock(LockableSftpClient)
+        def clock = new MockClock(0)
+        def factory = new SftpClientFactory(4, 4, 1000)
+        factory.sftpClientCreator = sftpClientCreator
+        factory.clock = clock
+
+        given:
+        URI uri = new URI('http://localhost:22/repo')
+        PasswordCredentials credentials = new DefaultPasswordCredentials('sftp', 'sftp')
+        sftpClientCreator.createNewClient(new SftpHost(uri, credentials)) >>> [mockSftpClient1, mockSftpClient2]
+        mockSftpClient1.host >> new SftpHost(uri, credentials)
+        mockSftpClient2.host >> new SftpHost(uri, credentials)
+        mockSftpClient2.connected >> true
+
+        when:
+        def client1 = factory.createSftpClient(uri, credentials)
+        def client2 = factory.createSftpClient(uri, credentials)
+        factory.releaseSftpClient(client1)
+        clock.increment(500)
+        factory.releaseSftpClient(client2)
+        clock.increment(600)
+        def reused = factory.createSftpClient(uri, credentials)
+
+        then:
+        1 * mockSftpClient1.stop() >> { assert !factory.lock.isHeldByCurrentThread() }
+        0 * mockSftpClient2.stop()
+        reused == client2
+        factory.allClients == [client2]
+        factory.idleClients.isEmpty()
+    }
+
+    def "closes idle clients in the background"() {
+        def mockSftpClient = Mock(LockableSftpClient)
+        def executorFactory = new DefaultExecutorFactory()
+        def factory = new SftpClientFactory(4, 4, 0)
+        factory.sftpClientCreator = sftpClientCreator
+
+        given:
+        URI uri = new URI('http://localhost:22/repo')
+        PasswordCredentials credentials = new DefaultPasswordCredentials('sftp', 'sftp')
+        sftpClientCreator.createNewClient(new SftpHost(uri, credentials)) >> mockSftpClient
+        mockSftpClient.host >> new SftpHost(uri, credentials)
+        factory.releaseSftpClient(factory.createSftpClient(uri, credentials))
+
+        when:
+        factory.scheduleIdleClientEviction(executorFactory)
+
+        then:
+        ConcurrentTestUtil.poll { assert factory.allClients.isEmpty() }
+        factory.idleClients.isEmpty()
+
+        cleanup:
+        factory.stop()
+        executorFactory.stop()
+    }
+
+    private static long poolWaits() {
+        Metrics.counter("sftp.pool.wait.count").value
+    }
+
+    private static boolean hasWaiters(SftpClientFactory factory) {
+        factory.lock.lock()
+        try {
+            factory.lock.hasWaiters(factory.clientReleased)
+        } finally {
+            factory.lock.unlock()
+        }
+    }
+
     private List<SftpHost> getClientsForSftpHost(URI uri, PasswordCredentials credentials) {
         sftpClientFactory.idleClients.get(new SftpHost(uri, credentials))
     }
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.internal.resource.local;
+
+import javax.annotation.Nullable;
+import java.io.File;
+
+/**
+ * A {@link FileAccessTimeJournal} that maintains an index of the tracked files ordered by their last access time,
+ * so that the files that have not been accessed recently can be found without walking the file system.
+ */
+public interface IndexedFileAccessTimeJournal extends FileAccessTimeJournal {
+
+    /**
+     * Visits the indexed files below the given directory that have not been accessed since the given timestamp, least recently accessed first.
+     * Visited files that no longer exist after the visitor returns are removed from the index.
+     */
+    void visitFilesAccessedBefore(File baseDir, long timestamp, ExpiredFileVisitor visitor);
+
+    /**
+     * Returns the time of the last complete walk of the given directory, which adds any files not yet in the index, or 0 when it has never been walked.
+     */
+    long getLastFullScanTime(File baseDir);
+
+    void setLastFullScanTime(File baseDir, long millis);
+
+    /**
+     * Adds the given file to the index under the day of its last access time, unless it is already indexed under that day.
+     */
+    void addToIndex(File file);
+
+    /**
+     * Returns the path, relative to the given directory, of the last file handled by a walk of the directory that did not complete, or {@code null} when there is no such walk.
+     */
+    @Nullable
+    String getFullScanProgress(File baseDir);
+
+    /**
+     * Records the last file handled by an incomplete walk of the given directory, so that the next walk can continue after it. Pass {@code null} when the walk completes.
+     */
+    void setFullScanProgress(File baseDir, @Nullable String lastScannedPath);
+
+    interface ExpiredFileVisitor {
+        /**
+         * Visits a file that has not been accessed since the requested timestamp.
+         *
+         * @return whether to continue visiting files.
+         */
+        boolean visitFile(File file);
+    }
+}
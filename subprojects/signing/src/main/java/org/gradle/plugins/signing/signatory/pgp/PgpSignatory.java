@@ -40,6 +40,7 @@ import java.security.Security;
  * PGP signatory from PGP key and password.
  */
 public class PgpSignatory extends SignatorySupport {
+    private static final int BUFFER_SIZE = 64 * 1024;
 
     {
         Security.addProvider(new BouncyCastleProvider());
@@ -87,7 +88,7 @@ public class PgpSignatory extends SignatorySupport {
     }
 
     private void feedGeneratorWith(InputStream toSign, PGPSignatureGenerator generator) throws IOException {
-        byte[] buffer = new byte[1024];
+        byte[] buffer = new byte[BUFFER_SIZE];
         int read = toSign.read(buffer);
         while (read > 0) {
             generator.update(buffer, 0, read);
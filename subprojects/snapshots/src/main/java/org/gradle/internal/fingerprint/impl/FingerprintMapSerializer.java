@@ -30,9 +30,18 @@ import java.io.IOException;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
+/**
+ * Serializes the fingerprints of a file collection, keeping the order of the entries.
+ *
+ * <p>Absolute paths are front-coded: each path is written as the length of the prefix it shares with the previous path, followed by the rest of the path.
+ * Snapshots visit the files of a directory tree one after the other, so consecutive paths usually share all but their last segment.
+ * Normalized paths that are a suffix of the absolute path, which is the case for all normalizations but the ones that change the separator,
+ * are written as their length only.</p>
+ */
 public class FingerprintMapSerializer extends AbstractSerializer<Map<String, FileSystemLocationFingerprint>> {
     private static final byte DEFAULT_NORMALIZATION = 1;
     private static final byte IGNORED_PATH_NORMALIZATION = 2;
+    private static final byte SUFFIX_OF_ABSOLUTE_PATH_NORMALIZATION = 3;
 
     private static final byte DIR_FINGERPRINT = 1;
     private static final byte MISSING_FILE_FINGERPRINT = 2;
@@ -49,15 +58,19 @@ public class FingerprintMapSerializer extends AbstractSerializer<Map<String, Fil
     public Map<String, FileSystemLocationFingerprint> read(Decoder decoder) throws IOException {
         int fingerprintCount = decoder.readSmallInt();
         Map<String, FileSystemLocationFingerprint> fingerprints = new LinkedHashMap<String, FileSystemLocationFingerprint>(fingerprintCount);
+        String previousPath = "";
         for (int i = 0; i < fingerprintCount; i++) {
-            String absolutePath = stringInterner.intern(decoder.readString());
-            FileSystemLocationFingerprint fingerprint = readFingerprint(decoder);
+            int sharedPrefixLength = decoder.readSmallInt();
+            String suffix = decoder.readString();
+            String absolutePath = stringInterner.intern(sharedPrefixLength == 0 ? suffix : previousPath.substring(0, sharedPrefixLength).concat(suffix));
+            FileSystemLocationFingerprint fingerprint = readFingerprint(decoder, absolutePath);
             fingerprints.put(absolutePath, fingerprint);
+            previousPath = absolutePath;
         }
         return fingerprints;
     }
 
-    private FileSystemLocationFingerprint readFingerprint(Decoder decoder) throws IOException {
+    private FileSystemLocationFingerprint readFingerprint(Decoder decoder, String absolutePath) throws IOException {
         FileType fileType = readFileType(decoder);
         HashCode contentHash = readContentHash(fileType, decoder);
 
@@ -66,6 +79,10 @@ public class FingerprintMapSerializer extends AbstractSerializer<Map<String, Fil
             case DEFAULT_NORMALIZATION:
                 String normalizedPath = decoder.readString();
                 return new DefaultFileSystemLocationFingerprint(stringInterner.intern(normalizedPath), fileType, contentHash);
+            case SUFFIX_OF_ABSOLUTE_PATH_NORMALIZATION:
+                int normalizedPathLength = decoder.readSmallInt();
+                String suffix = absolutePath.substring(absolutePath.length() - normalizedPathLength);
+                return new DefaultFileSystemLocationFingerprint(stringInterner.intern(suffix), fileType, contentHash);
             case IGNORED_PATH_NORMALIZATION:
                 return IgnoredPathFileSystemLocationFingerprint.create(fileType, contentHash);
             default:
@@ -103,11 +120,28 @@ public class FingerprintMapSerializer extends AbstractSerializer<Map<String, Fil
     @Override
     public void write(Encoder encoder, Map<String, FileSystemLocationFingerprint> value) throws Exception {
         encoder.writeSmallInt(value.size());
-        for (String key : value.keySet()) {
-            encoder.writeString(key);
-            FileSystemLocationFingerprint fingerprint = value.get(key);
-            writeFingerprint(encoder, fingerprint);
+        String previousPath = "";
+        for (Map.Entry<String, FileSystemLocationFingerprint> entry : value.entrySet()) {
+            String absolutePath = entry.getKey();
+            int sharedPrefixLength = sharedPrefixLength(previousPath, absolutePath);
+            encoder.writeSmallInt(sharedPrefixLength);
+            encoder.writeString(absolutePath.substring(sharedPrefixLength));
+            writeFingerprint(encoder, absolutePath, entry.getValue());
+            previousPath = absolutePath;
+        }
+    }
+
+    private static int sharedPrefixLength(String previous, String current) {
+        int maxLength = Math.min(previous.length(), current.length());
+        int length = 0;
+        while (length < maxLength && previous.charAt(length) == current.charAt(length)) {
+            length++;
+        }
+        // Do not split a surrogate pair, as the rest of the path is written as a string of its own
+        if (length > 0 && Character.isHighSurrogate(current.charAt(length - 1))) {
+            length--;
         }
+        return length;
     }
 
     @Override
@@ -125,7 +159,7 @@ public class FingerprintMapSerializer extends AbstractSerializer<Map<String, Fil
         return Objects.hashCode(super.hashCode(), hashCodeSerializer);
     }
 
-    private void writeFingerprint(Encoder encoder, FileSystemLocationFingerprint value) throws IOException {
+    private void writeFingerprint(Encoder encoder, String absolutePath, FileSystemLocationFingerprint value) throws IOException {
         switch (value.getType()) {
             case Directory:
                 encoder.writeByte(DIR_FINGERPRINT);
@@ -142,8 +176,14 @@ public class FingerprintMapSerializer extends AbstractSerializer<Map<String, Fil
         }
 
         if (value instanceof DefaultFileSystemLocationFingerprint) {
-            encoder.writeByte(DEFAULT_NORMALIZATION);
-            encoder.writeString(value.getNormalizedPath());
+            String normalizedPath = value.getNormalizedPath();
+            if (absolutePath.endsWith(normalizedPath)) {
+                encoder.writeByte(SUFFIX_OF_ABSOLUTE_PATH_NORMALIZATION);
+                encoder.writeSmallInt(normalizedPath.length());
+            } else {
+                encoder.writeByte(DEFAULT_NORMALIZATION);
+                encoder.writeString(normalizedPath);
+            }
         } else if (value instanceof IgnoredPathFileSystemLocationFingerprint) {
             encoder.writeByte(IGNORED_PATH_NORMALIZATION);
         } else {
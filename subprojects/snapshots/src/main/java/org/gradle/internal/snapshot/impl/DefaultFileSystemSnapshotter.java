@@ -34,6 +34,9 @@ import org.gradle.internal.file.FileMetadataSnapshot;
 import org.gradle.internal.file.FileType;
 import org.gradle.internal.hash.FileHasher;
 import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.metrics.Counter;
+import org.gradle.internal.metrics.Histogram;
+import org.gradle.internal.metrics.Metrics;
 import org.gradle.internal.nativeintegration.filesystem.FileSystem;
 import org.gradle.internal.snapshot.FileSystemLocationSnapshot;
 import org.gradle.internal.snapshot.FileSystemMirror;
@@ -61,6 +64,8 @@ import java.util.List;
 @NonNullApi
 public class DefaultFileSystemSnapshotter implements FileSystemSnapshotter {
     private static final PatternSet EMPTY_PATTERN_SET = new PatternSet();
+    private static final Counter MIRROR_MISSES = Metrics.counter("snapshot.mirror.misses");
+    private static final Histogram SNAPSHOT_TIME = Metrics.histogram("snapshot.location.nanos");
 
     private final FileHasher hasher;
     private final StringInterner stringInterner;
@@ -145,8 +150,15 @@ public class DefaultFileSystemSnapshotter implements FileSystemSnapshotter {
     private FileSystemLocationSnapshot snapshotAndCache(InternableString absolutePath, File file, FileMetadataSnapshot metadata, @Nullable PatternSet patternSet) {
         FileSystemLocationSnapshot fileSystemLocationSnapshot = fileSystemMirror.getSnapshot(absolutePath.asNonInterned());
         if (fileSystemLocationSnapshot == null) {
+            MIRROR_MISSES.increment();
             MutableBoolean hasBeenFiltered = new MutableBoolean(false);
-            fileSystemLocationSnapshot = snapshot(absolutePath.asInterned(), patternSet, file, metadata, hasBeenFiltered);
+            if (Metrics.isEnabled()) {
+                long start = System.nanoTime();
+                fileSystemLocationSnapshot = snapshot(absolutePath.asInterned(), patternSet, file, metadata, hasBeenFiltered);
+                SNAPSHOT_TIME.record(System.nanoTime() - start);
+            } else {
+                fileSystemLocationSnapshot = snapshot(absolutePath.asInterned(), patternSet, file, metadata, hasBeenFiltered);
+            }
             if (!hasBeenFiltered.get()) {
                 fileSystemMirror.putSnapshot(fileSystemLocationSnapshot);
             }
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.integtests.tooling.r52
+
+import org.gradle.integtests.tooling.fixture.TargetGradleVersion
+import org.gradle.integtests.tooling.fixture.ToolingApiSpecification
+import org.gradle.integtests.tooling.fixture.ToolingApiVersion
+import org.gradle.tooling.ProjectConnection
+import org.gradle.tooling.model.build.BuildMetrics
+
+@ToolingApiVersion(">=5.2")
+@TargetGradleVersion(">=5.2")
+class BuildMetricsCrossVersionSpec extends ToolingApiSpecification {
+
+    def setup() {
+        buildFile << """
+            apply plugin: 'java'
+        """
+        file("src/main/java/Thing.java") << "public class Thing { }"
+    }
+
+    def "can fetch the metrics recorded while running tasks"() {
+        when:
+        BuildMetrics metrics = withConnection { ProjectConnection connection ->
+            connection.model(BuildMetrics).forTasks("compileJava").get()
+        }
+
+        then:
+        metrics.values["scheduler.node.execute.nanos.count"] > 0
+        metrics.values["scheduler.node.execute.nanos.sum"] > 0
+        metrics.values["hash.bytes"] > 0
+    }
+
+    def "reports the metrics of each build session rather than the totals of the build process"() {
+        when:
+        def first = withConnection { ProjectConnection connection ->
+            connection.model(BuildMetrics).forTasks("compileJava").get()
+        }
+        def second = withConnection { ProjectConnection connection ->
+            connection.model(BuildMetrics).forTasks("compileJava").get()
+        }
+
+        then:
+        second.values["scheduler.node.execute.nanos.count"] == first.values["scheduler.node.execute.nanos.count"]
+    }
+}
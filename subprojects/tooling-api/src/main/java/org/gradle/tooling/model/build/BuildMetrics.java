@@ -0,0 +1,57 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.tooling.model.build;
+
+import org.gradle.api.Incubating;
+import org.gradle.tooling.model.Model;
+
+import java.util.Map;
+
+/**
+ * The performance metrics recorded by the build process during the current build, such as the number of bytes hashed for file snapshots,
+ * the time spent waiting for cache locks or the time workers spent waiting for work.
+ * <p>
+ * Example:
+ * <pre class='autoTested'>
+ * ProjectConnection connection = GradleConnector.newConnector()
+ *    .forProjectDirectory(new File("someProjectFolder"))
+ *    .connect();
+ *
+ * try {
+ *    BuildMetrics metrics = connection.getModel(BuildMetrics.class);
+ *    System.out.println("Bytes hashed: " + metrics.getValues().get("hash.bytes"));
+ * } finally {
+ *    connection.close();
+ * }
+ * </pre>
+ *
+ * @since 5.2
+ */
+@Incubating
+public interface BuildMetrics extends Model {
+    /**
+     * Returns the values of the metrics, keyed by name. The names and meanings of the metrics are internal to Gradle and may change between versions.
+     * <p>
+     * Counters are reported under their own name. A metric that records a distribution of values, such as durations in nanoseconds,
+     * is reported as a set of values whose names are the name of the metric followed by {@code .count}, {@code .sum}, {@code .max},
+     * {@code .p50}, {@code .p90} and {@code .p99}. Metrics that did not change during the build are omitted.
+     *
+     * @since 5.2
+     */
+    Map<String, Long> getValues();
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.workers.internal;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.Collections;
+
+/**
+ * Measures the cost of transferring the parameters of 10k small work items, such as the ones submitted by code generators, with the compact encoding
+ * used for common parameter types and with the Java serialization used for all other types.
+ */
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class ActionParametersSerializationBenchmark {
+    private static final int WORK_ITEMS = 10000;
+
+    private final File inputFile = new File("src/main/templates/template.txt");
+    private final File outputDir = new File("build/generated");
+
+    @Benchmark
+    @OperationsPerInvocation(WORK_ITEMS)
+    public int commonParameterTypes() {
+        int count = 0;
+        for (int i = 0; i < WORK_ITEMS; i++) {
+            SerializingActionExecutionSpec spec = new SerializingActionExecutionSpec(NoOpAction.class, "no-op", new Object[]{inputFile, outputDir, "item" + i, true});
+            count += spec.getParams(NoOpAction.class.getClassLoader()).length;
+        }
+        return count;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WORK_ITEMS)
+    public int otherParameterTypes() {
+        int count = 0;
+        for (int i = 0; i < WORK_ITEMS; i++) {
+            SerializingActionExecutionSpec spec = new SerializingActionExecutionSpec(NoOpAction.class, "no-op", new Object[]{inputFile, outputDir, Collections.singletonList("item" + i), true});
+            count += spec.getParams(NoOpAction.class.getClassLoader()).length;
+        }
+        return count;
+    }
+
+    public static class NoOpAction implements Runnable {
+        @Override
+        public void run() {
+        }
+    }
+}
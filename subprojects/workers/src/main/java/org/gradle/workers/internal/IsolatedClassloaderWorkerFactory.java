@@ -16,6 +16,7 @@
 
 package org.gradle.workers.internal;
 
+import com.google.common.collect.Lists;
 import org.gradle.api.internal.AsmBackedClassGenerator;
 import org.gradle.api.internal.DefaultInstantiatorFactory;
 import org.gradle.api.internal.classloading.GroovySystemLoader;
@@ -32,6 +33,7 @@ import org.gradle.internal.classloader.MultiParentClassLoader;
 import org.gradle.internal.classloader.VisitableURLClassLoader;
 import org.gradle.internal.classpath.DefaultClassPath;
 import org.gradle.internal.concurrent.CompositeStoppable;
+import org.gradle.internal.concurrent.Stoppable;
 import org.gradle.internal.event.DefaultListenerManager;
 import org.gradle.internal.io.ClassLoaderObjectInputStream;
 import org.gradle.internal.operations.BuildOperationExecutor;
@@ -43,21 +45,40 @@ import org.gradle.workers.IsolationMode;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
-public class IsolatedClassloaderWorkerFactory implements WorkerFactory {
+/**
+ * Runs work in an isolated ClassLoader. By default, new ClassLoaders are created for each work item and discarded afterwards.
+ *
+ * <p>When the {@value #REUSE_CLASSLOADERS_PROPERTY} system property is set to {@code true}, the ClassLoaders for a given classpath and set of shared packages
+ * are instead created once and reused by all compatible work for the remainder of the build session, in the same way that a worker daemon is reused.</p>
+ */
+public class IsolatedClassloaderWorkerFactory implements WorkerFactory, Stoppable {
+    public static final String REUSE_CLASSLOADERS_PROPERTY = "org.gradle.workers.internal.classloader.reuse";
 
     private final ClassLoaderFactory classLoaderFactory;
     private final BuildOperationExecutor buildOperationExecutor;
     private final GroovySystemLoaderFactory groovySystemLoaderFactory = new GroovySystemLoaderFactory();
+    private final boolean reuseClassLoaders;
+    private final ConcurrentMap<WorkerClassLoaderKey, WorkerClassLoader> workerClassLoaders = new ConcurrentHashMap<WorkerClassLoaderKey, WorkerClassLoader>();
 
     public IsolatedClassloaderWorkerFactory(ClassLoaderFactory classLoaderFactory, BuildOperationExecutor buildOperationExecutor) {
+        this(classLoaderFactory, buildOperationExecutor, Boolean.getBoolean(REUSE_CLASSLOADERS_PROPERTY));
+    }
+
+    IsolatedClassloaderWorkerFactory(ClassLoaderFactory classLoaderFactory, BuildOperationExecutor buildOperationExecutor, boolean reuseClassLoaders) {
         this.classLoaderFactory = classLoaderFactory;
         this.buildOperationExecutor = buildOperationExecutor;
+        this.reuseClassLoaders = reuseClassLoaders;
     }
 
     @Override
@@ -80,26 +101,55 @@ public class IsolatedClassloaderWorkerFactory implements WorkerFactory {
         return IsolationMode.CLASSLOADER;
     }
 
+    @Override
+    public void stop() {
+        List<WorkerClassLoader> classLoaders = new ArrayList<WorkerClassLoader>(workerClassLoaders.values());
+        workerClassLoaders.clear();
+        CompositeStoppable.stoppable(classLoaders).stop();
+    }
+
     private DefaultWorkResult executeInWorkerClassLoader(ActionExecutionSpec spec, DaemonForkOptions forkOptions) {
-        ClassLoader actionClasspathLoader = createActionClasspathLoader(forkOptions);
-        GroovySystemLoader actionClasspathGroovy = groovySystemLoaderFactory.forClassLoader(actionClasspathLoader);
-        ClassLoader workerClassLoader = createWorkerClassLoader(actionClasspathLoader, forkOptions.getSharedPackages(), spec.getClass());
+        WorkerClassLoader workerClassLoader = reuseClassLoaders ? getSharedWorkerClassLoader(spec, forkOptions) : createWorkerClassLoader(spec, forkOptions);
 
         ClassLoader previousContextLoader = Thread.currentThread().getContextClassLoader();
         try {
-            Thread.currentThread().setContextClassLoader(workerClassLoader);
-            Callable<?> worker = transferWorkerIntoWorkerClassloader(spec, workerClassLoader);
+            Thread.currentThread().setContextClassLoader(workerClassLoader.workerClassLoader);
+            Callable<?> worker = transferWorkerIntoWorkerClassloader(spec, workerClassLoader.workerClassLoader);
             Object result = worker.call();
             return transferResultFromWorkerClassLoader(result);
         } catch (Exception e) {
             throw UncheckedException.throwAsUncheckedException(e);
         } finally {
-            actionClasspathGroovy.shutdown();
-            CompositeStoppable.stoppable(workerClassLoader, actionClasspathLoader).stop();
+            if (!reuseClassLoaders) {
+                workerClassLoader.stop();
+            }
             Thread.currentThread().setContextClassLoader(previousContextLoader);
         }
     }
 
+    private WorkerClassLoader getSharedWorkerClassLoader(ActionExecutionSpec spec, DaemonForkOptions forkOptions) {
+        WorkerClassLoaderKey key = new WorkerClassLoaderKey(forkOptions.getClasspath(), forkOptions.getSharedPackages(), spec.getClass().getClassLoader());
+        WorkerClassLoader workerClassLoader = workerClassLoaders.get(key);
+        if (workerClassLoader != null) {
+            return workerClassLoader;
+        }
+        // Create the ClassLoaders without holding any lock, and discard them if another thread has created them in the meantime
+        WorkerClassLoader newClassLoader = createWorkerClassLoader(spec, forkOptions);
+        workerClassLoader = workerClassLoaders.putIfAbsent(key, newClassLoader);
+        if (workerClassLoader != null) {
+            newClassLoader.stop();
+            return workerClassLoader;
+        }
+        return newClassLoader;
+    }
+
+    private WorkerClassLoader createWorkerClassLoader(ActionExecutionSpec spec, DaemonForkOptions forkOptions) {
+        ClassLoader actionClasspathLoader = createActionClasspathLoader(forkOptions);
+        GroovySystemLoader actionClasspathGroovy = groovySystemLoaderFactory.forClassLoader(actionClasspathLoader);
+        ClassLoader workerClassLoader = createWorkerClassLoader(actionClasspathLoader, forkOptions.getSharedPackages(), spec.getClass());
+        return new WorkerClassLoader(actionClasspathLoader, actionClasspathGroovy, workerClassLoader);
+    }
+
     private ClassLoader createActionClasspathLoader(DaemonForkOptions forkOptions) {
         return classLoaderFactory.createIsolatedClassLoader("worker-action-loader", DefaultClassPath.of(forkOptions.getClasspath()));
     }
@@ -146,6 +196,53 @@ public class IsolatedClassloaderWorkerFactory implements WorkerFactory {
         return (DefaultWorkResult) ois.readObject();
     }
 
+    private static class WorkerClassLoaderKey {
+        private final List<File> classpath;
+        private final List<String> sharedPackages;
+        private final ClassLoader specClassLoader;
+
+        WorkerClassLoaderKey(Iterable<File> classpath, Iterable<String> sharedPackages, ClassLoader specClassLoader) {
+            this.classpath = Lists.newArrayList(classpath);
+            this.sharedPackages = Lists.newArrayList(sharedPackages);
+            this.specClassLoader = specClassLoader;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            WorkerClassLoaderKey other = (WorkerClassLoaderKey) o;
+            return classpath.equals(other.classpath) && sharedPackages.equals(other.sharedPackages) && specClassLoader == other.specClassLoader;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * classpath.hashCode() + sharedPackages.hashCode();
+        }
+    }
+
+    private static class WorkerClassLoader implements Stoppable {
+        private final ClassLoader actionClasspathLoader;
+        private final GroovySystemLoader actionClasspathGroovy;
+        private final ClassLoader workerClassLoader;
+
+        WorkerClassLoader(ClassLoader actionClasspathLoader, GroovySystemLoader actionClasspathGroovy, ClassLoader workerClassLoader) {
+            this.actionClasspathLoader = actionClasspathLoader;
+            this.actionClasspathGroovy = actionClasspathGroovy;
+            this.workerClassLoader = workerClassLoader;
+        }
+
+        @Override
+        public void stop() {
+            actionClasspathGroovy.shutdown();
+            CompositeStoppable.stoppable(workerClassLoader, actionClasspathLoader).stop();
+        }
+    }
+
     /**
      * This is serialized across into the worker ClassLoader and then executed.
      */
@@ -158,7 +255,7 @@ public class IsolatedClassloaderWorkerFactory implements WorkerFactory {
 
         @Override
         public Object call() throws Exception {
-            // TODO - reuse these services, either by making the global instances visible or by reusing the worker ClassLoaders and retaining a reference to them
+            // TODO - reuse these services, either by making the global instances visible or by retaining a reference to them in the worker ClassLoaders
             DefaultInstantiatorFactory instantiatorFactory = new DefaultInstantiatorFactory(new AsmBackedClassGenerator(), new DefaultCrossBuildInMemoryCacheFactory(new DefaultListenerManager()));
             WorkerProtocol worker = new DefaultWorkerServer(instantiatorFactory.inject());
             return worker.execute(spec);
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.workers.internal;
+
+import org.gradle.internal.operations.BuildOperationType;
+
+/**
+ * Reservation of a worker daemon to run a work item, which may reuse an idle worker daemon, wait for a busy one or start a new one.
+ * The result reports the utilization of the worker daemon pool once the worker daemon has been reserved.
+ *
+ * @since 5.2
+ */
+public final class ReserveWorkerDaemonBuildOperationType implements BuildOperationType<ReserveWorkerDaemonBuildOperationType.Details, ReserveWorkerDaemonBuildOperationType.Result> {
+
+    public interface Details {
+        /**
+         * Returns the display name of the work item.
+         */
+        String getDisplayName();
+    }
+
+    public interface Result {
+        /**
+         * Returns the display name of the reserved worker daemon, which is unique within the build process.
+         */
+        String getWorkerDaemonName();
+
+        /**
+         * Returns true when a new worker daemon was started for the work item.
+         */
+        boolean isStartedDaemon();
+
+        /**
+         * Returns the number of running worker daemons.
+         */
+        int getDaemonCount();
+
+        /**
+         * Returns the number of worker daemons that are running work, including the reserved one.
+         */
+        int getBusyDaemonCount();
+
+        /**
+         * Returns the estimated memory used by all worker daemons, in bytes.
+         */
+        long getEstimatedMemoryUsage();
+
+        /**
+         * Returns the memory that all worker daemons may use in total, in bytes, or -1 when unlimited.
+         */
+        long getMemoryBudget();
+    }
+
+    private ReserveWorkerDaemonBuildOperationType() {
+    }
+}
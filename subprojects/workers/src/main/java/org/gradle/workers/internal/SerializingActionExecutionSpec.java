@@ -18,17 +18,35 @@ package org.gradle.workers.internal;
 
 import org.gradle.internal.exceptions.Contextual;
 import org.gradle.internal.io.ClassLoaderObjectInputStream;
+import org.gradle.internal.serialize.Decoder;
+import org.gradle.internal.serialize.Encoder;
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 
 /**
  * Represents an {@link ActionExecutionSpec} that contains constructor parameters.
+ *
+ * Parameters that are all strings, files, booleans, integers, longs or nulls are written using a compact encoding, as these are what most actions take.
+ * Any other parameters are written using Java serialization.
  */
 public class SerializingActionExecutionSpec implements ActionExecutionSpec {
+    private static final byte JAVA_SERIALIZATION = 0;
+    private static final byte COMPACT_ENCODING = 1;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte FILE = 2;
+    private static final byte BOOLEAN = 3;
+    private static final byte INTEGER = 4;
+    private static final byte LONG = 5;
+
     private final String displayName;
     private final Class<? extends Runnable> implementationClass;
     private final byte[] params;
@@ -57,8 +75,17 @@ public class SerializingActionExecutionSpec implements ActionExecutionSpec {
     private byte[] serialize(Object[] params) {
         ByteArrayOutputStream bos = new ByteArrayOutputStream();
         try {
-            ObjectOutputStream oos = new ObjectOutputStream(bos);
-            oos.writeObject(params);
+            if (canUseCompactEncoding(params)) {
+                bos.write(COMPACT_ENCODING);
+                KryoBackedEncoder encoder = new KryoBackedEncoder(bos);
+                writeCompact(params, encoder);
+                encoder.flush();
+            } else {
+                bos.write(JAVA_SERIALIZATION);
+                ObjectOutputStream oos = new ObjectOutputStream(bos);
+                oos.writeObject(params);
+                oos.flush();
+            }
         } catch (IOException e) {
             throw new ParameterSerializationException("Could not serialize parameters", e);
         }
@@ -68,6 +95,9 @@ public class SerializingActionExecutionSpec implements ActionExecutionSpec {
     private Object[] deserialize(ClassLoader classLoader) {
         ByteArrayInputStream bis = new ByteArrayInputStream(params);
         try {
+            if (bis.read() == COMPACT_ENCODING) {
+                return readCompact(new KryoBackedDecoder(bis));
+            }
             ObjectInputStream ois = new ClassLoaderObjectInputStream(bis, classLoader);
             return (Object[])ois.readObject();
         } catch (IOException e) {
@@ -77,6 +107,69 @@ public class SerializingActionExecutionSpec implements ActionExecutionSpec {
         }
     }
 
+    private static boolean canUseCompactEncoding(Object[] params) {
+        for (Object param : params) {
+            // Use the exact type, so that the action receives a parameter of the same type as was submitted
+            if (param != null && param.getClass() != String.class && param.getClass() != File.class && param.getClass() != Boolean.class && param.getClass() != Integer.class && param.getClass() != Long.class) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeCompact(Object[] params, Encoder encoder) throws IOException {
+        encoder.writeSmallInt(params.length);
+        for (Object param : params) {
+            if (param == null) {
+                encoder.writeByte(NULL);
+            } else if (param instanceof String) {
+                encoder.writeByte(STRING);
+                encoder.writeString((String) param);
+            } else if (param instanceof File) {
+                encoder.writeByte(FILE);
+                encoder.writeString(((File) param).getPath());
+            } else if (param instanceof Boolean) {
+                encoder.writeByte(BOOLEAN);
+                encoder.writeBoolean((Boolean) param);
+            } else if (param instanceof Integer) {
+                encoder.writeByte(INTEGER);
+                encoder.writeInt((Integer) param);
+            } else {
+                encoder.writeByte(LONG);
+                encoder.writeLong((Long) param);
+            }
+        }
+    }
+
+    private static Object[] readCompact(Decoder decoder) throws IOException {
+        Object[] params = new Object[decoder.readSmallInt()];
+        for (int i = 0; i < params.length; i++) {
+            byte tag = decoder.readByte();
+            switch (tag) {
+                case NULL:
+                    break;
+                case STRING:
+                    params[i] = decoder.readString();
+                    break;
+                case FILE:
+                    params[i] = new File(decoder.readString());
+                    break;
+                case BOOLEAN:
+                    params[i] = decoder.readBoolean();
+                    break;
+                case INTEGER:
+                    params[i] = decoder.readInt();
+                    break;
+                case LONG:
+                    params[i] = decoder.readLong();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unexpected parameter tag " + tag);
+            }
+        }
+        return params;
+    }
+
     @Contextual
     static class ParameterSerializationException extends RuntimeException {
         ParameterSerializationException(String message, Throwable cause) {
@@ -24,6 +24,7 @@ import org.gradle.process.internal.worker.WorkerProcess;
 
 class WorkerDaemonClient implements Worker, Stoppable {
     public static final String DISABLE_EXPIRATION_PROPERTY_KEY = "org.gradle.workers.internal.disable-daemons-expiration";
+    private final String displayName;
     private final DaemonForkOptions forkOptions;
     private final WorkerDaemonProcess workerDaemonProcess;
     private final WorkerProcess workerProcess;
@@ -32,7 +33,8 @@ class WorkerDaemonClient implements Worker, Stoppable {
     private boolean failed;
     private boolean cannotBeExpired = Boolean.getBoolean(DISABLE_EXPIRATION_PROPERTY_KEY);
 
-    public WorkerDaemonClient(DaemonForkOptions forkOptions, WorkerDaemonProcess workerDaemonProcess, WorkerProcess workerProcess, LogLevel logLevel) {
+    public WorkerDaemonClient(String displayName, DaemonForkOptions forkOptions, WorkerDaemonProcess workerDaemonProcess, WorkerProcess workerProcess, LogLevel logLevel) {
+        this.displayName = displayName;
         this.forkOptions = forkOptions;
         this.workerDaemonProcess = workerDaemonProcess;
         this.workerProcess = workerProcess;
@@ -63,6 +65,10 @@ class WorkerDaemonClient implements Worker, Stoppable {
         workerDaemonProcess.stop();
     }
 
+    public String getDisplayName() {
+        return displayName;
+    }
+
     DaemonForkOptions getForkOptions() {
         return forkOptions;
     }
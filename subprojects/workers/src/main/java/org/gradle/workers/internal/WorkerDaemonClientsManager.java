@@ -32,17 +32,23 @@ import org.gradle.internal.logging.LoggingManagerInternal;
 import org.gradle.internal.logging.events.LogLevelChangeEvent;
 import org.gradle.internal.logging.events.OutputEvent;
 import org.gradle.internal.logging.events.OutputEventListener;
+import org.gradle.process.internal.health.memory.MemoryAmount;
 import org.gradle.process.internal.health.memory.MemoryManager;
 import org.gradle.process.internal.health.memory.OsMemoryInfo;
 import org.gradle.process.internal.worker.WorkerProcess;
 import org.gradle.util.CollectionUtils;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 
 public class WorkerDaemonClientsManager implements Stoppable {
+    /**
+     * The amount of memory that the worker daemons may use in total, as a memory notation such as {@code 8g}. Defaults to half of the physical memory of the machine.
+     */
+    public static final String MEMORY_BUDGET_PROPERTY = "org.gradle.workers.internal.daemon-memory-budget";
 
     private static final Logger LOGGER = Logging.getLogger(WorkerDaemonClientsManager.class);
 
@@ -59,6 +65,8 @@ public class WorkerDaemonClientsManager implements Stoppable {
     private final OutputEventListener logLevelChangeEventListener;
     private final WorkerDaemonExpiration workerDaemonExpiration;
     private final MemoryManager memoryManager;
+    private final WorkerDaemonMemoryEstimator memoryEstimator;
+    private final long memoryBudget;
     private volatile LogLevel currentLogLevel;
 
     public WorkerDaemonClientsManager(WorkerDaemonStarter workerDaemonStarter, ListenerManager listenerManager, LoggingManagerInternal loggingManager, MemoryManager memoryManager, OsMemoryInfo memoryInfo) {
@@ -72,32 +80,91 @@ public class WorkerDaemonClientsManager implements Stoppable {
         loggingManager.addOutputEventListener(logLevelChangeEventListener);
         this.currentLogLevel = loggingManager.getLevel();
         this.memoryManager = memoryManager;
-        this.workerDaemonExpiration = new WorkerDaemonExpiration(this, getTotalPhysicalMemory());
+        long totalPhysicalMemory = getTotalPhysicalMemory();
+        this.memoryEstimator = new WorkerDaemonMemoryEstimator(totalPhysicalMemory);
+        this.memoryBudget = getMemoryBudget(totalPhysicalMemory);
+        this.workerDaemonExpiration = new WorkerDaemonExpiration(this, totalPhysicalMemory);
         memoryManager.addMemoryHolder(workerDaemonExpiration);
     }
 
+    /**
+     * Reserves a client that is compatible with the given options, keeping the estimated memory used by all worker daemons within the memory budget.
+     *
+     * <p>The smallest compatible idle daemon is reused when there is one. Otherwise, a new daemon is started when it fits in the budget, if necessary after stopping
+     * idle daemons that are not compatible. When it does not fit, and a busy daemon is compatible, the work waits for a compatible daemon to become idle.
+     * A new daemon is started regardless of the budget when no daemon could ever become available for the work.</p>
+     */
+    public WorkerDaemonClient reserveClient(Class<? extends WorkerProtocol> workerProtocolImplementationClass, DaemonForkOptions forkOptions) {
+        while (true) {
+            List<WorkerDaemonClient> clientsToStop;
+            synchronized (lock) {
+                WorkerDaemonClient idleClient = reserveIdleClient(forkOptions, idleClients);
+                if (idleClient != null) {
+                    return idleClient;
+                }
+                long requiredMemory = memoryEstimator.getMaximumHeapSize(forkOptions);
+                if (fitsInMemoryBudget(requiredMemory)) {
+                    break;
+                }
+                clientsToStop = removeIdleClientsToRelease(getEstimatedMemoryUsage() + requiredMemory - memoryBudget);
+                if (clientsToStop.isEmpty()) {
+                    if (!hasBusyClientCompatibleWith(forkOptions)) {
+                        break;
+                    }
+                    LOGGER.debug("Waiting for a busy worker daemon as starting a new worker daemon would exceed the worker daemon memory budget.");
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        throw UncheckedException.throwAsUncheckedException(e);
+                    }
+                    continue;
+                }
+            }
+            // Do not hold the lock while stopping the daemons, as this waits for the daemon processes to exit
+            stopWorkers(clientsToStop);
+        }
+        return reserveNewClient(workerProtocolImplementationClass, forkOptions);
+    }
+
     // TODO - should supply and check for the same parameters as passed to reserveNewClient()
     public WorkerDaemonClient reserveIdleClient(DaemonForkOptions forkOptions) {
         return reserveIdleClient(forkOptions, idleClients);
     }
 
+    /**
+     * Reserves the compatible client with the smallest heap, leaving larger clients available for work that requires them.
+     */
     WorkerDaemonClient reserveIdleClient(DaemonForkOptions forkOptions, List<WorkerDaemonClient> clients) {
         synchronized (lock) {
+            WorkerDaemonClient bestCandidate = null;
+            long bestCandidateHeapSize = 0;
             Iterator<WorkerDaemonClient> it = clients.iterator();
             while (it.hasNext()) {
                 WorkerDaemonClient candidate = it.next();
                 if (candidate.isCompatibleWith(forkOptions)) {
-                    it.remove();
                     if (candidate.getLogLevel() != currentLogLevel) {
+                        it.remove();
                         // TODO: Send a message to workers to change their log level rather than stopping
                         LOGGER.info("Log level has changed, stopping idle worker daemon with out-of-date log level.");
                         candidate.stop();
-                    } else {
-                        return candidate;
+                        continue;
+                    }
+                    if (bestCandidate == null) {
+                        bestCandidate = candidate;
+                        bestCandidateHeapSize = memoryEstimator.getMaximumHeapSize(candidate.getForkOptions());
+                        continue;
+                    }
+                    long heapSize = memoryEstimator.getMaximumHeapSize(candidate.getForkOptions());
+                    if (heapSize < bestCandidateHeapSize) {
+                        bestCandidate = candidate;
+                        bestCandidateHeapSize = heapSize;
                     }
                 }
             }
-            return null;
+            if (bestCandidate != null) {
+                clients.remove(bestCandidate);
+            }
+            return bestCandidate;
         }
     }
 
@@ -115,13 +182,82 @@ public class WorkerDaemonClientsManager implements Stoppable {
             if (!client.isFailed()) {
                 idleClients.add(client);
             }
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * The number of worker daemons that are running.
+     */
+    public int getDaemonCount() {
+        synchronized (lock) {
+            return allClients.size();
+        }
+    }
+
+    /**
+     * The number of worker daemons that are running work.
+     */
+    public int getBusyDaemonCount() {
+        synchronized (lock) {
+            return allClients.size() - idleClients.size();
+        }
+    }
+
+    /**
+     * The estimated memory used by all worker daemons.
+     */
+    public long getEstimatedMemoryUsage() {
+        synchronized (lock) {
+            long memoryUsage = 0;
+            for (WorkerDaemonClient client : allClients) {
+                memoryUsage += memoryEstimator.getMemoryUsage(client);
+            }
+            return memoryUsage;
         }
     }
 
+    /**
+     * The utilization of the worker daemons, with all values read at the same point in time.
+     */
+    public Utilization getUtilization() {
+        synchronized (lock) {
+            return new Utilization(allClients.size(), allClients.size() - idleClients.size(), getEstimatedMemoryUsage(), memoryBudget);
+        }
+    }
+
+    /**
+     * The memory that all worker daemons may use in total, or -1 when unlimited.
+     */
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    private boolean fitsInMemoryBudget(long requiredMemory) {
+        return memoryBudget < 0 || allClients.isEmpty() || getEstimatedMemoryUsage() + requiredMemory <= memoryBudget;
+    }
+
+    private boolean hasBusyClientCompatibleWith(DaemonForkOptions forkOptions) {
+        for (WorkerDaemonClient client : allClients) {
+            if (!idleClients.contains(client) && client.isCompatibleWith(forkOptions)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<WorkerDaemonClient> removeIdleClientsToRelease(long memoryToRelease) {
+        if (idleClients.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return removeIdleClients(workerDaemonExpiration.selectClientsToRelease(memoryToRelease));
+    }
+
     @Override
     public void stop() {
+        List<WorkerDaemonClient> clientsToStop;
         synchronized (lock) {
-            stopWorkers(allClients);
+            clientsToStop = new ArrayList<WorkerDaemonClient>(allClients);
             allClients.clear();
             idleClients.clear();
             listenerManager.removeListener(stopSessionScopeWorkers);
@@ -129,6 +265,15 @@ public class WorkerDaemonClientsManager implements Stoppable {
         }
         // Do not hold lock while removing listener, as the listener may still be receiving events on another thread and will need to acquire the lock to handle these events
         loggingManager.removeOutputEventListener(logLevelChangeEventListener);
+        stopWorkers(clientsToStop);
+    }
+
+    private static long getMemoryBudget(long totalPhysicalMemory) {
+        String budget = System.getProperty(MEMORY_BUDGET_PROPERTY);
+        if (budget != null) {
+            return MemoryAmount.parseNotation(budget);
+        }
+        return totalPhysicalMemory == -1 ? -1 : totalPhysicalMemory / 2;
     }
 
     private long getTotalPhysicalMemory() {
@@ -145,18 +290,32 @@ public class WorkerDaemonClientsManager implements Stoppable {
      * @param selectionFunction Gets all idle daemon clients, daemons of returned clients are stopped
      */
     public void selectIdleClientsToStop(Transformer<List<WorkerDaemonClient>, List<WorkerDaemonClient>> selectionFunction) {
+        List<WorkerDaemonClient> clientsToStop;
         synchronized (lock) {
-            List<WorkerDaemonClient> sortedClients = CollectionUtils.sort(idleClients, new Comparator<WorkerDaemonClient>() {
-                @Override
-                public int compare(WorkerDaemonClient o1, WorkerDaemonClient o2) {
-                    return Integer.compare(o1.getUses(), o2.getUses());
-                }
-            });
-            List<WorkerDaemonClient> clientsToStop = selectionFunction.transform(new ArrayList<WorkerDaemonClient>(sortedClients));
-            if (!clientsToStop.isEmpty()) {
-                stopWorkers(clientsToStop);
+            clientsToStop = removeIdleClients(selectionFunction);
+        }
+        // Do not hold the lock while stopping the daemons, as this waits for the daemon processes to exit
+        stopWorkers(clientsToStop);
+    }
+
+    /**
+     * Removes the selected idle clients from the pool, so that they can be stopped without holding the lock.
+     */
+    private List<WorkerDaemonClient> removeIdleClients(Transformer<List<WorkerDaemonClient>, List<WorkerDaemonClient>> selectionFunction) {
+        List<WorkerDaemonClient> sortedClients = CollectionUtils.sort(idleClients, new Comparator<WorkerDaemonClient>() {
+            @Override
+            public int compare(WorkerDaemonClient o1, WorkerDaemonClient o2) {
+                return Integer.compare(o1.getUses(), o2.getUses());
             }
+        });
+        List<WorkerDaemonClient> clientsToStop = selectionFunction.transform(new ArrayList<WorkerDaemonClient>(sortedClients));
+        if (!clientsToStop.isEmpty()) {
+            idleClients.removeAll(clientsToStop);
+            allClients.removeAll(clientsToStop);
+            // Work waiting for a daemon may now fit in the memory budget
+            lock.notifyAll();
         }
+        return clientsToStop;
     }
 
     private void stopWorkers(List<WorkerDaemonClient> clientsToStop) {
@@ -171,8 +330,6 @@ public class WorkerDaemonClientsManager implements Stoppable {
                     failures.add(e);
                 }
             }
-            idleClients.removeAll(clientsToStop);
-            allClients.removeAll(clientsToStop);
             if (!failures.isEmpty()) {
                 if (failures.size() == 1) {
                     throw UncheckedException.throwAsUncheckedException(failures.get(0));
@@ -185,21 +342,54 @@ public class WorkerDaemonClientsManager implements Stoppable {
         }
     }
 
+    public static class Utilization {
+        private final int daemonCount;
+        private final int busyDaemonCount;
+        private final long estimatedMemoryUsage;
+        private final long memoryBudget;
+
+        Utilization(int daemonCount, int busyDaemonCount, long estimatedMemoryUsage, long memoryBudget) {
+            this.daemonCount = daemonCount;
+            this.busyDaemonCount = busyDaemonCount;
+            this.estimatedMemoryUsage = estimatedMemoryUsage;
+            this.memoryBudget = memoryBudget;
+        }
+
+        public int getDaemonCount() {
+            return daemonCount;
+        }
+
+        public int getBusyDaemonCount() {
+            return busyDaemonCount;
+        }
+
+        public long getEstimatedMemoryUsage() {
+            return estimatedMemoryUsage;
+        }
+
+        public long getMemoryBudget() {
+            return memoryBudget;
+        }
+    }
+
     private class StopSessionScopedWorkers implements SessionLifecycleListener {
         @Override
         public void afterStart() { }
 
         @Override
         public void beforeComplete() {
+            List<WorkerDaemonClient> sessionScopedClients;
             synchronized (lock) {
-                List<WorkerDaemonClient> sessionScopedClients = CollectionUtils.filter(allClients, new Spec<WorkerDaemonClient>() {
+                sessionScopedClients = CollectionUtils.filter(allClients, new Spec<WorkerDaemonClient>() {
                     @Override
                     public boolean isSatisfiedBy(WorkerDaemonClient client) {
                         return client.getKeepAliveMode() == KeepAliveMode.SESSION;
                     }
                 });
-                stopWorkers(sessionScopedClients);
+                idleClients.removeAll(sessionScopedClients);
+                allClients.removeAll(sessionScopedClients);
             }
+            stopWorkers(sessionScopedClients);
         }
     }
 
@@ -225,6 +415,8 @@ public class WorkerDaemonClientsManager implements Stoppable {
                         iterator.remove();
                     }
                 }
+                // Work waiting for a daemon may now fit in the memory budget
+                lock.notifyAll();
             }
         }
     }
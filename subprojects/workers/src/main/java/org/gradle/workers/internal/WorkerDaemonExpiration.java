@@ -19,8 +19,6 @@ package org.gradle.workers.internal;
 import org.gradle.api.Transformer;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
-import org.gradle.process.internal.health.memory.MaximumHeapHelper;
-import org.gradle.process.internal.health.memory.MemoryAmount;
 import org.gradle.process.internal.health.memory.MemoryHolder;
 
 import java.util.ArrayList;
@@ -31,11 +29,11 @@ public class WorkerDaemonExpiration implements MemoryHolder {
     private static final Logger LOGGER = Logging.getLogger(WorkerDaemonExpiration.class);
 
     private final WorkerDaemonClientsManager clientsManager;
-    private final long osTotalMemory;
+    private final WorkerDaemonMemoryEstimator memoryEstimator;
 
     public WorkerDaemonExpiration(WorkerDaemonClientsManager clientsManager, long osTotalMemory) {
         this.clientsManager = clientsManager;
-        this.osTotalMemory = osTotalMemory;
+        this.memoryEstimator = new WorkerDaemonMemoryEstimator(osTotalMemory);
     }
 
     @Override
@@ -49,6 +47,13 @@ public class WorkerDaemonExpiration implements MemoryHolder {
         return selector.getReleasedBytes();
     }
 
+    /**
+     * Returns a function that selects the idle daemon clients to stop to release the given amount of memory.
+     */
+    Transformer<List<WorkerDaemonClient>, List<WorkerDaemonClient>> selectClientsToRelease(long memoryAmountBytes) {
+        return new SimpleMemoryExpirationSelector(memoryAmountBytes);
+    }
+
     /**
      * Simple implementation of memory based expiration.
      *
@@ -78,7 +83,7 @@ public class WorkerDaemonExpiration implements MemoryHolder {
                     continue;
                 }
                 toExpire.add(idleClient);
-                long freed = getMemoryUsage(idleClient);
+                long freed = memoryEstimator.getMemoryUsage(idleClient);
                 releasedBytes += freed;
                 if (releasedBytes >= memoryBytesToRelease) {
                     break;
@@ -93,34 +98,5 @@ public class WorkerDaemonExpiration implements MemoryHolder {
             }
             return toExpire;
         }
-
-        private long getMemoryUsage(WorkerDaemonClient idleClient) {
-            // prefer to use the actual memory usage reported by the worker
-            try {
-                return idleClient.getJvmMemoryStatus().getCommittedMemory();
-            } catch (UnsupportedOperationException e) {
-                // This means the client does not support reporting jvm memory info
-            } catch (IllegalStateException e) {
-                // This means the client has not reported memory usage yet
-            }
-
-            // if the worker has not reported memory usage yet for some reason, or does not support it,
-            // use the max heap as an approximation
-            String forkOptionsMaxHeapSize = idleClient.getForkOptions().getJavaForkOptions().getMaxHeapSize();
-            long parsed = MemoryAmount.parseNotation(forkOptionsMaxHeapSize);
-            if (parsed != -1) {
-                // From fork options
-                return parsed;
-            }
-
-            // If we don't know what the max heap is, approximate it based on OS total memory
-            // according to JVM documentation
-            if (osTotalMemory != -1) {
-                return new MaximumHeapHelper().getDefaultMaximumHeapSize(osTotalMemory);
-            }
-
-            // If we get here, we have no idea how much memory the worker is using
-            return 0;
-        }
     }
 }
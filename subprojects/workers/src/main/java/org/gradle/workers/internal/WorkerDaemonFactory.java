@@ -17,8 +17,11 @@
 package org.gradle.workers.internal;
 
 import net.jcip.annotations.ThreadSafe;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
 import org.gradle.internal.operations.BuildOperationExecutor;
 import org.gradle.internal.operations.BuildOperationRef;
+import org.gradle.internal.operations.CallableBuildOperation;
 import org.gradle.workers.IsolationMode;
 
 /**
@@ -39,7 +42,7 @@ public class WorkerDaemonFactory implements WorkerFactory {
         return new AbstractWorker(buildOperationExecutor) {
             @Override
             public DefaultWorkResult execute(ActionExecutionSpec spec, BuildOperationRef parentBuildOperation) {
-                final WorkerDaemonClient client = reserveClient();
+                final WorkerDaemonClient client = reserveClient(spec, parentBuildOperation);
                 try {
                     return executeWrappedInBuildOperation(spec, parentBuildOperation, new Work() {
                         @Override
@@ -52,12 +55,23 @@ public class WorkerDaemonFactory implements WorkerFactory {
                 }
             }
 
-            private WorkerDaemonClient reserveClient() {
-                WorkerDaemonClient client = clientsManager.reserveIdleClient(forkOptions);
-                if (client == null) {
-                    client = clientsManager.reserveNewClient(WorkerDaemonServer.class, forkOptions);
-                }
-                return client;
+            private WorkerDaemonClient reserveClient(final ActionExecutionSpec spec, final BuildOperationRef parentBuildOperation) {
+                return buildOperationExecutor.call(new CallableBuildOperation<WorkerDaemonClient>() {
+                    @Override
+                    public WorkerDaemonClient call(BuildOperationContext context) {
+                        WorkerDaemonClient client = clientsManager.reserveClient(WorkerDaemonServer.class, forkOptions);
+                        // A client that has not run any work yet has just been started
+                        context.setResult(new ReserveResult(client.getDisplayName(), client.getUses() == 0, clientsManager.getUtilization()));
+                        return client;
+                    }
+
+                    @Override
+                    public BuildOperationDescriptor.Builder description() {
+                        return BuildOperationDescriptor.displayName("Reserve worker daemon for " + spec.getDisplayName())
+                            .parent(parentBuildOperation)
+                            .details(new ReserveDetails(spec.getDisplayName()));
+                    }
+                });
             }
         };
     }
@@ -66,4 +80,65 @@ public class WorkerDaemonFactory implements WorkerFactory {
     public IsolationMode getIsolationMode() {
         return IsolationMode.PROCESS;
     }
+
+    private static class ReserveDetails implements ReserveWorkerDaemonBuildOperationType.Details {
+        private final String displayName;
+
+        ReserveDetails(String displayName) {
+            this.displayName = displayName;
+        }
+
+        @Override
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private static class ReserveResult implements ReserveWorkerDaemonBuildOperationType.Result {
+        private final String workerDaemonName;
+        private final boolean startedDaemon;
+        private final int daemonCount;
+        private final int busyDaemonCount;
+        private final long estimatedMemoryUsage;
+        private final long memoryBudget;
+
+        ReserveResult(String workerDaemonName, boolean startedDaemon, WorkerDaemonClientsManager.Utilization utilization) {
+            this.workerDaemonName = workerDaemonName;
+            this.startedDaemon = startedDaemon;
+            this.daemonCount = utilization.getDaemonCount();
+            this.busyDaemonCount = utilization.getBusyDaemonCount();
+            this.estimatedMemoryUsage = utilization.getEstimatedMemoryUsage();
+            this.memoryBudget = utilization.getMemoryBudget();
+        }
+
+        @Override
+        public String getWorkerDaemonName() {
+            return workerDaemonName;
+        }
+
+        @Override
+        public boolean isStartedDaemon() {
+            return startedDaemon;
+        }
+
+        @Override
+        public int getDaemonCount() {
+            return daemonCount;
+        }
+
+        @Override
+        public int getBusyDaemonCount() {
+            return busyDaemonCount;
+        }
+
+        @Override
+        public long getEstimatedMemoryUsage() {
+            return estimatedMemoryUsage;
+        }
+
+        @Override
+        public long getMemoryBudget() {
+            return memoryBudget;
+        }
+    }
 }
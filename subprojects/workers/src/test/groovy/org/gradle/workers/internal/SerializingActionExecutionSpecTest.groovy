@@ -0,0 +1,63 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.workers.internal
+
+import groovy.transform.EqualsAndHashCode
+import spock.lang.Specification
+
+class SerializingActionExecutionSpecTest extends Specification {
+    def "round trips parameters of common types"() {
+        def longString = "x" * 100000
+        Object[] params = ["value", new File("some/file"), true, 12, 123L, null, longString]
+
+        when:
+        def spec = new SerializingActionExecutionSpec(TestRunnable, "test", params)
+
+        then:
+        spec.getParams(getClass().classLoader) == params
+        spec.getParams(getClass().classLoader).collect { it?.getClass() } == params.collect { it?.getClass() }
+    }
+
+    def "round trips parameters of other types"() {
+        Object[] params = ["value", ["a", "b"], new TestParameter(name: "param"), 12]
+
+        when:
+        def spec = new SerializingActionExecutionSpec(TestRunnable, "test", params)
+
+        then:
+        spec.getParams(getClass().classLoader) == params
+    }
+
+    def "round trips no parameters"() {
+        when:
+        def spec = new SerializingActionExecutionSpec(TestRunnable, "test", [] as Object[])
+
+        then:
+        spec.getParams(getClass().classLoader) == [] as Object[]
+    }
+
+    static class TestRunnable implements Runnable {
+        @Override
+        void run() {
+        }
+    }
+
+    @EqualsAndHashCode
+    static class TestParameter implements Serializable {
+        String name
+    }
+}
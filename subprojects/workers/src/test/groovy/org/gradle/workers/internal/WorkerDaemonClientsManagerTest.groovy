@@ -26,12 +26,19 @@ import org.gradle.internal.logging.LoggingManagerInternal
 import org.gradle.internal.logging.events.LogLevelChangeEvent
 import org.gradle.internal.logging.events.OutputEventListener
 import org.gradle.process.internal.ExecException
+import org.gradle.process.JavaForkOptions
+import org.gradle.process.internal.health.memory.JvmMemoryStatus
 import org.gradle.process.internal.health.memory.MBeanOsMemoryInfo
+import org.gradle.process.internal.health.memory.MemoryAmount
 import org.gradle.process.internal.health.memory.MemoryManager
 import org.gradle.util.ConcurrentSpecification
+import org.gradle.util.SetSystemProperties
+import org.junit.Rule
 import spock.lang.Subject
+import spock.util.concurrent.PollingConditions
 
 class WorkerDaemonClientsManagerTest extends ConcurrentSpecification {
+    @Rule SetSystemProperties systemProperties = new SetSystemProperties()
 
     def workingDir = new File("some-dir")
 
@@ -68,6 +75,131 @@ class WorkerDaemonClientsManagerTest extends ConcurrentSpecification {
         input == [noMatch] //match removed from input
     }
 
+    def "reserves the compatible idle client with the smallest heap"() {
+        def large = Stub(WorkerDaemonClient) {
+            isCompatibleWith(_) >> true
+            getForkOptions() >> forkOptions("2g")
+        }
+        def small = Stub(WorkerDaemonClient) {
+            isCompatibleWith(_) >> true
+            getForkOptions() >> forkOptions("512m")
+        }
+        def input = [large, small]
+
+        expect:
+        manager.reserveIdleClient(options, input) == small
+        input == [large]
+    }
+
+    def "reserves idle client in preference to starting a new client"() {
+        def client = idleClientUsing("1g", true)
+        starter.startDaemon(serverImpl.class, options, _) >> client
+        manager.reserveNewClient(serverImpl.class, options)
+        manager.release(client)
+
+        expect:
+        manager.reserveClient(serverImpl.class, options) == client
+    }
+
+    def "starts new client when it fits in the memory budget"() {
+        System.setProperty(WorkerDaemonClientsManager.MEMORY_BUDGET_PROPERTY, "2g")
+        manager = new WorkerDaemonClientsManager(starter, listenerManager, loggingManager, memoryManager, new MBeanOsMemoryInfo())
+        def busy = idleClientUsing("1g", true)
+        def newClient = Stub(WorkerDaemonClient)
+        starter.startDaemon(serverImpl.class, _, _) >>> [busy, newClient]
+        manager.reserveNewClient(serverImpl.class, options)
+
+        expect:
+        manager.reserveClient(serverImpl.class, requiring("512m")) == newClient
+        manager.daemonCount == 2
+        manager.busyDaemonCount == 2
+    }
+
+    def "stops incompatible idle clients to keep within the memory budget"() {
+        System.setProperty(WorkerDaemonClientsManager.MEMORY_BUDGET_PROPERTY, "2g")
+        manager = new WorkerDaemonClientsManager(starter, listenerManager, loggingManager, memoryManager, new MBeanOsMemoryInfo())
+        def idle = Mock(WorkerDaemonClient) {
+            _ * isCompatibleWith(_) >> false
+            _ * getJvmMemoryStatus() >> memoryStatus("1536m")
+        }
+        def newClient = Stub(WorkerDaemonClient)
+        starter.startDaemon(serverImpl.class, _, _) >>> [idle, newClient]
+        manager.reserveNewClient(serverImpl.class, options)
+        manager.release(idle)
+
+        when:
+        def client = manager.reserveClient(serverImpl.class, requiring("1g"))
+
+        then:
+        client == newClient
+        1 * idle.stop()
+    }
+
+    def "does not hold the lock while stopping idle clients to keep within the memory budget"() {
+        System.setProperty(WorkerDaemonClientsManager.MEMORY_BUDGET_PROPERTY, "2g")
+        manager = new WorkerDaemonClientsManager(starter, listenerManager, loggingManager, memoryManager, new MBeanOsMemoryInfo())
+        def idle = Mock(WorkerDaemonClient) {
+            _ * isCompatibleWith(_) >> false
+            _ * getJvmMemoryStatus() >> memoryStatus("1536m")
+        }
+        def newClient = Stub(WorkerDaemonClient)
+        starter.startDaemon(serverImpl.class, _, _) >>> [idle, newClient]
+        manager.reserveNewClient(serverImpl.class, options)
+        manager.release(idle)
+        def daemonCountWhileStopping = null
+
+        when:
+        def client = manager.reserveClient(serverImpl.class, requiring("1g"))
+
+        then:
+        client == newClient
+        1 * idle.stop() >> {
+            def thread = Thread.start {
+                daemonCountWhileStopping = manager.daemonCount
+            }
+            thread.join(10000)
+        }
+
+        and:
+        daemonCountWhileStopping == 0
+        manager.daemonCount == 1
+    }
+
+    def "starts new client exceeding the memory budget when no busy client is compatible"() {
+        System.setProperty(WorkerDaemonClientsManager.MEMORY_BUDGET_PROPERTY, "1g")
+        manager = new WorkerDaemonClientsManager(starter, listenerManager, loggingManager, memoryManager, new MBeanOsMemoryInfo())
+        def busy = idleClientUsing("1g", false)
+        def newClient = Stub(WorkerDaemonClient)
+        starter.startDaemon(serverImpl.class, _, _) >>> [busy, newClient]
+        manager.reserveNewClient(serverImpl.class, options)
+
+        expect:
+        manager.reserveClient(serverImpl.class, requiring("1g")) == newClient
+    }
+
+    def "waits for a compatible busy client when a new client would exceed the memory budget"() {
+        System.setProperty(WorkerDaemonClientsManager.MEMORY_BUDGET_PROPERTY, "1g")
+        manager = new WorkerDaemonClientsManager(starter, listenerManager, loggingManager, memoryManager, new MBeanOsMemoryInfo())
+        def busy = idleClientUsing("1g", true)
+        starter.startDaemon(serverImpl.class, _, _) >> busy
+        manager.reserveNewClient(serverImpl.class, options)
+        def reserved = null
+
+        when:
+        def thread = Thread.start {
+            reserved = manager.reserveClient(serverImpl.class, requiring("1g"))
+        }
+        new PollingConditions().eventually {
+            assert thread.state == Thread.State.WAITING
+        }
+        manager.release(busy)
+        thread.join()
+
+        then:
+        reserved == busy
+        manager.daemonCount == 1
+    }
+
     def "reserves new client"() {
         def newClient = Stub(WorkerDaemonClient)
         starter.startDaemon(serverImpl.class, options, _) >> newClient
@@ -306,4 +438,30 @@ class WorkerDaemonClientsManagerTest extends ConcurrentSpecification {
         then:
         1 * memoryManager.removeMemoryHolder(_) >> { args -> assert args[0] == workerDaemonExpiration }
     }
+
+    def idleClientUsing(String committedMemory, boolean compatible) {
+        return Stub(WorkerDaemonClient) {
+            isCompatibleWith(_) >> compatible
+            getJvmMemoryStatus() >> memoryStatus(committedMemory)
+        }
+    }
+
+    def memoryStatus(String committedMemory) {
+        return Stub(JvmMemoryStatus) {
+            getCommittedMemory() >> MemoryAmount.parseNotation(committedMemory)
+        }
+    }
+
+    def requiring(String maxHeapSize) {
+        return forkOptions(maxHeapSize)
+    }
+
+    def forkOptions(String maxHeapSize) {
+        def javaForkOptions = Stub(JavaForkOptions) {
+            getMaxHeapSize() >> maxHeapSize
+        }
+        return Stub(DaemonForkOptions) {
+            getJavaForkOptions() >> javaForkOptions
+        }
+    }
 }
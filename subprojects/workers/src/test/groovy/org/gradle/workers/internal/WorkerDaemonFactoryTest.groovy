@@ -34,9 +34,11 @@ class WorkerDaemonFactoryTest extends Specification {
     def workingDir = new File("some-dir")
     def options = Stub(DaemonForkOptions)
     def spec = Stub(ActionExecutionSpec)
+    def utilization = new WorkerDaemonClientsManager.Utilization(1, 1, 0, -1)
 
     def setup() {
         _ * buildOperationExecutor.getCurrentOperation() >> buildOperation
+        _ * clientsManager.getUtilization() >> { utilization }
     }
 
     def "getting a worker daemon does not assume client use"() {
@@ -47,15 +49,13 @@ class WorkerDaemonFactoryTest extends Specification {
         0 * clientsManager._
     }
 
-    def "new client is created when daemon is executed and no idle clients found"() {
+    def "reserves client before executing work"() {
         when:
         factory.getWorker(options).execute(spec)
 
         then:
-        1 * clientsManager.reserveIdleClient(options) >> null
-
-        then:
-        1 * clientsManager.reserveNewClient(WorkerDaemonServer.class, options) >> client
+        1 * buildOperationExecutor.call(_) >> { args -> args[0].call(Stub(BuildOperationContext)) }
+        1 * clientsManager.reserveClient(WorkerDaemonServer.class, options) >> client
 
         then:
         1 * buildOperationExecutor.call(_) >> { args -> args[0].call(Stub(BuildOperationContext)) }
@@ -65,19 +65,31 @@ class WorkerDaemonFactoryTest extends Specification {
         1 * clientsManager.release(client)
     }
 
-    def "idle client is reused when daemon is executed"() {
+    def "reports worker daemon pool utilization when client is reserved"() {
+        def context = Mock(BuildOperationContext)
+        def result = null
+        utilization = new WorkerDaemonClientsManager.Utilization(3, 2, 1024, 4096)
+
         when:
         factory.getWorker(options).execute(spec)
 
         then:
-        1 * clientsManager.reserveIdleClient(options) >> client
-
-        then:
-        1 * buildOperationExecutor.call(_) >> { args -> args[0].call(Stub(BuildOperationContext)) }
-        1 * client.execute(spec) >> new DefaultWorkResult(true, null)
-
-        then:
-        1 * clientsManager.release(client)
+        1 * buildOperationExecutor.call(_) >> { args -> args[0].call(context) }
+        1 * clientsManager.reserveClient(WorkerDaemonServer.class, options) >> client
+        _ * client.getUses() >> uses
+        1 * context.setResult(_) >> { args -> result = args[0] }
+
+        and:
+        result.startedDaemon == startedDaemon
+        result.daemonCount == 3
+        result.busyDaemonCount == 2
+        result.estimatedMemoryUsage == 1024
+        result.memoryBudget == 4096
+
+        where:
+        uses | startedDaemon
+        0    | true
+        4    | false
     }
 
     def "client is released even if execution fails"() {
@@ -85,7 +97,8 @@ class WorkerDaemonFactoryTest extends Specification {
         factory.getWorker(options).execute(spec)
 
         then:
-        1 * clientsManager.reserveIdleClient(options) >> client
+        1 * buildOperationExecutor.call(_) >> { args -> args[0].call(Stub(BuildOperationContext)) }
+        1 * clientsManager.reserveClient(WorkerDaemonServer.class, options) >> client
 
         then:
         1 * buildOperationExecutor.call(_) >> { args -> args[0].call() }
@@ -96,21 +109,15 @@ class WorkerDaemonFactoryTest extends Specification {
         1 * clientsManager.release(client)
     }
 
-    def "build operation is started and finished when client is executed"() {
+    def "build worker operation is finished even if worker fails"() {
         when:
         factory.getWorker(options).execute(spec)
 
         then:
-        1 * clientsManager.reserveIdleClient(options) >> client
-        1 * buildOperationExecutor.call(_)
-    }
-
-    def "build worker operation is finished even if worker fails"() {
-        when:
-        factory.getWorker(options).execute(spec)
+        1 * buildOperationExecutor.call(_) >> { args -> args[0].call(Stub(BuildOperationContext)) }
+        1 * clientsManager.reserveClient(WorkerDaemonServer.class, options) >> client
 
         then:
-        1 * clientsManager.reserveIdleClient(options) >> client
         1 * buildOperationExecutor.call(_) >> { args -> args[0].call() }
         1 * client.execute(spec) >> { throw new RuntimeException("Boo!") }
 